@@ -2,6 +2,7 @@ plugins {
     java
     id("io.papermc.paperweight.userdev") version "2.0.0-beta.18"
     id("io.github.goooler.shadow") version "8.1.8"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "cat.nyaa"
@@ -35,12 +36,31 @@ dependencies {
     testImplementation("org.yaml:snakeyaml:2.2")
 }
 
+// Benchmarks (src/jmh/java) run against the same server API the plugin compiles against
+configurations.named("jmhImplementation") {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+// Run with ./gradlew jmh [-Pjmh.includes=<regex>]; results go to build/results/jmh/results.json
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    findProperty("jmh.includes")?.let { includes.set(listOf(it.toString())) }
+}
+
 tasks {
     compileJava {
         options.encoding = "UTF-8"
         options.release.set(21)
     }
 
+    named<JavaCompile>("compileJmhJava") {
+        options.encoding = "UTF-8"
+    }
+
     processResources {
         val props = mapOf(
             "version" to project.version,
@@ -0,0 +1,47 @@
+package cat.nyaa.survivors.i18n;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * I18nService message formatting: rendering a compiled {@link MessageTemplate} with named
+ * arguments, and turning the result into a Component, for a typical scoreboard line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MessageTemplateBenchmark {
+
+    private static final String MESSAGE = "&7金币 &f{total} &8(&a+{run}&8)";
+
+    private static final LegacyComponentSerializer SERIALIZER =
+            LegacyComponentSerializer.builder().character('§').hexColors().build();
+
+    private MessageTemplate template;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        template = MessageTemplate.compile(MESSAGE);
+    }
+
+    @Benchmark
+    public MessageTemplate compile() {
+        return MessageTemplate.compile(MESSAGE);
+    }
+
+    @Benchmark
+    public String render() {
+        int i = counter++;
+        return template.render("total", 1000 + (i & 255), "run", i & 31);
+    }
+
+    @Benchmark
+    public Component renderComponent() {
+        int i = counter++;
+        return SERIALIZER.deserialize(template.render("total", 1000 + (i & 255), "run", i & 31));
+    }
+}
@@ -0,0 +1,55 @@
+package cat.nyaa.survivors.service;
+
+import cat.nyaa.survivors.model.PlayerState;
+import cat.nyaa.survivors.model.PlayerStats;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player record serialization as done by the player stores: {@link PersistenceService.PlayerStateData}
+ * to JSON and back, with the pretty (per-file store) and compact (log store) Gson settings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PlayerStateDataBenchmark {
+
+    @Param({"true", "false"})
+    public boolean pretty;
+
+    private Gson gson;
+    private PlayerState player;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        gson = PersistenceService.createGson(pretty);
+
+        player = new PlayerState(UUID.randomUUID(), "BenchmarkPlayer");
+        player.setPermaScore(12_345);
+        player.setBalance(678);
+        PlayerStats stats = player.getStats();
+        stats.addRunTime(36_000);
+        stats.addDamageDealt(123_456.5);
+        stats.addDamageTaken(7_890.25);
+        for (int i = 0; i < 50; i++) {
+            stats.incrementTotalKills();
+            stats.incrementRunCount();
+        }
+
+        json = gson.toJson(PersistenceService.PlayerStateData.fromPlayerState(player));
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(PersistenceService.PlayerStateData.fromPlayerState(player));
+    }
+
+    @Benchmark
+    public PlayerState deserialize() {
+        return gson.fromJson(json, PersistenceService.PlayerStateData.class).toPlayerState();
+    }
+}
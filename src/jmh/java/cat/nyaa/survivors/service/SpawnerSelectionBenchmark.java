@@ -0,0 +1,126 @@
+package cat.nyaa.survivors.service;
+
+import cat.nyaa.survivors.config.ConfigService.EnemyArchetypeConfig;
+import cat.nyaa.survivors.service.spawner.ArchetypeSampler;
+import cat.nyaa.survivors.service.spawner.SpawnPlan;
+import cat.nyaa.survivors.service.spawner.SpawnPlanQueue;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spawner planning helpers: weighted archetype selection (filter-and-scan versus the compiled
+ * alias-table sampler) and one spawn tick's plan handoff through {@link SpawnPlanQueue}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SpawnerSelectionBenchmark {
+
+    @Param({"8", "64"})
+    public int archetypeCount;
+
+    @Param({"4", "16"})
+    public int players;
+
+    private List<EnemyArchetypeConfig> archetypes;
+    private ArchetypeSampler sampler;
+    private List<List<SpawnPlan>> plansPerPlayer;
+    private SpawnPlanQueue planQueue;
+    private long generation;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        archetypes = new ArrayList<>();
+        for (int i = 0; i < archetypeCount; i++) {
+            EnemyArchetypeConfig archetype = new EnemyArchetypeConfig();
+            archetype.archetypeId = "archetype_" + i;
+            archetype.enemyType = "zombie";
+            archetype.weight = 1 + (i % 5) * 2.5;
+            archetype.minSpawnLevel = 1 + (i % 10) * 3;
+            archetype.allowedWorlds = i % 4 == 0 ? List.of("arena_" + (i % 3)) : List.of("any");
+            archetypes.add(archetype);
+        }
+
+        Map<String, EnemyArchetypeConfig> byId = new HashMap<>();
+        for (EnemyArchetypeConfig archetype : archetypes) {
+            byId.put(archetype.archetypeId, archetype);
+        }
+        sampler = ArchetypeSampler.compile(byId);
+
+        // Uneven plan counts per player, as when some players have no valid spawn points
+        UUID runId = UUID.randomUUID();
+        plansPerPlayer = new ArrayList<>();
+        for (int p = 0; p < players; p++) {
+            UUID playerId = UUID.randomUUID();
+            List<SpawnPlan> plans = new ArrayList<>();
+            for (int i = 0; i < 2 + (p % 5); i++) {
+                plans.add(new SpawnPlan(playerId, runId, "arena_1", new Location(null, p * 32, 64, i), archetypes.get(0), 1));
+            }
+            plansPerPlayer.add(plans);
+        }
+        planQueue = new SpawnPlanQueue();
+    }
+
+    @Benchmark
+    public EnemyArchetypeConfig selectArchetype() {
+        int level = 1 + (counter++ % 30);
+        List<EnemyArchetypeConfig> eligible = filterEligibleArchetypes(archetypes, level, "arena_1");
+        if (eligible.isEmpty()) return null;
+        return pickWeightedArchetype(eligible, ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Benchmark
+    public EnemyArchetypeConfig selectArchetypeAlias() {
+        int level = 1 + (counter++ % 30);
+        return sampler.sample("arena_1", level, ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Benchmark
+    public int planQueueHandoff() {
+        // Publish as the planner, then drain and take every plan round-robin as the main thread
+        planQueue.publish(++generation, plansPerPlayer);
+        planQueue.drain(8);
+        int taken = 0;
+        while (planQueue.peek() != null) {
+            planQueue.remove();
+            taken++;
+        }
+        return taken;
+    }
+
+    // Filter-and-scan selection the spawner used before ArchetypeSampler, kept as the baseline
+
+    private static List<EnemyArchetypeConfig> filterEligibleArchetypes(List<EnemyArchetypeConfig> archetypes,
+                                                                       int currentLevel, String worldName) {
+        return archetypes.stream()
+                .filter(a -> a.minSpawnLevel <= currentLevel)
+                .filter(a -> a.isAllowedInWorld(worldName))
+                .toList();
+    }
+
+    private static EnemyArchetypeConfig pickWeightedArchetype(List<EnemyArchetypeConfig> eligible, double roll) {
+        double totalWeight = eligible.stream()
+                .mapToDouble(a -> a.weight)
+                .sum();
+        if (totalWeight <= 0) return null;
+
+        double random = roll * totalWeight;
+        double cumulative = 0;
+        for (EnemyArchetypeConfig archetype : eligible) {
+            cumulative += archetype.weight;
+            if (random < cumulative) {
+                return archetype;
+            }
+        }
+        return eligible.get(0);
+    }
+}
@@ -0,0 +1,42 @@
+package cat.nyaa.survivors.service;
+
+import cat.nyaa.survivors.config.ConfigService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-aware combat world selection ({@link WorldService#selectDistributedIndex}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class WorldSelectionBenchmark {
+
+    @Param({"4", "16"})
+    public int worlds;
+
+    private List<WorldService.WorldLoadMetric> metrics;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        metrics = new ArrayList<>();
+        for (int i = 0; i < worlds; i++) {
+            ConfigService.CombatWorldConfig world = new ConfigService.CombatWorldConfig();
+            world.name = "arena_" + i;
+            world.weight = 1 + (i % 3);
+            // Every world busy, so all of them are scored
+            metrics.add(new WorldService.WorldLoadMetric(world, 1 + (i % 4), 4 + (i % 6), world.weight));
+        }
+    }
+
+    @Benchmark
+    public int selectDistributedIndex() {
+        return WorldService.selectDistributedIndex(metrics, random);
+    }
+}
@@ -0,0 +1,110 @@
+package cat.nyaa.survivors.service.store;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * The per-file and append-only player stores on a full save cycle (write every player, then
+ * {@link PlayerStore#flush()}, which forces the records to disk in both stores), a cold open
+ * and single-record reads as done by pre-login loads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class PlayerStoreBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("PlayerStoreBenchmark");
+
+    @Param({"FILES", "LOG"})
+    public PlayerStoreType type;
+
+    @Param({"1000"})
+    public int players;
+
+    private Path tempDir;
+    private Path location;
+    private PlayerStore store;
+    private UUID[] ids;
+    private Random random;
+    private int round;
+
+    /**
+     * A player record of roughly the size PersistenceService writes (about 1.5 KB of JSON).
+     */
+    private static byte[] record(UUID playerId, int round) {
+        StringBuilder sb = new StringBuilder("{\"uuid\":\"").append(playerId).append("\",\"name\":\"Player\",");
+        sb.append("\"mode\":\"LOBBY\",\"round\":").append(round).append(",\"stats\":{");
+        for (int i = 0; i < 60; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("\"stat").append(i).append("\":").append(i * 31L + round);
+        }
+        return sb.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private PlayerStore createStore() {
+        return type == PlayerStoreType.LOG ? new LogPlayerStore(location, LOGGER) : new FilePlayerStore(location, LOGGER);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("vrs-player-store");
+        location = tempDir.resolve(type == PlayerStoreType.LOG ? "players.log" : "players");
+        random = new Random(42);
+
+        ids = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+
+        store = createStore();
+        store.open();
+        saveCycle();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long saveCycle() throws IOException {
+        round++;
+        long bytes = 0;
+        for (UUID playerId : ids) {
+            bytes += store.write(playerId, record(playerId, round));
+        }
+        store.flush();
+        store.maintain();
+        return bytes;
+    }
+
+    @Benchmark
+    public int coldOpen() throws IOException {
+        PlayerStore reopened = createStore();
+        reopened.open();
+        int count = reopened.ids().size();
+        reopened.close();
+        return count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] read() throws IOException {
+        return store.read(ids[random.nextInt(ids.length)]);
+    }
+}
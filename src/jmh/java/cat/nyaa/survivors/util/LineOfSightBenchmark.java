@@ -0,0 +1,100 @@
+package cat.nyaa.survivors.util;
+
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LineOfSightChecker#hasLineOfSight} over synthetic terrain: a 7x7 chunk area with a
+ * flat floor and scattered pillars, queried from a player position to candidate spawn points
+ * 8-24 blocks away, as the spawner does. Runs against a plain block lookup and against captured
+ * chunks (occlusion bitsets, cached current chunk).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class LineOfSightBenchmark {
+
+    private static final int SIZE = 7 * 16;
+    private static final int HEIGHT = 128;
+    private static final int FLOOR = 63;
+    private static final int QUERIES = 1024;
+
+    @Param({"0.02", "0.10"})
+    public double pillarDensity;
+
+    private boolean[] opaque;
+    private LineOfSightChecker checker;
+    private LineOfSightChecker terrainChecker;
+    private Location[] from;
+    private Location[] to;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        opaque = new boolean[SIZE * SIZE * HEIGHT];
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                int top = random.nextDouble() < pillarDensity ? FLOOR + 1 + random.nextInt(6) : FLOOR;
+                for (int y = 0; y <= top; y++) {
+                    opaque[index(x, y, z)] = true;
+                }
+            }
+        }
+
+        checker = LineOfSightChecker.forLookup((x, y, z) -> {
+            if (y < 0 || y >= HEIGHT) return false;
+            if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) return true; // Not captured
+            return opaque[index(x, y, z)];
+        });
+
+        int chunksPerSide = SIZE / 16;
+        ChunkTerrain[] chunks = new ChunkTerrain[chunksPerSide * chunksPerSide];
+        for (int cz = 0; cz < chunksPerSide; cz++) {
+            for (int cx = 0; cx < chunksPerSide; cx++) {
+                int baseX = cx * 16;
+                int baseZ = cz * 16;
+                chunks[cz * chunksPerSide + cx] = new ChunkTerrain(null,
+                        (x, y, z) -> opaque[index(baseX + x, y, baseZ + z)], section -> false, 0, HEIGHT, 0);
+            }
+        }
+        terrainChecker = LineOfSightChecker.forTerrain(
+                TerrainSnapshot.of("bench", 0, 0, chunksPerSide, chunksPerSide, chunks, 0, HEIGHT));
+
+        from = new Location[QUERIES];
+        to = new Location[QUERIES];
+        int center = SIZE / 2;
+        for (int i = 0; i < QUERIES; i++) {
+            double angle = random.nextDouble() * Math.PI * 2;
+            double distance = 8 + random.nextDouble() * 16;
+            from[i] = new Location(null, center + 0.5, FLOOR + 2.6, center + 0.5);
+            to[i] = new Location(null, center + Math.cos(angle) * distance, FLOOR + 1 + random.nextInt(3),
+                    center + Math.sin(angle) * distance);
+        }
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y * SIZE + z) * SIZE + x;
+    }
+
+    @Benchmark
+    public boolean hasLineOfSight() {
+        int i = next++ & (QUERIES - 1);
+        return checker.hasLineOfSight(from[i], to[i]);
+    }
+
+    @Benchmark
+    public boolean hasLineOfSightTerrain() {
+        int i = next++ & (QUERIES - 1);
+        return terrainChecker.hasLineOfSight(from[i], to[i]);
+    }
+
+    @Benchmark
+    public LineOfSightChecker.BlockHit findFirstHitTerrain() {
+        int i = next++ & (QUERIES - 1);
+        return terrainChecker.findFirstHit(from[i], to[i]);
+    }
+}
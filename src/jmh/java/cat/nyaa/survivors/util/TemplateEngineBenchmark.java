@@ -0,0 +1,64 @@
+package cat.nyaa.survivors.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spawn command expansion: map-based {@link TemplateEngine#expand} against slot-based
+ * {@link TemplateEngine#expandSlots}, for a typical archetype spawn command.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TemplateEngineBenchmark {
+
+    private static final String TEMPLATE =
+            "execute in {runWorld} run summon zombie {sx} {sy} {sz} "
+                    + "{Tags:[\"vrs_mob\",\"vrs_lvl_{enemyLevel}\",\"vrs_arch_{archetypeId}\"],PersistenceRequired:1b}";
+
+    private static final TemplateEngine.SlotLayout LAYOUT = TemplateEngine.SlotLayout.of(
+            "sx", "sy", "sz", "runWorld", "enemyLevel", "enemyType", "archetypeId");
+
+    private TemplateEngine engine;
+    private Map<String, Object> context;
+    private TemplateEngine.Slots slots;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        engine = new TemplateEngine();
+        context = new HashMap<>();
+        slots = LAYOUT.newSlots();
+        engine.compile(TEMPLATE);
+    }
+
+    @Benchmark
+    public String expandMap() {
+        int i = counter++;
+        context.put("sx", 100 + (i & 63));
+        context.put("sy", 64);
+        context.put("sz", -200 - (i & 31));
+        context.put("runWorld", "arena_1");
+        context.put("enemyLevel", 1 + (i & 15));
+        context.put("enemyType", "zombie");
+        context.put("archetypeId", "zombie_basic");
+        return engine.expand(TEMPLATE, context);
+    }
+
+    @Benchmark
+    public String expandSlots() {
+        int i = counter++;
+        slots.clear()
+                .set(0, 100 + (i & 63))
+                .set(1, 64)
+                .set(2, -200 - (i & 31))
+                .set(3, "arena_1")
+                .set(4, 1 + (i & 15))
+                .set(5, "zombie")
+                .set(6, "zombie_basic");
+        return engine.expandSlots(TEMPLATE, slots);
+    }
+}
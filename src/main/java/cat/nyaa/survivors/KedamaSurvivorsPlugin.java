@@ -8,8 +8,12 @@ import cat.nyaa.survivors.listener.CombatListener;
 import cat.nyaa.survivors.listener.InventoryListener;
 import cat.nyaa.survivors.listener.BatteryListener;
 import cat.nyaa.survivors.listener.MerchantListener;
+import cat.nyaa.survivors.listener.MobTrackingListener;
 import cat.nyaa.survivors.listener.PlayerListener;
 import cat.nyaa.survivors.listener.SpawnListener;
+import cat.nyaa.survivors.listener.TerrainListener;
+import cat.nyaa.survivors.metrics.MetricsExporter;
+import cat.nyaa.survivors.metrics.MetricsRegistry;
 import cat.nyaa.survivors.scoreboard.ScoreboardService;
 import cat.nyaa.survivors.service.AdminConfigService;
 import cat.nyaa.survivors.service.DamageContributionService;
@@ -17,6 +21,7 @@ import cat.nyaa.survivors.service.DeathService;
 import cat.nyaa.survivors.service.InventoryValidationService;
 import cat.nyaa.survivors.service.BatteryService;
 import cat.nyaa.survivors.service.PersistenceService;
+import cat.nyaa.survivors.service.ProximityService;
 import cat.nyaa.survivors.service.ReadyService;
 import cat.nyaa.survivors.service.RewardService;
 import cat.nyaa.survivors.service.RunService;
@@ -34,9 +39,14 @@ import cat.nyaa.survivors.display.PlayerDisplayService;
 import cat.nyaa.survivors.task.CooldownDisplay;
 import cat.nyaa.survivors.task.DisconnectChecker;
 import cat.nyaa.survivors.task.UpgradeReminderTask;
+import cat.nyaa.survivors.util.CommandBudget;
 import cat.nyaa.survivors.util.CommandQueue;
 import cat.nyaa.survivors.util.TemplateEngine;
+import cat.nyaa.survivors.util.TickDriver;
+import cat.nyaa.survivors.util.TimingWheel;
+import org.bukkit.Bukkit;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.logging.Level;
@@ -73,11 +83,17 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
     private PersistenceService persistenceService;
     private StatsService statsService;
     private DamageContributionService damageContributionService;
+    private ProximityService proximityService;
     private InventoryValidationService inventoryValidationService;
     private CommandQueue commandQueue;
+    private CommandBudget commandBudget;
+    private TickDriver tickDriver;
+    private TimingWheel timingWheel;
     private SpawnLoadTracker spawnLoadTracker;
     private PlayerDisplayService playerDisplayService;
     private BatteryService batteryService;
+    private MetricsRegistry metricsRegistry;
+    private MetricsExporter metricsExporter;
 
     @Override
     public void onEnable() {
@@ -110,6 +126,12 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
         configService = new ConfigService(this);
         configService.loadConfig();
 
+        // Metrics registry for subsystem timings (before any service that records into it)
+        metricsRegistry = new MetricsRegistry();
+        metricsRegistry.setEnabled(configService.isMetricsEnabled());
+        metricsExporter = new MetricsExporter(this, metricsRegistry, getDataFolder().toPath().resolve("metrics"),
+                configService::getMetricsExportHistoryFiles);
+
         // Admin config for equipment/archetype data (depends on configService)
         adminConfigService = new AdminConfigService(this);
         adminConfigService.initialize();
@@ -125,24 +147,47 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
         economyService = new EconomyService(this);
         economyService.initialize();
 
+        // Per-tick dispatch time budget shared by the spawner and the command queue
+        commandBudget = new CommandBudget(configService::getCommandBudgetMs, configService::getQueuedCommandShare);
+
+        // Single tick driver for per-run, per-team and per-player periodic work
+        tickDriver = new TickDriver(this, configService::getRunTickBudgetMs,
+                configService::getRunTickPerRunBudgetMs, configService::getRunTickStaggerTicks);
+
+        // Shared timing wheel for deadlines (grace periods, cooldowns, despawns), one server tick resolution
+        timingWheel = new TimingWheel(getLogger(), 50L);
+        tickDriver.setMetrics(metricsRegistry);
+
         // Command queue for rate-limited command execution
-        commandQueue = new CommandQueue(this, configService::getMaxCommandsPerTick);
+        commandQueue = new CommandQueue(this, configService::getMaxCommandsPerTick, commandBudget);
 
         // Template engine for command placeholders
         templateEngine = new TemplateEngine();
         templateEngine.setLogger(getLogger());
         templateEngine.setCommandQueue(commandQueue);
+        commandQueue.setDispatchTimer(metricsRegistry.timer("vrs_command_dispatch_seconds",
+                "Console command dispatch (queued and spawn commands)"));
 
         // Persistence service for saving/loading state (must be after stateService)
         persistenceService = new PersistenceService(this);
         persistenceService.initialize();
 
+        // Players already connected (e.g. after a reload) get no pre-login or join event;
+        // load them here (blocking is fine while enabling) so no fresh state replaces their data
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            stateService.loadPlayer(player.getUniqueId());
+            stateService.markOnline(player.getUniqueId());
+        }
+
         // Stats service for player statistics (must be after stateService)
         statsService = new StatsService(this);
 
         // Damage contribution service for tracking mob damage per player
         damageContributionService = new DamageContributionService(this);
 
+        // Proximity service for per-tick participant range queries (must be before Battery, Reward, Spawner)
+        proximityService = new ProximityService(this);
+
         // Scoreboard service for sidebar display
         scoreboardService = new ScoreboardService(this);
 
@@ -201,6 +246,24 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
         // Player display service for overhead text displays
         playerDisplayService = new PlayerDisplayService(this);
         playerDisplayService.initialize();
+
+        registerGauges();
+    }
+
+    /**
+     * Registers gauges for state that is not counted where it changes.
+     */
+    private void registerGauges() {
+        metricsRegistry.gauge("vrs_active_runs", "Active runs", () -> stateService.getActiveRunCount());
+        metricsRegistry.gauge("vrs_resident_players", "Player states in memory", () -> stateService.getAllPlayers().size());
+        metricsRegistry.gauge("vrs_tracked_mobs", "Live VRS mobs", () -> spawnerService.getMobRegistry().size());
+        metricsRegistry.gauge("vrs_spawn_pending_plans", "Spawn plans carried over to a later tick",
+                () -> spawnerService.getPendingPlanCount());
+        metricsRegistry.gauge("vrs_command_queue_pending", "Commands waiting in the command queue",
+                () -> commandQueue.getPendingCount());
+        metricsRegistry.gauge("vrs_tick_driver_jobs", "Jobs scheduled on the tick driver", () -> tickDriver.getJobCount());
+        metricsRegistry.gauge("vrs_chunk_snapshots_cached", "Chunk snapshots cached for spawn terrain",
+                () -> worldService.getCachedSnapshotCount());
     }
 
     private void registerCommands() {
@@ -221,9 +284,15 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new SpawnListener(this), this);
         getServer().getPluginManager().registerEvents(new MerchantListener(this), this);
         getServer().getPluginManager().registerEvents(new BatteryListener(this), this);
+        getServer().getPluginManager().registerEvents(new TerrainListener(this), this);
+        getServer().getPluginManager().registerEvents(new MobTrackingListener(this), this);
     }
 
     private void startTasks() {
+        // Start the tick driver first so services can schedule on it
+        tickDriver.start();
+        timingWheel.start(tickDriver);
+
         // Start persistence service (auto-save and backup tasks)
         if (persistenceService != null) {
             persistenceService.start();
@@ -254,6 +323,14 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
             upgradeReminderTask.start();
         }
 
+        // Start kill reward and action bar reward flush loops
+        if (rewardService != null) {
+            rewardService.start();
+        }
+        if (actionBarRewardService != null) {
+            actionBarRewardService.start();
+        }
+
         // Start merchant service
         if (merchantService != null) {
             merchantService.start();
@@ -273,6 +350,11 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
             commandQueue.start();
         }
 
+        // Start periodic metrics export
+        if (metricsExporter != null && configService.isMetricsExportEnabled()) {
+            metricsExporter.start(configService.getMetricsExportIntervalSeconds());
+        }
+
         // Start inventory validation service
         if (inventoryValidationService != null) {
             inventoryValidationService.start();
@@ -285,6 +367,11 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
             readyService.clearAll();
         }
 
+        // Apply queued kill rewards before the final save
+        if (rewardService != null) {
+            rewardService.stop();
+        }
+
         // Stop persistence service (saves all data)
         if (persistenceService != null) {
             persistenceService.stop();
@@ -340,6 +427,14 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
             batteryService.stop();
         }
 
+        // Stop timing wheel and tick driver (after services have cancelled their jobs)
+        if (timingWheel != null) {
+            timingWheel.stop();
+        }
+        if (tickDriver != null) {
+            tickDriver.stop();
+        }
+
         // Stop command queue (executes remaining commands)
         if (commandQueue != null) {
             commandQueue.stop();
@@ -350,6 +445,11 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
             inventoryValidationService.stop();
         }
 
+        // Stop metrics export
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
+
         // Shutdown spawn load tracker
         if (spawnLoadTracker != null) {
             spawnLoadTracker.shutdown();
@@ -379,6 +479,14 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
         configService.loadConfig();
         adminConfigService.reload();
         i18nService.loadLanguage();
+        if (scoreboardService != null) {
+            scoreboardService.invalidateAll();
+        }
+        metricsRegistry.setEnabled(configService.isMetricsEnabled());
+        metricsExporter.stop();
+        if (configService.isMetricsExportEnabled()) {
+            metricsExporter.start(configService.getMetricsExportIntervalSeconds());
+        }
         getLogger().info("Configuration reloaded.");
     }
 
@@ -472,6 +580,26 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
         return commandQueue;
     }
 
+    public CommandBudget getCommandBudget() {
+        return commandBudget;
+    }
+
+    public TickDriver getTickDriver() {
+        return tickDriver;
+    }
+
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    public DisconnectChecker getDisconnectChecker() {
+        return disconnectChecker;
+    }
+
+    public CooldownDisplay getCooldownDisplay() {
+        return cooldownDisplay;
+    }
+
     public StatsService getStatsService() {
         return statsService;
     }
@@ -480,6 +608,10 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
         return damageContributionService;
     }
 
+    public ProximityService getProximityService() {
+        return proximityService;
+    }
+
     public InventoryValidationService getInventoryValidationService() {
         return inventoryValidationService;
     }
@@ -495,4 +627,12 @@ public final class KedamaSurvivorsPlugin extends JavaPlugin {
     public BatteryService getBatteryService() {
         return batteryService;
     }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    public MetricsExporter getMetricsExporter() {
+        return metricsExporter;
+    }
 }
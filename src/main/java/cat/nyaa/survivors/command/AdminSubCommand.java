@@ -11,6 +11,9 @@ import cat.nyaa.survivors.command.admin.StarterSubCommand;
 import cat.nyaa.survivors.command.admin.WorldSubCommand;
 import cat.nyaa.survivors.config.ConfigService;
 import cat.nyaa.survivors.i18n.I18nService;
+import cat.nyaa.survivors.metrics.Counter;
+import cat.nyaa.survivors.metrics.LatencyHistogram;
+import cat.nyaa.survivors.metrics.MetricsRegistry;
 import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.model.RunState;
@@ -26,6 +29,7 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -178,13 +182,14 @@ public class AdminSubCommand implements SubCommand {
     }
 
     private void showStatus(CommandSender sender) {
-        int playerCount = state.getAllPlayers().size();
+        int residentCount = state.getAllPlayers().size();
+        int persistedCount = plugin.getPersistenceService().getPlayerIndex().size();
         int teamCount = state.getActiveTeamCount();
         int runCount = state.getActiveRunCount();
         int inRunCount = state.getPlayersInRunCount();
 
         i18n.send(sender, "admin.status.header");
-        i18n.send(sender, "admin.status.players", "count", playerCount);
+        i18n.send(sender, "admin.status.players", "count", persistedCount, "resident", residentCount);
         i18n.send(sender, "admin.status.teams", "count", teamCount);
         i18n.send(sender, "admin.status.runs", "count", runCount);
         i18n.send(sender, "admin.status.in_run", "count", inRunCount);
@@ -445,7 +450,7 @@ public class AdminSubCommand implements SubCommand {
         String subAction = args[1].toLowerCase();
         switch (subAction) {
             case "player" -> debugPlayer(sender, args);
-            case "perf" -> debugPerf(sender);
+            case "perf" -> debugPerf(sender, args);
             case "templates" -> debugTemplates(sender, args);
             case "run" -> debugRun(sender, args);
             default -> i18n.send(sender, "error.invalid_argument", "arg", subAction);
@@ -488,17 +493,67 @@ public class AdminSubCommand implements SubCommand {
         sender.sendMessage("§7Starter Selections: §fweapon=" + ps.getStarterWeaponOptionId() + ", helmet=" + ps.getStarterHelmetOptionId());
     }
 
-    private void debugPerf(CommandSender sender) {
+    private void debugPerf(CommandSender sender, String[] args) {
+        MetricsRegistry metrics = plugin.getMetricsRegistry();
+        if (args.length >= 3) {
+            switch (args[2].toLowerCase()) {
+                case "reset" -> {
+                    metrics.reset();
+                    i18n.send(sender, "admin.debug.perf_reset");
+                }
+                case "export" -> {
+                    plugin.getMetricsExporter().exportAsync();
+                    i18n.send(sender, "admin.debug.perf_exported",
+                            "file", plugin.getMetricsExporter().getFile().toString());
+                }
+                default -> i18n.send(sender, "error.invalid_argument", "arg", args[2]);
+            }
+            return;
+        }
+
         i18n.send(sender, "debug.perf_header");
         Runtime runtime = Runtime.getRuntime();
         long usedMem = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
         long maxMem = runtime.maxMemory() / (1024 * 1024);
 
-        sender.sendMessage("§7Players tracked: §f" + state.getAllPlayers().size());
+        sender.sendMessage("§7Players persisted: §f" + plugin.getPersistenceService().getPlayerIndex().size()
+                + " §7(resident: §f" + state.getAllPlayers().size() + "§7)");
         sender.sendMessage("§7Teams: §f" + state.getActiveTeamCount());
         sender.sendMessage("§7Active runs: §f" + state.getActiveRunCount());
         sender.sendMessage("§7Memory: §f" + usedMem + "MB / " + maxMem + "MB");
         sender.sendMessage("§7TPS: §f" + String.format("%.1f", Bukkit.getTPS()[0]));
+
+        if (!metrics.isEnabled()) {
+            i18n.send(sender, "admin.debug.perf_disabled");
+            return;
+        }
+
+        // Subsystems that spent the most time first
+        List<Map.Entry<String, LatencyHistogram.Snapshot>> timings = new ArrayList<>();
+        for (LatencyHistogram timer : metrics.getTimers()) {
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            if (snapshot.getCount() > 0) {
+                timings.add(Map.entry(timer.getName(), snapshot));
+            }
+        }
+        timings.sort(Comparator.comparingLong(
+                (Map.Entry<String, LatencyHistogram.Snapshot> e) -> e.getValue().getSumNanos()).reversed());
+
+        i18n.send(sender, "admin.debug.perf_timings_header");
+        for (Map.Entry<String, LatencyHistogram.Snapshot> timing : timings) {
+            LatencyHistogram.Snapshot snapshot = timing.getValue();
+            String name = timing.getKey().replaceFirst("^vrs_", "").replaceFirst("_seconds$", "");
+            sender.sendMessage(String.format("§7%s: §f%d §8| §7avg §f%.3f §8| §7p50 §f%.3f §8| §7p99 §f%.3f §8| §7max §f%.3f §8| §7total §f%.0f §8ms",
+                    name, snapshot.getCount(),
+                    snapshot.getMeanNanos() / 1_000_000.0,
+                    snapshot.getValueAtQuantile(0.5) / 1_000_000.0,
+                    snapshot.getValueAtQuantile(0.99) / 1_000_000.0,
+                    snapshot.getMaxNanos() / 1_000_000.0,
+                    snapshot.getSumNanos() / 1_000_000.0));
+        }
+        for (Counter counter : metrics.getCounters()) {
+            sender.sendMessage("§7" + counter.getName().replaceFirst("^vrs_", "") + ": §f" + counter.get());
+        }
     }
 
     private void debugTemplates(CommandSender sender, String[] args) {
@@ -664,6 +719,12 @@ public class AdminSubCommand implements SubCommand {
                         completions.add(p.getName());
                     }
                 }
+            } else if (action.equals("debug") && subAction.equals("perf")) {
+                for (String sub : List.of("reset", "export")) {
+                    if (sub.startsWith(partial)) {
+                        completions.add(sub);
+                    }
+                }
             } else if (action.equals("debug") && subAction.equals("run")) {
                 completions.add("list");
                 for (RunState run : state.getAllRuns()) {
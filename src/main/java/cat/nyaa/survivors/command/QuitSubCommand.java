@@ -119,6 +119,7 @@ public class QuitSubCommand implements SubCommand {
                 plugin.getConfigService().getQuitCooldownSeconds() * 1000L;
         playerState.setCooldownUntilMillis(cooldownEnd);
         playerState.setMode(PlayerMode.COOLDOWN);
+        plugin.getCooldownDisplay().scheduleExpiry(playerState);
 
         // Quit counts as player progression reset and team exit
         playerState.clearStarterSelections();
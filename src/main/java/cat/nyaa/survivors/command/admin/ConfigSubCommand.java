@@ -73,6 +73,8 @@ public class ConfigSubCommand implements SubCommand {
                 entry("targetMobsPerPlayerIncreasePerLevel", new DoubleProperty(config::getTargetMobsPerPlayerIncreasePerLevel, config::setTargetMobsPerPlayerIncreasePerLevel)),
                 entry("targetMobsPerPlayerMax", new IntProperty(config::getTargetMobsPerPlayerMax, config::setTargetMobsPerPlayerMax)),
                 entry("maxSpawnsPerTick", new IntProperty(config::getMaxSpawnsPerTick, config::setMaxSpawnsPerTick)),
+                entry("commandBudgetMs", new DoubleProperty(config::getCommandBudgetMs, config::setCommandBudgetMs)),
+                entry("queuedCommandShare", new DoubleProperty(config::getQueuedCommandShare, config::setQueuedCommandShare)),
 
                 // Rewards
                 entry("xpShareEnabled", new BooleanProperty(config::isXpShareEnabled, config::setXpShareEnabled)),
@@ -216,7 +218,7 @@ public class ConfigSubCommand implements SubCommand {
         Map<String, List<String>> map = new LinkedHashMap<>();
         map.put("teleport", List.of("lobbyWorld", "lobbyX", "lobbyY", "lobbyZ", "prepCommand", "enterCommand", "respawnCommand"));
         map.put("timing", List.of("deathCooldownSeconds", "respawnInvulnerabilitySeconds", "disconnectGraceSeconds", "countdownSeconds"));
-        map.put("spawning", List.of("minSpawnDistance", "maxSpawnDistance", "maxSampleAttempts", "spawnTickInterval", "targetMobsPerPlayer", "targetMobsPerPlayerIncreasePerLevel", "targetMobsPerPlayerMax", "maxSpawnsPerTick"));
+        map.put("spawning", List.of("minSpawnDistance", "maxSpawnDistance", "maxSampleAttempts", "spawnTickInterval", "targetMobsPerPlayer", "targetMobsPerPlayerIncreasePerLevel", "targetMobsPerPlayerMax", "maxSpawnsPerTick", "commandBudgetMs", "queuedCommandShare"));
         map.put("rewards", List.of("xpShareEnabled", "xpShareRadius", "xpSharePercent",
                 "damageContributionEnabled", "damageContributionPercent",
                 "overflowEnabled", "overflowXpPerPermaScore", "overflowNotifyPlayer",
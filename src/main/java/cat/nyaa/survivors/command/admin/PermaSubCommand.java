@@ -5,6 +5,7 @@ import cat.nyaa.survivors.command.SubCommand;
 import cat.nyaa.survivors.i18n.I18nService;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.scoreboard.ScoreboardService;
+import cat.nyaa.survivors.service.PlayerIndex;
 import cat.nyaa.survivors.service.StateService;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
@@ -12,6 +13,7 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Handles /vrs admin perma commands for managing player permanent scores.
@@ -19,7 +21,7 @@ import java.util.List;
  * Commands:
  * - /vrs admin perma add <player> <amount>  - Add perma score (amount can be negative)
  * - /vrs admin perma set <player> <amount>  - Set perma score (min 0)
- * - /vrs admin perma get <player>           - Get player's perma score
+ * - /vrs admin perma get <player>           - Get player's perma score (offline players from the player index)
  */
 public class PermaSubCommand implements SubCommand {
 
@@ -144,7 +146,15 @@ public class PermaSubCommand implements SubCommand {
         Player target = Bukkit.getPlayer(playerName);
 
         if (target == null) {
-            i18n.send(sender, "error.player_not_found", "player", playerName);
+            // Offline players may not be resident; answer from the index without loading them
+            Optional<PlayerIndex.Summary> summary = plugin.getPersistenceService().getPlayerIndex().findByName(playerName);
+            if (summary.isEmpty()) {
+                i18n.send(sender, "error.player_not_found", "player", playerName);
+                return;
+            }
+            i18n.send(sender, "admin.perma.get_offline",
+                    "player", summary.get().name(),
+                    "amount", summary.get().permaScore());
             return;
         }
 
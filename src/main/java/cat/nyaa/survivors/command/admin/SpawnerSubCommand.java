@@ -54,6 +54,7 @@ public class SpawnerSubCommand implements SubCommand {
         i18n.send(sender, "admin.spawner.help.archetype_set_entitytype");
         i18n.send(sender, "admin.spawner.help.archetype_set_minspawnlevel");
         i18n.send(sender, "admin.spawner.help.archetype_set_worlds");
+        i18n.send(sender, "admin.spawner.help.archetype_set_spawnmode");
     }
 
     // ==================== Archetype Commands ====================
@@ -129,6 +130,17 @@ public class SpawnerSubCommand implements SubCommand {
                     i18n.send(sender, "admin.spawner.invalid_level");
                 }
             }
+            case "spawnmode" -> {
+                EnemyArchetypeConfig.SpawnMode mode = EnemyArchetypeConfig.SpawnMode.fromString(args[4]);
+                if (mode == null) {
+                    i18n.send(sender, "admin.spawner.invalid_spawnmode");
+                    return;
+                }
+                boolean success = adminConfig.setArchetypeSpawnMode(id, mode);
+                if (success) {
+                    i18n.send(sender, "admin.spawner.spawnmode_set", "id", id, "mode", mode.name());
+                }
+            }
             case "worlds" -> {
                 // Parse comma-separated and/or space-separated world list or "any"
                 List<String> worlds = parseWorldArguments(args, 4);
@@ -220,7 +232,8 @@ public class SpawnerSubCommand implements SubCommand {
                     "weight", config.weight,
                     "minLevel", config.minSpawnLevel,
                     "cmdCount", cmdCount,
-                    "worlds", worlds);
+                    "worlds", worlds,
+                    "mode", config.spawnMode.name());
         }
     }
 
@@ -334,7 +347,7 @@ public class SpawnerSubCommand implements SubCommand {
 
             if (subAction.equals("set")) {
                 // Property names for set
-                for (String prop : List.of("weight", "entitytype", "minspawnlevel", "worlds")) {
+                for (String prop : List.of("weight", "entitytype", "minspawnlevel", "worlds", "spawnmode")) {
                     if (prop.startsWith(partial)) {
                         completions.add(prop);
                     }
@@ -390,6 +403,12 @@ public class SpawnerSubCommand implements SubCommand {
                         completions.add(entity);
                     }
                 }
+            } else if (subAction.equals("set") && property.equals("spawnmode")) {
+                for (EnemyArchetypeConfig.SpawnMode mode : EnemyArchetypeConfig.SpawnMode.values()) {
+                    if (mode.name().toLowerCase().startsWith(partial)) {
+                        completions.add(mode.name());
+                    }
+                }
             } else if (subAction.equals("set") && property.equals("worlds")) {
                 // Suggest "any" and configured combat world names
                 if ("any".startsWith(partial)) {
@@ -2,6 +2,8 @@ package cat.nyaa.survivors.config;
 
 import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.economy.EconomyMode;
+import cat.nyaa.survivors.service.spawner.ArchetypeSampler;
+import cat.nyaa.survivors.service.store.PlayerStoreType;
 import cat.nyaa.survivors.util.ConfigException;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -30,6 +32,15 @@ public class ConfigService {
     // Cached config values
     private String language;
     private boolean verbose;
+    private double runTickBudgetMs;
+    private double runTickPerRunBudgetMs;
+    private int runTickStaggerTicks;
+
+    // Debug / metrics
+    private boolean metricsEnabled;
+    private boolean metricsExportEnabled;
+    private int metricsExportIntervalSeconds;
+    private int metricsExportHistoryFiles;
 
     // Join switch
     private volatile boolean joinEnabled;
@@ -52,7 +63,6 @@ public class ConfigService {
 
     // Disconnect
     private int disconnectGraceSeconds;
-    private int disconnectCheckIntervalTicks;
     private boolean notifyTeamOnDisconnect;
     private boolean notifyGraceExpired;
 
@@ -67,6 +77,7 @@ public class ConfigService {
 
     // Spawning limits
     private int spawnTickInterval;
+    private int spawnPlannerThreads;
     private boolean spawningEnabled;
     private boolean blockNaturalSpawns;
     private int targetMobsPerPlayer;
@@ -75,6 +86,8 @@ public class ConfigService {
     private int maxSpawnsPerPlayerPerTick;
     private int maxSpawnsPerTick;
     private int maxCommandsPerTick;
+    private double commandBudgetMs;
+    private double queuedCommandShare;
     private double mobCountRadius;
 
     // Spawn positioning
@@ -83,6 +96,7 @@ public class ConfigService {
     private int maxSampleAttempts;
     private int spawnVerticalRange;
     private boolean losValidationEnabled;
+    private int snapshotMaxAgeTicks;
 
     // Enemy level calculation
     private double levelSamplingRadius;
@@ -144,6 +158,9 @@ public class ConfigService {
     private boolean saveOnRunEnd;
     private String itemsPath;
     private String runtimePath;
+    private PlayerStoreType playerStoreType;
+    private int maxResidentPlayers;
+    private int residentIdleSeconds;
 
     // Teleport settings
     private String lobbyWorld;
@@ -189,7 +206,8 @@ public class ConfigService {
     private Map<String, EquipmentGroupConfig> helmetGroups;
 
     // Enemy archetypes
-    private Map<String, EnemyArchetypeConfig> enemyArchetypes;
+    private volatile Map<String, EnemyArchetypeConfig> enemyArchetypes;
+    private volatile ArchetypeSampler archetypeSampler = ArchetypeSampler.empty();
 
     // Feedback settings
     private String rewardDisplayMode;
@@ -307,11 +325,15 @@ public class ConfigService {
         loadMerchants();
         loadBatteryObjective();
         loadFeedback();
+        loadDebug();
     }
 
     private void loadPluginSettings() {
         language = config.getString("plugin.language", "zh_CN");
         verbose = config.getBoolean("plugin.verbose", false);
+        runTickBudgetMs = config.getDouble("plugin.runTick.budgetMs", 4.0);
+        runTickPerRunBudgetMs = config.getDouble("plugin.runTick.perRunBudgetMs", 1.0);
+        runTickStaggerTicks = config.getInt("plugin.runTick.staggerTicks", 20);
     }
 
     private void loadJoinSwitch() {
@@ -338,7 +360,6 @@ public class ConfigService {
 
     private void loadDisconnect() {
         disconnectGraceSeconds = config.getInt("disconnect.graceSeconds", 300);
-        disconnectCheckIntervalTicks = config.getInt("disconnect.checkIntervalTicks", 200);
         notifyTeamOnDisconnect = config.getBoolean("disconnect.notifyTeam", true);
         notifyGraceExpired = config.getBoolean("disconnect.notifyGraceExpired", true);
     }
@@ -356,6 +377,7 @@ public class ConfigService {
 
     private void loadSpawning() {
         spawnTickInterval = config.getInt("spawning.loop.tickInterval", 20);
+        spawnPlannerThreads = config.getInt("spawning.loop.plannerThreads", 0);
         spawningEnabled = config.getBoolean("spawning.loop.enabled", true);
         blockNaturalSpawns = config.getBoolean("spawning.loop.blockNaturalSpawns", true);
 
@@ -365,6 +387,8 @@ public class ConfigService {
         maxSpawnsPerPlayerPerTick = config.getInt("spawning.limits.maxSpawnsPerPlayerPerTick", 3);
         maxSpawnsPerTick = config.getInt("spawning.limits.maxSpawnsPerTick", 20);
         maxCommandsPerTick = config.getInt("spawning.limits.maxCommandsPerTick", 50);
+        commandBudgetMs = config.getDouble("spawning.limits.commandBudgetMs", 5.0);
+        queuedCommandShare = config.getDouble("spawning.limits.queuedCommandShare", 0.3);
         mobCountRadius = config.getDouble("spawning.limits.mobCountRadius", 30.0);
 
         minSpawnDistance = config.getDouble("spawning.positioning.minSpawnDistance", 8.0);
@@ -372,6 +396,7 @@ public class ConfigService {
         maxSampleAttempts = config.getInt("spawning.positioning.maxSampleAttempts", 10);
         spawnVerticalRange = config.getInt("spawning.positioning.verticalRange", 10);
         losValidationEnabled = config.getBoolean("spawning.positioning.losValidation", true);
+        snapshotMaxAgeTicks = Math.max(0, config.getInt("spawning.positioning.snapshotMaxAgeTicks", 100));
 
         levelSamplingRadius = config.getDouble("spawning.levelCalculation.levelSamplingRadius", 50.0);
         avgLevelMultiplier = config.getDouble("spawning.levelCalculation.avgLevelMultiplier", 1.0);
@@ -449,6 +474,15 @@ public class ConfigService {
         saveOnRunEnd = config.getBoolean("persistence.saveOnRunEnd", true);
         itemsPath = config.getString("persistence.paths.items", "data/items");
         runtimePath = config.getString("persistence.paths.runtime", "data/runtime");
+        String storeStr = config.getString("persistence.playerStore", "FILES").toUpperCase();
+        try {
+            playerStoreType = PlayerStoreType.valueOf(storeStr);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid player store: " + storeStr + ", defaulting to FILES");
+            playerStoreType = PlayerStoreType.FILES;
+        }
+        maxResidentPlayers = config.getInt("persistence.residency.maxResidentPlayers", 500);
+        residentIdleSeconds = config.getInt("persistence.residency.idleSeconds", 1800);
     }
 
     private void loadTeleport() {
@@ -660,10 +694,14 @@ public class ConfigService {
     }
 
     private void loadEnemyArchetypes() {
-        enemyArchetypes = new HashMap<>();
+        Map<String, EnemyArchetypeConfig> loaded = new HashMap<>();
         ConfigurationSection section = config.getConfigurationSection("spawning.archetypes");
 
-        if (section == null) return;
+        if (section == null) {
+            enemyArchetypes = loaded;
+            archetypeSampler = ArchetypeSampler.empty();
+            return;
+        }
 
         for (String archetypeId : section.getKeys(false)) {
             ConfigurationSection archSection = section.getConfigurationSection(archetypeId);
@@ -678,6 +716,9 @@ public class ConfigService {
             // Load minSpawnLevel (level gating)
             arch.minSpawnLevel = archSection.getInt("minSpawnLevel", 1);
 
+            // Load spawn backend (command or native)
+            arch.loadSpawnBackend(archSection);
+
             ConfigurationSection rewards = archSection.getConfigurationSection("rewards");
             if (rewards != null) {
                 // Check for new format (xpAmount) vs legacy format (xpBase)
@@ -707,8 +748,11 @@ public class ConfigService {
                 }
             }
 
-            enemyArchetypes.put(archetypeId, arch);
+            loaded.put(archetypeId, arch);
         }
+
+        enemyArchetypes = loaded;
+        archetypeSampler = ArchetypeSampler.compile(loaded);
     }
 
     private void loadFeedback() {
@@ -735,6 +779,13 @@ public class ConfigService {
         soundRunStart = parseSoundConfig(config.getString("feedback.sounds.runStart", "minecraft:entity.player.levelup 1.0 1.0"));
     }
 
+    private void loadDebug() {
+        metricsEnabled = config.getBoolean("debug.performance.enabled", true);
+        metricsExportEnabled = config.getBoolean("debug.performance.export.enabled", false);
+        metricsExportIntervalSeconds = Math.max(1, config.getInt("debug.performance.export.intervalSeconds", 60));
+        metricsExportHistoryFiles = Math.max(0, config.getInt("debug.performance.export.historyFiles", 5));
+    }
+
     private void loadMerchants() {
         merchantsEnabled = config.getBoolean("merchants.enabled", true);
         merchantSpawnInterval = config.getInt("merchants.wandering.spawnIntervalSeconds", 120);
@@ -842,6 +893,14 @@ public class ConfigService {
 
     public String getLanguage() { return language; }
     public boolean isVerbose() { return verbose; }
+    public double getRunTickBudgetMs() { return runTickBudgetMs; }
+    public double getRunTickPerRunBudgetMs() { return runTickPerRunBudgetMs; }
+    public int getRunTickStaggerTicks() { return runTickStaggerTicks; }
+
+    public boolean isMetricsEnabled() { return metricsEnabled; }
+    public boolean isMetricsExportEnabled() { return metricsExportEnabled; }
+    public int getMetricsExportIntervalSeconds() { return metricsExportIntervalSeconds; }
+    public int getMetricsExportHistoryFiles() { return metricsExportHistoryFiles; }
 
     public boolean isJoinEnabled() { return joinEnabled; }
     public void setJoinEnabled(boolean enabled) { this.joinEnabled = enabled; }
@@ -863,7 +922,6 @@ public class ConfigService {
 
     public int getDisconnectGraceSeconds() { return disconnectGraceSeconds; }
     public long getDisconnectGraceMs() { return disconnectGraceSeconds * 1000L; }
-    public int getDisconnectCheckIntervalTicks() { return disconnectCheckIntervalTicks; }
     public boolean isNotifyTeamOnDisconnect() { return notifyTeamOnDisconnect; }
     public boolean isNotifyGraceExpired() { return notifyGraceExpired; }
 
@@ -877,6 +935,7 @@ public class ConfigService {
     public boolean isPvpEnabled() { return pvpEnabled; }
 
     public int getSpawnTickInterval() { return spawnTickInterval; }
+    public int getSpawnPlannerThreads() { return spawnPlannerThreads; }
     public boolean isSpawningEnabled() { return spawningEnabled; }
     public boolean isBlockNaturalSpawns() { return blockNaturalSpawns; }
     public int getTargetMobsPerPlayer() { return targetMobsPerPlayer; }
@@ -885,6 +944,8 @@ public class ConfigService {
     public int getMaxSpawnsPerPlayerPerTick() { return maxSpawnsPerPlayerPerTick; }
     public int getMaxSpawnsPerTick() { return maxSpawnsPerTick; }
     public int getMaxCommandsPerTick() { return maxCommandsPerTick; }
+    public double getCommandBudgetMs() { return commandBudgetMs; }
+    public double getQueuedCommandShare() { return queuedCommandShare; }
     public double getMobCountRadius() { return mobCountRadius; }
 
     public double getMinSpawnDistance() { return minSpawnDistance; }
@@ -892,6 +953,7 @@ public class ConfigService {
     public int getMaxSampleAttempts() { return maxSampleAttempts; }
     public int getSpawnVerticalRange() { return spawnVerticalRange; }
     public boolean isLosValidationEnabled() { return losValidationEnabled; }
+    public int getSnapshotMaxAgeTicks() { return snapshotMaxAgeTicks; }
 
     public double getLevelSamplingRadius() { return levelSamplingRadius; }
     public double getAvgLevelMultiplier() { return avgLevelMultiplier; }
@@ -950,6 +1012,9 @@ public class ConfigService {
     public boolean isSaveOnRunEnd() { return saveOnRunEnd; }
     public String getItemsPath() { return itemsPath; }
     public String getRuntimePath() { return runtimePath; }
+    public PlayerStoreType getPlayerStoreType() { return playerStoreType; }
+    public int getMaxResidentPlayers() { return maxResidentPlayers; }
+    public int getResidentIdleSeconds() { return residentIdleSeconds; }
 
     public String getLobbyWorld() { return lobbyWorld; }
     public double getLobbyX() { return lobbyX; }
@@ -1028,6 +1093,7 @@ public class ConfigService {
     public Map<String, EquipmentGroupConfig> getWeaponGroups() { return weaponGroups; }
     public Map<String, EquipmentGroupConfig> getHelmetGroups() { return helmetGroups; }
     public Map<String, EnemyArchetypeConfig> getEnemyArchetypes() { return enemyArchetypes; }
+    public ArchetypeSampler getArchetypeSampler() { return archetypeSampler; }
 
     public boolean isMerchantsEnabled() { return merchantsEnabled; }
     public int getMerchantSpawnInterval() { return merchantSpawnInterval; }
@@ -1152,8 +1218,11 @@ public class ConfigService {
      * Updates enemy archetypes from AdminConfigService. Called when admin commands modify data.
      */
     public void updateEnemyArchetypes(Map<String, EnemyArchetypeConfig> archetypes) {
-        this.enemyArchetypes.clear();
-        this.enemyArchetypes.putAll(archetypes);
+        // Swap in new instances instead of clearing, so the planner thread never sees a partial pool
+        Map<String, EnemyArchetypeConfig> updated = new HashMap<>(archetypes);
+        ArchetypeSampler sampler = ArchetypeSampler.compile(updated);
+        this.enemyArchetypes = updated;
+        this.archetypeSampler = sampler;
     }
 
     /**
@@ -1201,6 +1270,8 @@ public class ConfigService {
     public void setTargetMobsPerPlayerIncreasePerLevel(double increase) { this.targetMobsPerPlayerIncreasePerLevel = increase; }
     public void setTargetMobsPerPlayerMax(int max) { this.targetMobsPerPlayerMax = max; }
     public void setMaxSpawnsPerTick(int max) { this.maxSpawnsPerTick = max; }
+    public void setCommandBudgetMs(double ms) { this.commandBudgetMs = ms; }
+    public void setQueuedCommandShare(double share) { this.queuedCommandShare = share; }
 
     // Rewards
     public void setXpShareEnabled(boolean enabled) { this.xpShareEnabled = enabled; }
@@ -1486,6 +1557,8 @@ public class ConfigService {
         config.set("spawning.limits.targetMobsPerPlayerIncreasePerLevel", targetMobsPerPlayerIncreasePerLevel);
         config.set("spawning.limits.targetMobsPerPlayerMax", targetMobsPerPlayerMax);
         config.set("spawning.limits.maxSpawnsPerTick", maxSpawnsPerTick);
+        config.set("spawning.limits.commandBudgetMs", commandBudgetMs);
+        config.set("spawning.limits.queuedCommandShare", queuedCommandShare);
 
         // Rewards
         config.set("rewards.xpShare.enabled", xpShareEnabled);
@@ -1797,6 +1870,60 @@ public class ConfigService {
         public int permaScoreAmount = 1;
         public double permaScoreChance = 0.01; // 0-1, probability to award perma score
 
+        // Spawn backend - COMMAND dispatches spawnCommands, NATIVE spawns enemyType directly
+        // (NATIVE falls back to spawnCommands if the entity cannot be spawned)
+        public SpawnMode spawnMode = SpawnMode.COMMAND;
+
+        // Native spawn only: attribute key -> base value, equipment slot -> material
+        public Map<String, Double> attributes = new LinkedHashMap<>();
+        public Map<String, String> equipment = new LinkedHashMap<>();
+
+        public enum SpawnMode {
+            COMMAND,
+            NATIVE;
+
+            /**
+             * Parses a spawn mode name, case-insensitive.
+             * @return the mode, or null if the name is unknown
+             */
+            public static SpawnMode fromString(String value) {
+                if (value == null) return null;
+                for (SpawnMode mode : values()) {
+                    if (mode.name().equalsIgnoreCase(value.trim())) {
+                        return mode;
+                    }
+                }
+                return null;
+            }
+        }
+
+        /**
+         * Reads spawnMode, attributes and equipment from an archetype section.
+         */
+        public void loadSpawnBackend(ConfigurationSection section) {
+            SpawnMode mode = SpawnMode.fromString(section.getString("spawnMode"));
+            spawnMode = mode != null ? mode : SpawnMode.COMMAND;
+
+            attributes = new LinkedHashMap<>();
+            ConfigurationSection attrSection = section.getConfigurationSection("attributes");
+            if (attrSection != null) {
+                for (String key : attrSection.getKeys(false)) {
+                    attributes.put(key, attrSection.getDouble(key));
+                }
+            }
+
+            equipment = new LinkedHashMap<>();
+            ConfigurationSection equipSection = section.getConfigurationSection("equipment");
+            if (equipSection != null) {
+                for (String slot : equipSection.getKeys(false)) {
+                    String material = equipSection.getString(slot);
+                    if (material != null && !material.isBlank()) {
+                        equipment.put(slot, material);
+                    }
+                }
+            }
+        }
+
         /**
          * Checks if this archetype is allowed to spawn in the given world.
          * @param worldName the world name to check
@@ -3,6 +3,7 @@ package cat.nyaa.survivors.i18n;
 import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.config.ConfigService;
 import cat.nyaa.survivors.config.ConfigUpgradeService;
+import cat.nyaa.survivors.util.LruCache;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -17,14 +18,21 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Handles internationalization and message formatting.
  * Supports color codes (§ and &) and placeholders ({key}).
+ *
+ * <p>Messages are compiled into {@link MessageTemplate}s when the language is loaded.
+ * Components of messages without placeholders are kept per key; other rendered
+ * Components go through a bounded cache keyed by their text.
  */
 public class I18nService {
 
+    private static final int COMPONENT_CACHE_SIZE = 512;
+
     private static final LegacyComponentSerializer LEGACY_SERIALIZER =
             LegacyComponentSerializer.builder()
                     .character('§')
@@ -33,8 +41,12 @@ public class I18nService {
 
     private final KedamaSurvivorsPlugin plugin;
     private final ConfigService configService;
-    private final Map<String, String> messages = new HashMap<>();
-    private final Map<String, List<String>> messageLists = new HashMap<>();
+    // Replaced as a whole on load, so readers on other threads see a complete language
+    private volatile Map<String, MessageTemplate> templates = Map.of();
+    private volatile Map<String, List<String>> messageLists = Map.of();
+
+    private final Map<String, Component> staticComponents = new ConcurrentHashMap<>();
+    private final LruCache<String, Component> componentCache = new LruCache<>(COMPONENT_CACHE_SIZE);
 
     public I18nService(KedamaSurvivorsPlugin plugin, ConfigService configService) {
         this.plugin = plugin;
@@ -45,9 +57,6 @@ public class I18nService {
      * Loads the language file based on config settings.
      */
     public void loadLanguage() {
-        messages.clear();
-        messageLists.clear();
-
         String language = configService.getLanguage();
         File langFile = new File(plugin.getDataFolder(), "lang/" + language + ".yml");
 
@@ -74,61 +83,86 @@ public class I18nService {
                     new InputStreamReader(stream, StandardCharsets.UTF_8));
         }
 
-        // Flatten nested keys
-        loadSection(langConfig, "");
+        // Flatten nested keys and compile messages
+        Map<String, MessageTemplate> loadedTemplates = new HashMap<>();
+        Map<String, List<String>> loadedLists = new HashMap<>();
+        loadSection(langConfig, loadedTemplates, loadedLists);
 
-        plugin.getLogger().info("Loaded " + messages.size() + " messages for language: " + language);
+        templates = loadedTemplates;
+        messageLists = loadedLists;
+        staticComponents.clear();
+        synchronized (componentCache) {
+            componentCache.clear();
+        }
+
+        plugin.getLogger().info("Loaded " + loadedTemplates.size() + " messages for language: " + language);
     }
 
-    private void loadSection(YamlConfiguration config, String prefix) {
+    private void loadSection(YamlConfiguration config, Map<String, MessageTemplate> templates,
+                             Map<String, List<String>> lists) {
         for (String key : config.getKeys(true)) {
             if (config.isString(key)) {
-                String fullKey = prefix.isEmpty() ? key : prefix + "." + key;
-                messages.put(key, config.getString(key));
+                templates.put(key, MessageTemplate.compile(config.getString(key)));
             } else if (config.isList(key)) {
                 List<String> list = config.getStringList(key);
                 if (!list.isEmpty()) {
-                    messageLists.put(key, list);
+                    // List entries are picked at random and have no placeholders
+                    lists.put(key, list.stream().map(this::parseColors).toList());
                 }
             }
         }
     }
 
+    /**
+     * Gets the compiled template for a key; a missing key renders as the key itself.
+     */
+    private MessageTemplate template(String key) {
+        MessageTemplate template = templates.get(key);
+        return template != null ? template : MessageTemplate.compile(key);
+    }
+
     /**
      * Gets a raw message by key.
      */
     public String getRaw(String key) {
-        return messages.getOrDefault(key, key);
+        MessageTemplate template = templates.get(key);
+        return template != null ? template.getRaw() : key;
     }
 
     /**
      * Gets a message with color codes parsed.
      */
     public String get(String key) {
-        return parseColors(getRaw(key));
+        return template(key).getText();
     }
 
     /**
      * Gets a message with placeholders replaced and color codes parsed.
      */
     public String get(String key, Object... args) {
-        String message = getRaw(key);
-        message = replacePlaceholders(message, args);
-        return parseColors(message);
+        return template(key).render(args);
     }
 
     /**
      * Gets a message as a Component.
      */
     public Component getComponent(String key) {
-        return LEGACY_SERIALIZER.deserialize(get(key));
+        MessageTemplate template = templates.get(key);
+        if (template == null) {
+            return toComponent(key);
+        }
+        return staticComponents.computeIfAbsent(key, k -> LEGACY_SERIALIZER.deserialize(template.getText()));
     }
 
     /**
      * Gets a message as a Component with placeholders.
      */
     public Component getComponent(String key, Object... args) {
-        return LEGACY_SERIALIZER.deserialize(get(key, args));
+        MessageTemplate template = templates.get(key);
+        if (template != null && (template.isStatic() || args == null || args.length == 0)) {
+            return getComponent(key);
+        }
+        return toComponent(get(key, args));
     }
 
     /**
@@ -140,18 +174,14 @@ public class I18nService {
             return Component.empty();
         }
         String message = list.get(ThreadLocalRandom.current().nextInt(list.size()));
-        return LEGACY_SERIALIZER.deserialize(parseColors(message));
+        return toComponent(message);
     }
 
     /**
      * Formats a message with named placeholders.
      */
     public String format(String key, Map<String, Object> placeholders) {
-        String message = getRaw(key);
-        for (Map.Entry<String, Object> entry : placeholders.entrySet()) {
-            message = message.replace("{" + entry.getKey() + "}", String.valueOf(entry.getValue()));
-        }
-        return parseColors(message);
+        return template(key).render(placeholders);
     }
 
     /**
@@ -165,24 +195,21 @@ public class I18nService {
      * Sends a prefixed message to a command sender.
      */
     public void send(CommandSender sender, String key) {
-        sender.sendMessage(LEGACY_SERIALIZER.deserialize(
-                getPrefix() + get(key)));
+        sender.sendMessage(toComponent(getPrefix() + get(key)));
     }
 
     /**
      * Sends a prefixed message with placeholders.
      */
     public void send(CommandSender sender, String key, Object... args) {
-        sender.sendMessage(LEGACY_SERIALIZER.deserialize(
-                getPrefix() + get(key, args)));
+        sender.sendMessage(toComponent(getPrefix() + get(key, args)));
     }
 
     /**
      * Sends a clickable message.
      */
     public void sendClickable(CommandSender sender, String key, String command) {
-        Component message = LEGACY_SERIALIZER.deserialize(
-                getPrefix() + get(key));
+        Component message = toComponent(getPrefix() + get(key));
         message = message.clickEvent(ClickEvent.runCommand(command));
         sender.sendMessage(message);
     }
@@ -191,8 +218,7 @@ public class I18nService {
      * Sends a clickable message with placeholders.
      */
     public void sendClickable(CommandSender sender, String key, String command, Object... args) {
-        Component message = LEGACY_SERIALIZER.deserialize(
-                getPrefix() + get(key, args));
+        Component message = toComponent(getPrefix() + get(key, args));
         message = message.clickEvent(ClickEvent.runCommand(command));
         sender.sendMessage(message);
     }
@@ -269,38 +295,24 @@ public class I18nService {
     private String parseColors(String message) {
         if (message == null) return "";
         // Convert & to § for color codes
-        return message.replace('&', '§');
+        return MessageTemplate.colorize(message);
     }
 
-    private String replacePlaceholders(String message, Object... args) {
-        if (args == null || args.length == 0) return message;
-
-        // Support both indexed and named placeholders
-        // Indexed: {0}, {1}, etc. using positional args
-        // Named: {player}, {amount}, etc. using paired args (key, value, key, value...)
-
-        // First, try indexed replacement
-        for (int i = 0; i < args.length; i++) {
-            message = message.replace("{" + i + "}", String.valueOf(args[i]));
-        }
-
-        // Then, try named replacement if args are paired
-        if (args.length >= 2 && args.length % 2 == 0) {
-            for (int i = 0; i < args.length; i += 2) {
-                if (args[i] instanceof String key) {
-                    message = message.replace("{" + key + "}", String.valueOf(args[i + 1]));
-                }
-            }
+    /**
+     * Deserializes rendered text to a Component through the bounded cache.
+     * Components are immutable, so a cached one can be shared and decorated freely.
+     */
+    private Component toComponent(String text) {
+        synchronized (componentCache) {
+            return componentCache.get(text, LEGACY_SERIALIZER::deserialize);
         }
-
-        return message;
     }
 
     /**
      * Checks if a message key exists.
      */
     public boolean hasKey(String key) {
-        return messages.containsKey(key);
+        return templates.containsKey(key);
     }
 
     // ==================== Language File Upgrade ====================
@@ -0,0 +1,179 @@
+package cat.nyaa.survivors.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A language entry compiled at load time: literal segments with color codes already
+ * converted ({@code &} to {@code §}) and the placeholder slots ({@code {name}}) between them.
+ *
+ * <p>Rendering fills slots the same way the old string replacement did: a numeric slot
+ * {@code {i}} takes the i-th argument, otherwise a named slot takes the value following an
+ * equal key in paired arguments ({@code key, value, key, value...}). Unmatched slots are
+ * kept as written. Inserted values get the same color code conversion.
+ *
+ * <p>Immutable and safe to share between threads.
+ */
+final class MessageTemplate {
+
+    private final String raw;
+
+    // literals.length == slots.length + 1; a message without slots is one literal
+    private final String[] literals;
+    private final String[] slots;
+    private final int[] slotIndexes;
+
+    // The colored message with placeholders left as written
+    private final String text;
+
+    private MessageTemplate(String raw, String[] literals, String[] slots, int[] slotIndexes) {
+        this.raw = raw;
+        this.literals = literals;
+        this.slots = slots;
+        this.slotIndexes = slotIndexes;
+        this.text = colorize(raw);
+    }
+
+    /**
+     * Compiles a raw message.
+     */
+    static MessageTemplate compile(String raw) {
+        String message = raw != null ? raw : "";
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < message.length()) {
+            char c = message.charAt(i);
+            if (c == '{') {
+                int close = message.indexOf('}', i + 1);
+                int nextOpen = message.indexOf('{', i + 1);
+                if (close > i + 1 && (nextOpen == -1 || nextOpen > close)) {
+                    literals.add(colorize(literal.toString()));
+                    literal.setLength(0);
+                    slots.add(message.substring(i + 1, close));
+                    i = close + 1;
+                    continue;
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(colorize(literal.toString()));
+
+        int[] slotIndexes = new int[slots.size()];
+        for (int s = 0; s < slotIndexes.length; s++) {
+            slotIndexes[s] = parseIndex(slots.get(s));
+        }
+        return new MessageTemplate(message, literals.toArray(new String[0]), slots.toArray(new String[0]), slotIndexes);
+    }
+
+    /**
+     * Gets the message as written in the language file.
+     */
+    String getRaw() {
+        return raw;
+    }
+
+    /**
+     * Checks if the message has no placeholder slots.
+     */
+    boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    /**
+     * Gets the colored message with placeholders left as written.
+     */
+    String getText() {
+        return text;
+    }
+
+    /**
+     * Renders the message with indexed or paired named arguments.
+     */
+    String render(Object... args) {
+        if (slots.length == 0 || args == null || args.length == 0) {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder(text.length() + 8 * slots.length);
+        sb.append(literals[0]);
+        for (int s = 0; s < slots.length; s++) {
+            String value = resolve(s, args);
+            if (value != null) {
+                appendColored(sb, value);
+            } else {
+                appendColored(sb.append('{'), slots[s]).append('}');
+            }
+            sb.append(literals[s + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Renders the message with named placeholders.
+     */
+    String render(Map<String, Object> placeholders) {
+        if (slots.length == 0 || placeholders.isEmpty()) {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder(text.length() + 8 * slots.length);
+        sb.append(literals[0]);
+        for (int s = 0; s < slots.length; s++) {
+            if (placeholders.containsKey(slots[s])) {
+                appendColored(sb, String.valueOf(placeholders.get(slots[s])));
+            } else {
+                appendColored(sb.append('{'), slots[s]).append('}');
+            }
+            sb.append(literals[s + 1]);
+        }
+        return sb.toString();
+    }
+
+    private String resolve(int slot, Object[] args) {
+        // Indexed first: {0}, {1}, etc. using positional args
+        int index = slotIndexes[slot];
+        if (index >= 0 && index < args.length) {
+            return String.valueOf(args[index]);
+        }
+
+        // Then named, if args are paired (key, value, key, value...)
+        if (args.length >= 2 && args.length % 2 == 0) {
+            String name = slots[slot];
+            for (int i = 0; i < args.length; i += 2) {
+                if (args[i] instanceof String key && key.equals(name)) {
+                    return String.valueOf(args[i + 1]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int parseIndex(String slot) {
+        if (slot.isEmpty() || slot.length() > 9) return -1;
+        int value = 0;
+        for (int i = 0; i < slot.length(); i++) {
+            char c = slot.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        // "{00}" is not what "{" + 0 + "}" produces
+        return String.valueOf(value).equals(slot) ? value : -1;
+    }
+
+    private static StringBuilder appendColored(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            sb.append(c == '&' ? '§' : c);
+        }
+        return sb;
+    }
+
+    static String colorize(String message) {
+        return message.replace('&', '§');
+    }
+}
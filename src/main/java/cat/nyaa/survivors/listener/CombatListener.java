@@ -9,6 +9,7 @@ import cat.nyaa.survivors.service.DamageContributionService;
 import cat.nyaa.survivors.service.RewardService;
 import cat.nyaa.survivors.service.StateService;
 import cat.nyaa.survivors.service.StatsService;
+import cat.nyaa.survivors.service.spawner.VrsMobRegistry;
 import org.bukkit.entity.AreaEffectCloud;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
@@ -32,7 +33,6 @@ import java.util.regex.Pattern;
  */
 public class CombatListener implements Listener {
 
-    private static final String VRS_MOB_TAG = "vrs_mob";
     private static final Pattern LEVEL_TAG_PATTERN = Pattern.compile("vrs_lvl_(\\d+)");
 
     /**
@@ -45,12 +45,14 @@ public class CombatListener implements Listener {
     private final ConfigService config;
     private final I18nService i18n;
     private final StateService state;
+    private final VrsMobRegistry mobRegistry;
 
     public CombatListener(KedamaSurvivorsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigService();
         this.i18n = plugin.getI18nService();
         this.state = plugin.getStateService();
+        this.mobRegistry = plugin.getSpawnerService().getMobRegistry();
     }
 
     /**
@@ -178,11 +180,12 @@ public class CombatListener implements Listener {
         // Check if this is a VRS mob
         if (!isVrsMob(entity)) return;
 
-        // Parse enemy level from tags
-        int enemyLevel = parseEnemyLevel(entity);
-
-        // Parse archetype from tags
-        String archetypeId = parseArchetype(entity);
+        // Level and archetype come from the registry entry, falling back to tags
+        VrsMobRegistry.TrackedMob tracked = mobRegistry.get(entity.getUniqueId()).orElse(null);
+        int enemyLevel = tracked != null && tracked.getLevel() >= 0 ? tracked.getLevel() : parseEnemyLevel(entity);
+        String archetypeId = tracked != null && tracked.getArchetypeId() != null
+                ? tracked.getArchetypeId()
+                : parseArchetype(entity);
 
         // Find the killer
         Player killer = entity.getKiller();
@@ -220,7 +223,7 @@ public class CombatListener implements Listener {
      * Checks if an entity is a VRS mob.
      */
     private boolean isVrsMob(Entity entity) {
-        return entity.getScoreboardTags().contains(VRS_MOB_TAG);
+        return mobRegistry.isTracked(entity) || entity.getScoreboardTags().contains(VrsMobRegistry.VRS_MOB_TAG);
     }
 
     /**
@@ -246,8 +249,8 @@ public class CombatListener implements Listener {
      */
     private String parseArchetype(Entity entity) {
         for (String tag : entity.getScoreboardTags()) {
-            if (tag.startsWith("vrs_arch_")) {
-                return tag.substring(9);
+            if (tag.startsWith(VrsMobRegistry.ARCHETYPE_TAG_PREFIX)) {
+                return tag.substring(VrsMobRegistry.ARCHETYPE_TAG_PREFIX.length());
             }
         }
         // Return first configured archetype as fallback
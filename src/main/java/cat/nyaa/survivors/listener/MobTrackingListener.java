@@ -0,0 +1,53 @@
+package cat.nyaa.survivors.listener;
+
+import cat.nyaa.survivors.KedamaSurvivorsPlugin;
+import cat.nyaa.survivors.service.spawner.VrsMobRegistry;
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+
+/**
+ * Keeps the VRS mob registry in sync with the world.
+ * Mobs are added on spawn or chunk load and removed on death, unload or removal.
+ */
+public class MobTrackingListener implements Listener {
+
+    private final VrsMobRegistry registry;
+
+    public MobTrackingListener(KedamaSurvivorsPlugin plugin) {
+        this.registry = plugin.getSpawnerService().getMobRegistry();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCreatureSpawn(CreatureSpawnEvent event) {
+        registry.track(event.getEntity());
+    }
+
+    /**
+     * Picks up mobs loaded from disk with their chunk.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAddToWorld(EntityAddToWorldEvent event) {
+        if (event.getEntity() instanceof LivingEntity living) {
+            registry.track(living);
+        }
+    }
+
+    /**
+     * Runs after CombatListener so rewards can still read the registry entry.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDeath(EntityDeathEvent event) {
+        registry.untrack(event.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        registry.untrack(event.getEntity().getUniqueId());
+    }
+}
@@ -19,6 +19,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
@@ -49,10 +50,27 @@ public class PlayerListener implements Listener {
         this.persistence = plugin.getPersistenceService();
     }
 
+    /**
+     * Loads the player's persisted state off the main thread before they join,
+     * so the join handler does not read from disk.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        state.loadPlayer(event.getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         UUID playerId = player.getUniqueId();
+        state.markOnline(playerId);
+
+        // Pre-login normally loaded the player already; load here only if it could not
+        // (e.g. the plugin was enabled while the player was logging in)
+        if (!state.isResident(playerId)) {
+            state.loadPlayer(playerId);
+        }
 
         // Get or create player state
         PlayerState playerState = state.getOrCreatePlayer(playerId, player.getName());
@@ -65,6 +83,11 @@ public class PlayerListener implements Listener {
             handleReconnect(player, playerState);
         }
 
+        // Cooldowns only expire for online players
+        if (playerState.getMode() == PlayerMode.COOLDOWN) {
+            plugin.getCooldownDisplay().scheduleExpiry(playerState);
+        }
+
         // Validate player state - fix inconsistencies
         validateAndFixPlayerState(player, playerState);
 
@@ -155,6 +178,10 @@ public class PlayerListener implements Listener {
         Player player = event.getPlayer();
         UUID playerId = player.getUniqueId();
 
+        // Apply kill rewards queued this tick while the player is still in their run
+        plugin.getRewardService().flushKillRewards(playerId);
+        state.markOffline(playerId);
+
         Optional<PlayerState> playerStateOpt = state.getPlayer(playerId);
         if (playerStateOpt.isEmpty()) return;
 
@@ -180,6 +207,7 @@ public class PlayerListener implements Listener {
 
     private void handleReconnect(Player player, PlayerState playerState) {
         UUID playerId = player.getUniqueId();
+        plugin.getDisconnectChecker().cancel(playerId);
 
         // Check if still within grace period
         if (!playerState.isWithinGracePeriod(config.getDisconnectGraceMs())) {
@@ -208,6 +236,9 @@ public class PlayerListener implements Listener {
                 // Remove from disconnected tracking
                 state.markReconnected(playerId);
 
+                // Resume a pending upgrade deadline (auto-selects now if it passed while away)
+                plugin.getUpgradeReminderTask().scheduleDeadline(playerState);
+
                 // Apply invulnerability
                 long invulEnd = System.currentTimeMillis() + config.getRespawnInvulnerabilityMs();
                 playerState.setInvulnerableUntilMillis(invulEnd);
@@ -261,8 +292,9 @@ public class PlayerListener implements Listener {
         playerState.setMode(PlayerMode.DISCONNECTED);
         playerState.setDisconnectedAtMillis(System.currentTimeMillis());
 
-        // Track in disconnected set for efficient grace period checking
+        // Track in disconnected set and schedule grace expiry
         state.markDisconnected(playerId);
+        plugin.getDisconnectChecker().schedule(playerState);
 
         // Update team tracking
         Optional<TeamState> teamOpt = state.getPlayerTeam(playerId);
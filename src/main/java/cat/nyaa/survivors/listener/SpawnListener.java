@@ -3,6 +3,7 @@ package cat.nyaa.survivors.listener;
 import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.config.ConfigService;
 import cat.nyaa.survivors.service.WorldService;
+import cat.nyaa.survivors.service.spawner.VrsMobRegistry;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -17,8 +18,6 @@ import org.bukkit.event.entity.CreatureSpawnEvent;
  */
 public class SpawnListener implements Listener {
 
-    private static final String VRS_MOB_TAG = "vrs_mob";
-
     private final KedamaSurvivorsPlugin plugin;
     private final ConfigService config;
     private final WorldService worldService;
@@ -49,7 +48,7 @@ public class SpawnListener implements Listener {
         }
 
         // Allow VRS-spawned mobs (they have the vrs_mob tag)
-        if (entity.getScoreboardTags().contains(VRS_MOB_TAG)) {
+        if (entity.getScoreboardTags().contains(VrsMobRegistry.VRS_MOB_TAG)) {
             return;
         }
 
@@ -78,7 +77,7 @@ public class SpawnListener implements Listener {
         //if (config.isVerbose()) {
         //    plugin.getLogger().info("[SpawnListener] Blocked " + entity.getType() + " in " +
         //            worldName + " (reason: " + reason + ", hasTag: " +
-        //            entity.getScoreboardTags().contains(VRS_MOB_TAG) + ")");
+        //            entity.getScoreboardTags().contains(VrsMobRegistry.VRS_MOB_TAG) + ")");
         //}
     }
 }
@@ -0,0 +1,45 @@
+package cat.nyaa.survivors.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter. Lock-free; may be incremented on any thread.
+ */
+public final class Counter {
+
+    private final String name;
+    private final String help;
+    private final MetricsRegistry registry;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help, MetricsRegistry registry) {
+        this.name = name;
+        this.help = help;
+        this.registry = registry;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public void increment() {
+        add(1L);
+    }
+
+    public void add(long amount) {
+        if (!registry.isEnabled() || amount <= 0) return;
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    public void reset() {
+        value.reset();
+    }
+}
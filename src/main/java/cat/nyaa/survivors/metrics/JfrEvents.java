@@ -0,0 +1,230 @@
+package cat.nyaa.survivors.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Custom Java Flight Recorder events for the spawn pipeline, rewards, persistence and run lifecycle.
+ *
+ * <p>Events carry run ids, worlds and sizes so a recording shows which run, player or archetype
+ * was behind a slow tick. Usage follows the JFR pattern:
+ *
+ * <pre>{@code
+ * JfrEvents.SpawnPlan event = new JfrEvents.SpawnPlan();
+ * event.begin();
+ * ... work ...
+ * if (event.shouldCommit()) {
+ *     event.plans = plans.size();
+ *     event.commit();
+ * }
+ * }</pre>
+ *
+ * When no recording has the event enabled, {@code shouldCommit()} is false, the fields are never
+ * filled and the JIT removes the event allocation, so the cost is close to zero.
+ *
+ * <p>Per-item events (one spawn, one kill) have a default threshold so recordings stay small;
+ * override it in the recording settings to capture every occurrence.
+ */
+public final class JfrEvents {
+
+    private static final String CATEGORY = "KedamaSurvivors";
+
+    private JfrEvents() {}
+
+    @Name("cat.nyaa.survivors.SpawnCollect")
+    @Label("Spawn Context Collection")
+    @Description("Spawn phase A: spawn contexts collected from active runs (main thread)")
+    @Category({CATEGORY, "Spawner"})
+    @StackTrace(false)
+    public static final class SpawnCollect extends Event {
+        @Label("Active Runs")
+        public int runs;
+
+        @Label("Contexts")
+        public int contexts;
+    }
+
+    @Name("cat.nyaa.survivors.SpawnPlan")
+    @Label("Spawn Planning")
+    @Description("Spawn phase B: plans computed for one spawn tick (planner thread)")
+    @Category({CATEGORY, "Spawner"})
+    @StackTrace(false)
+    public static final class SpawnPlan extends Event {
+        @Label("Contexts")
+        public int contexts;
+
+        @Label("Partitions")
+        @Description("Runs planned as separate partitions")
+        public int partitions;
+
+        @Label("Plans")
+        public int plans;
+    }
+
+    @Name("cat.nyaa.survivors.SpawnPlanContext")
+    @Label("Spawn Planning (Player)")
+    @Description("Spawn phase B: plans computed for one player's spawn context")
+    @Category({CATEGORY, "Spawner"})
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class SpawnPlanContext extends Event {
+        @Label("Run Id")
+        public String runId;
+
+        @Label("World")
+        public String world;
+
+        @Label("Player Id")
+        public String playerId;
+
+        @Label("Enemy Level")
+        public int enemyLevel;
+
+        @Label("Requested")
+        public int requested;
+
+        @Label("Planned")
+        public int planned;
+    }
+
+    @Name("cat.nyaa.survivors.SpawnExecute")
+    @Label("Spawn Execution")
+    @Description("Spawn phase C: one batch of spawn plans executed (main thread)")
+    @Category({CATEGORY, "Spawner"})
+    @StackTrace(false)
+    public static final class SpawnExecute extends Event {
+        @Label("Plans")
+        public int plans;
+
+        @Label("Spawned")
+        public int spawned;
+
+        @Label("Commands")
+        public int commands;
+
+        @Label("Carried Over")
+        public int pending;
+    }
+
+    @Name("cat.nyaa.survivors.SpawnDispatch")
+    @Label("Mob Spawn")
+    @Description("One planned mob spawned natively or through its spawn commands")
+    @Category({CATEGORY, "Spawner"})
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class SpawnDispatch extends Event {
+        @Label("Run Id")
+        public String runId;
+
+        @Label("World")
+        public String world;
+
+        @Label("Player Id")
+        public String playerId;
+
+        @Label("Archetype")
+        public String archetypeId;
+
+        @Label("Enemy Level")
+        public int enemyLevel;
+
+        @Label("Native")
+        public boolean nativeSpawn;
+
+        @Label("Commands")
+        public int commands;
+    }
+
+    @Name("cat.nyaa.survivors.KillReward")
+    @Label("Kill Reward")
+    @Description("Rewards rolled for one VRS mob kill")
+    @Category({CATEGORY, "Rewards"})
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class KillReward extends Event {
+        @Label("Run Id")
+        public String runId;
+
+        @Label("Player Id")
+        public String playerId;
+
+        @Label("Archetype")
+        public String archetypeId;
+
+        @Label("Enemy Level")
+        public int enemyLevel;
+    }
+
+    @Name("cat.nyaa.survivors.PersistenceSave")
+    @Label("Persistence Save")
+    @Description("Full save cycle of players, teams, merchants and the player index")
+    @Category({CATEGORY, "Persistence"})
+    @StackTrace(false)
+    public static final class PersistenceSave extends Event {
+        @Label("Player Files")
+        public int playerFiles;
+
+        @Label("Players Skipped")
+        public int playersSkipped;
+
+        @Label("Files")
+        public int files;
+
+        @Label("Bytes Written")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("cat.nyaa.survivors.RunStart")
+    @Label("Run Start")
+    @Description("A team's run started (world selection, player setup, teleports queued)")
+    @Category({CATEGORY, "Runs"})
+    @StackTrace(false)
+    public static final class RunStart extends Event {
+        @Label("Run Id")
+        public String runId;
+
+        @Label("Team Id")
+        public String teamId;
+
+        @Label("World")
+        public String world;
+
+        @Label("Players")
+        public int players;
+
+        @Label("Started")
+        public boolean started;
+    }
+
+    @Name("cat.nyaa.survivors.RunEnd")
+    @Label("Run End")
+    @Description("A run ended and its players were reset and sent back")
+    @Category({CATEGORY, "Runs"})
+    @StackTrace(false)
+    public static final class RunEnd extends Event {
+        @Label("Run Id")
+        public String runId;
+
+        @Label("World")
+        public String world;
+
+        @Label("Reason")
+        public String reason;
+
+        @Label("Players")
+        public int players;
+
+        @Label("Kills")
+        public int kills;
+
+        @Label("Duration (s)")
+        public long durationSeconds;
+    }
+}
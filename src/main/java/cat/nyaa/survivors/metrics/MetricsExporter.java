@@ -0,0 +1,127 @@
+package cat.nyaa.survivors.metrics;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+
+/**
+ * Periodically writes the metrics registry to {@code metrics.prom} in the Prometheus text format,
+ * e.g. for the node_exporter textfile collector.
+ *
+ * <p>The current file is always replaced atomically. Before each write the previous snapshot is
+ * kept as {@code metrics.prom.1}, older ones shift to {@code .2}, {@code .3} and so on, up to the
+ * configured number of history files.
+ *
+ * <p>Metrics are rendered on the main thread (gauges read live state) and written asynchronously.
+ */
+public class MetricsExporter {
+
+    static final String FILE_NAME = "metrics.prom";
+
+    private final Plugin plugin;
+    private final MetricsRegistry registry;
+    private final Path directory;
+    private final IntSupplier historyFilesSupplier;
+    private int taskId = -1;
+
+    /**
+     * @param directory            directory for the metrics files
+     * @param historyFilesSupplier number of previous snapshots to keep (0 keeps only the current file)
+     */
+    public MetricsExporter(Plugin plugin, MetricsRegistry registry, Path directory, IntSupplier historyFilesSupplier) {
+        this.plugin = plugin;
+        this.registry = registry;
+        this.directory = directory;
+        this.historyFilesSupplier = historyFilesSupplier;
+    }
+
+    /**
+     * Starts periodic export.
+     */
+    public void start(int intervalSeconds) {
+        if (taskId != -1 || intervalSeconds <= 0) {
+            return;
+        }
+
+        long intervalTicks = intervalSeconds * 20L;
+        taskId = Bukkit.getScheduler().runTaskTimer(plugin, this::exportAsync, intervalTicks, intervalTicks).getTaskId();
+        plugin.getLogger().info("Metrics export started (interval: " + intervalSeconds + "s, file: "
+                + directory.resolve(FILE_NAME) + ")");
+    }
+
+    /**
+     * Stops periodic export.
+     */
+    public void stop() {
+        if (taskId != -1) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+    }
+
+    public boolean isRunning() {
+        return taskId != -1;
+    }
+
+    /**
+     * Renders metrics now and writes them on an async thread. Main thread only.
+     */
+    public void exportAsync() {
+        String text = registry.toPrometheusText();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                write(text);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to export metrics", e);
+            }
+        });
+    }
+
+    /**
+     * Gets the path of the current metrics file.
+     */
+    public Path getFile() {
+        return directory.resolve(FILE_NAME);
+    }
+
+    synchronized void write(String text) throws IOException {
+        Files.createDirectories(directory);
+
+        Path temp = directory.resolve(FILE_NAME + ".tmp");
+        Files.writeString(temp, text, StandardCharsets.UTF_8);
+
+        rotate(Math.max(0, historyFilesSupplier.getAsInt()));
+        Files.move(temp, getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Shifts history files up by one and copies the current file to {@code .1}.
+     * The current file stays in place until it is replaced.
+     */
+    private void rotate(int historyFiles) throws IOException {
+        Path current = getFile();
+        Files.deleteIfExists(history(historyFiles + 1));
+        if (historyFiles == 0 || !Files.exists(current)) {
+            return;
+        }
+
+        for (int i = historyFiles - 1; i >= 1; i--) {
+            Path from = history(i);
+            if (Files.exists(from)) {
+                Files.move(from, history(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.copy(current, history(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path history(int index) {
+        return directory.resolve(FILE_NAME + "." + index);
+    }
+}
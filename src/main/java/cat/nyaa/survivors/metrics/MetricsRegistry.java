@@ -0,0 +1,154 @@
+package cat.nyaa.survivors.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of plugin metrics: counters, gauges and latency histograms (timers).
+ *
+ * <p>Metrics are created once, usually in service constructors, and the returned handles
+ * are kept in fields; recording through a handle is allocation-free. Creating a metric
+ * that already exists returns the existing one. While the registry is disabled, counters
+ * and timers ignore recorded values.
+ *
+ * <p>Timers record nanoseconds and are exported in seconds, following Prometheus naming
+ * (names end in {@code _seconds}, counters in {@code _total}).
+ */
+public class MetricsRegistry {
+
+    /** Quantiles reported for every timer */
+    static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    /**
+     * A gauge read when metrics are reported.
+     */
+    public record Gauge(String name, String help, DoubleSupplier value) {}
+
+    private final Map<String, Counter> counters = new LinkedHashMap<>();
+    private final Map<String, Gauge> gauges = new LinkedHashMap<>();
+    private final Map<String, LatencyHistogram> timers = new LinkedHashMap<>();
+
+    private volatile boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets or creates a counter.
+     */
+    public synchronized Counter counter(String name, String help) {
+        return counters.computeIfAbsent(name, n -> new Counter(n, help, this));
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     * The supplier is called on the thread that reports metrics (the main thread).
+     */
+    public synchronized void gauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(name, help, value));
+    }
+
+    /**
+     * Gets or creates a latency histogram recording nanoseconds.
+     */
+    public synchronized LatencyHistogram timer(String name, String help) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram(n, help, this));
+    }
+
+    public synchronized List<Counter> getCounters() {
+        return new ArrayList<>(counters.values());
+    }
+
+    public synchronized List<Gauge> getGauges() {
+        return new ArrayList<>(gauges.values());
+    }
+
+    public synchronized List<LatencyHistogram> getTimers() {
+        return new ArrayList<>(timers.values());
+    }
+
+    /**
+     * Clears all counters and timers. Gauges are unaffected.
+     */
+    public void reset() {
+        for (Counter counter : getCounters()) {
+            counter.reset();
+        }
+        for (LatencyHistogram timer : getTimers()) {
+            timer.reset();
+        }
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format.
+     * Gauges are read here, so call this on the main thread.
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(4096);
+
+        for (Counter counter : getCounters()) {
+            writeHeader(out, counter.getName(), counter.getHelp(), "counter");
+            out.append(counter.getName()).append(' ').append(counter.get()).append('\n');
+        }
+
+        for (Gauge gauge : getGauges()) {
+            double value;
+            try {
+                value = gauge.value().getAsDouble();
+            } catch (RuntimeException e) {
+                value = Double.NaN;
+            }
+            writeHeader(out, gauge.name(), gauge.help(), "gauge");
+            out.append(gauge.name()).append(' ');
+            appendDouble(out, value);
+            out.append('\n');
+        }
+
+        for (LatencyHistogram timer : getTimers()) {
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            String name = timer.getName();
+            writeHeader(out, name, timer.getHelp(), "summary");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(quantile).append("\"} ");
+                appendDouble(out, toSeconds(snapshot.getValueAtQuantile(quantile)));
+                out.append('\n');
+            }
+            out.append(name).append("_sum ");
+            appendDouble(out, toSeconds(snapshot.getSumNanos()));
+            out.append('\n');
+            out.append(name).append("_count ").append(snapshot.getCount()).append('\n');
+        }
+
+        return out.toString();
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String help, String type) {
+        if (help != null && !help.isEmpty()) {
+            out.append("# HELP ").append(name).append(' ')
+                    .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        }
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void appendDouble(StringBuilder out, double value) {
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
@@ -73,6 +73,23 @@ public class PlayerState {
     // Persistent player statistics
     private final PlayerStats stats = new PlayerStats();
 
+    // Bumped when a persisted field changes (see getDirtyVersion)
+    private volatile long version;
+
+    // Last lookup through StateService, for least-recently-used eviction
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    // Notified on mode transitions (StateService keeps its mode index with this)
+    private volatile ModeListener modeListener;
+
+    /**
+     * Receives player mode transitions.
+     */
+    @FunctionalInterface
+    public interface ModeListener {
+        void onModeChanged(PlayerState player, PlayerMode from, PlayerMode to);
+    }
+
     public PlayerState(UUID uuid, String name) {
         this.uuid = uuid;
         this.name = name;
@@ -141,6 +158,30 @@ public class PlayerState {
         return starterWeaponOptionId != null && starterHelmetOptionId != null;
     }
 
+    /**
+     * Gets a counter that increases whenever a persisted field or stat changes.
+     * Persistence compares it with the version it last wrote to skip unchanged players.
+     */
+    public long getDirtyVersion() {
+        return version + stats.getVersion();
+    }
+
+    private void markDirty() {
+        version++;
+    }
+
+    /**
+     * Stamps the last access (load, join, quit or save), used for residency eviction.
+     * Lookups do not stamp it, so hot paths stay free of volatile writes.
+     */
+    public void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
     // ==================== State Management ====================
 
     /**
@@ -171,6 +212,7 @@ public class PlayerState {
     public void clearStarterSelections() {
         starterWeaponOptionId = null;
         starterHelmetOptionId = null;
+        markDirty();
     }
 
     /**
@@ -178,7 +220,7 @@ public class PlayerState {
      */
     public void resetAll() {
         resetRunState();
-        mode = PlayerMode.LOBBY;
+        setMode(PlayerMode.LOBBY);
         ready = false;
         clearStarterSelections();
         cooldownUntilMillis = 0;
@@ -187,6 +229,7 @@ public class PlayerState {
         synchronized (pendingRewards) {
             pendingRewards.clear();
         }
+        markDirty();
     }
 
     // ==================== Pending Rewards ====================
@@ -226,10 +269,24 @@ public class PlayerState {
     public UUID getUuid() { return uuid; }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) { this.name = name; markDirty(); }
 
     public PlayerMode getMode() { return mode; }
-    public void setMode(PlayerMode mode) { this.mode = mode; }
+    public synchronized void setMode(PlayerMode mode) {
+        PlayerMode from = this.mode;
+        this.mode = mode;
+        markDirty();
+        if (from != mode && modeListener != null) {
+            modeListener.onModeChanged(this, from, mode);
+        }
+    }
+
+    /**
+     * Sets the listener notified on mode transitions (null to clear).
+     */
+    public synchronized void setModeListener(ModeListener modeListener) {
+        this.modeListener = modeListener;
+    }
 
     public UUID getTeamId() { return teamId; }
     public void setTeamId(UUID teamId) { this.teamId = teamId; }
@@ -241,7 +298,7 @@ public class PlayerState {
     public void setLastTeamId(UUID lastTeamId) { this.lastTeamId = lastTeamId; }
 
     public long getCooldownUntilMillis() { return cooldownUntilMillis; }
-    public void setCooldownUntilMillis(long cooldownUntilMillis) { this.cooldownUntilMillis = cooldownUntilMillis; }
+    public void setCooldownUntilMillis(long cooldownUntilMillis) { this.cooldownUntilMillis = cooldownUntilMillis; markDirty(); }
 
     public long getDisconnectedAtMillis() { return disconnectedAtMillis; }
     public void setDisconnectedAtMillis(long disconnectedAtMillis) { this.disconnectedAtMillis = disconnectedAtMillis; }
@@ -253,10 +310,10 @@ public class PlayerState {
     public void setReady(boolean ready) { this.ready = ready; }
 
     public String getStarterWeaponOptionId() { return starterWeaponOptionId; }
-    public void setStarterWeaponOptionId(String starterWeaponOptionId) { this.starterWeaponOptionId = starterWeaponOptionId; }
+    public void setStarterWeaponOptionId(String starterWeaponOptionId) { this.starterWeaponOptionId = starterWeaponOptionId; markDirty(); }
 
     public String getStarterHelmetOptionId() { return starterHelmetOptionId; }
-    public void setStarterHelmetOptionId(String starterHelmetOptionId) { this.starterHelmetOptionId = starterHelmetOptionId; }
+    public void setStarterHelmetOptionId(String starterHelmetOptionId) { this.starterHelmetOptionId = starterHelmetOptionId; markDirty(); }
 
     public String getWeaponGroup() { return weaponGroup; }
     public void setWeaponGroup(String weaponGroup) { this.weaponGroup = weaponGroup; }
@@ -292,7 +349,7 @@ public class PlayerState {
     public void setOverflowXpAccumulated(int overflowXpAccumulated) { this.overflowXpAccumulated = overflowXpAccumulated; }
 
     public int getPermaScore() { return permaScore; }
-    public void setPermaScore(int permaScore) { this.permaScore = permaScore; }
+    public void setPermaScore(int permaScore) { this.permaScore = permaScore; markDirty(); }
 
     public boolean isWeaponAtMax() { return weaponAtMax; }
     public void setWeaponAtMax(boolean weaponAtMax) { this.weaponAtMax = weaponAtMax; }
@@ -304,7 +361,7 @@ public class PlayerState {
     public void setRunLevel(int runLevel) { this.runLevel = runLevel; }
 
     public int getBalance() { return balance; }
-    public void setBalance(int balance) { this.balance = balance; }
+    public void setBalance(int balance) { this.balance = balance; markDirty(); }
 
     public PlayerStats getStats() { return stats; }
 }
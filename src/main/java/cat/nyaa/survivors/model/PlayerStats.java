@@ -42,6 +42,9 @@ public class PlayerStats {
     private long totalStageRewardCoins = 0;
     private long totalStageRewardPermaScore = 0;
 
+    // Bumped on every change, compared against the last saved version by persistence
+    private volatile long version;
+
     // ==================== Time Stats ====================
 
     public long getTotalRunTimeSeconds() {
@@ -51,6 +54,7 @@ public class PlayerStats {
     public void addRunTime(long seconds) {
         if (seconds > 0) {
             totalRunTimeSeconds += seconds;
+            markDirty();
         }
     }
 
@@ -61,6 +65,7 @@ public class PlayerStats {
     public void updateLongestRunTime(long seconds) {
         if (seconds > longestRunTimeSeconds) {
             longestRunTimeSeconds = seconds;
+            markDirty();
         }
     }
 
@@ -71,6 +76,7 @@ public class PlayerStats {
     public void updateShortestRunTime(long seconds) {
         if (seconds > 0 && seconds < shortestRunTimeSeconds) {
             shortestRunTimeSeconds = seconds;
+            markDirty();
         }
     }
 
@@ -82,6 +88,7 @@ public class PlayerStats {
 
     public void incrementTotalKills() {
         totalKills++;
+        markDirty();
     }
 
     public int getLongestKillStreak() {
@@ -91,6 +98,7 @@ public class PlayerStats {
     public void updateLongestKillStreak(int streak) {
         if (streak > longestKillStreak) {
             longestKillStreak = streak;
+            markDirty();
         }
     }
 
@@ -101,6 +109,7 @@ public class PlayerStats {
     public void updateHighestKillsInRun(int kills) {
         if (kills > highestKillsInRun) {
             highestKillsInRun = kills;
+            markDirty();
         }
     }
 
@@ -113,6 +122,7 @@ public class PlayerStats {
     public void updateHighestDamageDealt(double damage) {
         if (damage > highestDamageDealt) {
             highestDamageDealt = damage;
+            markDirty();
         }
     }
 
@@ -123,6 +133,7 @@ public class PlayerStats {
     public void addDamageDealt(double damage) {
         if (damage > 0) {
             totalDamageDealt += damage;
+            markDirty();
         }
     }
 
@@ -135,6 +146,7 @@ public class PlayerStats {
     public void updateHighestDamageTaken(double damage) {
         if (damage > highestDamageTaken) {
             highestDamageTaken = damage;
+            markDirty();
         }
     }
 
@@ -145,6 +157,7 @@ public class PlayerStats {
     public void addDamageTaken(double damage) {
         if (damage > 0) {
             totalDamageTaken += damage;
+            markDirty();
         }
     }
 
@@ -157,6 +170,7 @@ public class PlayerStats {
     public void updateHighestPlayerLevel(int level) {
         if (level > highestPlayerLevel) {
             highestPlayerLevel = level;
+            markDirty();
         }
     }
 
@@ -167,6 +181,7 @@ public class PlayerStats {
     public void updateHighestTeamLevel(int level) {
         if (level > highestTeamLevel) {
             highestTeamLevel = level;
+            markDirty();
         }
     }
 
@@ -178,6 +193,7 @@ public class PlayerStats {
 
     public void incrementTotalDeaths() {
         totalDeaths++;
+        markDirty();
     }
 
     public int getMostDeathsInRun() {
@@ -187,6 +203,7 @@ public class PlayerStats {
     public void updateMostDeathsInRun(int deaths) {
         if (deaths > mostDeathsInRun) {
             mostDeathsInRun = deaths;
+            markDirty();
         }
     }
 
@@ -196,6 +213,7 @@ public class PlayerStats {
 
     public void incrementRunCount() {
         runCount++;
+        markDirty();
     }
 
     public int getFailedRunCount() {
@@ -204,6 +222,7 @@ public class PlayerStats {
 
     public void incrementFailedRunCount() {
         failedRunCount++;
+        markDirty();
     }
 
     // ==================== Segmented Progression Stats ====================
@@ -214,6 +233,7 @@ public class PlayerStats {
 
     public void incrementTotalBatteriesCompleted() {
         totalBatteriesCompleted++;
+        markDirty();
     }
 
     public int getTotalStageClears() {
@@ -222,6 +242,7 @@ public class PlayerStats {
 
     public void incrementTotalStageClears() {
         totalStageClears++;
+        markDirty();
     }
 
     public int getHighestStageCleared() {
@@ -231,6 +252,7 @@ public class PlayerStats {
     public void updateHighestStageCleared(int stageIndexOneBased) {
         if (stageIndexOneBased > highestStageCleared) {
             highestStageCleared = stageIndexOneBased;
+            markDirty();
         }
     }
 
@@ -240,6 +262,7 @@ public class PlayerStats {
 
     public void incrementCampaignCompletions() {
         campaignCompletions++;
+        markDirty();
     }
 
     public long getTotalStageRewardCoins() {
@@ -249,6 +272,7 @@ public class PlayerStats {
     public void addStageRewardCoins(int coins) {
         if (coins > 0) {
             totalStageRewardCoins += coins;
+            markDirty();
         }
     }
 
@@ -259,11 +283,23 @@ public class PlayerStats {
     public void addStageRewardPermaScore(int permaScore) {
         if (permaScore > 0) {
             totalStageRewardPermaScore += permaScore;
+            markDirty();
         }
     }
 
     // ==================== Utility ====================
 
+    /**
+     * Gets the change counter. Increases whenever any stat changes.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private void markDirty() {
+        version++;
+    }
+
     /**
      * Checks if the player has any recorded stats (i.e., has played at least one run).
      */
@@ -306,89 +342,111 @@ public class PlayerStats {
 
     public void setTotalRunTimeSeconds(long totalRunTimeSeconds) {
         this.totalRunTimeSeconds = totalRunTimeSeconds;
+        markDirty();
     }
 
     public void setLongestRunTimeSeconds(long longestRunTimeSeconds) {
         this.longestRunTimeSeconds = longestRunTimeSeconds;
+        markDirty();
     }
 
     public void setShortestRunTimeSeconds(long shortestRunTimeSeconds) {
         this.shortestRunTimeSeconds = shortestRunTimeSeconds;
+        markDirty();
     }
 
     public void setTotalKills(int totalKills) {
         this.totalKills = totalKills;
+        markDirty();
     }
 
     public void setLongestKillStreak(int longestKillStreak) {
         this.longestKillStreak = longestKillStreak;
+        markDirty();
     }
 
     public void setHighestKillsInRun(int highestKillsInRun) {
         this.highestKillsInRun = highestKillsInRun;
+        markDirty();
     }
 
     public void setHighestDamageDealt(double highestDamageDealt) {
         this.highestDamageDealt = highestDamageDealt;
+        markDirty();
     }
 
     public void setTotalDamageDealt(double totalDamageDealt) {
         this.totalDamageDealt = totalDamageDealt;
+        markDirty();
     }
 
     public void setHighestDamageTaken(double highestDamageTaken) {
         this.highestDamageTaken = highestDamageTaken;
+        markDirty();
     }
 
     public void setTotalDamageTaken(double totalDamageTaken) {
         this.totalDamageTaken = totalDamageTaken;
+        markDirty();
     }
 
     public void setHighestPlayerLevel(int highestPlayerLevel) {
         this.highestPlayerLevel = highestPlayerLevel;
+        markDirty();
     }
 
     public void setHighestTeamLevel(int highestTeamLevel) {
         this.highestTeamLevel = highestTeamLevel;
+        markDirty();
     }
 
     public void setTotalDeaths(int totalDeaths) {
         this.totalDeaths = totalDeaths;
+        markDirty();
     }
 
     public void setMostDeathsInRun(int mostDeathsInRun) {
         this.mostDeathsInRun = mostDeathsInRun;
+        markDirty();
     }
 
     public void setRunCount(int runCount) {
         this.runCount = runCount;
+        markDirty();
     }
 
     public void setFailedRunCount(int failedRunCount) {
         this.failedRunCount = failedRunCount;
+        markDirty();
     }
 
     public void setTotalBatteriesCompleted(int totalBatteriesCompleted) {
         this.totalBatteriesCompleted = totalBatteriesCompleted;
+        markDirty();
     }
 
     public void setTotalStageClears(int totalStageClears) {
         this.totalStageClears = totalStageClears;
+        markDirty();
     }
 
     public void setHighestStageCleared(int highestStageCleared) {
         this.highestStageCleared = highestStageCleared;
+        markDirty();
     }
 
     public void setCampaignCompletions(int campaignCompletions) {
         this.campaignCompletions = campaignCompletions;
+        markDirty();
     }
 
     public void setTotalStageRewardCoins(long totalStageRewardCoins) {
         this.totalStageRewardCoins = totalStageRewardCoins;
+        markDirty();
     }
 
     public void setTotalStageRewardPermaScore(long totalStageRewardPermaScore) {
         this.totalStageRewardPermaScore = totalStageRewardPermaScore;
+        markDirty();
     }
 }
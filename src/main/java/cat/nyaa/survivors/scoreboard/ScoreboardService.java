@@ -4,14 +4,17 @@ import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.config.ConfigService;
 import cat.nyaa.survivors.economy.EconomyService;
 import cat.nyaa.survivors.i18n.I18nService;
+import cat.nyaa.survivors.metrics.LatencyHistogram;
+import cat.nyaa.survivors.metrics.MetricsRegistry;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.model.RunState;
 import cat.nyaa.survivors.model.TeamState;
 import cat.nyaa.survivors.service.StateService;
+import cat.nyaa.survivors.util.LruCache;
+import cat.nyaa.survivors.util.TickDriver;
 import fr.mrmicky.fastboard.adventure.FastBoard;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.Criteria;
 import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
@@ -22,16 +25,43 @@ import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Manages scoreboard display for players in runs.
  * Uses FastBoard for packet-based sidebar (coexists with other plugins' scoreboards).
  * Perma-score objective is managed on the main Bukkit scoreboard.
+ *
+ * <p>Each sidebar is a {@link SidebarModel}: a segment (levels, XP, coins, team, timer, ...)
+ * is only re-rendered when its inputs changed, only changed lines are sent, and line
+ * Components are cached per distinct string.
  */
 public class ScoreboardService {
 
+    private static final int LINE_COMPONENT_CACHE_SIZE = 1024;
+
+    // Sidebar layouts and their segments, in display order
+    private static final int LAYOUT_RUN = 1;
+    private static final int RUN_LEVELS = 0;
+    private static final int RUN_SPACER_1 = 1;
+    private static final int RUN_XP = 2;
+    private static final int RUN_UPGRADE = 3;
+    private static final int RUN_COINS = 4;
+    private static final int RUN_SPACER_2 = 5;
+    private static final int RUN_PERMA = 6;
+    private static final int RUN_TEAM = 7;
+    private static final int RUN_TIME = 8;
+    private static final int RUN_SEGMENTS = 9;
+
+    private static final int LAYOUT_LOBBY = 2;
+    private static final int LOBBY_COINS = 0;
+    private static final int LOBBY_PERMA = 1;
+    private static final int LOBBY_SPACER_1 = 2;
+    private static final int LOBBY_TEAM = 3;
+    private static final int LOBBY_SPACER_2 = 4;
+    private static final int LOBBY_STATUS = 5;
+    private static final int LOBBY_STARTERS = 6;
+    private static final int LOBBY_SEGMENTS = 7;
+
     private final KedamaSurvivorsPlugin plugin;
     private final ConfigService config;
     private final I18nService i18n;
@@ -43,24 +73,23 @@ public class ScoreboardService {
     // FastBoard instances for packet-based sidebar (doesn't replace player's scoreboard)
     private final Map<UUID, FastBoard> playerBoards = new ConcurrentHashMap<>();
 
-    // Dirty-flag tracking for incremental updates
-    private final Map<UUID, Map<Integer, String>> previousLines = new ConcurrentHashMap<>();
+    // Line models for incremental updates
+    private final Map<UUID, SidebarModel> sidebarModels = new ConcurrentHashMap<>();
+
+    // Deserialized line Components, shared by all sidebars (main thread only)
+    private final LruCache<String, Component> lineComponents = new LruCache<>(LINE_COMPONENT_CACHE_SIZE);
 
     // Cached player balances (updated on main thread before async scoreboard build)
     private final Map<UUID, Integer> cachedBalances = new ConcurrentHashMap<>();
 
     // Upgrade reminder state per player (for SCOREBOARD mode)
     private final Map<UUID, Boolean> upgradeReminderFlashState = new ConcurrentHashMap<>();
-    private final Map<UUID, BukkitTask> upgradeReminderFlashTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, TickDriver.Job> upgradeReminderFlashTasks = new ConcurrentHashMap<>();
 
-    // Async executor for building scoreboard lines
-    private final ExecutorService asyncExecutor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "VRS-ScoreboardBuilder");
-        t.setDaemon(true);
-        return t;
-    });
+    private TickDriver.Job updateJob;
 
-    private int taskId = -1;
+    private final LatencyHistogram buildTimer;
+    private final LatencyHistogram applyTimer;
 
     public ScoreboardService(KedamaSurvivorsPlugin plugin) {
         this.plugin = plugin;
@@ -69,6 +98,10 @@ public class ScoreboardService {
         this.state = plugin.getStateService();
         this.economy = plugin.getEconomyService();
         this.scoreboardManager = Bukkit.getScoreboardManager();
+
+        MetricsRegistry metrics = plugin.getMetricsRegistry();
+        this.buildTimer = metrics.timer("vrs_scoreboard_build_seconds", "Sidebar line rendering per player");
+        this.applyTimer = metrics.timer("vrs_scoreboard_apply_seconds", "Sidebar line updates sent per player");
     }
 
     /**
@@ -80,9 +113,10 @@ public class ScoreboardService {
         // Register perma-score objective on main scoreboard
         registerPermaScoreObjective();
 
-        // Start update task
+        // Start update job on the tick driver
         int interval = config.getScoreboardUpdateInterval();
-        taskId = Bukkit.getScheduler().runTaskTimer(plugin, this::updateAllScoreboards, 20L, interval).getTaskId();
+        updateJob = plugin.getTickDriver().schedule(TickDriver.GLOBAL_OWNER, TickDriver.Phase.DISPLAY,
+                20, interval, this::updateAllScoreboards);
 
         plugin.getLogger().info("ScoreboardService started with update interval: " + interval + " ticks");
     }
@@ -91,16 +125,13 @@ public class ScoreboardService {
      * Stops the scoreboard update task.
      */
     public void stop() {
-        if (taskId != -1) {
-            Bukkit.getScheduler().cancelTask(taskId);
-            taskId = -1;
+        if (updateJob != null) {
+            updateJob.cancel();
+            updateJob = null;
         }
 
-        // Shutdown async executor
-        asyncExecutor.shutdown();
-
         // Cancel all upgrade reminder flash tasks
-        for (BukkitTask task : upgradeReminderFlashTasks.values()) {
+        for (TickDriver.Job task : upgradeReminderFlashTasks.values()) {
             task.cancel();
         }
         upgradeReminderFlashTasks.clear();
@@ -113,8 +144,19 @@ public class ScoreboardService {
             }
         }
         playerBoards.clear();
-        previousLines.clear();
+        sidebarModels.clear();
         cachedBalances.clear();
+        lineComponents.clear();
+    }
+
+    /**
+     * Re-renders every sidebar line on the next update, e.g. after the language was reloaded.
+     */
+    public void invalidateAll() {
+        lineComponents.clear();
+        for (SidebarModel model : sidebarModels.values()) {
+            model.invalidate();
+        }
     }
 
     /**
@@ -176,6 +218,7 @@ public class ScoreboardService {
         FastBoard board = new FastBoard(player);
         board.updateTitle(i18n.getComponent("scoreboard.title"));
         playerBoards.put(playerId, board);
+        sidebarModels.put(playerId, new SidebarModel());
 
         // Initial update
         updatePlayerSidebar(player);
@@ -187,7 +230,7 @@ public class ScoreboardService {
     public void removeSidebar(Player player) {
         UUID playerId = player.getUniqueId();
         FastBoard board = playerBoards.remove(playerId);
-        previousLines.remove(playerId);
+        sidebarModels.remove(playerId);
         cachedBalances.remove(playerId);
 
         if (board != null && !board.isDeleted()) {
@@ -197,214 +240,247 @@ public class ScoreboardService {
     }
 
     /**
-     * Updates all player scoreboards asynchronously.
-     * Builds scoreboard lines on async thread, applies changes on main thread.
+     * Refreshes all player sidebars.
+     * Only segments whose inputs changed (usually just the run timer) are re-rendered.
      */
     private void updateAllScoreboards() {
-        Set<UUID> playerIds = new HashSet<>(playerBoards.keySet());
-
-        // Cache balances on main thread (EconomyService.getBalance() may access Bukkit API)
-        for (UUID playerId : playerIds) {
+        Iterator<Map.Entry<UUID, FastBoard>> it = playerBoards.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, FastBoard> entry = it.next();
+            UUID playerId = entry.getKey();
             Player player = Bukkit.getPlayer(playerId);
-            if (player != null) {
-                cachedBalances.put(playerId, economy.getBalance(player));
-            }
-        }
-
-        asyncExecutor.submit(() -> {
-            Map<UUID, Map<Integer, String>> newLinesMap = new HashMap<>();
-
-            for (UUID playerId : playerIds) {
-                Map<Integer, String> lines = buildSidebarLines(playerId);
-                if (lines != null) {
-                    newLinesMap.put(playerId, lines);
+            if (player == null || !player.isOnline()) {
+                // Player offline - clean up
+                it.remove();
+                FastBoard board = entry.getValue();
+                if (!board.isDeleted()) {
+                    board.delete();
                 }
+                sidebarModels.remove(playerId);
+                cachedBalances.remove(playerId);
+                continue;
             }
 
-            // Apply changes on main thread
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                for (Map.Entry<UUID, Map<Integer, String>> entry : newLinesMap.entrySet()) {
-                    UUID playerId = entry.getKey();
-                    Player player = Bukkit.getPlayer(playerId);
-                    if (player != null && player.isOnline()) {
-                        applyLineChanges(playerId, entry.getValue());
-                    } else {
-                        // Player offline - clean up
-                        FastBoard board = playerBoards.remove(playerId);
-                        if (board != null && !board.isDeleted()) {
-                            board.delete();
-                        }
-                        previousLines.remove(playerId);
-                    }
-                }
-            });
-        });
+            // Cache balance (EconomyService.getBalance() may be costly); immediate updates reuse it
+            cachedBalances.put(playerId, economy.getBalance(player));
+            refreshSidebar(playerId);
+        }
     }
 
     /**
-     * Builds sidebar lines for a player (can run on async thread).
-     * Returns map of score -> line text.
+     * Re-renders a player's stale sidebar segments and sends the changed lines.
      */
-    private Map<Integer, String> buildSidebarLines(UUID playerId) {
+    private void refreshSidebar(UUID playerId) {
+        FastBoard board = playerBoards.get(playerId);
+        SidebarModel model = sidebarModels.get(playerId);
+        if (board == null || board.isDeleted() || model == null) return;
+
         Optional<PlayerState> playerStateOpt = state.getPlayer(playerId);
-        if (playerStateOpt.isEmpty()) return null;
+        if (playerStateOpt.isEmpty()) return;
+
+        long start = System.nanoTime();
+        renderSidebar(model, playerId, playerStateOpt.get());
+        long rendered = System.nanoTime();
+        buildTimer.record(rendered - start);
+        applyLineChanges(board, model);
+        applyTimer.recordSince(rendered);
+    }
 
-        PlayerState playerState = playerStateOpt.get();
-        Optional<TeamState> teamOpt = state.getPlayerTeam(playerId);
+    /**
+     * Renders the sidebar segments whose inputs changed since the last render.
+     * Content varies based on player mode (lobby vs in-run).
+     */
+    private void renderSidebar(SidebarModel model, UUID playerId, PlayerState playerState) {
+        TeamState team = state.getPlayerTeam(playerId).orElse(null);
         Optional<RunState> runOpt = state.getPlayerRun(playerId);
-
-        Map<Integer, String> lines = new LinkedHashMap<>();
-        int score = 15;
+        int totalBalance = cachedBalances.getOrDefault(playerId, 0);
 
         boolean inRun = runOpt.isPresent() && runOpt.get().isActive();
 
         if (inRun) {
             // =============== IN-RUN SCOREBOARD ===============
             RunState run = runOpt.get();
-
-            // Player level (run progression level)
-            lines.put(score--, i18n.get("scoreboard.player_level", "level", playerState.getRunLevel()));
-
-            // Weapon level
-            lines.put(score--, i18n.get("scoreboard.weapon_level", "level", playerState.getWeaponLevel()));
-
-            // Helmet level
-            lines.put(score--, i18n.get("scoreboard.helmet_level", "level", playerState.getHelmetLevel()));
+            model.begin(LAYOUT_RUN, RUN_SEGMENTS);
+
+            // Player level (run progression level), weapon level, helmet level
+            if (model.isStale(RUN_LEVELS, playerState.getRunLevel(), playerState.getWeaponLevel(),
+                    playerState.getHelmetLevel(), null)) {
+                model.addLine(RUN_LEVELS, i18n.get("scoreboard.player_level", "level", playerState.getRunLevel()));
+                model.addLine(RUN_LEVELS, i18n.get("scoreboard.weapon_level", "level", playerState.getWeaponLevel()));
+                model.addLine(RUN_LEVELS, i18n.get("scoreboard.helmet_level", "level", playerState.getHelmetLevel()));
+            }
 
             // Empty line
-            lines.put(score--, " ");
+            if (model.isStale(RUN_SPACER_1, 0)) {
+                model.addLine(RUN_SPACER_1, " ");
+            }
 
             // XP bar
-            String xpBar = buildXpBar(playerState);
-            lines.put(score--, i18n.get("scoreboard.xp", "bar", xpBar, "percent", getXpPercent(playerState)));
+            if (model.isStale(RUN_XP, playerState.getXpProgress(), playerState.getXpRequired(), 0, null)) {
+                String xpBar = buildXpBar(playerState);
+                model.addLine(RUN_XP, i18n.get("scoreboard.xp", "bar", xpBar, "percent", getXpPercent(playerState)));
+            }
 
-            // Upgrade countdown (only when pending and not both at max)
-            if (playerState.isUpgradePending() &&
-                    !(playerState.isWeaponAtMax() && playerState.isHelmetAtMax())) {
-                int remainingSeconds = playerState.getUpgradeRemainingSeconds();
+            // Upgrade countdown and flashing reminder (only when pending and not both at max)
+            boolean upgradeShown = playerState.isUpgradePending() &&
+                    !(playerState.isWeaponAtMax() && playerState.isHelmetAtMax());
+            int remainingSeconds = upgradeShown ? playerState.getUpgradeRemainingSeconds() : 0;
+            int flash = upgradeShown ? getReminderFlash(playerId) : -1;
+            if (model.isStale(RUN_UPGRADE, upgradeShown ? 1 : 0, remainingSeconds, flash, null) && upgradeShown) {
                 if (remainingSeconds > 0) {
-                    lines.put(score--, i18n.get("scoreboard.upgrade_countdown", "seconds", remainingSeconds));
+                    model.addLine(RUN_UPGRADE, i18n.get("scoreboard.upgrade_countdown", "seconds", remainingSeconds));
                 }
-
-                // Add flashing upgrade reminder line (SCOREBOARD mode only)
-                if ("SCOREBOARD".equals(config.getUpgradeReminderDisplayMode())) {
-                    Boolean flashState = upgradeReminderFlashState.get(playerId);
-                    if (flashState != null) {
-                        String key = flashState ? "scoreboard.upgrade_reminder" : "scoreboard.upgrade_reminder_alt";
-                        lines.put(score--, i18n.get(key));
-                    }
+                if (flash >= 0) {
+                    String key = flash == 1 ? "scoreboard.upgrade_reminder" : "scoreboard.upgrade_reminder_alt";
+                    model.addLine(RUN_UPGRADE, i18n.get(key));
                 }
             }
 
             // Coins: Total (+current run)
-            int totalBalance = cachedBalances.getOrDefault(playerId, 0);
             int runCoins = run.getTotalCoinsCollected();
-            lines.put(score--, i18n.get("scoreboard.coins", "total", totalBalance, "run", runCoins));
+            if (model.isStale(RUN_COINS, totalBalance, runCoins, 0, null)) {
+                model.addLine(RUN_COINS, i18n.get("scoreboard.coins", "total", totalBalance, "run", runCoins));
+            }
 
             // Empty line
-            lines.put(score--, "  ");
+            if (model.isStale(RUN_SPACER_2, 0)) {
+                model.addLine(RUN_SPACER_2, "  ");
+            }
 
             // Perma score
-            lines.put(score--, i18n.get("scoreboard.perma_score", "amount", formatNumber(playerState.getPermaScore())));
+            renderPermaScore(model, RUN_PERMA, playerState);
 
             // Team info
-            if (teamOpt.isPresent()) {
-                TeamState team = teamOpt.get();
-                lines.put(score--, i18n.get("scoreboard.team",
-                        "name", team.getName(),
-                        "count", team.getMemberCount(),
-                        "max", config.getMaxTeamSize()));
-            }
+            renderTeam(model, RUN_TEAM, team, false);
 
             // Run time
-            lines.put(score--, i18n.get("scoreboard.time", "time", run.getElapsedFormatted()));
+            if (model.isStale(RUN_TIME, run.getElapsedSeconds())) {
+                model.addLine(RUN_TIME, i18n.get("scoreboard.time", "time", run.getElapsedFormatted()));
+            }
 
         } else {
             // =============== LOBBY SCOREBOARD ===============
+            model.begin(LAYOUT_LOBBY, LOBBY_SEGMENTS);
 
             // Coins: Total only (no run in lobby)
-            int totalBalance = cachedBalances.getOrDefault(playerId, 0);
-            lines.put(score--, i18n.get("scoreboard.coins_lobby", "total", totalBalance));
+            if (model.isStale(LOBBY_COINS, totalBalance)) {
+                model.addLine(LOBBY_COINS, i18n.get("scoreboard.coins_lobby", "total", totalBalance));
+            }
 
             // Perma score
-            lines.put(score--, i18n.get("scoreboard.perma_score", "amount", formatNumber(playerState.getPermaScore())));
+            renderPermaScore(model, LOBBY_PERMA, playerState);
 
             // Empty line
-            lines.put(score--, " ");
-
-            // Team info
-            if (teamOpt.isPresent()) {
-                TeamState team = teamOpt.get();
-                lines.put(score--, i18n.get("scoreboard.team",
-                        "name", team.getName(),
-                        "count", team.getMemberCount(),
-                        "max", config.getMaxTeamSize()));
-            } else {
-                // No team - show hint
-                lines.put(score--, i18n.get("scoreboard.no_team"));
+            if (model.isStale(LOBBY_SPACER_1, 0)) {
+                model.addLine(LOBBY_SPACER_1, " ");
             }
 
+            // Team info, or a hint when not in a team
+            renderTeam(model, LOBBY_TEAM, team, true);
+
             // Empty line
-            lines.put(score--, "  ");
+            if (model.isStale(LOBBY_SPACER_2, 0)) {
+                model.addLine(LOBBY_SPACER_2, "  ");
+            }
 
             // Player mode/status
-            String statusKey = switch (playerState.getMode()) {
-                case LOBBY -> "scoreboard.status_lobby";
-                case READY -> "scoreboard.status_ready";
-                case COUNTDOWN -> "scoreboard.status_countdown";
-                case COOLDOWN -> "scoreboard.status_cooldown";
-                default -> "scoreboard.status_lobby";
-            };
-            lines.put(score--, i18n.get(statusKey));
+            if (model.isStale(LOBBY_STATUS, playerState.getMode().ordinal())) {
+                String statusKey = switch (playerState.getMode()) {
+                    case LOBBY -> "scoreboard.status_lobby";
+                    case READY -> "scoreboard.status_ready";
+                    case COUNTDOWN -> "scoreboard.status_countdown";
+                    case COOLDOWN -> "scoreboard.status_cooldown";
+                    default -> "scoreboard.status_lobby";
+                };
+                model.addLine(LOBBY_STATUS, i18n.get(statusKey));
+            }
 
             // Selected starters (if any)
-            if (playerState.getStarterWeaponOptionId() != null) {
-                lines.put(score--, i18n.get("scoreboard.starter_weapon_selected"));
+            boolean weaponSelected = playerState.getStarterWeaponOptionId() != null;
+            boolean helmetSelected = playerState.getStarterHelmetOptionId() != null;
+            if (model.isStale(LOBBY_STARTERS, weaponSelected ? 1 : 0, helmetSelected ? 1 : 0, 0, null)) {
+                if (weaponSelected) {
+                    model.addLine(LOBBY_STARTERS, i18n.get("scoreboard.starter_weapon_selected"));
+                }
+                if (helmetSelected) {
+                    model.addLine(LOBBY_STARTERS, i18n.get("scoreboard.starter_helmet_selected"));
+                }
             }
-            if (playerState.getStarterHelmetOptionId() != null) {
-                lines.put(score--, i18n.get("scoreboard.starter_helmet_selected"));
+        }
+    }
+
+    private void renderPermaScore(SidebarModel model, int segment, PlayerState playerState) {
+        int permaScore = playerState.getPermaScore();
+        if (model.isStale(segment, permaScore)) {
+            model.addLine(segment, i18n.get("scoreboard.perma_score", "amount", formatNumber(permaScore)));
+        }
+    }
+
+    private void renderTeam(SidebarModel model, int segment, TeamState team, boolean showNoTeam) {
+        int maxTeamSize = config.getMaxTeamSize();
+        if (team == null) {
+            if (model.isStale(segment, 0, 0, maxTeamSize, null) && showNoTeam) {
+                // No team - show hint
+                model.addLine(segment, i18n.get("scoreboard.no_team"));
             }
+            return;
+        }
+
+        if (model.isStale(segment, 1, team.getMemberCount(), maxTeamSize, team.getName())) {
+            model.addLine(segment, i18n.get("scoreboard.team",
+                    "name", team.getName(),
+                    "count", team.getMemberCount(),
+                    "max", maxTeamSize));
         }
+    }
 
-        return lines;
+    /**
+     * Gets the upgrade reminder flash state as a segment input: 1 or 0 while flashing, -1 if not shown.
+     */
+    private int getReminderFlash(UUID playerId) {
+        if (!"SCOREBOARD".equals(config.getUpgradeReminderDisplayMode())) return -1;
+        Boolean flashState = upgradeReminderFlashState.get(playerId);
+        if (flashState == null) return -1;
+        return flashState ? 1 : 0;
     }
 
     /**
-     * Applies line changes to a player's FastBoard.
-     * Converts the score -> line map to a list and updates the board.
+     * Sends a sidebar's changed lines to its FastBoard.
+     * All lines are sent when the line count changed, otherwise only lines whose text changed.
      */
-    private void applyLineChanges(UUID playerId, Map<Integer, String> newLines) {
-        FastBoard board = playerBoards.get(playerId);
-        if (board == null || board.isDeleted()) return;
-
-        Map<Integer, String> oldLines = previousLines.getOrDefault(playerId, Map.of());
-
-        // Only update if lines changed
-        if (!newLines.equals(oldLines)) {
-            // Convert map to list of Components (FastBoard adventure uses Components)
-            List<Component> lines = new ArrayList<>();
-            List<Integer> scores = new ArrayList<>(newLines.keySet());
-            Collections.sort(scores, Collections.reverseOrder());
-            for (Integer score : scores) {
-                // Convert legacy color codes (§) to Components
-                lines.add(LegacyComponentSerializer.legacySection().deserialize(newLines.get(score)));
+    private void applyLineChanges(FastBoard board, SidebarModel model) {
+        if (!model.hasChanges()) return;
+
+        List<String> lines = model.assemble();
+        if (model.isResized()) {
+            List<Component> components = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                components.add(toComponent(line));
+            }
+            board.updateLines(components);
+        } else {
+            for (int i = 0; i < lines.size(); i++) {
+                if (model.isLineChanged(i)) {
+                    board.updateLine(i, toComponent(lines.get(i)));
+                }
             }
-
-            board.updateLines(lines);
-            previousLines.put(playerId, newLines);
         }
+        model.commit();
+    }
+
+    /**
+     * Converts a line with legacy color codes (§) to a Component, cached per distinct line.
+     */
+    private Component toComponent(String line) {
+        return lineComponents.get(line, text -> LegacyComponentSerializer.legacySection().deserialize(text));
     }
 
     /**
      * Updates the sidebar for a specific player (synchronous, for immediate updates).
-     * Content varies based on player mode (lobby vs in-run).
+     * Only segments whose inputs changed are re-rendered.
      */
     public void updatePlayerSidebar(Player player) {
-        UUID playerId = player.getUniqueId();
-        Map<Integer, String> lines = buildSidebarLines(playerId);
-        if (lines != null) {
-            applyLineChanges(playerId, lines);
-        }
+        refreshSidebar(player.getUniqueId());
     }
 
     private String buildXpBar(PlayerState playerState) {
@@ -466,15 +542,15 @@ public class ScoreboardService {
         if (!"SCOREBOARD".equals(config.getUpgradeReminderDisplayMode())) return;
 
         // Cancel existing flash task if any
-        BukkitTask existing = upgradeReminderFlashTasks.remove(playerId);
+        TickDriver.Job existing = upgradeReminderFlashTasks.remove(playerId);
         if (existing != null) {
             existing.cancel();
         }
 
-        // Start flash task
+        // Start flash job on the tick driver
         upgradeReminderFlashState.put(playerId, true);
         int interval = config.getUpgradeReminderFlashIntervalTicks();
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        TickDriver.Job task = plugin.getTickDriver().schedule(playerId, TickDriver.Phase.DISPLAY, interval, interval, () -> {
             Boolean current = upgradeReminderFlashState.get(playerId);
             if (current == null) return;
             upgradeReminderFlashState.put(playerId, !current);
@@ -482,7 +558,7 @@ public class ScoreboardService {
             if (p != null && p.isOnline()) {
                 updatePlayerSidebar(p);
             }
-        }, interval, interval);
+        });
         upgradeReminderFlashTasks.put(playerId, task);
 
         // Trigger immediate update
@@ -496,7 +572,7 @@ public class ScoreboardService {
     public void hideUpgradeReminder(Player player) {
         UUID playerId = player.getUniqueId();
 
-        BukkitTask task = upgradeReminderFlashTasks.remove(playerId);
+        TickDriver.Job task = upgradeReminderFlashTasks.remove(playerId);
         if (task != null) {
             task.cancel();
         }
@@ -0,0 +1,149 @@
+package cat.nyaa.survivors.scoreboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-player sidebar line model.
+ *
+ * <p>The sidebar is laid out as ordered segments (levels, XP, coins, team, timer, ...), each
+ * producing zero or more lines from a few input values. A segment is only re-rendered when
+ * one of its inputs changed since the last render, and only lines whose text changed are
+ * reported for sending.
+ *
+ * <p>Typical use per refresh: {@link #begin}, then for each segment in display order
+ * {@link #isStale} and, if stale, {@link #addLine}; then {@link #assemble}, send the lines
+ * reported by {@link #isResized} / {@link #isLineChanged}, and {@link #commit}.
+ *
+ * <p>Main thread only.
+ */
+final class SidebarModel {
+
+    static final int MAX_SEGMENTS = 16;
+    private static final int INPUTS_PER_SEGMENT = 3;
+
+    private final long[] inputs = new long[MAX_SEGMENTS * INPUTS_PER_SEGMENT];
+    private final Object[] refs = new Object[MAX_SEGMENTS];
+    private final boolean[] valid = new boolean[MAX_SEGMENTS];
+    private final List<List<String>> segments = new ArrayList<>(MAX_SEGMENTS);
+
+    // Lines on the board, and lines assembled for the next send
+    private final List<String> sent = new ArrayList<>();
+    private final List<String> current = new ArrayList<>();
+
+    private int layout = -1;
+    private int segmentCount;
+    private boolean changed;
+
+    SidebarModel() {
+        for (int i = 0; i < MAX_SEGMENTS; i++) {
+            segments.add(new ArrayList<>(2));
+        }
+    }
+
+    /**
+     * Starts a refresh. Switching layout (e.g. lobby to in-run) re-renders every segment.
+     *
+     * @param layout       layout id
+     * @param segmentCount number of segments in the layout
+     */
+    void begin(int layout, int segmentCount) {
+        if (layout != this.layout) {
+            this.layout = layout;
+            invalidate();
+        }
+        this.segmentCount = Math.min(segmentCount, MAX_SEGMENTS);
+    }
+
+    /**
+     * Marks every segment stale, e.g. after the language was reloaded.
+     * Lines already on the board are kept, so unchanged text is still not re-sent.
+     */
+    void invalidate() {
+        Arrays.fill(valid, false);
+        changed = true;
+    }
+
+    /**
+     * Checks a segment's inputs against the last render and records them.
+     * A stale segment has its lines cleared and must be re-rendered with {@link #addLine}.
+     *
+     * @param ref an input that is not a number (e.g. a team name), compared with equals
+     * @return true if the segment must be re-rendered
+     */
+    boolean isStale(int segment, long a, long b, long c, Object ref) {
+        int base = segment * INPUTS_PER_SEGMENT;
+        if (valid[segment]
+                && inputs[base] == a && inputs[base + 1] == b && inputs[base + 2] == c
+                && Objects.equals(refs[segment], ref)) {
+            return false;
+        }
+
+        valid[segment] = true;
+        inputs[base] = a;
+        inputs[base + 1] = b;
+        inputs[base + 2] = c;
+        refs[segment] = ref;
+        segments.get(segment).clear();
+        changed = true;
+        return true;
+    }
+
+    boolean isStale(int segment, long a) {
+        return isStale(segment, a, 0, 0, null);
+    }
+
+    /**
+     * Adds a rendered line to a stale segment.
+     */
+    void addLine(int segment, String line) {
+        segments.get(segment).add(line);
+    }
+
+    /**
+     * Checks if any segment was re-rendered since the last commit.
+     */
+    boolean hasChanges() {
+        return changed;
+    }
+
+    /**
+     * Concatenates the segments in display order into the lines to send.
+     */
+    List<String> assemble() {
+        current.clear();
+        for (int i = 0; i < segmentCount; i++) {
+            current.addAll(segments.get(i));
+        }
+        return current;
+    }
+
+    /**
+     * Checks if the assembled line count differs from the board's, so all lines must be sent.
+     */
+    boolean isResized() {
+        return current.size() != sent.size();
+    }
+
+    /**
+     * Checks if an assembled line differs from the one on the board.
+     */
+    boolean isLineChanged(int index) {
+        return index >= sent.size() || !current.get(index).equals(sent.get(index));
+    }
+
+    /**
+     * Records the assembled lines as sent.
+     */
+    void commit() {
+        sent.clear();
+        sent.addAll(current);
+        changed = false;
+    }
+
+    List<String> getSentLines() {
+        return sent;
+    }
+}
@@ -4,11 +4,12 @@ import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.config.ConfigService;
 import cat.nyaa.survivors.config.ConfigService.SoundConfig;
 import cat.nyaa.survivors.i18n.I18nService;
+import cat.nyaa.survivors.util.TickDriver;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -18,9 +19,18 @@ import java.util.concurrent.ConcurrentHashMap;
  * Manages reward aggregation and action bar display.
  * Stacks consecutive rewards within a configurable time window.
  * Only used in ACTIONBAR display mode - CHAT mode bypasses this service.
+ *
+ * <p>Rewards only update the pending totals; one flush loop on the tick driver shows each
+ * changed total once per tick and closes windows whose deadline has passed. Reward sounds
+ * play at most once per kind, player and tick.
  */
 public class ActionBarRewardService {
 
+    // Reward sound kinds (bit flags, deduplicated per tick)
+    private static final int SOUND_XP = 1;
+    private static final int SOUND_COIN = 1 << 1;
+    private static final int SOUND_PERMA = 1 << 2;
+
     private final KedamaSurvivorsPlugin plugin;
     private final ConfigService config;
     private final I18nService i18n;
@@ -28,8 +38,8 @@ public class ActionBarRewardService {
     // Pending rewards per player
     private final Map<UUID, PendingRewards> pendingRewards = new ConcurrentHashMap<>();
 
-    // Scheduled flush tasks per player
-    private final Map<UUID, BukkitTask> flushTasks = new ConcurrentHashMap<>();
+    // Flush loop job (on the tick driver)
+    private TickDriver.Job flushJob;
 
     public ActionBarRewardService(KedamaSurvivorsPlugin plugin) {
         this.plugin = plugin;
@@ -37,21 +47,31 @@ public class ActionBarRewardService {
         this.i18n = plugin.getI18nService();
     }
 
+    /**
+     * Starts the flush loop.
+     */
+    public void start() {
+        if (flushJob != null) {
+            return; // Already running
+        }
+        flushJob = plugin.getTickDriver().schedule(TickDriver.GLOBAL_OWNER, TickDriver.Phase.DISPLAY, 1, 1, this::flush);
+    }
+
     /**
      * Adds XP reward to the pending stack.
      */
     public void addXp(Player player, int amount, boolean isShared) {
         if (amount <= 0) return;
 
-        PendingRewards rewards = getOrCreatePending(player.getUniqueId());
+        PendingRewards rewards = extendWindow(player.getUniqueId());
         if (isShared) {
             rewards.sharedXp += amount;
         } else {
             rewards.xp += amount;
         }
+        rewards.displayDirty = true;
 
-        scheduleFlush(player);
-        playSound(player, config.getSoundXpGained());
+        playSound(player, rewards, SOUND_XP, config.getSoundXpGained());
     }
 
     /**
@@ -60,11 +80,11 @@ public class ActionBarRewardService {
     public void addCoins(Player player, int amount) {
         if (amount <= 0) return;
 
-        PendingRewards rewards = getOrCreatePending(player.getUniqueId());
+        PendingRewards rewards = extendWindow(player.getUniqueId());
         rewards.coins += amount;
+        rewards.displayDirty = true;
 
-        scheduleFlush(player);
-        playSound(player, config.getSoundCoinGained());
+        playSound(player, rewards, SOUND_COIN, config.getSoundCoinGained());
     }
 
     /**
@@ -73,11 +93,11 @@ public class ActionBarRewardService {
     public void addPermaScore(Player player, int amount) {
         if (amount <= 0) return;
 
-        PendingRewards rewards = getOrCreatePending(player.getUniqueId());
+        PendingRewards rewards = extendWindow(player.getUniqueId());
         rewards.permaScore += amount;
+        rewards.displayDirty = true;
 
-        scheduleFlush(player);
-        playSound(player, config.getSoundPermaScoreGained());
+        playSound(player, rewards, SOUND_PERMA, config.getSoundPermaScoreGained());
     }
 
     /**
@@ -87,18 +107,17 @@ public class ActionBarRewardService {
      * @param player The player who got the kill
      */
     public void addKill(Player player) {
-        PendingRewards rewards = getOrCreatePending(player.getUniqueId());
+        PendingRewards rewards = extendWindow(player.getUniqueId());
         rewards.killCount++;
 
-        // Reschedule flush to extend the window
-        scheduleFlush(player);
+        // The kill itself changes no totals, but the current ones are shown again
+        rewards.displayDirty = true;
     }
 
     /**
      * Forces immediate display of pending rewards (e.g., on disconnect).
      */
     public void flushNow(UUID playerId) {
-        cancelFlushTask(playerId);
         PendingRewards rewards = pendingRewards.remove(playerId);
         if (rewards != null) {
             Player player = Bukkit.getPlayer(playerId);
@@ -112,72 +131,76 @@ public class ActionBarRewardService {
      * Clears pending rewards for a player (e.g., on run end).
      */
     public void clear(UUID playerId) {
-        cancelFlushTask(playerId);
         pendingRewards.remove(playerId);
     }
 
     /**
-     * Stops all pending tasks (for shutdown).
+     * Stops the flush loop (for shutdown).
      */
     public void stop() {
-        for (BukkitTask task : flushTasks.values()) {
-            task.cancel();
+        if (flushJob != null) {
+            flushJob.cancel();
+            flushJob = null;
         }
-        flushTasks.clear();
         pendingRewards.clear();
     }
 
     // ==================== Internal Methods ====================
 
-    private PendingRewards getOrCreatePending(UUID playerId) {
-        return pendingRewards.computeIfAbsent(playerId, k -> new PendingRewards());
+    /**
+     * Gets the player's pending rewards and pushes the window deadline out from now.
+     */
+    private PendingRewards extendWindow(UUID playerId) {
+        PendingRewards rewards = pendingRewards.computeIfAbsent(playerId, k -> new PendingRewards());
+        rewards.flushAtTick = Bukkit.getCurrentTick() + config.getRewardStackingTimeoutSeconds() * 20L;
+        return rewards;
     }
 
-    private void scheduleFlush(Player player) {
-        UUID playerId = player.getUniqueId();
-
-        // Cancel existing task
-        cancelFlushTask(playerId);
-
-        // Schedule new flush task
-        long delayTicks = config.getRewardStackingTimeoutSeconds() * 20L;
-        BukkitTask task = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            flushTasks.remove(playerId);
-            PendingRewards rewards = pendingRewards.remove(playerId);
-            if (rewards != null) {
-                Player p = Bukkit.getPlayer(playerId);
-                if (p != null && p.isOnline()) {
-                    // Don't call sendActionBar here - it was already shown immediately
-                    // Only handle kill streak on flush
-
-                    int kills = rewards.killCount;
-                    if (kills >= 2) {
-                        // Notify StatsService to potentially update record
-                        StatsService statsService = plugin.getStatsService();
-                        if (statsService != null) {
-                            statsService.recordKillStreak(playerId, kills);
-                        }
-
-                        // Show kill streak message immediately (rewards already faded)
-                        sendKillStreakMessage(p, kills);
-                    }
-                }
+    /**
+     * Flush loop: shows changed totals and closes expired windows.
+     */
+    private void flush() {
+        if (pendingRewards.isEmpty()) return;
+
+        long now = Bukkit.getCurrentTick();
+        Iterator<Map.Entry<UUID, PendingRewards>> it = pendingRewards.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, PendingRewards> entry = it.next();
+            UUID playerId = entry.getKey();
+            PendingRewards rewards = entry.getValue();
+
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) {
+                it.remove();
+                continue;
             }
-        }, delayTicks);
 
-        flushTasks.put(playerId, task);
+            if (rewards.displayDirty) {
+                rewards.displayDirty = false;
+                sendActionBar(player, rewards);
+            }
 
-        // Also update action bar immediately with current totals
-        PendingRewards current = pendingRewards.get(playerId);
-        if (current != null) {
-            sendActionBar(player, current);
+            if (now >= rewards.flushAtTick) {
+                it.remove();
+                closeWindow(player, rewards);
+            }
         }
     }
 
-    private void cancelFlushTask(UUID playerId) {
-        BukkitTask task = flushTasks.remove(playerId);
-        if (task != null) {
-            task.cancel();
+    /**
+     * Handles the end of a stacking window (kill streak only; totals were already shown).
+     */
+    private void closeWindow(Player player, PendingRewards rewards) {
+        int kills = rewards.killCount;
+        if (kills >= 2) {
+            // Notify StatsService to potentially update record
+            StatsService statsService = plugin.getStatsService();
+            if (statsService != null) {
+                statsService.recordKillStreak(player.getUniqueId(), kills);
+            }
+
+            // Show kill streak message immediately (rewards already faded)
+            sendKillStreakMessage(player, kills);
         }
     }
 
@@ -208,10 +231,19 @@ public class ActionBarRewardService {
         player.sendActionBar(net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacySection().deserialize(message));
     }
 
-    private void playSound(Player player, SoundConfig sound) {
-        if (sound != null) {
-            sound.play(player);
+    private void playSound(Player player, PendingRewards rewards, int kind, SoundConfig sound) {
+        if (sound == null) return;
+
+        // Many rewards of one kind in a tick (area kills, shared XP) play one sound
+        int tick = Bukkit.getCurrentTick();
+        if (rewards.soundTick != tick) {
+            rewards.soundTick = tick;
+            rewards.soundsPlayed = 0;
         }
+        if ((rewards.soundsPlayed & kind) != 0) return;
+
+        rewards.soundsPlayed |= kind;
+        sound.play(player);
     }
 
     /**
@@ -254,5 +286,9 @@ public class ActionBarRewardService {
         int coins = 0;
         int permaScore = 0;
         int killCount = 0;  // Number of kills in this aggregation window
+        long flushAtTick;   // Server tick at which the window closes
+        boolean displayDirty;
+        int soundTick = -1;
+        int soundsPlayed;   // SOUND_* flags played on soundTick
     }
 }
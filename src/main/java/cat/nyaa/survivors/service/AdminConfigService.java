@@ -703,6 +703,9 @@ public class AdminConfigService {
             // Load minSpawnLevel (level gating)
             config.minSpawnLevel = section.getInt("minSpawnLevel", 1);
 
+            // Load spawn backend (command or native)
+            config.loadSpawnBackend(section);
+
             // Load allowedWorlds (world restriction)
             List<String> worldList = section.getStringList("allowedWorlds");
             if (worldList.isEmpty()) {
@@ -771,6 +774,8 @@ public class AdminConfigService {
               - Use specific world names to restrict spawning
             Rewards use chance-based fixed values (no level scaling):
               xpAmount + xpChance, coinAmount + coinChance, permaScoreAmount + permaScoreChance
+            spawnMode: COMMAND (run spawnCommands) or NATIVE (spawn entityType directly,
+              applying optional attributes and equipment; spawnCommands are the fallback)
             """);
 
         for (EnemyArchetypeConfig config : archetypes.values()) {
@@ -780,6 +785,13 @@ public class AdminConfigService {
             yaml.set(id + ".minSpawnLevel", config.minSpawnLevel);
             yaml.set(id + ".allowedWorlds", config.allowedWorlds);
             yaml.set(id + ".spawnCommands", config.spawnCommands);
+            yaml.set(id + ".spawnMode", config.spawnMode.name());
+            if (!config.attributes.isEmpty()) {
+                yaml.set(id + ".attributes", new LinkedHashMap<>(config.attributes));
+            }
+            if (!config.equipment.isEmpty()) {
+                yaml.set(id + ".equipment", new LinkedHashMap<>(config.equipment));
+            }
             yaml.set(id + ".rewards.xpAmount", config.xpAmount);
             yaml.set(id + ".rewards.xpChance", config.xpChance);
             yaml.set(id + ".rewards.coinAmount", config.coinAmount);
@@ -1079,6 +1091,20 @@ public class AdminConfigService {
         return true;
     }
 
+    /**
+     * Sets the spawn backend for an archetype.
+     */
+    public boolean setArchetypeSpawnMode(String id, EnemyArchetypeConfig.SpawnMode spawnMode) {
+        EnemyArchetypeConfig config = archetypes.get(id);
+        if (config == null) {
+            return false;
+        }
+        config.spawnMode = spawnMode;
+        saveArchetypes();
+        updateConfigService();
+        return true;
+    }
+
     /**
      * Sets the entity type for an archetype.
      */
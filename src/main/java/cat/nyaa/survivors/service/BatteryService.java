@@ -8,6 +8,7 @@ import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.model.RunState;
 import cat.nyaa.survivors.model.TeamState;
+import cat.nyaa.survivors.util.TickDriver;
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.FireworkEffect;
@@ -46,8 +47,8 @@ public class BatteryService {
 
     // Runtime states
     private final Map<UUID, RunBatteryState> runStates = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> runSpawnTasks = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> runUpdateTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, TickDriver.Job> runSpawnTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, TickDriver.Job> runUpdateTasks = new ConcurrentHashMap<>();
     private final Map<UUID, BatteryInstance> batteriesById = new ConcurrentHashMap<>();
 
     public BatteryService(KedamaSurvivorsPlugin plugin) {
@@ -56,7 +57,7 @@ public class BatteryService {
     }
 
     public void start() {
-        // No global task; tasks are bound to runs.
+        // No global task; jobs are bound to runs on the tick driver.
     }
 
     public void stop() {
@@ -78,30 +79,14 @@ public class BatteryService {
                 continue;
             }
 
-            Integer spawnTaskId = runSpawnTasks.remove(runId);
-            if (spawnTaskId != null) {
-                Bukkit.getScheduler().cancelTask(spawnTaskId);
-            }
-            Integer updateTaskId = runUpdateTasks.remove(runId);
-            if (updateTaskId != null) {
-                Bukkit.getScheduler().cancelTask(updateTaskId);
-            }
+            cancelRunJobs(runId);
 
             if (!plugin.getConfigService().isBatteryEnabled()) {
                 stopForRun(runId);
                 continue;
             }
 
-            int spawnIntervalTicks = Math.max(20, plugin.getConfigService().getBatterySpawnIntervalSeconds() * 20);
-            int updateTicks = Math.max(1, plugin.getConfigService().getBatteryProgressUpdateTicks());
-
-            int newSpawnTaskId = Bukkit.getScheduler().runTaskTimer(plugin, () -> trySpawnBattery(runId, false),
-                    spawnIntervalTicks, spawnIntervalTicks).getTaskId();
-            runSpawnTasks.put(runId, newSpawnTaskId);
-
-            int newUpdateTaskId = Bukkit.getScheduler().runTaskTimer(plugin, () -> updateRunBattery(runId),
-                    updateTicks, updateTicks).getTaskId();
-            runUpdateTasks.put(runId, newUpdateTaskId);
+            scheduleRunJobs(runId);
         }
     }
 
@@ -114,28 +99,37 @@ public class BatteryService {
         RunBatteryState runState = new RunBatteryState(runId);
         runStates.put(runId, runState);
 
+        scheduleRunJobs(runId);
+    }
+
+    /**
+     * Schedules a run's battery spawn and update jobs, staggered against other runs.
+     */
+    private void scheduleRunJobs(UUID runId) {
         int spawnIntervalTicks = Math.max(20, plugin.getConfigService().getBatterySpawnIntervalSeconds() * 20);
         int updateTicks = Math.max(1, plugin.getConfigService().getBatteryProgressUpdateTicks());
+        TickDriver driver = plugin.getTickDriver();
 
-        int spawnTaskId = Bukkit.getScheduler().runTaskTimer(plugin, () -> trySpawnBattery(runId, false),
-                spawnIntervalTicks, spawnIntervalTicks).getTaskId();
-        runSpawnTasks.put(runId, spawnTaskId);
-
-        int updateTaskId = Bukkit.getScheduler().runTaskTimer(plugin, () -> updateRunBattery(runId),
-                updateTicks, updateTicks).getTaskId();
-        runUpdateTasks.put(runId, updateTaskId);
+        runSpawnTasks.put(runId, driver.scheduleStaggered(runId, TickDriver.Phase.BATTERY,
+                spawnIntervalTicks, spawnIntervalTicks, () -> trySpawnBattery(runId, false)));
+        runUpdateTasks.put(runId, driver.scheduleStaggered(runId, TickDriver.Phase.BATTERY,
+                updateTicks, updateTicks, () -> updateRunBattery(runId)));
     }
 
-    public void stopForRun(UUID runId) {
-        Integer spawnTaskId = runSpawnTasks.remove(runId);
-        if (spawnTaskId != null) {
-            Bukkit.getScheduler().cancelTask(spawnTaskId);
+    private void cancelRunJobs(UUID runId) {
+        TickDriver.Job spawnJob = runSpawnTasks.remove(runId);
+        if (spawnJob != null) {
+            spawnJob.cancel();
         }
 
-        Integer updateTaskId = runUpdateTasks.remove(runId);
-        if (updateTaskId != null) {
-            Bukkit.getScheduler().cancelTask(updateTaskId);
+        TickDriver.Job updateJob = runUpdateTasks.remove(runId);
+        if (updateJob != null) {
+            updateJob.cancel();
         }
+    }
+
+    public void stopForRun(UUID runId) {
+        cancelRunJobs(runId);
 
         RunBatteryState runState = runStates.remove(runId);
         if (runState != null && runState.activeBatteryId != null) {
@@ -377,28 +371,20 @@ public class BatteryService {
     }
 
     private int countPlayersInRange(RunState run, Location center, double radius) {
-        double radiusSq = radius * radius;
-        int count = 0;
-        for (UUID participantId : run.getParticipants()) {
-            Optional<PlayerState> psOpt = state.getPlayer(participantId);
-            if (psOpt.isEmpty() || psOpt.get().getMode() != PlayerMode.IN_RUN) continue;
-
-            Player p = Bukkit.getPlayer(participantId);
-            if (p == null || !p.isOnline()) continue;
-            if (!p.getWorld().equals(center.getWorld())) continue;
-            if (p.getLocation().distanceSquared(center) <= radiusSq) {
-                count++;
+        int[] count = {0};
+        plugin.getProximityService().forEachParticipantInSphere(run.getRunId(), center, radius, participant -> {
+            PlayerState ps = participant.playerState();
+            if (ps != null && ps.getMode() == PlayerMode.IN_RUN) {
+                count[0]++;
             }
-        }
-        return count;
+        });
+        return count[0];
     }
 
     private int countEnemiesInRange(Location center, double radius) {
         if (center.getWorld() == null) return 0;
 
-        return (int) center.getWorld().getNearbyEntities(center, radius, radius, radius).stream()
-                .filter(entity -> plugin.getSpawnerService().isVrsMob(entity))
-                .count();
+        return plugin.getSpawnerService().getMobCountNear(center, radius);
     }
 
     private int getRequiredInteractCount(RunState run) {
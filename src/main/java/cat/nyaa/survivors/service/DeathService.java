@@ -141,6 +141,7 @@ public class DeathService {
         // Set cooldown
         playerState.setCooldownUntilMillis(System.currentTimeMillis() + config.getDeathCooldownMs());
         playerState.setMode(PlayerMode.COOLDOWN);
+        plugin.getCooldownDisplay().scheduleExpiry(playerState);
 
         // Remove from run participants
         run.removeParticipant(player.getUniqueId());
@@ -106,10 +106,8 @@ public class InventoryValidationService {
     private List<UUID> getInRunPlayers() {
         List<UUID> result = new ArrayList<>();
 
-        for (PlayerState playerState : state.getAllPlayers()) {
-            if (playerState.getMode() == PlayerMode.IN_RUN) {
-                result.add(playerState.getUuid());
-            }
+        for (PlayerState playerState : state.getPlayersByMode(PlayerMode.IN_RUN)) {
+            result.add(playerState.getUuid());
         }
 
         return result;
@@ -67,11 +67,9 @@ public class JoinSwitchService {
         int count = 0;
         long ejectTime = System.currentTimeMillis() + (config.getGraceEjectSeconds() * 1000L);
 
-        for (PlayerState playerState : state.getAllPlayers()) {
-            if (playerState.getMode() == PlayerMode.IN_RUN) {
-                initiateGraceEject(playerState, ejectTime);
-                count++;
-            }
+        for (PlayerState playerState : state.getPlayersByMode(PlayerMode.IN_RUN)) {
+            initiateGraceEject(playerState, ejectTime);
+            count++;
         }
 
         if (count > 0 && graceTaskId == -1) {
@@ -8,6 +8,9 @@ import cat.nyaa.survivors.gui.MerchantShopGui;
 import cat.nyaa.survivors.i18n.I18nService;
 import cat.nyaa.survivors.merchant.*;
 import cat.nyaa.survivors.model.RunState;
+import cat.nyaa.survivors.util.SpawnabilityIndex;
+import cat.nyaa.survivors.util.TickDriver;
+import cat.nyaa.survivors.util.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Particle;
@@ -39,11 +42,13 @@ public class MerchantService {
     // Per-run merchant tracking
     private final Map<UUID, Set<UUID>> runMerchants = new ConcurrentHashMap<>();
 
-    // Merchant spawn task per run
-    private final Map<UUID, Integer> runSpawnTasks = new ConcurrentHashMap<>();
+    // Merchant spawn job per run (on the tick driver)
+    private final Map<UUID, TickDriver.Job> runSpawnTasks = new ConcurrentHashMap<>();
+
+    // Timed despawn per merchant instance (on the timing wheel)
+    private final Map<UUID, TimingWheel.Timeout> despawnTimeouts = new ConcurrentHashMap<>();
 
     // Global tasks
-    private int despawnCheckerTaskId = -1;
     private int headItemCycleTaskId = -1;
     private int animationTaskId = -1;
 
@@ -63,11 +68,6 @@ public class MerchantService {
             return;
         }
 
-        // Start despawn checker every second
-        despawnCheckerTaskId = Bukkit.getScheduler().runTaskTimer(
-                plugin, this::checkDespawns, 20, 20
-        ).getTaskId();
-
         // Start head item cycle task (every 10 seconds by default)
         int cycleInterval = config.getMerchantHeadItemCycleInterval();
         if (cycleInterval > 0) {
@@ -89,10 +89,6 @@ public class MerchantService {
      */
     public void stop() {
         // Cancel global tasks
-        if (despawnCheckerTaskId != -1) {
-            Bukkit.getScheduler().cancelTask(despawnCheckerTaskId);
-            despawnCheckerTaskId = -1;
-        }
         if (headItemCycleTaskId != -1) {
             Bukkit.getScheduler().cancelTask(headItemCycleTaskId);
             headItemCycleTaskId = -1;
@@ -102,9 +98,9 @@ public class MerchantService {
             animationTaskId = -1;
         }
 
-        // Cancel all spawn tasks
-        for (int taskId : runSpawnTasks.values()) {
-            Bukkit.getScheduler().cancelTask(taskId);
+        // Cancel all spawn jobs
+        for (TickDriver.Job job : runSpawnTasks.values()) {
+            job.cancel();
         }
         runSpawnTasks.clear();
 
@@ -128,23 +124,24 @@ public class MerchantService {
         // Initialize merchant set for this run
         runMerchants.put(runId, ConcurrentHashMap.newKeySet());
 
-        // Schedule periodic wandering merchant spawning
-        int intervalTicks = config.getMerchantSpawnInterval() * 20;
-        int taskId = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            Optional<RunState> runOpt = state.getRun(runId);
-            runOpt.ifPresent(this::trySpawnWanderingMerchant);
-        }, intervalTicks, intervalTicks).getTaskId();
+        // Schedule periodic wandering merchant spawning, staggered against other runs
+        int intervalTicks = Math.max(1, config.getMerchantSpawnInterval() * 20);
+        TickDriver.Job job = plugin.getTickDriver().scheduleStaggered(runId, TickDriver.Phase.MERCHANT,
+                intervalTicks, intervalTicks, () -> {
+                    Optional<RunState> runOpt = state.getRun(runId);
+                    runOpt.ifPresent(this::trySpawnWanderingMerchant);
+                });
 
-        runSpawnTasks.put(runId, taskId);
+        runSpawnTasks.put(runId, job);
     }
 
     /**
      * Stops merchant spawning for a run and clears its merchants.
      */
     public void stopForRun(UUID runId) {
-        Integer taskId = runSpawnTasks.remove(runId);
-        if (taskId != null) {
-            Bukkit.getScheduler().cancelTask(taskId);
+        TickDriver.Job job = runSpawnTasks.remove(runId);
+        if (job != null) {
+            job.cancel();
         }
 
         clearMerchantsForRun(runId);
@@ -222,7 +219,7 @@ public class MerchantService {
             int minStay = config.getMerchantMinStaySeconds();
             int maxStay = config.getMerchantMaxStaySeconds();
             int stayTime = minStay + ThreadLocalRandom.current().nextInt(maxStay - minStay + 1);
-            merchant.setDespawnTimeMillis(System.currentTimeMillis() + stayTime * 1000L);
+            scheduleDespawn(merchant, System.currentTimeMillis() + stayTime * 1000L);
             merchant.setRunId(run.getRunId());
 
             // Track per-run
@@ -372,7 +369,7 @@ public class MerchantService {
 
         // Fixed merchants don't despawn on time
         if (merchant != null) {
-            merchant.setDespawnTimeMillis(0);
+            scheduleDespawn(merchant, 0);
         }
 
         return merchant;
@@ -427,9 +424,9 @@ public class MerchantService {
 
         merchant.setRunId(runId);
         if (lifetimeSeconds > 0) {
-            merchant.setDespawnTimeMillis(System.currentTimeMillis() + lifetimeSeconds * 1000L);
+            scheduleDespawn(merchant, System.currentTimeMillis() + lifetimeSeconds * 1000L);
         } else {
-            merchant.setDespawnTimeMillis(0L);
+            scheduleDespawn(merchant, 0L);
         }
 
         if (runId != null) {
@@ -508,19 +505,22 @@ public class MerchantService {
     // ==================== Despawn Management ====================
 
     /**
-     * Checks for merchants that should be despawned.
+     * Sets a merchant's despawn time and schedules its despawn (0 = never despawns on time).
      */
-    private void checkDespawns() {
-        List<UUID> toRemove = new ArrayList<>();
-
-        for (MerchantInstance merchant : activeMerchants.values()) {
-            if (!merchant.isValid() || merchant.shouldDespawn()) {
-                toRemove.add(merchant.getInstanceId());
-            }
-        }
+    private void scheduleDespawn(MerchantInstance merchant, long despawnTimeMillis) {
+        merchant.setDespawnTimeMillis(despawnTimeMillis);
 
-        for (UUID id : toRemove) {
-            despawnMerchant(id);
+        UUID instanceId = merchant.getInstanceId();
+        TimingWheel.Timeout previous = despawnTimeMillis > 0
+                ? despawnTimeouts.put(instanceId, plugin.getTimingWheel().schedule(despawnTimeMillis, () -> {
+                    despawnTimeouts.remove(instanceId);
+                    if (merchant.shouldDespawn()) {
+                        despawnMerchant(instanceId);
+                    }
+                }))
+                : despawnTimeouts.remove(instanceId);
+        if (previous != null) {
+            previous.cancel();
         }
     }
 
@@ -533,6 +533,11 @@ public class MerchantService {
             return;
         }
 
+        TimingWheel.Timeout timeout = despawnTimeouts.remove(instanceId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+
         // Despawn particles
         Location loc = merchant.getLocation();
         if (loc != null && config.isMerchantDespawnParticles()) {
@@ -589,9 +594,20 @@ public class MerchantService {
      * Runs every 2 ticks for smooth 10 FPS animation.
      */
     private void animateAllMerchants() {
+        List<UUID> invalid = null;
         for (MerchantInstance merchant : activeMerchants.values()) {
             if (merchant.isValid()) {
                 merchant.getEntity().updateAnimation();
+            } else {
+                if (invalid == null) invalid = new ArrayList<>();
+                invalid.add(merchant.getInstanceId());
+            }
+        }
+
+        // Merchants whose entity is gone (killed, unloaded) are cleaned up here
+        if (invalid != null) {
+            for (UUID id : invalid) {
+                despawnMerchant(id);
             }
         }
     }
@@ -654,46 +670,15 @@ public class MerchantService {
      * Searches from player level outward, prioritizing same level.
      */
     private Location findSafeYNearPlayer(World world, double x, double z, int playerY, int verticalRange) {
-        for (int yOffset = 0; yOffset <= verticalRange; yOffset++) {
-            // Try at/above player level first
-            Location above = tryMerchantSpawnAt(world, x, playerY + yOffset, z);
-            if (above != null) return above;
-
-            // Try below player level (skip if yOffset == 0 to avoid duplicate)
-            if (yOffset > 0) {
-                Location below = tryMerchantSpawnAt(world, x, playerY - yOffset, z);
-                if (below != null) return below;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Attempts to create a merchant spawn location at a specific Y level.
-     * Returns the location if valid, null otherwise.
-     */
-    private Location tryMerchantSpawnAt(World world, double x, int y, double z) {
-        Location loc = new Location(world, x, y, z);
-        if (isValidMerchantLocation(loc)) {
-            return loc;
-        }
-        return null;
-    }
-
-    /**
-     * Checks if a location is valid for merchant spawning.
-     */
-    private boolean isValidMerchantLocation(Location loc) {
-        if (loc.getWorld() == null) return false;
-
-        // Check passable at feet and head
-        if (!loc.getBlock().isPassable()) return false;
-        if (!loc.clone().add(0, 1, 0).getBlock().isPassable()) return false;
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
 
-        // Check solid ground
-        if (!loc.clone().add(0, -1, 0).getBlock().getType().isSolid()) return false;
+        SpawnabilityIndex index = plugin.getWorldService().getSpawnabilityIndex(world.getName());
+        int[] column = index.getColumn(world, blockX, blockZ);
+        int y = SpawnabilityIndex.nearestStandingY(column, playerY, verticalRange);
+        if (y == SpawnabilityIndex.NONE) return null;
 
-        return true;
+        return new Location(world, x, y, z);
     }
 
     // ==================== Helper Methods ====================
@@ -2,10 +2,18 @@ package cat.nyaa.survivors.service;
 
 import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.config.ConfigService;
+import cat.nyaa.survivors.metrics.Counter;
+import cat.nyaa.survivors.metrics.JfrEvents;
+import cat.nyaa.survivors.metrics.LatencyHistogram;
+import cat.nyaa.survivors.metrics.MetricsRegistry;
 import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.model.PlayerStats;
 import cat.nyaa.survivors.model.TeamState;
+import cat.nyaa.survivors.service.store.FilePlayerStore;
+import cat.nyaa.survivors.service.store.LogPlayerStore;
+import cat.nyaa.survivors.service.store.PlayerStore;
+import cat.nyaa.survivors.service.store.PlayerStoreType;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
@@ -19,6 +27,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -26,34 +36,94 @@ import java.util.stream.Stream;
 /**
  * Handles persistence of player and team state to disk.
  * All file I/O is performed asynchronously to avoid blocking the main thread.
- * Players are stored in individual files per UUID in the players/ directory.
+ * Players are stored in a {@link PlayerStore}: individual files per UUID in the players/
+ * directory, or a single append-only players.log (persistence.playerStore). Switching
+ * the backend migrates existing player data once at startup.
+ *
+ * <p>Player states are loaded at pre-login, off the main thread, rather than all at
+ * startup; lookups only see resident players. A {@link PlayerIndex} of every persisted
+ * player, saved to player_index.json, answers which players exist and serves aggregate
+ * queries. Offline players outside a team are evicted from memory once saved, least
+ * recently used first.
+ *
+ * <p>Player files are only rewritten when the player's dirty version has changed
+ * since the last successful write. Per-player saves (quit, run end) are coalesced
+ * into one background flush.
  */
 public class PersistenceService {
 
     private static final String PLAYERS_DIR = "players";
+    private static final String PLAYER_LOG_FILE = "players.log";
     private static final String TEAMS_FILE = "teams.json";
     private static final String FIXED_MERCHANTS_FILE = "fixed_merchants.json";
+    private static final String PLAYER_INDEX_FILE = "player_index.json";
+    private static final long EVICTION_INTERVAL_TICKS = 60 * 20L;
     private static final DateTimeFormatter BACKUP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
     private final KedamaSurvivorsPlugin plugin;
     private final ConfigService config;
     private final StateService state;
     private final Gson gson;
+    // Player records in the log store are written without pretty printing
+    private final Gson compactGson;
 
     private Path runtimePath;
-    private Path playersDir;
     private Path backupPath;
+    private PlayerStore playerStore;
+    private Gson playerGson;
     private int autoSaveTaskId = -1;
     private int backupTaskId = -1;
+    private int evictionTaskId = -1;
+
+    private final PlayerIndex playerIndex = new PlayerIndex();
+
+    // Dirty version of each player as of its last successful write (or load)
+    private final Map<UUID, Long> savedVersions = new ConcurrentHashMap<>();
+
+    // Serializes player saves from the auto-save and the coalesced flush (never taken on the main thread)
+    private final Object playerSaveLock = new Object();
+
+    // Per-player saves waiting for the next coalesced flush
+    private final Set<UUID> queuedPlayerSaves = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<CompletableFuture<Void>> pendingPlayerFlush = new AtomicReference<>();
+
+    private volatile SaveCycleStats lastSaveStats = new SaveCycleStats(0, 0, 0, 0L, 0L);
+
+    private final LatencyHistogram saveTimer;
+    private final Counter playerWriteCounter;
+
+    /**
+     * Result of one full save cycle.
+     *
+     * @param playerFiles    player files written
+     * @param playersSkipped players not written because they had no changes
+     * @param files          total files written (players, teams, merchants)
+     * @param bytes          total bytes written
+     * @param durationNanos  time spent in the cycle
+     */
+    public record SaveCycleStats(int playerFiles, int playersSkipped, int files, long bytes, long durationNanos) {}
 
     public PersistenceService(KedamaSurvivorsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigService();
         this.state = plugin.getStateService();
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .disableHtmlEscaping()
-                .create();
+        this.gson = createGson(true);
+        this.compactGson = createGson(false);
+
+        MetricsRegistry metrics = plugin.getMetricsRegistry();
+        this.saveTimer = metrics.timer("vrs_persistence_save_seconds", "Full save cycle (players, teams, merchants, index)");
+        this.playerWriteCounter = metrics.counter("vrs_persistence_player_writes_total", "Player records written");
+    }
+
+    /**
+     * Creates the Gson instance used for data files; compact output is used by the log player store.
+     */
+    static Gson createGson(boolean pretty) {
+        GsonBuilder builder = new GsonBuilder().disableHtmlEscaping();
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
     }
 
     /**
@@ -61,6 +131,8 @@ public class PersistenceService {
      */
     public void initialize() {
         initializeDirectories();
+        state.setPlayerLoader(this::loadIndexedPlayer);
+        state.setPersistedCheck(playerIndex::contains);
         loadAll();
     }
 
@@ -83,6 +155,11 @@ public class PersistenceService {
                 plugin, this::createBackup, backupIntervalTicks, backupIntervalTicks
         ).getTaskId();
         plugin.getLogger().info("Backup task started (interval: 6 hours)");
+
+        // Residency eviction (main thread: checks online status)
+        evictionTaskId = Bukkit.getScheduler().runTaskTimer(
+                plugin, this::evictIdlePlayers, EVICTION_INTERVAL_TICKS, EVICTION_INTERVAL_TICKS
+        ).getTaskId();
     }
 
     /**
@@ -97,24 +174,112 @@ public class PersistenceService {
             Bukkit.getScheduler().cancelTask(backupTaskId);
             backupTaskId = -1;
         }
+        if (evictionTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(evictionTaskId);
+            evictionTaskId = -1;
+        }
 
         // Final synchronous save
         saveAllSync();
+
+        try {
+            playerStore.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to close player store", e);
+        }
     }
 
     private void initializeDirectories() {
         File dataFolder = plugin.getDataFolder();
         runtimePath = dataFolder.toPath().resolve(config.getRuntimePath());
-        playersDir = runtimePath.resolve(PLAYERS_DIR);
         backupPath = dataFolder.toPath().resolve("backups");
 
         try {
             Files.createDirectories(runtimePath);
-            Files.createDirectories(playersDir);
             Files.createDirectories(backupPath);
         } catch (IOException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to create data directories", e);
         }
+
+        PlayerStoreType storeType = config.getPlayerStoreType();
+        playerStore = createPlayerStore(storeType);
+        playerGson = storeType == PlayerStoreType.LOG ? compactGson : gson;
+        try {
+            playerStore.open();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open player store", e);
+        }
+        migratePlayerStore(storeType);
+    }
+
+    private PlayerStore createPlayerStore(PlayerStoreType type) {
+        return switch (type) {
+            case FILES -> new FilePlayerStore(runtimePath.resolve(PLAYERS_DIR), plugin.getLogger());
+            case LOG -> new LogPlayerStore(runtimePath.resolve(PLAYER_LOG_FILE), plugin.getLogger());
+        };
+    }
+
+    /**
+     * Copies player data from the other backend into the configured one, if the configured
+     * store is empty and the other has data. The old data is renamed to *.migrated-&lt;timestamp&gt;
+     * afterwards so the migration runs only once.
+     */
+    private void migratePlayerStore(PlayerStoreType target) {
+        PlayerStoreType sourceType = target == PlayerStoreType.LOG ? PlayerStoreType.FILES : PlayerStoreType.LOG;
+        PlayerStore source = createPlayerStore(sourceType);
+        if (!Files.exists(source.location())) {
+            return;
+        }
+
+        try {
+            if (!playerStore.ids().isEmpty()) {
+                plugin.getLogger().warning("Both player stores contain data, ignoring " + source.location().getFileName()
+                        + " (persistence.playerStore: " + target.name().toLowerCase() + ")");
+                return;
+            }
+
+            source.open();
+            Set<UUID> ids = source.ids();
+            if (ids.isEmpty()) {
+                source.close();
+                return;
+            }
+
+            long start = System.nanoTime();
+            int migrated = 0;
+            int failed = 0;
+            for (UUID uuid : ids) {
+                try {
+                    byte[] record = source.read(uuid);
+                    PlayerStateData data = record != null ? parsePlayerRecord(record) : null;
+                    if (data == null) {
+                        failed++;
+                        continue;
+                    }
+                    // Re-serialize in the target's format
+                    playerStore.write(uuid, playerGson.toJson(data).getBytes(StandardCharsets.UTF_8));
+                    migrated++;
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to migrate player " + uuid, e);
+                    source.quarantine(uuid);
+                    failed++;
+                }
+            }
+            playerStore.flush();
+            source.close();
+
+            Path retired = source.location().resolveSibling(
+                    source.location().getFileName() + ".migrated-" + LocalDateTime.now().format(BACKUP_FORMAT));
+            Files.move(source.location(), retired);
+
+            plugin.getLogger().info("Migrated " + migrated + " players from " + sourceType.name().toLowerCase()
+                    + " to " + target.name().toLowerCase() + " store in "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms"
+                    + (failed > 0 ? " (" + failed + " failed)" : "")
+                    + ", old data kept as " + retired.getFileName());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to migrate player store", e);
+        }
     }
 
     // ==================== Load Operations ====================
@@ -123,9 +288,9 @@ public class PersistenceService {
      * Loads all persisted data (players, teams, and fixed merchants).
      */
     public void loadAll() {
-        loadPlayers();
+        loadPlayerIndex();
+        // Members' teamId is restored by StateService when each member becomes resident
         loadTeams();
-        linkTeamMembers();
         // Note: Fixed merchants are loaded separately after MerchantService starts
     }
 
@@ -154,70 +319,135 @@ public class PersistenceService {
         }
     }
 
-    private void loadPlayers() {
-        if (!Files.exists(playersDir)) {
-            plugin.getLogger().info("No player data directory found, starting fresh");
-            return;
+    /**
+     * Loads the player index and brings it up to date with the player store.
+     * Players missing from the index, or whose record is newer than the index, are read once;
+     * on the first start after upgrading this reads every player.
+     */
+    private void loadPlayerIndex() {
+        playerIndex.clear();
+
+        Path indexFile = runtimePath.resolve(PLAYER_INDEX_FILE);
+        long indexModified = Long.MIN_VALUE;
+        if (Files.exists(indexFile)) {
+            try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+                Type type = new TypeToken<List<PlayerIndexData>>() {}.getType();
+                List<PlayerIndexData> dataList = gson.fromJson(reader, type);
+                if (dataList != null) {
+                    for (PlayerIndexData data : dataList) {
+                        PlayerIndex.Summary summary = data.toSummary();
+                        if (summary != null) {
+                            playerIndex.put(summary);
+                        }
+                    }
+                }
+                indexModified = Files.getLastModifiedTime(indexFile).toMillis();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load player index, rebuilding", e);
+                handleCorruptFile(indexFile);
+                playerIndex.clear();
+            }
         }
 
-        try (Stream<Path> files = Files.list(playersDir)) {
-            int loaded = 0;
-            int failed = 0;
+        Set<UUID> onDisk;
+        try {
+            onDisk = playerStore.ids();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to list stored players", e);
+            return;
+        }
 
-            List<Path> playerFiles = files
-                    .filter(p -> p.toString().endsWith(".json"))
-                    .filter(p -> !p.getFileName().toString().contains(".corrupt."))
-                    .collect(Collectors.toList());
+        int read = 0;
+        int failed = 0;
+        for (UUID uuid : new ArrayList<>(onDisk)) {
+            boolean stale;
+            try {
+                stale = !playerIndex.contains(uuid) || playerStore.lastModified(uuid) > indexModified;
+            } catch (IOException e) {
+                stale = true;
+            }
+            if (!stale) continue;
 
-            for (Path file : playerFiles) {
-                String filename = file.getFileName().toString();
-                String uuidStr = filename.substring(0, filename.length() - 5); // Remove .json
+            Optional<PlayerState> playerOpt = loadSinglePlayer(uuid);
+            if (playerOpt.isPresent()) {
+                playerIndex.put(PlayerIndex.Summary.of(playerOpt.get()));
+                read++;
+            } else {
+                playerIndex.remove(uuid);
+                onDisk.remove(uuid);
+                failed++;
+            }
+        }
 
-                try {
-                    UUID uuid = UUID.fromString(uuidStr);
-                    Optional<PlayerState> playerOpt = loadSinglePlayer(uuid);
-                    if (playerOpt.isPresent()) {
-                        state.registerPlayer(playerOpt.get());
-                        loaded++;
-                    }
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid player file name: " + filename);
-                    failed++;
-                }
+        // Drop index entries whose record no longer exists
+        for (PlayerIndex.Summary summary : playerIndex.getAll()) {
+            if (!onDisk.contains(summary.uuid())) {
+                playerIndex.remove(summary.uuid());
             }
+        }
 
-            plugin.getLogger().info("Loaded " + loaded + " player states from disk" +
-                    (failed > 0 ? " (" + failed + " failed)" : ""));
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to list player files", e);
+        if (read > 0) {
+            playerIndex.markDirty();
         }
+        plugin.getLogger().info("Indexed " + playerIndex.size() + " players"
+                + (read > 0 ? " (" + read + " read from disk)" : "")
+                + (failed > 0 ? " (" + failed + " failed)" : ""));
     }
 
     /**
-     * Loads a single player from their individual file.
-     * @param uuid The player's UUID
-     * @return The loaded PlayerState, or empty if file doesn't exist or is invalid
+     * Player loader for StateService: loads a persisted player that is not resident.
+     * Unknown UUIDs are answered from the index without touching the disk. A record that is
+     * missing or unreadable (and quarantined) leaves the index, so the player can start fresh.
      */
-    private Optional<PlayerState> loadSinglePlayer(UUID uuid) {
-        Path file = playersDir.resolve(uuid.toString() + ".json");
-        if (!Files.exists(file)) {
+    private Optional<PlayerState> loadIndexedPlayer(UUID uuid) {
+        if (!playerIndex.contains(uuid)) {
             return Optional.empty();
         }
+        Optional<PlayerState> playerOpt = loadSinglePlayer(uuid);
+        if (playerOpt.isPresent()) {
+            savedVersions.put(uuid, playerOpt.get().getDirtyVersion());
+        } else {
+            playerIndex.remove(uuid);
+        }
+        return playerOpt;
+    }
 
-        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
-            PlayerStateData data = gson.fromJson(reader, PlayerStateData.class);
+    /**
+     * Gets the index of all persisted players.
+     */
+    public PlayerIndex getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /**
+     * Loads a single player from the player store.
+     * @param uuid The player's UUID
+     * @return The loaded PlayerState, or empty if not stored or invalid
+     */
+    private Optional<PlayerState> loadSinglePlayer(UUID uuid) {
+        try {
+            byte[] record = playerStore.read(uuid);
+            if (record == null) {
+                return Optional.empty();
+            }
+
+            PlayerStateData data = parsePlayerRecord(record);
             if (data == null) {
-                plugin.getLogger().warning("Player file is empty: " + uuid);
+                plugin.getLogger().warning("Player record is empty: " + uuid);
                 return Optional.empty();
             }
             return Optional.of(data.toPlayerState());
         } catch (Exception e) {
             plugin.getLogger().log(Level.WARNING, "Failed to load player " + uuid, e);
-            handleCorruptFile(file);
+            playerStore.quarantine(uuid);
             return Optional.empty();
         }
     }
 
+    private PlayerStateData parsePlayerRecord(byte[] record) {
+        return gson.fromJson(new String(record, StandardCharsets.UTF_8), PlayerStateData.class);
+    }
+
     private void loadTeams() {
         Path file = runtimePath.resolve(TEAMS_FILE);
         if (!Files.exists(file)) {
@@ -248,19 +478,6 @@ public class PersistenceService {
         }
     }
 
-    /**
-     * Links team members' teamId after loading both players and teams.
-     */
-    private void linkTeamMembers() {
-        for (TeamState team : state.getAllTeams()) {
-            for (UUID memberId : team.getMembers()) {
-                state.getPlayer(memberId).ifPresent(player -> {
-                    player.setTeamId(team.getTeamId());
-                });
-            }
-        }
-    }
-
     private void handleCorruptFile(Path file) {
         try {
             Path corruptPath = file.resolveSibling(file.getFileName() + ".corrupt." + System.currentTimeMillis());
@@ -282,62 +499,259 @@ public class PersistenceService {
 
     /**
      * Saves all data synchronously.
+     * Players without changes since their last write are skipped.
      */
     public void saveAllSync() {
-        savePlayers();
-        saveTeams();
-        saveFixedMerchants();
+        long start = System.nanoTime();
+        JfrEvents.PersistenceSave event = new JfrEvents.PersistenceSave();
+        event.begin();
+        long[] playerResult = savePlayers();
+        long teamBytes = saveTeams();
+        long merchantBytes = saveFixedMerchants();
+        long indexBytes = savePlayerIndex();
+
+        int playerFiles = (int) playerResult[0];
+        int otherFiles = (teamBytes >= 0 ? 1 : 0) + (merchantBytes > 0 ? 1 : 0) + (indexBytes > 0 ? 1 : 0);
+        long bytes = playerResult[1] + Math.max(0, teamBytes) + Math.max(0, merchantBytes) + Math.max(0, indexBytes);
+        lastSaveStats = new SaveCycleStats(playerFiles, (int) playerResult[2], playerFiles + otherFiles,
+                bytes, System.nanoTime() - start);
+        saveTimer.record(lastSaveStats.durationNanos());
+        if (event.shouldCommit()) {
+            event.playerFiles = lastSaveStats.playerFiles();
+            event.playersSkipped = lastSaveStats.playersSkipped();
+            event.files = lastSaveStats.files();
+            event.bytes = lastSaveStats.bytes();
+            event.commit();
+        }
+
         if (config.isVerbose()) {
-            plugin.getLogger().info("All data saved to disk");
+            plugin.getLogger().info("All data saved to disk (" + playerFiles + " player files, "
+                    + playerResult[2] + " unchanged, " + bytes + " bytes)");
         }
     }
 
+    /**
+     * Gets the result of the most recent full save cycle.
+     */
+    public SaveCycleStats getLastSaveStats() {
+        return lastSaveStats;
+    }
+
     /**
      * Saves a single player's state asynchronously.
-     * Only writes the specified player's file, not all players.
+     * Requests are coalesced: all players queued before the flush runs are written together,
+     * and only if they changed since their last write.
      */
     public CompletableFuture<Void> savePlayerAsync(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
+        queuedPlayerSaves.add(playerId);
+        while (true) {
+            CompletableFuture<Void> flush = pendingPlayerFlush.get();
+            if (flush != null) {
+                return flush;
+            }
+
+            CompletableFuture<Void> created = new CompletableFuture<>();
+            if (pendingPlayerFlush.compareAndSet(null, created)) {
+                CompletableFuture.runAsync(() -> {
+                    // Clear before draining so later requests start a new flush instead of being missed
+                    pendingPlayerFlush.compareAndSet(created, null);
+                    try {
+                        flushQueuedPlayers();
+                        created.complete(null);
+                    } catch (Throwable t) {
+                        created.completeExceptionally(t);
+                    }
+                });
+                return created;
+            }
+        }
+    }
+
+    private void flushQueuedPlayers() {
+        int written = 0;
+        Iterator<UUID> it = queuedPlayerSaves.iterator();
+        while (it.hasNext()) {
+            UUID playerId = it.next();
+            it.remove();
             Optional<PlayerState> playerOpt = state.getPlayer(playerId);
-            if (playerOpt.isPresent()) {
-                saveSinglePlayer(playerOpt.get());
-                if (config.isVerbose()) {
-                    plugin.getLogger().info("Saved player " + playerId + " to disk");
-                }
+            if (playerOpt.isPresent() && saveIfDirty(playerOpt.get()) >= 0) {
+                written++;
             }
-        });
+        }
+        if (written > 0) {
+            flushPlayerStore();
+        }
+        if (config.isVerbose() && written > 0) {
+            plugin.getLogger().info("Saved " + written + " player(s) to disk");
+        }
     }
 
     /**
-     * Saves a single player to their individual file.
-     * Uses atomic write pattern for safety.
+     * Writes a player's file if it changed since the last write.
+     * The version is read before serializing, so changes made during the write stay dirty.
+     * The whole check-write-record sequence holds the save lock, so an older version can never
+     * reach disk after a newer one while the newer version is recorded as saved.
+     *
+     * @return bytes written, or -1 if the player was unchanged or the write failed
      */
-    private void saveSinglePlayer(PlayerState player) {
-        Path file = playersDir.resolve(player.getUuid().toString() + ".json");
+    private long saveIfDirty(PlayerState player) {
+        synchronized (playerSaveLock) {
+            long version = player.getDirtyVersion();
+            Long saved = savedVersions.get(player.getUuid());
+            if (saved != null && saved == version) {
+                return -1;
+            }
+
+            long bytes = saveSinglePlayer(player);
+            if (bytes >= 0) {
+                playerWriteCounter.increment();
+                savedVersions.put(player.getUuid(), version);
+                playerIndex.put(PlayerIndex.Summary.of(player));
+                player.touch();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Saves a single player to the player store.
+     *
+     * @return bytes written, or -1 on failure
+     */
+    private long saveSinglePlayer(PlayerState player) {
         PlayerStateData data = PlayerStateData.fromPlayerState(player);
-        writeJsonFile(file, data);
+        try {
+            return playerStore.write(player.getUuid(), playerGson.toJson(data).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save player " + player.getUuid(), e);
+            return -1;
+        }
+    }
+
+    private void flushPlayerStore() {
+        try {
+            playerStore.flush();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to flush player store", e);
+        }
+    }
+
+    /**
+     * Writes all changed players.
+     *
+     * @return {files written, bytes written, players skipped}
+     */
+    private long[] savePlayers() {
+        long files = 0;
+        long bytes = 0;
+        long skipped = 0;
+        for (PlayerState player : state.getAllPlayers()) {
+            long written = saveIfDirty(player);
+            if (written >= 0) {
+                files++;
+                bytes += written;
+            } else {
+                skipped++;
+            }
+        }
+        flushPlayerStore();
+        try {
+            playerStore.maintain();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Player store maintenance failed", e);
+        }
+        return new long[] {files, bytes, skipped};
     }
 
-    private void savePlayers() {
-        Collection<PlayerState> allPlayers = state.getAllPlayers();
-        for (PlayerState player : allPlayers) {
-            saveSinglePlayer(player);
+    /**
+     * Writes the player index if it changed.
+     *
+     * @return bytes written, or 0 if unchanged or the write failed
+     */
+    private long savePlayerIndex() {
+        if (!playerIndex.consumeDirty()) {
+            return 0;
         }
+        List<PlayerIndexData> dataList = playerIndex.getAll().stream()
+                .map(PlayerIndexData::fromSummary)
+                .collect(Collectors.toList());
+
+        long bytes = writeJsonFile(runtimePath.resolve(PLAYER_INDEX_FILE), dataList);
+        if (bytes < 0) {
+            playerIndex.markDirty();
+            return 0;
+        }
+        return bytes;
     }
 
-    private void saveTeams() {
+    // ==================== Residency ====================
+
+    /**
+     * Evicts offline players that are not in a team and have no unsaved changes.
+     * Players idle longer than the idle limit are always evicted; beyond that, least
+     * recently used players are evicted until the resident count fits the cap.
+     * Must run on the main thread.
+     */
+    public void evictIdlePlayers() {
+        int maxResident = config.getMaxResidentPlayers();
+        long idleMillis = config.getResidentIdleSeconds() * 1000L;
+        if (maxResident <= 0 && idleMillis <= 0) {
+            return;
+        }
+
+        List<PlayerState> candidates = new ArrayList<>();
+        for (PlayerState player : state.getAllPlayers()) {
+            if (Bukkit.getPlayer(player.getUuid()) != null) continue;
+            if (!isSaved(player)) continue;
+            candidates.add(player);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        candidates.sort(Comparator.comparingLong(PlayerState::getLastAccessMillis));
+
+        long now = System.currentTimeMillis();
+        int resident = state.getAllPlayers().size();
+        int evicted = 0;
+        for (PlayerState player : candidates) {
+            boolean idle = idleMillis > 0 && now - player.getLastAccessMillis() >= idleMillis;
+            boolean overCap = maxResident > 0 && resident > maxResident;
+            if (!idle && !overCap) break;
+
+            UUID playerId = player.getUuid();
+            if (state.evictPlayer(playerId, p -> Bukkit.getPlayer(playerId) == null && isSaved(p))) {
+                savedVersions.remove(playerId);
+                resident--;
+                evicted++;
+            }
+        }
+
+        if (config.isVerbose() && evicted > 0) {
+            plugin.getLogger().info("Evicted " + evicted + " idle player states (" + resident + " resident)");
+        }
+    }
+
+    /**
+     * Checks if a player's current state has been written to disk.
+     */
+    private boolean isSaved(PlayerState player) {
+        Long saved = savedVersions.get(player.getUuid());
+        return saved != null && saved == player.getDirtyVersion();
+    }
+
+    private long saveTeams() {
         List<TeamStateData> dataList = state.getAllTeams().stream()
                 .map(TeamStateData::fromTeamState)
                 .collect(Collectors.toList());
 
         Path file = runtimePath.resolve(TEAMS_FILE);
-        writeJsonFile(file, dataList);
+        return writeJsonFile(file, dataList);
     }
 
-    private void saveFixedMerchants() {
+    private long saveFixedMerchants() {
         MerchantService merchantService = plugin.getMerchantService();
         if (merchantService == null) {
-            return;
+            return 0;
         }
 
         List<MerchantService.FixedMerchantData> dataList = merchantService.getFixedMerchantsData();
@@ -348,37 +762,44 @@ public class PersistenceService {
             try {
                 Files.deleteIfExists(file);
             } catch (IOException ignored) {}
-            return;
+            return 0;
         }
 
-        writeJsonFile(file, dataList);
+        return Math.max(0, writeJsonFile(file, dataList));
     }
 
-    private synchronized void writeJsonFile(Path file, Object data) {
+    /**
+     * Writes data as JSON via a temp file and move.
+     *
+     * @return bytes written, or -1 on failure
+     */
+    private synchronized long writeJsonFile(Path file, Object data) {
         // Ensure parent directory exists
         try {
             Files.createDirectories(file.getParent());
         } catch (IOException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to create directory for " + file.getFileName(), e);
-            return;
+            return -1;
         }
 
         Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
-        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
-            gson.toJson(data, writer);
-            writer.flush();
+        try {
+            byte[] bytes = gson.toJson(data).getBytes(StandardCharsets.UTF_8);
+            Files.write(tempFile, bytes);
             // Try atomic move first, fall back to regular move if not supported
             try {
                 Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             } catch (AtomicMoveNotSupportedException e) {
                 Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
             }
+            return bytes.length;
         } catch (IOException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to save data to " + file.getFileName(), e);
             // Clean up temp file
             try {
                 Files.deleteIfExists(tempFile);
             } catch (IOException ignored) {}
+            return -1;
         }
     }
 
@@ -386,7 +807,7 @@ public class PersistenceService {
 
     /**
      * Creates a backup of all data files.
-     * Copies individual player files to a players/ subdirectory in backup.
+     * Player data is copied as stored (players/ subdirectory or players.log).
      */
     public void createBackup() {
         String timestamp = LocalDateTime.now().format(BACKUP_FORMAT);
@@ -401,8 +822,8 @@ public class PersistenceService {
                 Files.copy(teamsFile, backupDir.resolve(TEAMS_FILE), StandardCopyOption.REPLACE_EXISTING);
             }
 
-            // Backup player files
-            backupPlayerFiles(backupDir);
+            // Backup player data
+            playerStore.backup(backupDir);
 
             plugin.getLogger().info("Backup created: " + backupDir.getFileName());
 
@@ -413,31 +834,6 @@ public class PersistenceService {
         }
     }
 
-    /**
-     * Backs up all player files to a players/ subdirectory in the backup directory.
-     */
-    private void backupPlayerFiles(Path backupDir) throws IOException {
-        if (!Files.exists(playersDir)) {
-            return;
-        }
-
-        Path backupPlayersDir = backupDir.resolve(PLAYERS_DIR);
-        Files.createDirectories(backupPlayersDir);
-
-        try (Stream<Path> files = Files.list(playersDir)) {
-            files.filter(p -> p.toString().endsWith(".json"))
-                    .filter(p -> !p.getFileName().toString().contains(".corrupt."))
-                    .forEach(file -> {
-                        try {
-                            Files.copy(file, backupPlayersDir.resolve(file.getFileName()),
-                                    StandardCopyOption.REPLACE_EXISTING);
-                        } catch (IOException e) {
-                            plugin.getLogger().warning("Failed to backup player file: " + file.getFileName());
-                        }
-                    });
-        }
-    }
-
     private void rotateBackups() {
         int maxBackups = 10; // Could be made configurable
 
@@ -634,6 +1030,43 @@ public class PersistenceService {
         }
     }
 
+    /**
+     * Data transfer object for player index serialization.
+     */
+    public static class PlayerIndexData {
+        public String uuid;
+        public String name;
+        public int permaScore;
+        public int totalKills;
+        public int runCount;
+        public int highestStageCleared;
+        public int campaignCompletions;
+
+        public static PlayerIndexData fromSummary(PlayerIndex.Summary summary) {
+            PlayerIndexData data = new PlayerIndexData();
+            data.uuid = summary.uuid().toString();
+            data.name = summary.name();
+            data.permaScore = summary.permaScore();
+            data.totalKills = summary.totalKills();
+            data.runCount = summary.runCount();
+            data.highestStageCleared = summary.highestStageCleared();
+            data.campaignCompletions = summary.campaignCompletions();
+            return data;
+        }
+
+        /**
+         * @return the summary, or null if the UUID is invalid
+         */
+        public PlayerIndex.Summary toSummary() {
+            try {
+                return new PlayerIndex.Summary(UUID.fromString(uuid), name, permaScore, totalKills,
+                        runCount, highestStageCleared, campaignCompletions);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                return null;
+            }
+        }
+    }
+
     /**
      * Data transfer object for team state serialization.
      */
@@ -0,0 +1,122 @@
+package cat.nyaa.survivors.service;
+
+import cat.nyaa.survivors.model.PlayerState;
+import cat.nyaa.survivors.model.PlayerStats;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of every persisted player, resident or not.
+ * Keeps a small summary per player so counts and offline lookups by name
+ * do not need every player state loaded. Thread-safe.
+ */
+public class PlayerIndex {
+
+    /**
+     * Summary of a persisted player, as of its last save.
+     */
+    public record Summary(
+            UUID uuid,
+            String name,
+            int permaScore,
+            int totalKills,
+            int runCount,
+            int highestStageCleared,
+            int campaignCompletions
+    ) {
+        public static Summary of(PlayerState player) {
+            PlayerStats stats = player.getStats();
+            return new Summary(
+                    player.getUuid(),
+                    player.getName(),
+                    player.getPermaScore(),
+                    stats.getTotalKills(),
+                    stats.getRunCount(),
+                    stats.getHighestStageCleared(),
+                    stats.getCampaignCompletions()
+            );
+        }
+    }
+
+    private final Map<UUID, Summary> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    /**
+     * Adds or replaces a player's summary.
+     */
+    public void put(Summary summary) {
+        Summary previous = entries.put(summary.uuid(), summary);
+        if (!summary.equals(previous)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes a player from the index.
+     */
+    public void remove(UUID playerId) {
+        if (entries.remove(playerId) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Checks if a player has persisted data.
+     */
+    public boolean contains(UUID playerId) {
+        return entries.containsKey(playerId);
+    }
+
+    public Optional<Summary> get(UUID playerId) {
+        return Optional.ofNullable(entries.get(playerId));
+    }
+
+    /**
+     * Gets the number of persisted players.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets all summaries (unordered snapshot).
+     */
+    public List<Summary> getAll() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Finds a player by name (case-insensitive).
+     */
+    public Optional<Summary> findByName(String name) {
+        if (name == null) return Optional.empty();
+        for (Summary summary : entries.values()) {
+            if (name.equalsIgnoreCase(summary.name())) {
+                return Optional.of(summary);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Checks and clears the changed-since-last-write flag.
+     */
+    boolean consumeDirty() {
+        boolean wasDirty = dirty;
+        dirty = false;
+        return wasDirty;
+    }
+
+    /**
+     * Marks the index as needing a write (e.g. after a repair at startup).
+     */
+    void markDirty() {
+        dirty = true;
+    }
+
+    void clear() {
+        entries.clear();
+        dirty = false;
+    }
+}
@@ -0,0 +1,116 @@
+package cat.nyaa.survivors.service;
+
+import cat.nyaa.survivors.KedamaSurvivorsPlugin;
+import cat.nyaa.survivors.model.PlayerState;
+import cat.nyaa.survivors.model.RunState;
+import cat.nyaa.survivors.util.SpatialGrid;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Per-world spatial index of online run participants for proximity queries.
+ * Rebuilt at most once per server tick, on the first query of that tick, so
+ * range queries only visit nearby grid cells instead of every participant.
+ *
+ * <p>Positions are as of the rebuild; player state (mode, run level) is read live.
+ * Main thread only. VRS mob proximity lives in the spawner's mob registry.
+ */
+public class ProximityService {
+
+    private static final double GRID_CELL_SIZE = 16.0;
+
+    private final StateService state;
+
+    private final Map<String, SpatialGrid<Participant>> grids = new HashMap<>();
+    private int lastRefreshTick = -1;
+
+    /**
+     * An online run participant at its position for the current tick.
+     */
+    public record Participant(UUID playerId, Player player, UUID runId, PlayerState playerState) {}
+
+    public ProximityService(KedamaSurvivorsPlugin plugin) {
+        this.state = plugin.getStateService();
+    }
+
+    /**
+     * Rebuilds the participant grids if they were not built this tick.
+     */
+    public void refresh() {
+        int tick = Bukkit.getCurrentTick();
+        if (tick == lastRefreshTick) return;
+        lastRefreshTick = tick;
+
+        for (SpatialGrid<Participant> grid : grids.values()) {
+            grid.clear();
+        }
+
+        for (RunState run : state.getActiveRuns()) {
+            for (UUID playerId : run.getParticipants()) {
+                Player player = Bukkit.getPlayer(playerId);
+                if (player == null || !player.isOnline()) continue;
+
+                Optional<PlayerState> playerState = state.getPlayer(playerId);
+                Location loc = player.getLocation();
+                grids.computeIfAbsent(player.getWorld().getName(), k -> new SpatialGrid<>(GRID_CELL_SIZE))
+                        .insert(loc.getX(), loc.getY(), loc.getZ(),
+                                new Participant(playerId, player, run.getRunId(), playerState.orElse(null)));
+            }
+        }
+    }
+
+    /**
+     * Visits participants of a run within radius (inclusive, spherical) of a location.
+     */
+    public void forEachParticipantInSphere(UUID runId, Location center, double radius, Consumer<Participant> action) {
+        SpatialGrid<Participant> grid = gridFor(center);
+        if (grid == null) return;
+
+        grid.forEachInSphere(center.getX(), center.getY(), center.getZ(), radius, participant -> {
+            if (participant.runId().equals(runId)) {
+                action.accept(participant);
+            }
+        });
+    }
+
+    /**
+     * Visits participants of a run inside the axis-aligned box of half-size radius around a location.
+     */
+    public void forEachParticipantInBox(UUID runId, Location center, double radius, Consumer<Participant> action) {
+        SpatialGrid<Participant> grid = gridFor(center);
+        if (grid == null) return;
+
+        grid.forEachInBox(center.getX(), center.getY(), center.getZ(), radius, participant -> {
+            if (participant.runId().equals(runId)) {
+                action.accept(participant);
+            }
+        });
+    }
+
+    /**
+     * Counts online participants of a run within radius of a location.
+     */
+    public int countParticipantsNear(UUID runId, Location center, double radius) {
+        SpatialGrid<Participant> grid = gridFor(center);
+        if (grid == null) return 0;
+
+        return grid.countInSphere(center.getX(), center.getY(), center.getZ(), radius,
+                participant -> participant.runId().equals(runId));
+    }
+
+    private SpatialGrid<Participant> gridFor(Location center) {
+        World world = center.getWorld();
+        if (world == null) return null;
+
+        refresh();
+        return grids.get(world.getName());
+    }
+}
@@ -7,10 +7,10 @@ import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.model.RunState;
 import cat.nyaa.survivors.model.TeamState;
+import cat.nyaa.survivors.util.TickDriver;
 import org.bukkit.Bukkit;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 
@@ -275,7 +275,7 @@ public class ReadyService {
     private class CountdownTask implements Runnable {
         private final TeamState team;
         private int remaining;
-        private BukkitTask bukkitTask;
+        private TickDriver.Job job;
 
         CountdownTask(TeamState team, int seconds) {
             this.team = team;
@@ -287,15 +287,15 @@ public class ReadyService {
                 // Immediate start
                 onComplete();
             } else {
-                // Schedule repeating task
-                bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, this, 0L, 20L);
+                // Schedule repeating job on the tick driver, owned by the team
+                job = plugin.getTickDriver().schedule(team.getTeamId(), TickDriver.Phase.COUNTDOWN, 1, 20, this);
             }
         }
 
         void cancel() {
-            if (bukkitTask != null) {
-                bukkitTask.cancel();
-                bukkitTask = null;
+            if (job != null) {
+                job.cancel();
+                job = null;
             }
         }
 
@@ -6,9 +6,13 @@ import cat.nyaa.survivors.config.ConfigService.EnemyArchetypeConfig;
 import cat.nyaa.survivors.config.ConfigService.SoundConfig;
 import cat.nyaa.survivors.economy.EconomyService;
 import cat.nyaa.survivors.i18n.I18nService;
+import cat.nyaa.survivors.metrics.JfrEvents;
+import cat.nyaa.survivors.metrics.LatencyHistogram;
+import cat.nyaa.survivors.metrics.MetricsRegistry;
 import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.model.RunState;
+import cat.nyaa.survivors.util.TickDriver;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -17,17 +21,24 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Collection;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Handles XP, coin, and perma-score rewards for kills.
  * Manages XP hold logic and nearby player sharing.
+ *
+ * <p>Kill rewards are rolled per kill but queued per recipient, then applied once per tick:
+ * XP, coins and perma-score are summed, the level-up is evaluated once and the sidebar is
+ * refreshed once. Totals are the same as applying each kill on its own (XP bar filling,
+ * holding and overflow conversion are all additive). Run and player kill statistics are
+ * still recorded per kill.
  */
 public class RewardService {
 
@@ -36,11 +47,63 @@ public class RewardService {
     private final I18nService i18n;
     private final StateService state;
 
+    // Kill rewards queued this tick per recipient (main thread only)
+    private final Map<UUID, KillRewardBatch> pendingKillRewards = new LinkedHashMap<>();
+    private TickDriver.Job killRewardJob;
+
+    private final LatencyHistogram killRewardTimer;
+    private final LatencyHistogram flushTimer;
+
+    /**
+     * Kill rewards for one player, summed until the next flush.
+     */
+    static final class KillRewardBatch {
+        final Player player;
+        final PlayerState playerState;
+        final UUID runId;
+        int xp;
+        int sharedXp;
+        int coins;
+        int permaScore;
+
+        KillRewardBatch(Player player, PlayerState playerState) {
+            this.player = player;
+            this.playerState = playerState;
+            this.runId = playerState.getRunId();
+        }
+    }
+
     public RewardService(KedamaSurvivorsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigService();
         this.i18n = plugin.getI18nService();
         this.state = plugin.getStateService();
+
+        MetricsRegistry metrics = plugin.getMetricsRegistry();
+        this.killRewardTimer = metrics.timer("vrs_reward_kill_seconds", "Kill reward processing per kill");
+        this.flushTimer = metrics.timer("vrs_reward_flush_seconds", "Queued kill rewards applied in one tick");
+    }
+
+    /**
+     * Starts the per-tick kill reward flush.
+     */
+    public void start() {
+        if (killRewardJob != null) {
+            return; // Already running
+        }
+        killRewardJob = plugin.getTickDriver().schedule(TickDriver.GLOBAL_OWNER, TickDriver.Phase.REWARD, 1, 1,
+                this::flushKillRewards);
+    }
+
+    /**
+     * Applies queued kill rewards and stops the flush.
+     */
+    public void stop() {
+        flushKillRewards();
+        if (killRewardJob != null) {
+            killRewardJob.cancel();
+            killRewardJob = null;
+        }
     }
 
     /**
@@ -67,6 +130,26 @@ public class RewardService {
      */
     public void processKillReward(Player killer, String archetypeId, int enemyLevel,
                                    Location deathLoc, UUID mobId) {
+        long start = System.nanoTime();
+        JfrEvents.KillReward event = new JfrEvents.KillReward();
+        event.begin();
+        try {
+            rollKillReward(killer, archetypeId, enemyLevel, deathLoc, mobId);
+        } finally {
+            killRewardTimer.recordSince(start);
+            if (event.shouldCommit()) {
+                UUID runId = state.getPlayer(killer.getUniqueId()).map(PlayerState::getRunId).orElse(null);
+                event.runId = runId != null ? runId.toString() : null;
+                event.playerId = killer.getUniqueId().toString();
+                event.archetypeId = archetypeId;
+                event.enemyLevel = enemyLevel;
+                event.commit();
+            }
+        }
+    }
+
+    private void rollKillReward(Player killer, String archetypeId, int enemyLevel,
+                                Location deathLoc, UUID mobId) {
         Optional<PlayerState> killerStateOpt = state.getPlayer(killer.getUniqueId());
         if (killerStateOpt.isEmpty()) return;
 
@@ -115,19 +198,12 @@ public class RewardService {
             processContributorRewards(killer, xpReward, mobId);
         }
 
-        // 2. Award XP to killer (only if rolled)
-        if (xpReward > 0) {
-            awardXp(killer, killerState, xpReward, false);
-        }
-
-        // Award coins to killer (only if rolled)
-        if (coinReward > 0) {
-            awardCoin(killer, coinReward);
-        }
-
-        // Award perma-score (only if rolled)
-        if (permaScoreReward > 0) {
-            awardPermaScore(killer, killerState, permaScoreReward);
+        // 2. Queue rewards for killer (only if rolled)
+        if (xpReward > 0 || coinReward > 0 || permaScoreReward > 0) {
+            KillRewardBatch batch = batchFor(killer, killerState);
+            batch.xp += xpReward;
+            batch.coins += coinReward;
+            batch.permaScore += permaScoreReward;
         }
 
         // 3. Share XP with nearby players (existing proximity-based sharing)
@@ -203,8 +279,8 @@ public class RewardService {
             PlayerState contributorState = contributorStateOpt.get();
             if (contributorState.getMode() != PlayerMode.IN_RUN) continue;
 
-            // Award the contribution XP (marked as shared for notification purposes)
-            awardXp(contributor, contributorState, sharedXp, true);
+            // Queue the contribution XP (marked as shared for notification purposes)
+            batchFor(contributor, contributorState).sharedXp += sharedXp;
 
             if (config.isVerbose()) {
                 plugin.getLogger().info("Damage contribution XP: " + contributor.getName() +
@@ -216,30 +292,85 @@ public class RewardService {
         contributionService.clearMob(mobId);
     }
 
+    private KillRewardBatch batchFor(Player player, PlayerState playerState) {
+        return pendingKillRewards.computeIfAbsent(player.getUniqueId(), id -> new KillRewardBatch(player, playerState));
+    }
+
+    /**
+     * Applies all queued kill rewards.
+     */
+    private void flushKillRewards() {
+        if (pendingKillRewards.isEmpty()) return;
+
+        long start = System.nanoTime();
+        List<KillRewardBatch> batches = new ArrayList<>(pendingKillRewards.values());
+        pendingKillRewards.clear();
+        for (KillRewardBatch batch : batches) {
+            applyKillRewards(batch);
+        }
+        flushTimer.recordSince(start);
+    }
+
+    /**
+     * Applies a player's queued kill rewards now (e.g. before they quit).
+     */
+    public void flushKillRewards(UUID playerId) {
+        KillRewardBatch batch = pendingKillRewards.remove(playerId);
+        if (batch != null) {
+            applyKillRewards(batch);
+        }
+    }
+
+    private void applyKillRewards(KillRewardBatch batch) {
+        Player player = batch.player;
+        PlayerState playerState = batch.playerState;
+
+        // XP is run progress: skip it if the player left the run since (their run state was reset)
+        boolean inRun = playerState.getMode() == PlayerMode.IN_RUN
+                && Objects.equals(playerState.getRunId(), batch.runId);
+        if (inRun && player.isOnline() && (batch.xp > 0 || batch.sharedXp > 0)) {
+            awardXpInternal(player, playerState, batch.xp, false, true, false);
+            awardXpInternal(player, playerState, batch.sharedXp, true, true, false);
+            plugin.getScoreboardService().updatePlayerSidebar(player);
+        }
+
+        // Coins need an online player (ITEM mode grants inventory items). The quit flush applies a
+        // player's batch while they are still online, so only coins credited after the quit are dropped.
+        if (batch.coins > 0 && player.isOnline()) {
+            awardCoin(player, batch.coins);
+        }
+        // Perma-score lives in the player state and is applied even after a quit
+        if (batch.permaScore > 0) {
+            awardPermaScore(player, playerState, batch.permaScore);
+        }
+    }
+
     /**
      * Awards XP to a player, handling hold logic and upgrade triggers.
      */
     public void awardXp(Player player, PlayerState playerState, int amount, boolean isShared) {
-        awardXpInternal(player, playerState, amount, isShared, true);
+        awardXpInternal(player, playerState, amount, isShared, true, true);
     }
 
     /**
      * Internal XP award method with notification control.
      *
-     * @param notify If true, notifies player of XP gain via action bar/chat
+     * @param notify        If true, notifies player of XP gain via action bar/chat
+     * @param refreshSidebar If false, the caller refreshes the sidebar itself
      */
-    private void awardXpInternal(Player player, PlayerState playerState, int amount, boolean isShared, boolean notify) {
+    private void awardXpInternal(Player player, PlayerState playerState, int amount, boolean isShared,
+                                 boolean notify, boolean refreshSidebar) {
         if (amount <= 0) return;
 
         // Check if at max level
         if (playerState.isAtMaxLevel()) {
-            applyOverflowXp(player, playerState, amount);
+            applyOverflowXp(player, playerState, amount, refreshSidebar);
             return;
         }
 
         // If upgrade is pending, buffer the XP but still notify
         if (playerState.isUpgradePending()) {
-            playerState.setXpHeld(playerState.getXpHeld() + amount);
+            addXpToBar(playerState, amount);
             // Still notify so player sees XP on action bar
             if (notify) {
                 notifyXpGained(player, amount, isShared);
@@ -247,21 +378,9 @@ public class RewardService {
             return;
         }
 
-        // Apply XP to progress
-        int newProgress = playerState.getXpProgress() + amount;
-        int required = playerState.getXpRequired();
-
-        if (newProgress >= required) {
-            // Level up triggered
-            int overflow = newProgress - required;
-            playerState.setXpProgress(required);
-            playerState.setXpHeld(playerState.getXpHeld() + overflow);
-            playerState.setUpgradePending(true);
-
-            // Show upgrade prompt
+        if (addXpToBar(playerState, amount)) {
+            // Level up triggered - show upgrade prompt
             showUpgradePrompt(player, playerState);
-        } else {
-            playerState.setXpProgress(newProgress);
         }
 
         // Notify player of XP gain
@@ -270,7 +389,35 @@ public class RewardService {
         }
 
         // Update sidebar
-        plugin.getScoreboardService().updatePlayerSidebar(player);
+        if (refreshSidebar) {
+            plugin.getScoreboardService().updatePlayerSidebar(player);
+        }
+    }
+
+    /**
+     * Adds XP below max level: held while an upgrade is pending; otherwise added to the bar,
+     * and on filling it the rest is held and an upgrade becomes pending.
+     *
+     * @return true if this call filled the bar (level up)
+     */
+    static boolean addXpToBar(PlayerState playerState, int amount) {
+        if (playerState.isUpgradePending()) {
+            playerState.setXpHeld(playerState.getXpHeld() + amount);
+            return false;
+        }
+
+        int newProgress = playerState.getXpProgress() + amount;
+        int required = playerState.getXpRequired();
+        if (newProgress >= required) {
+            int overflow = newProgress - required;
+            playerState.setXpProgress(required);
+            playerState.setXpHeld(playerState.getXpHeld() + overflow);
+            playerState.setUpgradePending(true);
+            return true;
+        }
+
+        playerState.setXpProgress(newProgress);
+        return false;
     }
 
     /**
@@ -352,41 +499,58 @@ public class RewardService {
      * Handles overflow XP when at max level.
      * Shows XP notifications, updates scoreboard progress, and increments run level on conversion.
      */
-    private void applyOverflowXp(Player player, PlayerState playerState, int amount) {
+    private void applyOverflowXp(Player player, PlayerState playerState, int amount, boolean refreshSidebar) {
         if (!config.isOverflowEnabled()) return;
 
         // Notify XP gain (show on action bar like normal XP)
         notifyXpGained(player, amount, false);
 
-        int xpPerScore = config.getOverflowXpPerPermaScore();
+        int conversions = addOverflowXp(playerState, amount, config.getOverflowXpPerPermaScore());
+        if (conversions > 0) {
+            // Update scoreboard perma-score
+            plugin.getScoreboardService().updatePermaScore(player, playerState.getPermaScore());
+
+            if (config.isOverflowNotifyPlayer()) {
+                for (int i = 0; i < conversions; i++) {
+                    i18n.send(player, "info.overflow_convert", "amount", 1);
+                }
+            }
+        }
+
+        // Update sidebar to reflect new progress
+        if (refreshSidebar) {
+            plugin.getScoreboardService().updatePlayerSidebar(player);
+        }
+    }
+
+    /**
+     * Adds overflow XP at max level, converting each full threshold to one perma-score
+     * and one run level.
+     *
+     * @return the number of conversions
+     */
+    static int addOverflowXp(PlayerState playerState, int amount, int xpPerScore) {
         int accumulated = playerState.getOverflowXpAccumulated() + amount;
 
         // Set xpRequired to overflow threshold for scoreboard bar calculation
         playerState.setXpRequired(xpPerScore);
 
         // Convert overflow XP to perma-score when threshold reached
+        int conversions = 0;
         while (accumulated >= xpPerScore) {
             accumulated -= xpPerScore;
             playerState.setPermaScore(playerState.getPermaScore() + 1);
 
             // Increment run level on each overflow conversion (like a "level up")
             playerState.setRunLevel(playerState.getRunLevel() + 1);
-
-            // Update scoreboard perma-score
-            plugin.getScoreboardService().updatePermaScore(player, playerState.getPermaScore());
-
-            if (config.isOverflowNotifyPlayer()) {
-                i18n.send(player, "info.overflow_convert", "amount", 1);
-            }
+            conversions++;
         }
 
         playerState.setOverflowXpAccumulated(accumulated);
 
         // Update xpProgress for scoreboard bar display
         playerState.setXpProgress(accumulated);
-
-        // Update sidebar to reflect new progress
-        plugin.getScoreboardService().updatePlayerSidebar(player);
+        return conversions;
     }
 
     /**
@@ -402,23 +566,22 @@ public class RewardService {
         UUID killerRunId = killerState.getRunId();
         if (killerRunId == null) return;
 
-        // Find nearby players in the same run
-        Collection<Player> nearbyPlayers = deathLoc.getWorld().getNearbyPlayers(
-                deathLoc, shareRadius, shareRadius, shareRadius);
+        // Find nearby players in the same run (collected first: awarding XP may change run state)
+        List<ProximityService.Participant> nearbyPlayers = new ArrayList<>();
+        plugin.getProximityService().forEachParticipantInBox(killerRunId, deathLoc, shareRadius, nearbyPlayers::add);
 
-        for (Player nearby : nearbyPlayers) {
+        for (ProximityService.Participant participant : nearbyPlayers) {
+            Player nearby = participant.player();
             if (nearby.equals(killer)) continue;
 
-            Optional<PlayerState> nearbyStateOpt = state.getPlayer(nearby.getUniqueId());
-            if (nearbyStateOpt.isEmpty()) continue;
-
-            PlayerState nearbyState = nearbyStateOpt.get();
+            PlayerState nearbyState = participant.playerState();
+            if (nearbyState == null) continue;
 
             // Must be in the same run
             if (nearbyState.getMode() != PlayerMode.IN_RUN) continue;
             if (!killerRunId.equals(nearbyState.getRunId())) continue;
 
-            awardXp(nearby, nearbyState, sharedAmount, true);
+            batchFor(nearby, nearbyState).sharedXp += sharedAmount;
         }
     }
 
@@ -449,6 +612,7 @@ public class RewardService {
         // Set upgrade deadline
         long deadline = System.currentTimeMillis() + config.getUpgradeTimeoutMs();
         playerState.setUpgradeDeadlineMillis(deadline);
+        plugin.getUpgradeReminderTask().scheduleDeadline(playerState);
 
         // Determine suggested upgrade
         String suggested = upgradeService.determineSuggestedUpgrade(playerState);
@@ -524,7 +688,7 @@ public class RewardService {
         playerState.setXpHeld(0);
 
         if (held > 0) {
-            awardXpInternal(player, playerState, held, false, false);
+            awardXpInternal(player, playerState, held, false, false, true);
         }
 
         // Update sidebar
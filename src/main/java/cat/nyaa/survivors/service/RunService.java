@@ -5,6 +5,7 @@ import cat.nyaa.survivors.config.ConfigService;
 import cat.nyaa.survivors.config.ConfigService.SoundConfig;
 import cat.nyaa.survivors.economy.EconomyService;
 import cat.nyaa.survivors.i18n.I18nService;
+import cat.nyaa.survivors.metrics.JfrEvents;
 import cat.nyaa.survivors.model.*;
 import cat.nyaa.survivors.util.TemplateEngine;
 import org.bukkit.Bukkit;
@@ -46,6 +47,24 @@ public class RunService {
      * Uses Paper's teleportAsync for async chunk loading.
      */
     public CompletableFuture<RunState> startRunAsync(TeamState team) {
+        JfrEvents.RunStart event = new JfrEvents.RunStart();
+        event.begin();
+        CompletableFuture<RunState> result = startRunInternal(team);
+        if (event.shouldCommit()) {
+            RunState run = result.getNow(null);
+            event.teamId = team.getTeamId().toString();
+            event.players = team.getMembers().size();
+            event.started = run != null;
+            if (run != null) {
+                event.runId = run.getRunId().toString();
+                event.world = run.getWorldName();
+            }
+            event.commit();
+        }
+        return result;
+    }
+
+    private CompletableFuture<RunState> startRunInternal(TeamState team) {
         ConfigService.StageGroupConfig stageGroup = resolveStageGroupForTeam(team);
 
         // Determine world selection from stage group
@@ -791,6 +810,8 @@ public class RunService {
     public void endRun(RunState run, EndReason reason) {
         if (run.isEnded()) return;
 
+        JfrEvents.RunEnd event = new JfrEvents.RunEnd();
+        event.begin();
         run.end();
 
         UUID teamId = run.getTeamId();
@@ -843,6 +864,7 @@ public class RunService {
                     long cooldownEnd = System.currentTimeMillis() + config.getDeathCooldownMs();
                     ps.setCooldownUntilMillis(cooldownEnd);
                     ps.setMode(PlayerMode.COOLDOWN);
+                    plugin.getCooldownDisplay().scheduleExpiry(ps);
                 } else {
                     ps.setCooldownUntilMillis(0);
                     ps.setMode(PlayerMode.LOBBY);
@@ -925,6 +947,16 @@ public class RunService {
 
         plugin.getLogger().info("Ended run " + run.getRunId() + " - Reason: " + reason +
                 ", Kills: " + totalKills + ", Duration: " + duration + "s");
+
+        if (event.shouldCommit()) {
+            event.runId = run.getRunId().toString();
+            event.world = run.getWorldName();
+            event.reason = reason.name();
+            event.players = affectedPlayers.size();
+            event.kills = totalKills;
+            event.durationSeconds = duration;
+            event.commit();
+        }
     }
 
     /**
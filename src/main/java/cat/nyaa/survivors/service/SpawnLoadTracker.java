@@ -7,7 +7,6 @@ import cat.nyaa.survivors.config.ConfigService.SpawnPointConfig;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
 
@@ -22,7 +21,6 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class SpawnLoadTracker {
 
-    private static final String VRS_MOB_TAG = "vrs_mob";
     private static final double DEFAULT_TRACKING_RADIUS = 50.0;
 
     private final KedamaSurvivorsPlugin plugin;
@@ -158,16 +156,13 @@ public class SpawnLoadTracker {
     }
 
     /**
-     * Counts VRS mobs (entities with vrs_mob tag) near a location.
+     * Counts VRS mobs near a location using the spawner's mob registry.
      */
     private int countVrsMobsNear(Location center, double radius) {
         if (center.getWorld() == null) return 0;
 
-        return (int) center.getWorld().getNearbyEntities(center, radius, radius, radius)
-                .stream()
-                .filter(e -> e instanceof LivingEntity)
-                .filter(e -> e.getScoreboardTags().contains(VRS_MOB_TAG))
-                .count();
+        SpawnerService spawner = plugin.getSpawnerService();
+        return spawner != null ? spawner.getMobCountNear(center, radius) : 0;
     }
 
     /**
@@ -3,14 +3,27 @@ package cat.nyaa.survivors.service;
 import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.config.ConfigService;
 import cat.nyaa.survivors.config.ConfigService.EnemyArchetypeConfig;
+import cat.nyaa.survivors.metrics.Counter;
+import cat.nyaa.survivors.metrics.JfrEvents;
+import cat.nyaa.survivors.metrics.LatencyHistogram;
+import cat.nyaa.survivors.metrics.MetricsRegistry;
 import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.model.RunState;
+import cat.nyaa.survivors.service.spawner.ArchetypeSampler;
+import cat.nyaa.survivors.service.spawner.NativeMobSpawner;
 import cat.nyaa.survivors.service.spawner.SpawnContext;
 import cat.nyaa.survivors.service.spawner.SpawnPlan;
+import cat.nyaa.survivors.service.spawner.SpawnPlanQueue;
+import cat.nyaa.survivors.service.spawner.VrsMobRegistry;
 import cat.nyaa.survivors.service.spawner.WorldSpawnerState;
+import cat.nyaa.survivors.util.ChunkSnapshotCache;
+import cat.nyaa.survivors.util.CommandBudget;
 import cat.nyaa.survivors.util.LineOfSightChecker;
+import cat.nyaa.survivors.util.SpawnabilityIndex;
 import cat.nyaa.survivors.util.TemplateEngine;
+import cat.nyaa.survivors.util.TerrainSnapshot;
+import cat.nyaa.survivors.util.TickDriver;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 
@@ -22,6 +35,9 @@ import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
 import java.util.logging.Level;
 
 /**
@@ -32,9 +48,6 @@ import java.util.logging.Level;
  */
 public class SpawnerService {
 
-    private static final String VRS_MOB_TAG = "vrs_mob";
-    private static final String VRS_LEVEL_TAG_PREFIX = "vrs_lvl_";
-
     private final KedamaSurvivorsPlugin plugin;
     private final ConfigService config;
     private final StateService state;
@@ -43,16 +56,44 @@ public class SpawnerService {
     // Per-world spawner state
     private final Map<String, WorldSpawnerState> worldStates = new ConcurrentHashMap<>();
 
-    // Cache for nearby mob counts (cleared each spawn tick)
-    private final Map<MobCountCacheKey, Integer> mobCountCache = new HashMap<>();
+    // Live VRS mobs (replaces entity scans for mob counts)
+    private final VrsMobRegistry mobRegistry;
+
+    // Direct World.spawn backend for NATIVE archetypes
+    private final NativeMobSpawner nativeSpawner;
 
-    // Async executor for Phase B
+    // Async executor for Phase B: one coordinator thread, so spawn ticks are planned in order
     private final ExecutorService asyncExecutor;
 
-    /**
-     * Cache key for mob count queries, based on chunk coordinates.
-     */
-    private record MobCountCacheKey(String worldName, int chunkX, int chunkZ) {}
+    // Bounded pool the coordinator fans Phase B partitions (one per run) out to
+    private final ForkJoinPool planningPool;
+
+    // Per-tick dispatch time budget shared with the command queue
+    private final CommandBudget commandBudget;
+
+    // Placeholders available to archetype spawnCommands
+    private static final TemplateEngine.SlotLayout SPAWN_SLOT_LAYOUT = TemplateEngine.SlotLayout.of(
+            "sx", "sy", "sz", "runWorld", "enemyLevel", "enemyType", "archetypeId");
+    private static final int SLOT_SX = 0;
+    private static final int SLOT_SY = 1;
+    private static final int SLOT_SZ = 2;
+    private static final int SLOT_RUN_WORLD = 3;
+    private static final int SLOT_ENEMY_LEVEL = 4;
+    private static final int SLOT_ENEMY_TYPE = 5;
+    private static final int SLOT_ARCHETYPE_ID = 6;
+
+    // Reused for every spawn command expansion (main thread only)
+    private final TemplateEngine.Slots spawnSlots = SPAWN_SLOT_LAYOUT.newSlots();
+
+    // Phase timings and spawn counts
+    private final LatencyHistogram collectTimer;
+    private final LatencyHistogram planTimer;
+    private final LatencyHistogram executeTimer;
+    private final LatencyHistogram losTimer;
+    private final LatencyHistogram dispatchTimer;
+    private final Counter plannedCounter;
+    private final Counter spawnedCounter;
+    private final Counter droppedCounter;
 
     /**
      * Temporary per-player spawn suppression state.
@@ -65,15 +106,24 @@ public class SpawnerService {
     private record SpawnSuppressionZone(UUID runId, String worldName, Location center, double radius, long expiresAtMillis) {}
 
     // Main loop task ID
-    private int taskId = -1;
+    private TickDriver.Job spawnJob;
 
     // Random for spawn calculations
     private final ThreadLocalRandom random = ThreadLocalRandom.current();
 
-    // Pending spawn plans that couldn't be executed due to per-tick limits
-    private final List<SpawnPlan> pendingPlans = new ArrayList<>();
+    // Seeds for per-partition planning RNGs (main thread only)
+    private final SplittableRandom planSeeds = new SplittableRandom();
+
+    // Planner -> main thread handoff; also holds plans carried over past per-tick limits
+    private final SpawnPlanQueue planQueue = new SpawnPlanQueue();
+
+    // Generation stamped on each spawn tick's plans (main thread only)
+    private long spawnGeneration;
 
-    // Temporary spawn suppression (battery charge complete safe window)
+    // Oldest chunk capture of each terrain batch still being planned, in submission order
+    private final Queue<Long> planningCaptures = new ConcurrentLinkedQueue<>();
+
+    // Temporary spawn suppression (battery charge complete safe window), dropped on expiry by the timing wheel
     private final Map<UUID, PlayerSuppression> suppressedPlayers = new ConcurrentHashMap<>();
     private final List<SpawnSuppressionZone> suppressionZones = Collections.synchronizedList(new ArrayList<>());
 
@@ -82,30 +132,67 @@ public class SpawnerService {
         this.config = plugin.getConfigService();
         this.state = plugin.getStateService();
         this.templateEngine = plugin.getTemplateEngine();
-
-        // Single-threaded executor for spawn planning
+        this.mobRegistry = new VrsMobRegistry(state);
+        this.nativeSpawner = new NativeMobSpawner(plugin.getLogger());
+        this.commandBudget = plugin.getCommandBudget();
+
+        MetricsRegistry metrics = plugin.getMetricsRegistry();
+        this.collectTimer = metrics.timer("vrs_spawn_collect_seconds", "Spawn phase A: context collection (main thread)");
+        this.planTimer = metrics.timer("vrs_spawn_plan_seconds", "Spawn phase B: planning (planner thread)");
+        this.executeTimer = metrics.timer("vrs_spawn_execute_seconds", "Spawn phase C: plan execution (main thread)");
+        this.losTimer = metrics.timer("vrs_los_check_seconds", "Line-of-sight check for one spawn candidate");
+        this.dispatchTimer = metrics.timer("vrs_command_dispatch_seconds",
+                "Console command dispatch (queued and spawn commands)");
+        this.plannedCounter = metrics.counter("vrs_spawn_planned_total", "Spawn plans created");
+        this.spawnedCounter = metrics.counter("vrs_spawn_executed_total", "Spawn plans executed (native or commands)");
+        this.droppedCounter = metrics.counter("vrs_spawn_plans_dropped_total", "Spawn plans dropped as stale or over capacity");
+
+        // Single-threaded coordinator for spawn planning
         this.asyncExecutor = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "VRS-SpawnPlanner");
             t.setDaemon(true);
             return t;
         });
+
+        int plannerThreads = resolvePlannerThreads(config.getSpawnPlannerThreads(),
+                Runtime.getRuntime().availableProcessors());
+        this.planningPool = new ForkJoinPool(plannerThreads, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("VRS-SpawnPlanner-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    /**
+     * Resolves the planner pool size. 0 or less means automatic: half the cores, between 1 and 8.
+     */
+    static int resolvePlannerThreads(int configured, int availableProcessors) {
+        if (configured > 0) {
+            return configured;
+        }
+        return Math.max(1, Math.min(8, availableProcessors / 2));
     }
 
     /**
      * Starts the spawn loop.
      */
     public void start() {
-        if (taskId != -1) {
+        if (spawnJob != null) {
             return; // Already running
         }
 
+        // Pick up VRS mobs that survived a plugin reload
+        mobRegistry.trackExisting(Bukkit.getWorlds());
+
         if (!config.isSpawningEnabled()) {
             plugin.getLogger().info("Spawning is disabled in config");
             return;
         }
 
         int interval = config.getSpawnTickInterval();
-        taskId = Bukkit.getScheduler().runTaskTimer(plugin, this::executeSpawnTick, interval, interval).getTaskId();
+        spawnJob = plugin.getTickDriver().schedule(TickDriver.GLOBAL_OWNER, TickDriver.Phase.SPAWNER,
+                interval, interval, this::executeSpawnTick);
         plugin.getLogger().info("Spawner service started with interval: " + interval + " ticks");
     }
 
@@ -113,25 +200,33 @@ public class SpawnerService {
      * Stops the spawn loop.
      */
     public void stop() {
-        if (taskId != -1) {
-            Bukkit.getScheduler().cancelTask(taskId);
-            taskId = -1;
+        if (spawnJob != null) {
+            spawnJob.cancel();
+            spawnJob = null;
         }
 
         asyncExecutor.shutdown();
+        planningPool.shutdown();
         try {
             if (!asyncExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
                 asyncExecutor.shutdownNow();
             }
+            if (!planningPool.awaitTermination(1, TimeUnit.SECONDS)) {
+                planningPool.shutdownNow();
+            }
         } catch (InterruptedException e) {
             asyncExecutor.shutdownNow();
+            planningPool.shutdownNow();
             Thread.currentThread().interrupt();
         }
 
+        planQueue.clear();
         suppressedPlayers.clear();
         synchronized (suppressionZones) {
             suppressionZones.clear();
         }
+        mobRegistry.clear();
+        nativeSpawner.clear();
 
         plugin.getLogger().info("Spawner service stopped");
     }
@@ -169,12 +264,17 @@ public class SpawnerService {
         long expiresAt = System.currentTimeMillis() + durationMs;
         for (UUID playerId : playerIds) {
             if (playerId == null) continue;
-            suppressedPlayers.merge(playerId, new PlayerSuppression(runId, expiresAt), (oldValue, newValue) -> {
+            PlayerSuppression suppression = new PlayerSuppression(runId, expiresAt);
+            PlayerSuppression merged = suppressedPlayers.merge(playerId, suppression, (oldValue, newValue) -> {
                 if (!Objects.equals(oldValue.runId(), runId)) {
                     return newValue;
                 }
                 return oldValue.expiresAtMillis() >= newValue.expiresAtMillis() ? oldValue : newValue;
             });
+            if (merged == suppression) {
+                // Drop the entry when it expires, unless it has been replaced by then
+                plugin.getTimingWheel().schedule(expiresAt, () -> suppressedPlayers.remove(playerId, suppression));
+            }
         }
     }
 
@@ -188,13 +288,15 @@ public class SpawnerService {
         }
 
         long expiresAt = System.currentTimeMillis() + durationMs;
-        suppressionZones.add(new SpawnSuppressionZone(
+        SpawnSuppressionZone zone = new SpawnSuppressionZone(
                 runId,
                 center.getWorld().getName(),
                 center.clone(),
                 radius,
                 expiresAt
-        ));
+        );
+        suppressionZones.add(zone);
+        plugin.getTimingWheel().schedule(expiresAt, () -> suppressionZones.remove(zone));
     }
 
     /**
@@ -215,118 +317,164 @@ public class SpawnerService {
         }
     }
 
+    /**
+     * Gets the registry of live VRS mobs.
+     */
+    public VrsMobRegistry getMobRegistry() {
+        return mobRegistry;
+    }
+
+    /**
+     * Gets the number of spawn plans waiting for a later tick.
+     */
+    public int getPendingPlanCount() {
+        return planQueue.size();
+    }
+
     /**
      * Gets the count of active VRS mobs in a world.
      */
     public int getActiveMobCount(String worldName) {
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return 0;
-
-        return (int) world.getEntities().stream()
-                .filter(e -> e.getScoreboardTags().contains(VRS_MOB_TAG))
-                .count();
+        return mobRegistry.getActiveMobCount(worldName);
     }
 
     /**
      * Gets the count of VRS mobs near a location.
-     * Uses chunk-based caching to avoid repeated expensive getNearbyEntities calls.
      */
     public int getMobCountNear(Location location, double radius) {
-        if (location.getWorld() == null) return 0;
-
-        // Create cache key based on chunk coordinates
-        String worldName = location.getWorld().getName();
-        int chunkX = location.getBlockX() >> 4;
-        int chunkZ = location.getBlockZ() >> 4;
-        MobCountCacheKey key = new MobCountCacheKey(worldName, chunkX, chunkZ);
-
-        // Check cache first
-        Integer cached = mobCountCache.get(key);
-        if (cached != null) {
-            return cached;
-        }
-
-        // Cache miss - perform actual query
-        int count = (int) location.getWorld()
-                .getNearbyEntities(location, radius, radius, radius)
-                .stream()
-                .filter(e -> e.getScoreboardTags().contains(VRS_MOB_TAG))
-                .count();
-
-        // Store in cache
-        mobCountCache.put(key, count);
-        return count;
+        return mobRegistry.countNear(location, radius);
     }
 
     /**
      * Main spawn tick - coordinates the 3-phase spawn loop.
      */
     private void executeSpawnTick() {
+        // Invalidation stamps older than every terrain still being planned can no longer reject a column
+        plugin.getWorldService().pruneTerrainInvalidations(oldestPlanningCapture());
+
         if (!config.isSpawningEnabled()) return;
-        cleanupSuppressionState(System.currentTimeMillis());
 
         // First, execute any pending plans from previous tick
-        if (!pendingPlans.isEmpty()) {
-            // Filter out stale plans (player offline, left run, or too far from spawn location)
-            List<SpawnPlan> validPlans = filterValidPlans(pendingPlans);
-            pendingPlans.clear();
+        drainPlanQueue();
+        if (!planQueue.isEmpty()) {
+            // Drop stale plans (player offline, left run, or too far from spawn location)
+            droppedCounter.add(planQueue.retainPlans(this::carriedPlanFilter));
 
-            if (!validPlans.isEmpty()) {
-                executeSpawnPlans(validPlans);
+            if (!planQueue.isEmpty()) {
+                executeSpawnPlans();
                 // If we still have pending plans after execution, wait for next tick
-                if (!pendingPlans.isEmpty()) {
+                if (!planQueue.isEmpty()) {
                     return;
                 }
             }
         }
 
         // Phase A: Collect spawn contexts on main thread
+        long collectStart = System.nanoTime();
+        JfrEvents.SpawnCollect collectEvent = new JfrEvents.SpawnCollect();
+        collectEvent.begin();
         List<SpawnContext> contexts = collectSpawnContexts();
+        collectTimer.recordSince(collectStart);
+        if (collectEvent.shouldCommit()) {
+            collectEvent.runs = state.getActiveRunCount();
+            collectEvent.contexts = contexts.size();
+            collectEvent.commit();
+        }
 
         if (contexts.isEmpty()) return;
 
         // Phase B: Async spawn planning
+        long tickSeed = planSeeds.nextLong();
+        long generation = ++spawnGeneration;
+        Long oldestCapture = oldestCapture(contexts);
+        planningCaptures.add(oldestCapture);
         asyncExecutor.submit(() -> {
             try {
-                List<SpawnPlan> plans = planSpawns(contexts);
+                long planStart = System.nanoTime();
+                JfrEvents.SpawnPlan planEvent = new JfrEvents.SpawnPlan();
+                planEvent.begin();
+                List<List<SpawnContext>> partitions = partition(contexts, SpawnContext::runId);
+                List<List<SpawnPlan>> plansPerPlayer = planSpawns(partitions, tickSeed);
+                int planCount = plansPerPlayer.stream().mapToInt(List::size).sum();
+                planTimer.recordSince(planStart);
+                plannedCounter.add(planCount);
+                if (planEvent.shouldCommit()) {
+                    planEvent.contexts = contexts.size();
+                    planEvent.partitions = partitions.size();
+                    planEvent.plans = planCount;
+                    planEvent.commit();
+                }
 
-                if (!plans.isEmpty()) {
+                if (planCount > 0) {
                     // Phase C: Execute on main thread
-                    Bukkit.getScheduler().runTask(plugin, () -> executeSpawnPlans(plans));
+                    planQueue.publish(generation, plansPerPlayer);
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        drainPlanQueue();
+                        executeSpawnPlans();
+                    });
                 }
             } catch (Exception e) {
                 plugin.getLogger().log(Level.WARNING, "Error during spawn planning", e);
+            } finally {
+                planningCaptures.remove(oldestCapture);
             }
         });
     }
 
+    private static long oldestCapture(List<SpawnContext> contexts) {
+        long oldest = System.nanoTime();
+        for (SpawnContext ctx : contexts) {
+            long captured = ctx.terrain().getCapturedAtNanos();
+            if (captured - oldest < 0) oldest = captured;
+        }
+        return oldest;
+    }
+
+    /**
+     * Gets the oldest chunk capture that the planner may still read, or now if nothing is being planned.
+     */
+    private long oldestPlanningCapture() {
+        long oldest = System.nanoTime();
+        for (long captured : planningCaptures) {
+            if (captured - oldest < 0) oldest = captured;
+        }
+        return oldest;
+    }
+
     /**
-     * Filters pending plans to remove stale entries.
-     * A plan is stale if the target player is offline, not in a run, or too far from spawn location.
+     * Moves freshly planned batches into the plan queue. Must run on main thread.
      */
-    private List<SpawnPlan> filterValidPlans(List<SpawnPlan> plans) {
+    private void drainPlanQueue() {
+        droppedCounter.add(planQueue.drain(config.getMaxSpawnsPerPlayerPerTick()));
+    }
+
+    /**
+     * Checks the player of a carried-over plan, once per player.
+     * A player is stale if offline, in another world, not in a run, or suppressed.
+     *
+     * @return filter for each of the player's plans (suppression zones and distance), or null if stale
+     */
+    private Predicate<SpawnPlan> carriedPlanFilter(SpawnPlan plan) {
         double maxDistance = config.getMaxSpawnDistance() * 2; // Allow some buffer for player movement
+        double maxDistanceSquared = maxDistance * maxDistance;
         long now = System.currentTimeMillis();
 
-        return plans.stream().filter(plan -> {
-            Player player = Bukkit.getPlayer(plan.targetPlayerId());
-            if (player == null || !player.isOnline()) return false;
+        Player player = Bukkit.getPlayer(plan.targetPlayerId());
+        if (player == null || !player.isOnline()) return null;
 
-            // Check player is still in the correct world
-            if (!player.getWorld().getName().equals(plan.worldName())) return false;
+        // Check player is still in the correct world
+        if (!player.getWorld().getName().equals(plan.worldName())) return null;
 
-            // Check player is still in a run
-            Optional<PlayerState> playerStateOpt = state.getPlayer(plan.targetPlayerId());
-            if (playerStateOpt.isEmpty() || playerStateOpt.get().getMode() != PlayerMode.IN_RUN) return false;
-            UUID runId = playerStateOpt.get().getRunId();
-            if (runId != null && isPlayerSuppressed(runId, plan.targetPlayerId(), now)) return false;
-            if (isLocationSuppressed(runId, plan.spawnLocation(), now)) return false;
+        // Check player is still in a run
+        Optional<PlayerState> playerStateOpt = state.getPlayer(plan.targetPlayerId());
+        if (playerStateOpt.isEmpty() || playerStateOpt.get().getMode() != PlayerMode.IN_RUN) return null;
+        UUID runId = playerStateOpt.get().getRunId();
+        if (runId != null && isPlayerSuppressed(runId, plan.targetPlayerId(), now)) return null;
 
-            // Check player hasn't moved too far from the planned spawn location
-            if (player.getLocation().distance(plan.spawnLocation()) > maxDistance) return false;
-
-            return true;
-        }).toList();
+        // Each plan: not inside a suppression zone, and player hasn't moved too far from it
+        Location playerLoc = player.getLocation();
+        return candidate -> !isLocationSuppressed(runId, candidate.spawnLocation(), now)
+                && playerLoc.distanceSquared(candidate.spawnLocation()) <= maxDistanceSquared;
     }
 
     /**
@@ -334,11 +482,10 @@ public class SpawnerService {
      * Must run on main thread.
      */
     private List<SpawnContext> collectSpawnContexts() {
-        // Clear mob count cache for this tick
-        mobCountCache.clear();
-
         List<SpawnContext> contexts = new ArrayList<>();
         long now = System.currentTimeMillis();
+        long tick = Bukkit.getCurrentTick();
+        Set<String> prunedWorlds = new HashSet<>();
 
         for (RunState run : state.getActiveRuns()) {
             String worldName = run.getWorldName();
@@ -349,6 +496,12 @@ public class SpawnerService {
             World world = Bukkit.getWorld(worldName);
             if (world == null) continue;
 
+            // Chunks are shared by all contexts of the world and reused across ticks
+            ChunkSnapshotCache snapshotCache = plugin.getWorldService().getSnapshotCache(worldName);
+            if (prunedWorlds.add(worldName)) {
+                snapshotCache.pruneExpired(tick);
+            }
+
             // Collect context for each participant
             for (UUID playerId : run.getParticipants()) {
                 Player player = Bukkit.getPlayer(playerId);
@@ -371,13 +524,18 @@ public class SpawnerService {
                 // Count nearby players
                 int nearbyPlayers = countNearbyPlayers(player.getLocation(), config.getLevelSamplingRadius(), run);
 
-                // Create LOS checker for spawn radius (captures ChunkSnapshots on main thread)
+                // Terrain for spawn radius (cached ChunkSnapshots, captured on main thread, queried in Phase B)
+                TerrainSnapshot terrain = TerrainSnapshot.createForRadius(
+                        player.getLocation(),
+                        config.getMaxSpawnDistance(),
+                        snapshotCache,
+                        tick
+                );
+
+                // LOS checker shares the captured terrain
                 LineOfSightChecker losChecker = null;
                 if (config.isLosValidationEnabled()) {
-                    losChecker = LineOfSightChecker.createForRadius(
-                            player.getLocation(),
-                            config.getMaxSpawnDistance()
-                    );
+                    losChecker = LineOfSightChecker.forTerrain(terrain);
                 }
 
                 SpawnContext context = new SpawnContext(
@@ -391,6 +549,7 @@ public class SpawnerService {
                         nearbyMobs,
                         run.getElapsedSeconds(),
                         run.getStageStartEnemyLevel(),
+                        terrain,
                         losChecker
                 );
 
@@ -403,14 +562,43 @@ public class SpawnerService {
 
     /**
      * Phase B: Plan spawns based on collected contexts.
-     * Runs on async thread.
-     * Uses round-robin interleaving to ensure fair distribution across players.
+     * Runs on the planner coordinator thread; partitions (one per run) are planned in parallel
+     * on the planning pool, each with its own RNG seeded from the tick seed and run id.
+     *
+     * @return plans per player, in collection order; the plan queue takes them round-robin
+     */
+    private List<List<SpawnPlan>> planSpawns(List<List<SpawnContext>> partitions, long tickSeed) {
+        List<List<List<SpawnPlan>>> planned = new ArrayList<>(partitions.size());
+        if (partitions.size() == 1 || planningPool.getParallelism() == 1) {
+            for (List<SpawnContext> partition : partitions) {
+                planned.add(planPartition(partition, tickSeed));
+            }
+        } else {
+            List<ForkJoinTask<List<List<SpawnPlan>>>> tasks = new ArrayList<>(partitions.size());
+            for (List<SpawnContext> partition : partitions) {
+                tasks.add(planningPool.submit(() -> planPartition(partition, tickSeed)));
+            }
+            for (ForkJoinTask<List<List<SpawnPlan>>> task : tasks) {
+                planned.add(task.join());
+            }
+        }
+
+        return flattenPartitions(planned);
+    }
+
+    /**
+     * Plans one partition (the contexts of one run).
+     *
+     * @return plans per context, in context order
      */
-    private List<SpawnPlan> planSpawns(List<SpawnContext> contexts) {
-        // Collect plans per player for round-robin interleaving
-        List<List<SpawnPlan>> plansPerPlayer = new ArrayList<>();
+    private List<List<SpawnPlan>> planPartition(List<SpawnContext> contexts, long tickSeed) {
+        RandomGenerator rng = new SplittableRandom(partitionSeed(tickSeed, contexts.get(0).runId()));
+        List<List<SpawnPlan>> plansPerPlayer = new ArrayList<>(contexts.size());
 
         for (SpawnContext ctx : contexts) {
+            JfrEvents.SpawnPlanContext contextEvent = new JfrEvents.SpawnPlanContext();
+            contextEvent.begin();
+
             int targetMobs = calculateTargetMobsForLevel(ctx.averageTeamLevel());
             int toSpawn = Math.min(
                     targetMobs - ctx.nearbyMobCount(),
@@ -437,18 +625,19 @@ public class SpawnerService {
             List<SpawnPlan> playerPlans = new ArrayList<>();
             for (int i = 0; i < toSpawn; i++) {
                 // Select archetype based on current level and world (level + world gated selection)
-                EnemyArchetypeConfig archetype = selectArchetype(enemyLevel, ctx.worldName());
+                EnemyArchetypeConfig archetype = selectArchetype(enemyLevel, ctx.worldName(), rng);
                 if (archetype == null) {
                     // No archetypes available at this level/world - stop trying
                     break;
                 }
 
                 // Sample spawn location with LOS validation
-                Location spawnLoc = sampleSpawnLocation(ctx.runId(), ctx.playerLocation(), ctx.losChecker());
+                Location spawnLoc = sampleSpawnLocation(ctx.runId(), ctx.playerLocation(), ctx.terrain(), ctx.losChecker(), rng);
                 if (spawnLoc == null) continue;
 
                 playerPlans.add(new SpawnPlan(
                         ctx.playerId(),
+                        ctx.runId(),
                         ctx.worldName(),
                         spawnLoc,
                         archetype,
@@ -456,88 +645,151 @@ public class SpawnerService {
                 ));
             }
             plansPerPlayer.add(playerPlans);
+
+            if (contextEvent.shouldCommit()) {
+                contextEvent.runId = ctx.runId().toString();
+                contextEvent.world = ctx.worldName();
+                contextEvent.playerId = ctx.playerId().toString();
+                contextEvent.enemyLevel = enemyLevel;
+                contextEvent.requested = toSpawn;
+                contextEvent.planned = playerPlans.size();
+                contextEvent.commit();
+            }
         }
 
-        // Round-robin interleave: take 1 from each player, then 2nd from each, etc.
-        return interleaveRoundRobin(plansPerPlayer);
+        return plansPerPlayer;
     }
 
     /**
-     * Interleaves plans from multiple players in round-robin fashion.
-     * Ensures fair distribution when maxSpawnsPerTick limits total spawns.
+     * Groups items by key, keeping first-appearance order of groups and item order inside a group.
      */
-    private List<SpawnPlan> interleaveRoundRobin(List<List<SpawnPlan>> plansPerPlayer) {
-        List<SpawnPlan> result = new ArrayList<>();
-        int maxSize = plansPerPlayer.stream().mapToInt(List::size).max().orElse(0);
-
-        for (int i = 0; i < maxSize; i++) {
-            for (List<SpawnPlan> playerPlans : plansPerPlayer) {
-                if (i < playerPlans.size()) {
-                    result.add(playerPlans.get(i));
-                }
-            }
+    static <T, K> List<List<T>> partition(List<T> items, Function<T, K> key) {
+        Map<K, List<T>> groups = new LinkedHashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(key.apply(item), k -> new ArrayList<>()).add(item);
         }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Derives a partition's RNG seed, so partitions never share a random sequence.
+     */
+    static long partitionSeed(long tickSeed, UUID runId) {
+        long seed = tickSeed ^ runId.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ runId.getLeastSignificantBits();
+        // SplitMix64 finalizer
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return seed ^ (seed >>> 31);
+    }
 
-        return result;
+    /**
+     * Flattens per-partition, per-player plans back into collection order,
+     * giving the same player order as planning all contexts in one pass.
+     */
+    static <T> List<List<T>> flattenPartitions(List<List<List<T>>> plansPerPartition) {
+        List<List<T>> plansPerPlayer = new ArrayList<>();
+        for (List<List<T>> partition : plansPerPartition) {
+            plansPerPlayer.addAll(partition);
+        }
+        return plansPerPlayer;
     }
 
     /**
      * Phase C: Execute spawn plans on main thread.
      * Must run on main thread.
-     * Remaining plans that couldn't be executed are stored in pendingPlans for next tick.
+     * Takes plans from the plan queue round-robin across players; plans that couldn't be
+     * executed stay queued for next tick.
      */
-    private void executeSpawnPlans(List<SpawnPlan> plans) {
+    private void executeSpawnPlans() {
+        long executeStart = System.nanoTime();
+        JfrEvents.SpawnExecute executeEvent = new JfrEvents.SpawnExecute();
+        executeEvent.begin();
         int commandsThisTick = 0;
         int spawnsThisTick = 0;
-        int plansExecuted = 0;
 
         int maxCommands = config.getMaxCommandsPerTick();
         int maxSpawns = config.getMaxSpawnsPerTick();
+        int queuedPlans = planQueue.size();
 
-        for (SpawnPlan plan : plans) {
-            if (commandsThisTick >= maxCommands) break;
+        SpawnPlan plan;
+        while ((plan = planQueue.peek()) != null) {
             if (spawnsThisTick >= maxSpawns) break;
+            // Time budget shared with queued commands, sized from MSPT
+            if (!commandBudget.tryAcquire(CommandBudget.Lane.SPAWN)) break;
+
+            long start = System.nanoTime();
+            JfrEvents.SpawnDispatch dispatchEvent = new JfrEvents.SpawnDispatch();
+            dispatchEvent.begin();
+
+            // Native archetypes skip command dispatch and do not use the command count limit
+            if (trySpawnNative(plan.runId(), plan.archetype(), plan.spawnLocation(), plan.enemyLevel())) {
+                commandBudget.record(CommandBudget.Lane.SPAWN, System.nanoTime() - start);
+                commitDispatchEvent(dispatchEvent, plan, true, 0);
+                planQueue.remove();
+                spawnsThisTick++;
+                continue;
+            }
+            if (commandsThisTick >= maxCommands) break;
 
-            // Execute spawn commands for this archetype
-            for (String cmdTemplate : plan.archetype().spawnCommands) {
-                if (commandsThisTick >= maxCommands) break;
-
-                Location loc = plan.spawnLocation();
-                Map<String, Object> context = new HashMap<>();
-                context.put("sx", loc.getBlockX());
-                context.put("sy", loc.getBlockY());
-                context.put("sz", loc.getBlockZ());
-                context.put("runWorld", plan.worldName());
-                context.put("enemyLevel", plan.enemyLevel());
-                context.put("enemyType", plan.archetype().enemyType);
-                context.put("archetypeId", plan.archetype().archetypeId);
-
-                String cmd = templateEngine.expand(cmdTemplate, context);
-
-                try {
-                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
-                    commandsThisTick++;
-                } catch (Exception e) {
-                    plugin.getLogger().log(Level.WARNING, "Failed to execute spawn command: " + cmd, e);
+            // Execute spawn commands for this archetype (mobs spawned are attributed to the run)
+            int commandsBefore = commandsThisTick;
+            mobRegistry.beginSpawn(plan.runId());
+            try {
+                for (String cmdTemplate : plan.archetype().spawnCommands) {
+                    if (commandsThisTick >= maxCommands) break;
+
+                    TemplateEngine.Slots slots = fillSpawnSlots(plan.spawnLocation(), plan.worldName(),
+                            plan.enemyLevel(), plan.archetype());
+                    String cmd = templateEngine.expandSlots(cmdTemplate, slots);
+
+                    long dispatchStart = System.nanoTime();
+                    try {
+                        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
+                        commandsThisTick++;
+                    } catch (Exception e) {
+                        plugin.getLogger().log(Level.WARNING, "Failed to execute spawn command: " + cmd, e);
+                    }
+                    dispatchTimer.recordSince(dispatchStart);
                 }
+            } finally {
+                mobRegistry.endSpawn();
             }
 
+            commandBudget.record(CommandBudget.Lane.SPAWN, System.nanoTime() - start);
+            commitDispatchEvent(dispatchEvent, plan, false, commandsThisTick - commandsBefore);
+            planQueue.remove();
             spawnsThisTick++;
-            plansExecuted++;
         }
 
-        // Store remaining plans for next tick
-        pendingPlans.clear();
-        if (plansExecuted < plans.size()) {
-            pendingPlans.addAll(plans.subList(plansExecuted, plans.size()));
+        spawnedCounter.add(spawnsThisTick);
+        executeTimer.recordSince(executeStart);
+        if (executeEvent.shouldCommit()) {
+            executeEvent.plans = queuedPlans;
+            executeEvent.spawned = spawnsThisTick;
+            executeEvent.commands = commandsThisTick;
+            executeEvent.pending = planQueue.size();
+            executeEvent.commit();
         }
 
         if (config.isVerbose() && spawnsThisTick > 0) {
             plugin.getLogger().info("Spawned " + spawnsThisTick + " entities using " + commandsThisTick + " commands"
-                    + (pendingPlans.isEmpty() ? "" : ", " + pendingPlans.size() + " pending"));
+                    + (planQueue.isEmpty() ? "" : ", " + planQueue.size() + " pending"));
         }
     }
 
+    private static void commitDispatchEvent(JfrEvents.SpawnDispatch event, SpawnPlan plan,
+                                            boolean nativeSpawn, int commands) {
+        if (!event.shouldCommit()) return;
+        event.runId = plan.runId().toString();
+        event.world = plan.worldName();
+        event.playerId = plan.targetPlayerId().toString();
+        event.archetypeId = plan.archetype().archetypeId;
+        event.enemyLevel = plan.enemyLevel();
+        event.nativeSpawn = nativeSpawn;
+        event.commands = commands;
+        event.commit();
+    }
+
     /**
      * Calculates the enemy level based on context.
      */
@@ -577,67 +829,47 @@ public class SpawnerService {
      *
      * @param currentLevel The calculated enemy level for this spawn
      * @param worldName The world name where the mob will spawn
+     * @param rng Random source of the calling thread or planning partition
      * @return Selected archetype, or null if no archetypes available
      */
-    private EnemyArchetypeConfig selectArchetype(int currentLevel, String worldName) {
-        Map<String, EnemyArchetypeConfig> allArchetypes = config.getEnemyArchetypes();
-        if (allArchetypes.isEmpty()) return null;
-
-        // Filter archetypes by minSpawnLevel and allowed worlds
-        List<EnemyArchetypeConfig> eligible = allArchetypes.values().stream()
-                .filter(a -> a.minSpawnLevel <= currentLevel)
-                .filter(a -> a.isAllowedInWorld(worldName))
-                .toList();
+    private EnemyArchetypeConfig selectArchetype(int currentLevel, String worldName, RandomGenerator rng) {
+        // Compiled per-world/per-level alias tables; rebuilt whenever archetypes change
+        ArchetypeSampler sampler = config.getArchetypeSampler();
+        if (sampler.isEmpty()) return null;
 
-        if (eligible.isEmpty()) {
-            if (config.isVerbose()) {
+        if (config.isVerbose()) {
+            List<EnemyArchetypeConfig> eligible = sampler.eligible(worldName, currentLevel);
+            if (eligible.isEmpty()) {
                 plugin.getLogger().info("[SpawnDebug] No archetypes available at level " + currentLevel + " in world " + worldName);
+                return null;
             }
-            return null;
-        }
 
-        // Debug: log archetype selection
-        if (config.isVerbose()) {
+            // Debug: log archetype selection
             plugin.getLogger().info("[SpawnDebug] Selecting archetype: level=" + currentLevel +
                     ", world=" + worldName +
-                    ", totalArchetypes=" + allArchetypes.size() +
+                    ", totalArchetypes=" + sampler.size() +
                     ", eligible=" + eligible.size() +
                     ", eligibleIds=" + eligible.stream()
                             .map(a -> a.archetypeId + "(minLvl:" + a.minSpawnLevel + ")")
                             .toList());
         }
 
-        // Calculate total weight from eligible archetypes only
-        double totalWeight = eligible.stream()
-                .mapToDouble(a -> a.weight)
-                .sum();
-
-        if (totalWeight <= 0) return null;
-
-        // Weighted random selection from filtered pool
-        double random = ThreadLocalRandom.current().nextDouble() * totalWeight;
-        double cumulative = 0;
-
-        for (EnemyArchetypeConfig archetype : eligible) {
-            cumulative += archetype.weight;
-            if (random < cumulative) {
-                return archetype;
-            }
-        }
-
-        // Fallback to first eligible archetype
-        return eligible.get(0);
+        return sampler.sample(worldName, currentLevel, rng.nextDouble());
     }
 
     /**
      * Samples a spawn location near the player.
      * Mobs spawn within the configured vertical range of the player's Y level.
+     * Only reads captured terrain, so it is safe to call from the planner thread.
      *
      * @param playerLoc The player's location
+     * @param terrain Terrain captured in Phase A
      * @param losChecker LOS checker for validating spawn positions (may be null if disabled)
+     * @param rng Random source of the planning partition
      * @return A valid spawn location, or null if none found
      */
-    private Location sampleSpawnLocation(UUID runId, Location playerLoc, LineOfSightChecker losChecker) {
+    private Location sampleSpawnLocation(UUID runId, Location playerLoc, TerrainSnapshot terrain,
+                                         LineOfSightChecker losChecker, RandomGenerator rng) {
         World world = playerLoc.getWorld();
         if (world == null) return null;
 
@@ -648,19 +880,24 @@ public class SpawnerService {
 
         for (int attempt = 0; attempt < maxAttempts; attempt++) {
             // Random angle and distance
-            double angle = ThreadLocalRandom.current().nextDouble() * 2 * Math.PI;
-            double distance = minDist + ThreadLocalRandom.current().nextDouble() * (maxDist - minDist);
+            double angle = rng.nextDouble() * 2 * Math.PI;
+            double distance = minDist + rng.nextDouble() * (maxDist - minDist);
 
             double x = playerLoc.getX() + Math.cos(angle) * distance;
             double z = playerLoc.getZ() + Math.sin(angle) * distance;
 
             // Search for safe Y near player's Y level (not highest block)
-            Location candidate = findSafeYNearPlayer(world, x, z, playerLoc.getBlockY(), verticalRange);
+            Location candidate = findSafeYInTerrain(terrain, world, x, z, playerLoc.getBlockY(), verticalRange);
 
             if (candidate != null) {
                 // Check line-of-sight to player if LOS validation is enabled
-                if (losChecker != null && !losChecker.hasLineOfSight(candidate, playerLoc)) {
-                    continue; // Blocked, try another location
+                if (losChecker != null) {
+                    long losStart = System.nanoTime();
+                    boolean visible = losChecker.hasLineOfSight(candidate, playerLoc);
+                    losTimer.recordSince(losStart);
+                    if (!visible) {
+                        continue; // Blocked, try another location
+                    }
                 }
                 if (isLocationSuppressed(runId, candidate, System.currentTimeMillis())) {
                     continue; // Suppressed zone, try another location
@@ -673,50 +910,37 @@ public class SpawnerService {
     }
 
     /**
-     * Finds a safe spawn Y within vertical range of the player's Y level.
-     * Searches from player level outward, prioritizing same level.
+     * Finds a safe spawn Y within vertical range of the player's Y level using captured terrain.
+     * Columns come from the world's spawnability index, so repeated samples are a cache lookup.
      */
-    private Location findSafeYNearPlayer(World world, double x, double z, int playerY, int verticalRange) {
-        for (int yOffset = 0; yOffset <= verticalRange; yOffset++) {
-            // Try at/above player level first
-            Location above = trySpawnAt(world, x, playerY + yOffset, z);
-            if (above != null) return above;
-
-            // Try below player level (skip if yOffset == 0 to avoid duplicate)
-            if (yOffset > 0) {
-                Location below = trySpawnAt(world, x, playerY - yOffset, z);
-                if (below != null) return below;
-            }
-        }
-        return null;
-    }
+    private Location findSafeYInTerrain(TerrainSnapshot terrain, World world, double x, double z,
+                                        int playerY, int verticalRange) {
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
 
-    /**
-     * Attempts to create a spawn location at a specific Y level.
-     * Returns the location if safe, null otherwise.
-     */
-    private Location trySpawnAt(World world, double x, int y, double z) {
-        Location loc = new Location(world, x, y, z);
-        if (isSafeSpawnLocation(loc)) {
-            return loc;
-        }
-        return null;
+        SpawnabilityIndex index = plugin.getWorldService().getSpawnabilityIndex(terrain.getWorldName());
+        int[] column = index.getColumn(terrain, blockX, blockZ);
+        int y = SpawnabilityIndex.nearestStandingY(column, playerY, verticalRange);
+        if (y == SpawnabilityIndex.NONE) return null;
+
+        return new Location(world, x, y, z);
     }
 
     /**
-     * Checks if a location is safe for spawning.
+     * Finds a safe spawn Y within vertical range of the player's Y level.
+     * Searches from player level outward, prioritizing same level.
+     * Reads the live world - main thread only.
      */
-    private boolean isSafeSpawnLocation(Location loc) {
-        if (loc.getWorld() == null) return false;
-
-        // Check that feet and head are passable
-        if (!loc.getBlock().isPassable()) return false;
-        if (!loc.clone().add(0, 1, 0).getBlock().isPassable()) return false;
+    private Location findSafeYNearPlayer(World world, double x, double z, int playerY, int verticalRange) {
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
 
-        // Check that ground is solid
-        if (!loc.clone().add(0, -1, 0).getBlock().getType().isSolid()) return false;
+        SpawnabilityIndex index = plugin.getWorldService().getSpawnabilityIndex(world.getName());
+        int[] column = index.getColumn(world, blockX, blockZ);
+        int y = SpawnabilityIndex.nearestStandingY(column, playerY, verticalRange);
+        if (y == SpawnabilityIndex.NONE) return null;
 
-        return true;
+        return new Location(world, x, y, z);
     }
 
     /**
@@ -724,50 +948,24 @@ public class SpawnerService {
      */
     private double calculateAverageLevel(RunState run, Location center) {
         double radius = config.getLevelSamplingRadius();
-        int totalLevel = 0;
-        int count = 0;
-
-        for (UUID playerId : run.getParticipants()) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (player == null || !player.isOnline()) continue;
-
-            // Skip players in different worlds (e.g., dead players teleported to lobby)
-            Location playerLoc = player.getLocation();
-            if (!playerLoc.getWorld().equals(center.getWorld())) continue;
+        int[] totals = new int[2]; // [0] = level sum, [1] = count
 
-            if (playerLoc.distanceSquared(center) <= radius * radius) {
-                Optional<PlayerState> playerStateOpt = state.getPlayer(playerId);
-                if (playerStateOpt.isPresent()) {
-                    totalLevel += playerStateOpt.get().getRunLevel();  // Use runLevel
-                    count++;
-                }
+        plugin.getProximityService().forEachParticipantInSphere(run.getRunId(), center, radius, participant -> {
+            if (participant.playerState() != null) {
+                totals[0] += participant.playerState().getRunLevel();  // Use runLevel
+                totals[1]++;
             }
-        }
+        });
 
         // Default to 1.0 if no players found (runLevel starts at 1)
-        return count > 0 ? (double) totalLevel / count : 1.0;
+        return totals[1] > 0 ? (double) totals[0] / totals[1] : 1.0;
     }
 
     /**
      * Counts nearby players in the same run.
      */
     private int countNearbyPlayers(Location center, double radius, RunState run) {
-        int count = 0;
-
-        for (UUID playerId : run.getParticipants()) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (player == null || !player.isOnline()) continue;
-
-            // Skip players in different worlds (e.g., dead players teleported to lobby)
-            Location playerLoc = player.getLocation();
-            if (!playerLoc.getWorld().equals(center.getWorld())) continue;
-
-            if (playerLoc.distanceSquared(center) <= radius * radius) {
-                count++;
-            }
-        }
-
-        return count;
+        return plugin.getProximityService().countParticipantsNear(run.getRunId(), center, radius);
     }
 
     /**
@@ -786,15 +984,20 @@ public class SpawnerService {
         for (int i = 0; i < mobCount; i++) {
             if (commandsExecuted >= maxCommands) break;
 
-            EnemyArchetypeConfig archetype = selectArchetype(level, run.getWorldName());
+            EnemyArchetypeConfig archetype = selectArchetype(level, run.getWorldName(), ThreadLocalRandom.current());
             if (archetype == null) break;
 
             Location spawnLoc = sampleSurgeLocation(center, 12.0, 26.0);
             if (spawnLoc == null) continue;
 
-            commandsExecuted += executeArchetypeSpawnCommands(
-                    run, archetype, spawnLoc, level, maxCommands - commandsExecuted, "surge"
-            );
+            // Surges are not deferred, but their cost still counts against this tick's budget
+            long start = System.nanoTime();
+            if (!trySpawnNative(run.getRunId(), archetype, spawnLoc, level)) {
+                commandsExecuted += executeArchetypeSpawnCommands(
+                        run, archetype, spawnLoc, level, maxCommands - commandsExecuted, "surge"
+                );
+            }
+            commandBudget.record(CommandBudget.Lane.SPAWN, System.nanoTime() - start);
         }
     }
 
@@ -830,33 +1033,39 @@ public class SpawnerService {
             spawnLoc = center.clone();
         }
 
-        int maxCommands = Math.max(1, config.getMaxCommandsPerTick());
-        int commands = executeArchetypeSpawnCommands(run, selected, spawnLoc, level, maxCommands, "battery_activation_boss");
-        return commands > 0;
-    }
+        long start = System.nanoTime();
+        try {
+            if (trySpawnNative(run.getRunId(), selected, spawnLoc, level)) {
+                return true;
+            }
 
-    private List<EnemyArchetypeConfig> resolveStageBossCandidates(List<String> stageArchetypeIds, String worldName) {
-        Map<String, EnemyArchetypeConfig> all = config.getEnemyArchetypes();
-        if (all.isEmpty()) {
-            return Collections.emptyList();
+            int maxCommands = Math.max(1, config.getMaxCommandsPerTick());
+            int commands = executeArchetypeSpawnCommands(run, selected, spawnLoc, level, maxCommands, "battery_activation_boss");
+            return commands > 0;
+        } finally {
+            commandBudget.record(CommandBudget.Lane.SPAWN, System.nanoTime() - start);
         }
+    }
 
-        List<EnemyArchetypeConfig> candidates = new ArrayList<>();
-        Set<String> dedupe = new HashSet<>();
-        for (String rawId : stageArchetypeIds) {
-            if (rawId == null) continue;
-            String archetypeId = rawId.trim();
-            if (archetypeId.isEmpty()) continue;
+    private List<EnemyArchetypeConfig> resolveStageBossCandidates(List<String> stageArchetypeIds, String worldName) {
+        return config.getArchetypeSampler().stageBossCandidates(stageArchetypeIds, worldName);
+    }
 
-            String normalized = archetypeId.toLowerCase(Locale.ROOT);
-            if (!dedupe.add(normalized)) continue;
+    /**
+     * Spawns a NATIVE archetype directly via World.spawn.
+     *
+     * @return true if the mob was spawned; false for COMMAND archetypes or when native
+     *         spawning fails (callers then run the spawn commands)
+     */
+    private boolean trySpawnNative(UUID runId, EnemyArchetypeConfig archetype, Location spawnLoc, int level) {
+        if (archetype.spawnMode != EnemyArchetypeConfig.SpawnMode.NATIVE) return false;
 
-            EnemyArchetypeConfig archetype = all.get(archetypeId);
-            if (archetype == null) continue;
-            if (!archetype.isAllowedInWorld(worldName)) continue;
-            candidates.add(archetype);
+        mobRegistry.beginSpawn(runId);
+        try {
+            return nativeSpawner.spawn(archetype, spawnLoc, level) != null;
+        } finally {
+            mobRegistry.endSpawn();
         }
-        return candidates;
     }
 
     private int executeArchetypeSpawnCommands(RunState run, EnemyArchetypeConfig archetype, Location spawnLoc,
@@ -866,31 +1075,45 @@ public class SpawnerService {
         }
 
         int executed = 0;
-        for (String cmdTemplate : archetype.spawnCommands) {
-            if (executed >= maxCommands) break;
-
-            Map<String, Object> context = new HashMap<>();
-            context.put("sx", spawnLoc.getBlockX());
-            context.put("sy", spawnLoc.getBlockY());
-            context.put("sz", spawnLoc.getBlockZ());
-            context.put("runWorld", run.getWorldName());
-            context.put("enemyLevel", level);
-            context.put("enemyType", archetype.enemyType);
-            context.put("archetypeId", archetype.archetypeId);
-
-            String cmd = templateEngine.expand(cmdTemplate, context);
-            try {
-                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
-                executed++;
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING,
-                        "Failed to execute " + source + " spawn command: " + cmd, e);
+        mobRegistry.beginSpawn(run.getRunId());
+        try {
+            for (String cmdTemplate : archetype.spawnCommands) {
+                if (executed >= maxCommands) break;
+
+                TemplateEngine.Slots slots = fillSpawnSlots(spawnLoc, run.getWorldName(), level, archetype);
+                String cmd = templateEngine.expandSlots(cmdTemplate, slots);
+                long dispatchStart = System.nanoTime();
+                try {
+                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
+                    executed++;
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.WARNING,
+                            "Failed to execute " + source + " spawn command: " + cmd, e);
+                }
+                dispatchTimer.recordSince(dispatchStart);
             }
+        } finally {
+            mobRegistry.endSpawn();
         }
 
         return executed;
     }
 
+    /**
+     * Fills the shared spawn command slots. Main thread only.
+     */
+    private TemplateEngine.Slots fillSpawnSlots(Location loc, String worldName, int level,
+                                                EnemyArchetypeConfig archetype) {
+        return spawnSlots
+                .set(SLOT_SX, loc.getBlockX())
+                .set(SLOT_SY, loc.getBlockY())
+                .set(SLOT_SZ, loc.getBlockZ())
+                .set(SLOT_RUN_WORLD, worldName)
+                .set(SLOT_ENEMY_LEVEL, level)
+                .set(SLOT_ENEMY_TYPE, archetype.enemyType)
+                .set(SLOT_ARCHETYPE_ID, archetype.archetypeId);
+    }
+
     private Location sampleSurgeLocation(Location center, double minDist, double maxDist) {
         World world = center.getWorld();
         if (world == null) return null;
@@ -913,13 +1136,6 @@ public class SpawnerService {
         return null;
     }
 
-    private void cleanupSuppressionState(long now) {
-        suppressedPlayers.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= now);
-        synchronized (suppressionZones) {
-            suppressionZones.removeIf(zone -> zone.expiresAtMillis() <= now);
-        }
-    }
-
     private boolean isPlayerSuppressed(UUID runId, UUID playerId, long now) {
         PlayerSuppression suppression = suppressedPlayers.get(playerId);
         if (suppression == null) {
@@ -969,10 +1185,15 @@ public class SpawnerService {
      * Parses enemy level from entity tags.
      */
     public int parseEnemyLevel(Entity entity) {
+        Optional<VrsMobRegistry.TrackedMob> tracked = mobRegistry.get(entity.getUniqueId());
+        if (tracked.isPresent() && tracked.get().getLevel() >= 0) {
+            return tracked.get().getLevel();
+        }
+
         for (String tag : entity.getScoreboardTags()) {
-            if (tag.startsWith(VRS_LEVEL_TAG_PREFIX)) {
+            if (tag.startsWith(VrsMobRegistry.LEVEL_TAG_PREFIX)) {
                 try {
-                    return Integer.parseInt(tag.substring(VRS_LEVEL_TAG_PREFIX.length()));
+                    return Integer.parseInt(tag.substring(VrsMobRegistry.LEVEL_TAG_PREFIX.length()));
                 } catch (NumberFormatException ignored) {}
             }
         }
@@ -983,7 +1204,7 @@ public class SpawnerService {
      * Checks if an entity is a VRS mob.
      */
     public boolean isVrsMob(Entity entity) {
-        return entity.getScoreboardTags().contains(VRS_MOB_TAG);
+        return mobRegistry.isTracked(entity) || entity.getScoreboardTags().contains(VrsMobRegistry.VRS_MOB_TAG);
     }
 
     private WorldSpawnerState getOrCreateWorldState(String worldName) {
@@ -4,6 +4,7 @@ import cat.nyaa.survivors.model.*;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.Collections;
 
@@ -30,13 +31,73 @@ public class StateService {
     // Disconnected player tracking for efficient grace period checking
     private final Set<UUID> disconnectedPlayers = ConcurrentHashMap.newKeySet();
 
+    // Resident players by mode, kept current through PlayerState mode transitions
+    private final Map<PlayerMode, Set<UUID>> playersByMode = new EnumMap<>(PlayerMode.class);
+    private final PlayerState.ModeListener modeIndexer = this::onModeChanged;
+
+    // Players currently connected to the server
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+
+    // Loads players that are persisted but not resident (null = all players are resident)
+    private volatile PlayerLoader playerLoader;
+
+    // Checks whether a player has persisted data (null = no persisted players)
+    private volatile Predicate<UUID> persistedCheck;
+
+    // Players loaded for a login that has not joined yet, with the load time
+    private final Map<UUID, Long> pendingLogins = new ConcurrentHashMap<>();
+    static final long PENDING_LOGIN_MILLIS = 60_000L;
+
+    /**
+     * Loads a player state that is not resident in memory, e.g. from disk.
+     */
+    @FunctionalInterface
+    public interface PlayerLoader {
+        /**
+         * @return the loaded state, or empty if the player has no persisted data
+         */
+        Optional<PlayerState> load(UUID playerId);
+    }
+
+    public StateService() {
+        for (PlayerMode mode : PlayerMode.values()) {
+            playersByMode.put(mode, ConcurrentHashMap.newKeySet());
+        }
+    }
+
     // ==================== Player State Management ====================
 
+    /**
+     * Sets the loader used by {@link #loadPlayer(UUID)} for players that are not resident.
+     */
+    public void setPlayerLoader(PlayerLoader playerLoader) {
+        this.playerLoader = playerLoader;
+    }
+
+    /**
+     * Sets the check used to refuse creating a fresh state for a player with persisted data.
+     */
+    public void setPersistedCheck(Predicate<UUID> persistedCheck) {
+        this.persistedCheck = persistedCheck;
+    }
+
     /**
      * Gets or creates a player state.
+     * Only resident players are returned; a persisted player must be loaded with
+     * {@link #loadPlayer(UUID)} first, as a fresh state would overwrite its saved data.
+     *
+     * @throws IllegalStateException if the player has persisted data that is not loaded
      */
     public PlayerState getOrCreatePlayer(UUID playerId, String name) {
-        return playerStates.computeIfAbsent(playerId, id -> new PlayerState(id, name));
+        PlayerState existing = playerStates.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+        Predicate<UUID> persisted = persistedCheck;
+        if (persisted != null && persisted.test(playerId)) {
+            throw new IllegalStateException("Player state not loaded: " + playerId);
+        }
+        return playerStates.computeIfAbsent(playerId, id -> track(new PlayerState(id, name)));
     }
 
     /**
@@ -44,50 +105,225 @@ public class StateService {
      * If a player with this UUID already exists, it is replaced.
      */
     public void registerPlayer(PlayerState player) {
-        playerStates.put(player.getUuid(), player);
+        PlayerState previous = playerStates.put(player.getUuid(), track(player));
+        if (previous != null && previous != player) {
+            untrack(previous);
+        }
     }
 
     /**
-     * Gets a player state if it exists.
+     * Gets a resident player state if it exists. Never loads from disk.
      */
     public Optional<PlayerState> getPlayer(UUID playerId) {
+        if (playerId == null) return Optional.empty();
         return Optional.ofNullable(playerStates.get(playerId));
     }
 
     /**
-     * Gets a player state, throwing if not found.
+     * Gets a resident player state, throwing if not found.
      */
     public PlayerState requirePlayer(UUID playerId) {
-        PlayerState state = playerStates.get(playerId);
+        PlayerState state = playerId != null ? playerStates.get(playerId) : null;
         if (state == null) {
             throw new IllegalStateException("Player state not found: " + playerId);
         }
         return state;
     }
 
+    /**
+     * Makes a persisted player resident, loading it through the player loader if needed.
+     * The loader reads from disk, so this must be called off the main thread (pre-login).
+     * The loaded player is kept from eviction until it joins, or for a minute if it never does.
+     *
+     * @return the resident state, or empty if the player has no persisted data
+     */
+    public Optional<PlayerState> loadPlayer(UUID playerId) {
+        if (playerId == null) return Optional.empty();
+
+        PlayerState player = playerStates.get(playerId);
+        if (player == null) {
+            PlayerLoader loader = playerLoader;
+            if (loader == null) return Optional.empty();
+
+            Optional<PlayerState> loaded = loader.load(playerId);
+            if (loaded.isEmpty()) return Optional.empty();
+
+            // Another thread may have loaded or created the player meanwhile
+            PlayerState existing = playerStates.putIfAbsent(playerId, loaded.get());
+            if (existing == null) {
+                track(loaded.get());
+            }
+            player = existing != null ? existing : loaded.get();
+        }
+        pendingLogins.put(playerId, System.currentTimeMillis());
+        player.touch();
+        return Optional.of(player);
+    }
+
+    /**
+     * Checks if a player state is currently in memory, without loading it.
+     */
+    public boolean isResident(UUID playerId) {
+        return playerStates.containsKey(playerId);
+    }
+
+    /**
+     * Evicts a resident player state to free memory.
+     * Players in a team, in a run, within the disconnect grace period or loaded for a pending
+     * login are never evicted.
+     *
+     * @param canEvict extra condition checked by the caller (e.g. offline and saved)
+     * @return true if the player was evicted
+     */
+    public boolean evictPlayer(UUID playerId, Predicate<PlayerState> canEvict) {
+        if (playerToTeam.containsKey(playerId) || playerToRun.containsKey(playerId)
+                || disconnectedPlayers.contains(playerId)) {
+            return false;
+        }
+        Long loginAt = pendingLogins.get(playerId);
+        if (loginAt != null) {
+            // A login that never joins (denied later, or timed out) stops protecting the player
+            if (System.currentTimeMillis() - loginAt < PENDING_LOGIN_MILLIS) return false;
+            pendingLogins.remove(playerId, loginAt);
+        }
+
+        PlayerState player = playerStates.get(playerId);
+        if (player == null) return false;
+        if (player.getTeamId() != null || player.getRunId() != null) return false;
+        if (!canEvict.test(player)) return false;
+
+        if (!playerStates.remove(playerId, player)) return false;
+        untrack(player);
+        return true;
+    }
+
     /**
      * Removes a player state (on permanent leave).
      */
     public void removePlayer(UUID playerId) {
-        playerStates.remove(playerId);
+        PlayerState player = playerStates.remove(playerId);
+        if (player != null) {
+            untrack(player);
+        }
         playerToTeam.remove(playerId);
         playerToRun.remove(playerId);
+        pendingLogins.remove(playerId);
     }
 
     /**
-     * Gets all player states.
+     * Gets all resident player states.
+     * Offline players outside a team may be evicted and are then not included;
+     * use the persistence player index for aggregates over every player.
      */
     public Collection<PlayerState> getAllPlayers() {
         return Collections.unmodifiableCollection(playerStates.values());
     }
 
     /**
-     * Gets players by mode.
+     * Gets resident players by mode.
+     * Served from the mode index, so the cost depends on the players in that mode only.
      */
     public List<PlayerState> getPlayersByMode(PlayerMode mode) {
-        return playerStates.values().stream()
-                .filter(p -> p.getMode() == mode)
-                .collect(Collectors.toList());
+        return collectByMode(mode, false);
+    }
+
+    /**
+     * Gets online resident players by mode.
+     */
+    public List<PlayerState> getOnlinePlayersByMode(PlayerMode mode) {
+        return collectByMode(mode, true);
+    }
+
+    /**
+     * Checks if a resident player is in the given mode, without loading the player.
+     */
+    public boolean isInMode(UUID playerId, PlayerMode mode) {
+        return playersByMode.get(mode).contains(playerId);
+    }
+
+    /**
+     * Counts resident players in the given mode.
+     */
+    public int countPlayersByMode(PlayerMode mode) {
+        return playersByMode.get(mode).size();
+    }
+
+    private List<PlayerState> collectByMode(PlayerMode mode, boolean onlineOnly) {
+        Set<UUID> ids = playersByMode.get(mode);
+        List<PlayerState> result = new ArrayList<>(ids.size());
+        for (UUID playerId : ids) {
+            if (onlineOnly && !onlinePlayers.contains(playerId)) continue;
+            PlayerState player = playerStates.get(playerId);
+            // Re-check: the index may briefly lag a concurrent transition
+            if (player != null && player.getMode() == mode) {
+                result.add(player);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Starts indexing a player state by mode.
+     */
+    private PlayerState track(PlayerState player) {
+        // teamId is not persisted; restore it from the team index when the state becomes resident
+        UUID teamId = playerToTeam.get(player.getUuid());
+        if (teamId != null) {
+            player.setTeamId(teamId);
+        }
+        synchronized (player) {
+            player.setModeListener(modeIndexer);
+            playersByMode.get(player.getMode()).add(player.getUuid());
+        }
+        return player;
+    }
+
+    private void untrack(PlayerState player) {
+        synchronized (player) {
+            player.setModeListener(null);
+            playersByMode.get(player.getMode()).remove(player.getUuid());
+        }
+    }
+
+    private void onModeChanged(PlayerState player, PlayerMode from, PlayerMode to) {
+        playersByMode.get(from).remove(player.getUuid());
+        playersByMode.get(to).add(player.getUuid());
+    }
+
+    // ==================== Online Tracking ====================
+
+    /**
+     * Marks a player as connected to the server.
+     * Joining is one of the coarse points that stamp the player's last access.
+     */
+    public void markOnline(UUID playerId) {
+        onlinePlayers.add(playerId);
+        pendingLogins.remove(playerId);
+        PlayerState player = playerStates.get(playerId);
+        if (player != null) player.touch();
+    }
+
+    /**
+     * Marks a player as no longer connected to the server and stamps their last access.
+     */
+    public void markOffline(UUID playerId) {
+        onlinePlayers.remove(playerId);
+        PlayerState player = playerStates.get(playerId);
+        if (player != null) player.touch();
+    }
+
+    /**
+     * Checks if a player is connected to the server.
+     */
+    public boolean isOnline(UUID playerId) {
+        return onlinePlayers.contains(playerId);
+    }
+
+    /**
+     * Gets all connected players' UUIDs.
+     */
+    public Set<UUID> getOnlinePlayerIds() {
+        return Collections.unmodifiableSet(onlinePlayers);
     }
 
     // ==================== Disconnect Tracking ====================
@@ -139,9 +375,13 @@ public class StateService {
      */
     public void registerTeam(TeamState team) {
         teamStates.put(team.getTeamId(), team);
-        // Update playerToTeam index
+        // Update playerToTeam index; members loaded later are linked when they become resident
         for (UUID memberId : team.getMembers()) {
             playerToTeam.put(memberId, team.getTeamId());
+            PlayerState member = playerStates.get(memberId);
+            if (member != null) {
+                member.setTeamId(team.getTeamId());
+            }
         }
     }
 
@@ -403,7 +643,11 @@ public class StateService {
      * Clears all state (for reload/shutdown).
      */
     public void clearAll() {
+        for (PlayerState player : playerStates.values()) {
+            player.setModeListener(null);
+        }
         playerStates.clear();
+        playersByMode.values().forEach(Set::clear);
         teamStates.clear();
         runStates.clear();
         playerToTeam.clear();
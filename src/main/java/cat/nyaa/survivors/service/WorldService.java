@@ -2,12 +2,14 @@ package cat.nyaa.survivors.service;
 
 import cat.nyaa.survivors.KedamaSurvivorsPlugin;
 import cat.nyaa.survivors.config.ConfigService;
+import cat.nyaa.survivors.util.ChunkSnapshotCache;
+import cat.nyaa.survivors.util.SpawnabilityIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -22,6 +24,10 @@ public class WorldService {
     // Enabled worlds cache
     private final Set<String> enabledWorlds = new HashSet<>();
 
+    // Per-world standing column caches (shared by spawner, merchant and run placement)
+    private final Map<String, SpawnabilityIndex> spawnabilityIndexes = new ConcurrentHashMap<>();
+    private final Map<String, ChunkSnapshotCache> snapshotCaches = new ConcurrentHashMap<>();
+
     public WorldService(KedamaSurvivorsPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigService();
@@ -259,6 +265,7 @@ public class WorldService {
 
     /**
      * Finds a safe spawn location at the given X,Z coordinates.
+     * Picks the highest standing spot whose feet and head are out of liquid.
      * @return safe location or null if not found
      */
     public Location findSafeLocation(World world, double x, double z) {
@@ -270,43 +277,98 @@ public class WorldService {
             world.getChunkAt(blockX >> 4, blockZ >> 4);
         }
 
-        // Start from top and work down
-        int startY = world.getMaxHeight() - 1;
-        int minY = world.getMinHeight();
+        int[] column = getSpawnabilityIndex(world.getName()).getColumn(world, blockX, blockZ);
+        int safeY = SpawnabilityIndex.highestStandingY(column, true);
+        if (safeY == SpawnabilityIndex.NONE) {
+            return null;
+        }
 
-        // Find the highest solid block
-        int safeY = -1;
-        for (int y = startY; y > minY; y--) {
-            Block block = world.getBlockAt(blockX, y, blockZ);
-            Block above = world.getBlockAt(blockX, y + 1, blockZ);
-            Block twoAbove = world.getBlockAt(blockX, y + 2, blockZ);
+        // Center on block
+        return new Location(world, x, safeY, z);
+    }
 
-            if (isSolidGround(block) && isPassable(above) && isPassable(twoAbove)) {
-                safeY = y + 1;
-                break;
-            }
+    // ==================== Spawnability Index ====================
+
+    /**
+     * Gets the standing column cache for a world, creating it on first use.
+     * Safe to call from any thread.
+     */
+    public SpawnabilityIndex getSpawnabilityIndex(String worldName) {
+        return spawnabilityIndexes.computeIfAbsent(worldName, SpawnabilityIndex::new);
+    }
+
+    /**
+     * Gets the shared chunk snapshot cache for a world, creating it on first use.
+     * The cache itself is main-thread only.
+     */
+    public ChunkSnapshotCache getSnapshotCache(String worldName) {
+        return snapshotCaches.computeIfAbsent(worldName,
+                name -> new ChunkSnapshotCache(name, config::getSnapshotMaxAgeTicks));
+    }
+
+    /**
+     * Gets the total number of cached chunk snapshots across all worlds.
+     */
+    public int getCachedSnapshotCount() {
+        int count = 0;
+        for (ChunkSnapshotCache cache : snapshotCaches.values()) {
+            count += cache.getCachedChunkCount();
         }
+        return count;
+    }
 
-        if (safeY < 0) {
-            return null;
+    /**
+     * Drops cached standing columns and snapshots for the chunk containing a changed block.
+     * Worlds without an index are ignored.
+     */
+    public void invalidateTerrain(String worldName, int blockX, int blockZ) {
+        SpawnabilityIndex index = spawnabilityIndexes.get(worldName);
+        if (index != null) {
+            index.invalidateBlock(blockX, blockZ);
+        }
+        ChunkSnapshotCache snapshots = snapshotCaches.get(worldName);
+        if (snapshots != null) {
+            snapshots.invalidateBlock(blockX, blockZ);
         }
+    }
 
-        // Center on block
-        return new Location(world, x, safeY, z);
+    /**
+     * Drops cached standing columns and snapshots for a whole chunk (e.g. on unload).
+     */
+    public void invalidateTerrainChunk(String worldName, int chunkX, int chunkZ) {
+        SpawnabilityIndex index = spawnabilityIndexes.get(worldName);
+        if (index != null) {
+            index.invalidateChunk(chunkX, chunkZ);
+        }
+        ChunkSnapshotCache snapshots = snapshotCaches.get(worldName);
+        if (snapshots != null) {
+            snapshots.invalidateChunk(chunkX, chunkZ);
+        }
     }
 
     /**
-     * Checks if a block is solid ground suitable for standing.
+     * Forgets chunk invalidation stamps that no terrain still in use can predate.
+     *
+     * @param oldestCaptureNanos oldest chunk capture the spawn planner may still read
      */
-    private boolean isSolidGround(Block block) {
-        return block.getType().isSolid() && !block.isLiquid();
+    public void pruneTerrainInvalidations(long oldestCaptureNanos) {
+        for (SpawnabilityIndex index : spawnabilityIndexes.values()) {
+            index.pruneInvalidations(oldestCaptureNanos);
+        }
     }
 
     /**
-     * Checks if a block is passable (air, flowers, grass, etc).
+     * Drops all cached standing columns and snapshots for a world.
      */
-    private boolean isPassable(Block block) {
-        return block.isPassable() && !block.isLiquid();
+    public void clearTerrain(String worldName) {
+        SpawnabilityIndex index = spawnabilityIndexes.remove(worldName);
+        if (index != null) {
+            index.clear();
+        }
+        ChunkSnapshotCache snapshots = snapshotCaches.remove(worldName);
+        if (snapshots != null) {
+            snapshots.clear();
+        }
     }
 
     /**
@@ -0,0 +1,222 @@
+package cat.nyaa.survivors.service.spawner;
+
+import cat.nyaa.survivors.config.ConfigService.EnemyArchetypeConfig;
+import cat.nyaa.survivors.util.AliasTable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Archetype pools compiled for spawn selection.
+ *
+ * <p>Built from the archetype config whenever it is loaded or updated. Archetypes are grouped
+ * into one pool per world named in any {@code allowedWorlds} list, plus a default pool for every
+ * other world (archetypes allowed in "any" world). Each pool holds one alias table per distinct
+ * {@code minSpawnLevel}, containing every archetype unlocked at that level, so picking an
+ * archetype is a binary search over the level thresholds plus one constant-time alias draw.
+ *
+ * <p>Immutable apart from internal lookup caches; safe to share between the main and planner
+ * threads. A config change replaces the whole sampler instead of modifying it.
+ */
+public final class ArchetypeSampler {
+
+    private static final ArchetypeSampler EMPTY = new ArchetypeSampler(Collections.emptyMap());
+
+    private final Map<String, EnemyArchetypeConfig> archetypes;
+    private final Pool defaultPool;
+    private final Map<String, Pool> worldPools;
+
+    // World name as given -> pool, so lookups skip lowercasing after the first time
+    private final Map<String, Pool> poolByWorldName = new ConcurrentHashMap<>();
+    private final Map<BossKey, List<EnemyArchetypeConfig>> bossCandidates = new ConcurrentHashMap<>();
+
+    private ArchetypeSampler(Map<String, EnemyArchetypeConfig> archetypes) {
+        this.archetypes = archetypes;
+
+        // Sorted by id so table layout (and seeded draws) do not depend on map order
+        List<EnemyArchetypeConfig> sorted = new ArrayList<>(archetypes.values());
+        sorted.sort(Comparator.comparing(a -> a.archetypeId == null ? "" : a.archetypeId));
+
+        List<EnemyArchetypeConfig> anyWorld = new ArrayList<>();
+        Map<String, List<EnemyArchetypeConfig>> byWorld = new HashMap<>();
+        for (EnemyArchetypeConfig archetype : sorted) {
+            if (allowsAnyWorld(archetype)) {
+                anyWorld.add(archetype);
+                continue;
+            }
+            for (String world : archetype.allowedWorlds) {
+                if (world == null) continue;
+                List<EnemyArchetypeConfig> pool = byWorld.computeIfAbsent(world.toLowerCase(Locale.ROOT), k -> new ArrayList<>());
+                if (!pool.contains(archetype)) {
+                    pool.add(archetype);
+                }
+            }
+        }
+
+        this.defaultPool = new Pool(anyWorld);
+        Map<String, Pool> pools = new HashMap<>();
+        for (Map.Entry<String, List<EnemyArchetypeConfig>> entry : byWorld.entrySet()) {
+            List<EnemyArchetypeConfig> members = new ArrayList<>(anyWorld);
+            members.addAll(entry.getValue());
+            members.sort(Comparator.comparing(a -> a.archetypeId == null ? "" : a.archetypeId));
+            pools.put(entry.getKey(), new Pool(members));
+        }
+        this.worldPools = pools;
+    }
+
+    /**
+     * Gets a sampler with no archetypes.
+     */
+    public static ArchetypeSampler empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles a sampler from archetypes keyed by id. The map is copied.
+     */
+    public static ArchetypeSampler compile(Map<String, EnemyArchetypeConfig> archetypes) {
+        if (archetypes == null || archetypes.isEmpty()) {
+            return EMPTY;
+        }
+        return new ArchetypeSampler(Collections.unmodifiableMap(new HashMap<>(archetypes)));
+    }
+
+    /**
+     * Picks an archetype allowed in a world at an enemy level, weighted by archetype weight.
+     *
+     * @param roll uniform random value in [0, 1)
+     * @return the picked archetype, or null if none is eligible or all eligible weights are zero
+     */
+    public EnemyArchetypeConfig sample(String worldName, int level, double roll) {
+        Tier tier = poolFor(worldName).tierFor(level);
+        return tier == null ? null : tier.table.sample(roll);
+    }
+
+    /**
+     * Gets every archetype allowed in a world at an enemy level, including zero-weight ones.
+     */
+    public List<EnemyArchetypeConfig> eligible(String worldName, int level) {
+        Tier tier = poolFor(worldName).tierFor(level);
+        return tier == null ? Collections.emptyList() : tier.members;
+    }
+
+    /**
+     * Gets the number of archetypes this sampler was compiled from.
+     */
+    public int size() {
+        return archetypes.size();
+    }
+
+    public boolean isEmpty() {
+        return archetypes.isEmpty();
+    }
+
+    /**
+     * Resolves stage battery boss archetype ids to archetypes allowed in a world.
+     * Unknown ids, blanks and case-insensitive duplicates are skipped. Results are cached
+     * until the sampler is replaced.
+     */
+    public List<EnemyArchetypeConfig> stageBossCandidates(List<String> stageArchetypeIds, String worldName) {
+        if (archetypes.isEmpty() || stageArchetypeIds == null || stageArchetypeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<EnemyArchetypeConfig> cached = bossCandidates.get(new BossKey(stageArchetypeIds, worldName));
+        if (cached != null) {
+            return cached;
+        }
+
+        // Key on a copy so later edits to the stage's list cannot corrupt the cache
+        List<String> ids = Collections.unmodifiableList(new ArrayList<>(stageArchetypeIds));
+        List<EnemyArchetypeConfig> candidates = resolveBossCandidates(ids, worldName);
+        bossCandidates.putIfAbsent(new BossKey(ids, worldName), candidates);
+        return candidates;
+    }
+
+    private List<EnemyArchetypeConfig> resolveBossCandidates(List<String> stageArchetypeIds, String worldName) {
+        List<EnemyArchetypeConfig> candidates = new ArrayList<>();
+        Set<String> dedupe = new HashSet<>();
+        for (String rawId : stageArchetypeIds) {
+            if (rawId == null) continue;
+            String archetypeId = rawId.trim();
+            if (archetypeId.isEmpty()) continue;
+
+            String normalized = archetypeId.toLowerCase(Locale.ROOT);
+            if (!dedupe.add(normalized)) continue;
+
+            EnemyArchetypeConfig archetype = archetypes.get(archetypeId);
+            if (archetype == null) continue;
+            if (!archetype.isAllowedInWorld(worldName)) continue;
+            candidates.add(archetype);
+        }
+        return List.copyOf(candidates);
+    }
+
+    private Pool poolFor(String worldName) {
+        if (worldName == null) {
+            return defaultPool;
+        }
+        Pool pool = poolByWorldName.get(worldName);
+        if (pool == null) {
+            pool = worldPools.getOrDefault(worldName.toLowerCase(Locale.ROOT), defaultPool);
+            poolByWorldName.putIfAbsent(worldName, pool);
+        }
+        return pool;
+    }
+
+    private static boolean allowsAnyWorld(EnemyArchetypeConfig archetype) {
+        if (archetype.allowedWorlds == null || archetype.allowedWorlds.isEmpty()) {
+            return true;
+        }
+        for (String allowed : archetype.allowedWorlds) {
+            if ("any".equalsIgnoreCase(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Archetypes of one world, split into level tiers.
+     */
+    private static final class Pool {
+        private final int[] thresholds;
+        private final Tier[] tiers;
+
+        Pool(List<EnemyArchetypeConfig> members) {
+            TreeSet<Integer> levels = new TreeSet<>();
+            for (EnemyArchetypeConfig archetype : members) {
+                levels.add(archetype.minSpawnLevel);
+            }
+
+            thresholds = new int[levels.size()];
+            tiers = new Tier[levels.size()];
+            int i = 0;
+            for (int threshold : levels) {
+                List<EnemyArchetypeConfig> unlocked = new ArrayList<>();
+                for (EnemyArchetypeConfig archetype : members) {
+                    if (archetype.minSpawnLevel <= threshold) {
+                        unlocked.add(archetype);
+                    }
+                }
+                thresholds[i] = threshold;
+                tiers[i] = new Tier(List.copyOf(unlocked), AliasTable.of(unlocked, a -> a.weight));
+                i++;
+            }
+        }
+
+        /**
+         * Gets the tier of the highest threshold at or below the level, or null below the lowest.
+         */
+        Tier tierFor(int level) {
+            int index = Arrays.binarySearch(thresholds, level);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index < 0 ? null : tiers[index];
+        }
+    }
+
+    private record Tier(List<EnemyArchetypeConfig> members, AliasTable<EnemyArchetypeConfig> table) {}
+
+    private record BossKey(List<String> ids, String worldName) {}
+}
@@ -0,0 +1,196 @@
+package cat.nyaa.survivors.service.spawner;
+
+import cat.nyaa.survivors.config.ConfigService.EnemyArchetypeConfig;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Mob;
+import org.bukkit.inventory.EntityEquipment;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Spawns archetype mobs with {@link World#spawn} instead of dispatching commands.
+ * Tags, attributes and equipment are applied in the spawn consumer, before the
+ * spawn event fires, so listeners see a fully tagged VRS mob. Spawn data is not randomized,
+ * so mobs come out exactly as configured.
+ *
+ * <p>Archetype specs (entity class, attributes, equipment) are resolved once per
+ * archetype definition and re-resolved when the archetype is edited.
+ * Main thread only.
+ */
+public class NativeMobSpawner {
+
+    private final Logger logger;
+    private final Map<String, ResolvedArchetype> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Resolved spawn spec. entityClass is null if the archetype cannot be spawned natively.
+     */
+    private record ResolvedArchetype(
+            String enemyType,
+            Map<String, Double> attributeSpec,
+            Map<String, String> equipmentSpec,
+            Class<? extends LivingEntity> entityClass,
+            Map<Attribute, Double> attributes,
+            Map<EquipmentSlot, Material> equipment
+    ) {
+        boolean matches(EnemyArchetypeConfig archetype) {
+            return Objects.equals(enemyType, archetype.enemyType)
+                    && attributeSpec.equals(archetype.attributes)
+                    && equipmentSpec.equals(archetype.equipment);
+        }
+    }
+
+    public NativeMobSpawner(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Spawns one mob for the archetype at the given location.
+     *
+     * @return the spawned entity, or null if the archetype cannot be spawned natively
+     *         (callers should fall back to spawn commands)
+     */
+    public LivingEntity spawn(EnemyArchetypeConfig archetype, Location location, int level) {
+        World world = location.getWorld();
+        if (world == null) return null;
+
+        ResolvedArchetype spec = resolve(archetype);
+        if (spec.entityClass() == null) return null;
+
+        // Centre on the block, matching where /summon with block coordinates ends up standing
+        Location spawnLoc = new Location(world,
+                location.getBlockX() + 0.5, location.getBlockY(), location.getBlockZ() + 0.5,
+                location.getYaw(), location.getPitch());
+
+        try {
+            // No vanilla randomization (babies, jockeys, random gear), like NBT /summon
+            LivingEntity entity = world.spawn(spawnLoc, spec.entityClass(), false,
+                    mob -> apply(mob, archetype, spec, level));
+            return entity.isValid() ? entity : null;
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.WARNING, "Native spawn failed for archetype " + archetype.archetypeId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Drops all resolved specs.
+     */
+    public void clear() {
+        resolved.clear();
+    }
+
+    private void apply(LivingEntity entity, EnemyArchetypeConfig archetype, ResolvedArchetype spec, int level) {
+        entity.addScoreboardTag(VrsMobRegistry.VRS_MOB_TAG);
+        entity.addScoreboardTag(VrsMobRegistry.LEVEL_TAG_PREFIX + level);
+        entity.addScoreboardTag(VrsMobRegistry.ARCHETYPE_TAG_PREFIX + archetype.archetypeId);
+
+        for (Map.Entry<Attribute, Double> entry : spec.attributes().entrySet()) {
+            AttributeInstance instance = entity.getAttribute(entry.getKey());
+            if (instance == null) continue;
+            instance.setBaseValue(entry.getValue());
+            if (entry.getKey() == Attribute.MAX_HEALTH) {
+                entity.setHealth(instance.getValue());
+            }
+        }
+
+        EntityEquipment equipment = entity.getEquipment();
+        if (equipment != null) {
+            for (Map.Entry<EquipmentSlot, Material> entry : spec.equipment().entrySet()) {
+                equipment.setItem(entry.getKey(), new ItemStack(entry.getValue()));
+                if (entity instanceof Mob) {
+                    // Drops are cleared on death anyway; keep gear from being picked up
+                    equipment.setDropChance(entry.getKey(), 0f);
+                }
+            }
+        }
+    }
+
+    private ResolvedArchetype resolve(EnemyArchetypeConfig archetype) {
+        ResolvedArchetype cached = resolved.get(archetype.archetypeId);
+        if (cached != null && cached.matches(archetype)) {
+            return cached;
+        }
+
+        ResolvedArchetype spec = new ResolvedArchetype(
+                archetype.enemyType,
+                new LinkedHashMap<>(archetype.attributes),
+                new LinkedHashMap<>(archetype.equipment),
+                resolveEntityClass(archetype),
+                resolveAttributes(archetype),
+                resolveEquipment(archetype)
+        );
+        resolved.put(archetype.archetypeId, spec);
+        return spec;
+    }
+
+    private Class<? extends LivingEntity> resolveEntityClass(EnemyArchetypeConfig archetype) {
+        NamespacedKey key = parseKey(archetype.enemyType);
+        EntityType type = key != null ? Registry.ENTITY_TYPE.get(key) : null;
+        if (type == null || !type.isSpawnable() || type.getEntityClass() == null
+                || !LivingEntity.class.isAssignableFrom(type.getEntityClass())) {
+            logger.warning("Archetype " + archetype.archetypeId + " has no spawnable living entity type '"
+                    + archetype.enemyType + "', using spawn commands");
+            return null;
+        }
+        return type.getEntityClass().asSubclass(LivingEntity.class);
+    }
+
+    private Map<Attribute, Double> resolveAttributes(EnemyArchetypeConfig archetype) {
+        Map<Attribute, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : archetype.attributes.entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            // Accept pre-1.21.3 names such as generic.max_health
+            if (name.startsWith("generic.")) {
+                name = name.substring("generic.".length());
+            }
+            NamespacedKey key = parseKey(name);
+            Attribute attribute = key != null ? Registry.ATTRIBUTE.get(key) : null;
+            if (attribute == null || entry.getValue() == null) {
+                logger.warning("Archetype " + archetype.archetypeId + " has unknown attribute '" + entry.getKey() + "'");
+                continue;
+            }
+            result.put(attribute, entry.getValue());
+        }
+        return result;
+    }
+
+    private Map<EquipmentSlot, Material> resolveEquipment(EnemyArchetypeConfig archetype) {
+        Map<EquipmentSlot, Material> result = new EnumMap<>(EquipmentSlot.class);
+        for (Map.Entry<String, String> entry : archetype.equipment.entrySet()) {
+            EquipmentSlot slot;
+            try {
+                slot = EquipmentSlot.valueOf(entry.getKey().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Archetype " + archetype.archetypeId + " has unknown equipment slot '" + entry.getKey() + "'");
+                continue;
+            }
+
+            Material material = Material.matchMaterial(entry.getValue());
+            if (material == null || !material.isItem()) {
+                logger.warning("Archetype " + archetype.archetypeId + " has unknown equipment item '" + entry.getValue() + "'");
+                continue;
+            }
+            result.put(slot, material);
+        }
+        return result;
+    }
+
+    private static NamespacedKey parseKey(String value) {
+        if (value == null || value.isBlank()) return null;
+        return NamespacedKey.fromString(value.trim().toLowerCase(Locale.ROOT));
+    }
+}
@@ -1,6 +1,7 @@
 package cat.nyaa.survivors.service.spawner;
 
 import cat.nyaa.survivors.util.LineOfSightChecker;
+import cat.nyaa.survivors.util.TerrainSnapshot;
 import org.bukkit.Location;
 
 import java.util.UUID;
@@ -20,6 +21,7 @@ public record SpawnContext(
         int nearbyMobCount,
         long runDurationSeconds,
         int minEnemyLevel,
+        TerrainSnapshot terrain,
         LineOfSightChecker losChecker
 ) {
     /**
@@ -11,6 +11,7 @@ import java.util.UUID;
  */
 public record SpawnPlan(
         UUID targetPlayerId,
+        UUID runId,
         String worldName,
         Location spawnLocation,
         EnemyArchetypeConfig archetype,
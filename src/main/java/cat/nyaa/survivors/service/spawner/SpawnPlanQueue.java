@@ -0,0 +1,300 @@
+package cat.nyaa.survivors.service.spawner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Handoff of spawn plans from the planner thread to the main thread.
+ *
+ * <p>The planner (single producer) publishes one batch per spawn tick, stamped with the tick's
+ * generation, into a lock-free ring. The main thread (single consumer) drains batches into
+ * bounded per-player rings and takes plans round-robin across players, so plans left over
+ * when a tick's limits run out stay queued in order for the next tick.
+ *
+ * <p>A batch supersedes every plan of an older generation: players in the batch get their
+ * ring reset, players missing from it are dropped, and a batch that arrives after a newer one
+ * is dropped whole. Staleness is a single generation comparison per batch or ring, never a
+ * per-plan scan.
+ */
+public final class SpawnPlanQueue {
+
+    private static final int BATCH_CAPACITY = 4;
+    private static final int BATCH_MASK = BATCH_CAPACITY - 1;
+
+    private record Batch(long generation, List<List<SpawnPlan>> plansPerPlayer, int planCount) {}
+
+    // ==================== Producer to consumer ring ====================
+
+    private final Batch[] batches = new Batch[BATCH_CAPACITY];
+    // Next slot to publish (written by producer only)
+    private final AtomicLong tail = new AtomicLong();
+    // Next slot to drain (written by consumer only)
+    private final AtomicLong head = new AtomicLong();
+    // Plans in batches rejected because the ring was full (written by producer only)
+    private final AtomicLong rejectedPlans = new AtomicLong();
+
+    // ==================== Consumer state (main thread only) ====================
+
+    private final Map<UUID, PlayerRing> rings = new HashMap<>();
+    private List<PlayerRing> order = new ArrayList<>();
+    private List<PlayerRing> nextOrder = new ArrayList<>();
+    private int cursor;
+    private long generation = Long.MIN_VALUE;
+    private long rejectedSeen;
+
+    // Read by metrics gauges from any thread
+    private volatile int pending;
+
+    /**
+     * Publishes the plans of one spawn tick. Planner thread only.
+     *
+     * @param generation     the spawn tick's generation, increasing from tick to tick
+     * @param plansPerPlayer plans grouped by target player, in round-robin order
+     * @return false if the ring was full and the batch was dropped
+     */
+    public boolean publish(long generation, List<List<SpawnPlan>> plansPerPlayer) {
+        int planCount = 0;
+        for (List<SpawnPlan> playerPlans : plansPerPlayer) {
+            planCount += playerPlans.size();
+        }
+
+        long t = tail.get();
+        if (t - head.getAcquire() >= BATCH_CAPACITY) {
+            rejectedPlans.addAndGet(planCount);
+            return false;
+        }
+        batches[(int) t & BATCH_MASK] = new Batch(generation, plansPerPlayer, planCount);
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /**
+     * Moves published batches into the per-player rings. Main thread only.
+     *
+     * @param capacityPerPlayer maximum plans kept per player; extra plans are dropped
+     * @return number of plans dropped as stale or over capacity
+     */
+    public int drain(int capacityPerPlayer) {
+        int dropped = 0;
+        long rejected = rejectedPlans.get();
+        dropped += (int) (rejected - rejectedSeen);
+        rejectedSeen = rejected;
+
+        long h = head.get();
+        while (h != tail.getAcquire()) {
+            int slot = (int) h & BATCH_MASK;
+            Batch batch = batches[slot];
+            batches[slot] = null;
+            head.setRelease(++h);
+            dropped += install(batch, Math.max(1, capacityPerPlayer));
+        }
+        return dropped;
+    }
+
+    private int install(Batch batch, int capacity) {
+        // Late batch: a newer generation is already queued
+        if (batch.generation() <= generation) {
+            return batch.planCount();
+        }
+        generation = batch.generation();
+
+        int dropped = 0;
+        nextOrder.clear();
+        for (List<SpawnPlan> playerPlans : batch.plansPerPlayer()) {
+            if (playerPlans.isEmpty()) continue;
+            UUID playerId = playerPlans.get(0).targetPlayerId();
+            PlayerRing ring = rings.computeIfAbsent(playerId, PlayerRing::new);
+            if (ring.generation == generation) continue; // same player twice in one batch
+            dropped += ring.reset(generation, capacity);
+            for (SpawnPlan plan : playerPlans) {
+                if (!ring.offer(plan)) dropped++;
+            }
+            nextOrder.add(ring);
+        }
+
+        // Players the new batch did not plan for keep nothing from older generations
+        for (PlayerRing ring : order) {
+            if (ring.generation != generation) {
+                dropped += ring.reset(ring.generation, 0);
+                rings.remove(ring.playerId);
+            }
+        }
+
+        List<PlayerRing> previous = order;
+        order = nextOrder;
+        nextOrder = previous;
+        cursor = 0;
+        recount();
+        return dropped;
+    }
+
+    /**
+     * Returns the next plan in round-robin order without removing it. Main thread only.
+     *
+     * @return the next plan, or null if none are queued
+     */
+    public SpawnPlan peek() {
+        if (pending == 0) return null;
+        for (int i = 0; i < order.size(); i++) {
+            PlayerRing ring = order.get(cursor);
+            if (ring.size > 0) {
+                return ring.peek();
+            }
+            cursor = cursor + 1 == order.size() ? 0 : cursor + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the plan last returned by {@link #peek()} and moves on to the next player.
+     * Main thread only.
+     */
+    public void remove() {
+        if (peek() == null) return;
+        order.get(cursor).poll();
+        pending--;
+        cursor = cursor + 1 == order.size() ? 0 : cursor + 1;
+    }
+
+    /**
+     * Drops queued plans that are no longer valid. Main thread only.
+     *
+     * <p>The player check runs once per player, against that player's next plan: returning null
+     * drops all of the player's plans, otherwise the returned filter is applied to each of them
+     * and failing plans are dropped without changing the order of the rest.
+     *
+     * @param playerCheck per-player check returning a per-plan filter, or null if the player is stale
+     * @return number of plans dropped
+     */
+    public int retainPlans(Function<SpawnPlan, Predicate<SpawnPlan>> playerCheck) {
+        int dropped = 0;
+        for (PlayerRing ring : order) {
+            if (ring.size == 0) continue;
+            Predicate<SpawnPlan> planValid = playerCheck.apply(ring.peek());
+            dropped += planValid == null ? ring.reset(ring.generation, 0) : ring.retain(planValid);
+        }
+        if (dropped > 0) recount();
+        return dropped;
+    }
+
+    /**
+     * Drops all queued plans. Main thread only.
+     */
+    public void clear() {
+        for (PlayerRing ring : order) {
+            ring.reset(ring.generation, 0);
+        }
+        order.clear();
+        rings.clear();
+        cursor = 0;
+        pending = 0;
+    }
+
+    private void recount() {
+        int count = 0;
+        for (PlayerRing ring : order) {
+            count += ring.size;
+        }
+        pending = count;
+    }
+
+    /**
+     * Returns the number of plans waiting in the per-player rings. Safe from any thread.
+     */
+    public int size() {
+        return pending;
+    }
+
+    public boolean isEmpty() {
+        return pending == 0;
+    }
+
+    /**
+     * Returns the generation of the newest batch taken in. Main thread only.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Bounded FIFO of one player's plans, all from the same generation.
+     */
+    private static final class PlayerRing {
+        private static final SpawnPlan[] NONE = new SpawnPlan[0];
+
+        final UUID playerId;
+        long generation = Long.MIN_VALUE;
+        SpawnPlan[] plans = NONE;
+        int first;
+        int size;
+
+        PlayerRing(UUID playerId) {
+            this.playerId = playerId;
+        }
+
+        /**
+         * Drops the remaining plans and restamps the ring.
+         *
+         * @param capacity new capacity, or 0 to keep the current one
+         * @return number of plans dropped
+         */
+        int reset(long generation, int capacity) {
+            int dropped = size;
+            // At most capacity slots to clear; keeps dropped plans from pinning their worlds
+            for (int i = 0; i < size; i++) {
+                plans[(first + i) % plans.length] = null;
+            }
+            if (capacity > 0 && capacity != plans.length) {
+                plans = new SpawnPlan[capacity];
+            }
+            this.generation = generation;
+            first = 0;
+            size = 0;
+            return dropped;
+        }
+
+        /**
+         * Keeps the plans that pass the filter, in order.
+         *
+         * @return number of plans dropped
+         */
+        int retain(Predicate<SpawnPlan> valid) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int from = (first + i) % plans.length;
+                SpawnPlan plan = plans[from];
+                plans[from] = null;
+                if (valid.test(plan)) {
+                    plans[(first + kept) % plans.length] = plan;
+                    kept++;
+                }
+            }
+            int dropped = size - kept;
+            size = kept;
+            return dropped;
+        }
+
+        boolean offer(SpawnPlan plan) {
+            if (size == plans.length) return false;
+            plans[(first + size) % plans.length] = plan;
+            size++;
+            return true;
+        }
+
+        SpawnPlan peek() {
+            return plans[first];
+        }
+
+        void poll() {
+            plans[first] = null;
+            first = first + 1 == plans.length ? 0 : first + 1;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package cat.nyaa.survivors.service.spawner;
+
+import cat.nyaa.survivors.model.RunState;
+import cat.nyaa.survivors.service.StateService;
+import cat.nyaa.survivors.util.SpatialGrid;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of live VRS mobs (entities tagged {@code vrs_mob}).
+ * Replaces entity scans and tag filtering for mob counts.
+ *
+ * <p>Mobs are registered when they spawn or are loaded with a chunk, and removed when
+ * they die or leave the world. Positions and the per-world spatial grids are refreshed
+ * at most once per server tick, on the first count query of that tick.
+ *
+ * <p>Main thread only, except {@link #getActiveMobCount(String)} and {@link #size()}.
+ */
+public class VrsMobRegistry {
+
+    public static final String VRS_MOB_TAG = "vrs_mob";
+    public static final String LEVEL_TAG_PREFIX = "vrs_lvl_";
+    public static final String ARCHETYPE_TAG_PREFIX = "vrs_arch_";
+
+    private final StateService state;
+
+    // Tracked mobs by entity UUID, and the same mobs grouped by world
+    private final Map<UUID, TrackedMob> mobs = new ConcurrentHashMap<>();
+    private final Map<String, Map<UUID, TrackedMob>> mobsByWorld = new ConcurrentHashMap<>();
+
+    // Run owning the spawn commands currently being dispatched (null outside a spawn scope)
+    private UUID spawningRunId;
+    private final List<LivingEntity> spawnScopeCandidates = new ArrayList<>();
+
+    // Per-world spatial grids of last known positions (rebuilt on refresh)
+    private static final double GRID_CELL_SIZE = 16.0;
+    private final Map<String, SpatialGrid<TrackedMob>> grids = new HashMap<>();
+    private int lastRefreshTick = -1;
+
+    /**
+     * A tracked VRS mob with its last known position.
+     */
+    public static final class TrackedMob {
+        private final UUID entityId;
+        private final LivingEntity entity;
+        private final UUID runId;
+        private final String archetypeId;
+        private final int level;
+        private final String worldName;
+        private double x;
+        private double y;
+        private double z;
+        private volatile boolean removed;
+
+        TrackedMob(LivingEntity entity, UUID runId, String archetypeId, int level) {
+            this.entityId = entity.getUniqueId();
+            this.entity = entity;
+            this.runId = runId;
+            this.archetypeId = archetypeId;
+            this.level = level;
+            this.worldName = entity.getWorld().getName();
+            updatePosition(entity.getLocation());
+        }
+
+        private void updatePosition(Location location) {
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+        }
+
+        public UUID getEntityId() {
+            return entityId;
+        }
+
+        public LivingEntity getEntity() {
+            return entity;
+        }
+
+        /**
+         * Gets the run that spawned this mob, or null if unknown.
+         */
+        public UUID getRunId() {
+            return runId;
+        }
+
+        /**
+         * Gets the archetype ID from the vrs_arch_ tag, or null if not tagged.
+         */
+        public String getArchetypeId() {
+            return archetypeId;
+        }
+
+        /**
+         * Gets the enemy level from the vrs_lvl_ tag, or -1 if not tagged.
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        public String getWorldName() {
+            return worldName;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+    }
+
+    public VrsMobRegistry(StateService state) {
+        this.state = state;
+    }
+
+    // ==================== Registration ====================
+
+    /**
+     * Registers a living entity if it carries the VRS mob tag.
+     * Already tracked entities are left unchanged.
+     *
+     * @return true if the entity is tracked after this call
+     */
+    public boolean track(LivingEntity entity) {
+        if (entity == null) return false;
+
+        if (spawningRunId != null) {
+            spawnScopeCandidates.add(entity);
+            return register(entity, spawningRunId);
+        }
+        return register(entity, resolveRunForWorld(entity.getWorld().getName()));
+    }
+
+    private boolean register(LivingEntity entity, UUID runId) {
+        if (entity.isDead()) return false;
+
+        Set<String> tags = entity.getScoreboardTags();
+        if (!tags.contains(VRS_MOB_TAG)) return false;
+        if (mobs.containsKey(entity.getUniqueId())) return true;
+
+        String archetypeId = null;
+        int level = -1;
+        for (String tag : tags) {
+            if (tag.startsWith(LEVEL_TAG_PREFIX)) {
+                try {
+                    level = Integer.parseInt(tag.substring(LEVEL_TAG_PREFIX.length()));
+                } catch (NumberFormatException ignored) {}
+            } else if (tag.startsWith(ARCHETYPE_TAG_PREFIX)) {
+                archetypeId = tag.substring(ARCHETYPE_TAG_PREFIX.length());
+            }
+        }
+
+        TrackedMob mob = new TrackedMob(entity, runId, archetypeId, level);
+        mobs.put(mob.entityId, mob);
+        mobsByWorld.computeIfAbsent(mob.worldName, k -> new ConcurrentHashMap<>()).put(mob.entityId, mob);
+
+        // Visible to range queries immediately, not only after the next refresh
+        SpatialGrid<TrackedMob> grid = grids.get(mob.worldName);
+        if (grid != null) {
+            grid.insert(mob.x, mob.y, mob.z, mob);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a mob from the registry.
+     */
+    public void untrack(UUID entityId) {
+        TrackedMob mob = mobs.remove(entityId);
+        if (mob == null) return;
+        mob.removed = true;
+
+        Map<UUID, TrackedMob> worldMobs = mobsByWorld.get(mob.worldName);
+        if (worldMobs != null) {
+            worldMobs.remove(entityId);
+        }
+    }
+
+    /**
+     * Registers already loaded VRS mobs in the given worlds.
+     * Used on startup, when mobs may exist from before a reload.
+     */
+    public void trackExisting(Collection<World> worlds) {
+        for (World world : worlds) {
+            for (LivingEntity entity : world.getLivingEntities()) {
+                track(entity);
+            }
+        }
+    }
+
+    /**
+     * Opens a spawn scope: mobs spawned until {@link #endSpawn()} are attributed to the run.
+     * Entities spawned inside the scope are re-checked at the end, so spawn commands
+     * that add the VRS tag after the entity exists are still tracked.
+     */
+    public void beginSpawn(UUID runId) {
+        spawningRunId = runId;
+        spawnScopeCandidates.clear();
+    }
+
+    /**
+     * Closes the current spawn scope.
+     */
+    public void endSpawn() {
+        UUID runId = spawningRunId;
+        if (runId == null) return;
+        spawningRunId = null;
+
+        for (LivingEntity entity : spawnScopeCandidates) {
+            register(entity, runId);
+        }
+        spawnScopeCandidates.clear();
+    }
+
+    /**
+     * Gets the run with the given world, if exactly one active run uses it.
+     */
+    private UUID resolveRunForWorld(String worldName) {
+        UUID found = null;
+        for (RunState run : state.getActiveRuns()) {
+            if (!worldName.equals(run.getWorldName())) continue;
+            if (found != null) return null;
+            found = run.getRunId();
+        }
+        return found;
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Gets a tracked mob by entity UUID.
+     */
+    public Optional<TrackedMob> get(UUID entityId) {
+        return Optional.ofNullable(mobs.get(entityId));
+    }
+
+    /**
+     * Checks if an entity is a tracked VRS mob.
+     */
+    public boolean isTracked(Entity entity) {
+        return mobs.containsKey(entity.getUniqueId());
+    }
+
+    /**
+     * Gets the number of tracked mobs in a world.
+     */
+    public int getActiveMobCount(String worldName) {
+        Map<UUID, TrackedMob> worldMobs = mobsByWorld.get(worldName);
+        return worldMobs != null ? worldMobs.size() : 0;
+    }
+
+    /**
+     * Counts mobs inside the axis-aligned box of half-size radius around a location,
+     * matching the area of {@code World#getNearbyEntities(center, r, r, r)}.
+     */
+    public int countNear(Location center, double radius) {
+        World world = center.getWorld();
+        if (world == null) return 0;
+
+        refreshPositions();
+
+        SpatialGrid<TrackedMob> grid = grids.get(world.getName());
+        if (grid == null) return 0;
+        return grid.countInBox(center.getX(), center.getY(), center.getZ(), radius, mob -> !mob.removed);
+    }
+
+    /**
+     * Gets the total number of tracked mobs.
+     */
+    public int size() {
+        return mobs.size();
+    }
+
+    /**
+     * Updates last known positions once per server tick and drops mobs that are no longer valid.
+     */
+    public void refreshPositions() {
+        int tick = Bukkit.getCurrentTick();
+        if (tick == lastRefreshTick) return;
+        lastRefreshTick = tick;
+
+        for (SpatialGrid<TrackedMob> grid : grids.values()) {
+            grid.clear();
+        }
+
+        Iterator<TrackedMob> it = mobs.values().iterator();
+        while (it.hasNext()) {
+            TrackedMob mob = it.next();
+            if (!mob.entity.isValid()) {
+                it.remove();
+                mob.removed = true;
+                Map<UUID, TrackedMob> worldMobs = mobsByWorld.get(mob.worldName);
+                if (worldMobs != null) {
+                    worldMobs.remove(mob.entityId);
+                }
+                continue;
+            }
+            mob.updatePosition(mob.entity.getLocation());
+            grids.computeIfAbsent(mob.worldName, k -> new SpatialGrid<>(GRID_CELL_SIZE))
+                    .insert(mob.x, mob.y, mob.z, mob);
+        }
+    }
+
+    /**
+     * Removes all tracked mobs.
+     */
+    public void clear() {
+        mobs.clear();
+        mobsByWorld.clear();
+        grids.clear();
+        lastRefreshTick = -1;
+        spawnScopeCandidates.clear();
+        spawningRunId = null;
+    }
+}
@@ -0,0 +1,168 @@
+package cat.nyaa.survivors.service.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Player store with one JSON file per player ({@code <uuid>.json}) in a directory.
+ * Each write goes to a temp file that is forced to disk and then moved over the old file,
+ * so a crash never leaves a torn or empty record in place; {@link #flush()} forces the
+ * directory so the renames themselves survive a crash. Writes are serialized.
+ */
+public class FilePlayerStore implements PlayerStore {
+
+    private static final String EXTENSION = ".json";
+
+    private final Path dir;
+    private final Logger logger;
+
+    // Records moved into place since the last flush (guarded by this)
+    private boolean unflushed;
+
+    public FilePlayerStore(Path dir, Logger logger) {
+        this.dir = dir;
+        this.logger = logger;
+    }
+
+    @Override
+    public void open() throws IOException {
+        Files.createDirectories(dir);
+    }
+
+    @Override
+    public Set<UUID> ids() throws IOException {
+        Set<UUID> ids = new HashSet<>();
+        if (!Files.exists(dir)) {
+            return ids;
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .filter(name -> !name.contains(".corrupt."))
+                    .forEach(name -> {
+                        try {
+                            ids.add(UUID.fromString(name.substring(0, name.length() - EXTENSION.length())));
+                        } catch (IllegalArgumentException e) {
+                            logger.warning("Invalid player file name: " + name);
+                        }
+                    });
+        }
+        return ids;
+    }
+
+    @Override
+    public byte[] read(UUID playerId) throws IOException {
+        Path file = fileFor(playerId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public synchronized long write(UUID playerId, byte[] record) throws IOException {
+        Path file = fileFor(playerId);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.wrap(record);
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+                channel.force(false);
+            }
+            // Try atomic move first, fall back to regular move if not supported
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            unflushed = true;
+            return record.length;
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {}
+            throw e;
+        }
+    }
+
+    @Override
+    public long lastModified(UUID playerId) throws IOException {
+        Path file = fileFor(playerId);
+        return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+    }
+
+    @Override
+    public synchronized void quarantine(UUID playerId) {
+        Path file = fileFor(playerId);
+        try {
+            Path corruptPath = file.resolveSibling(file.getFileName() + ".corrupt." + System.currentTimeMillis());
+            Files.move(file, corruptPath, StandardCopyOption.REPLACE_EXISTING);
+            logger.warning("Corrupt file renamed to: " + corruptPath.getFileName());
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to rename corrupt file", e);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (!unflushed) {
+            return;
+        }
+        unflushed = false;
+        // Record contents are already on disk; force the directory entries of the renames
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened for sync on some platforms (e.g. Windows)
+        }
+    }
+
+    @Override
+    public void backup(Path backupDir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+
+        Path backupPlayersDir = backupDir.resolve(dir.getFileName());
+        Files.createDirectories(backupPlayersDir);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.toString().endsWith(EXTENSION))
+                    .filter(p -> !p.getFileName().toString().contains(".corrupt."))
+                    .forEach(file -> {
+                        try {
+                            Files.copy(file, backupPlayersDir.resolve(file.getFileName()),
+                                    StandardCopyOption.REPLACE_EXISTING);
+                        } catch (IOException e) {
+                            logger.warning("Failed to backup player file: " + file.getFileName());
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public Path location() {
+        return dir;
+    }
+
+    @Override
+    public void close() {
+        // Nothing held open
+    }
+
+    private Path fileFor(UUID playerId) {
+        return dir.resolve(playerId.toString() + EXTENSION);
+    }
+}
@@ -0,0 +1,310 @@
+package cat.nyaa.survivors.service.store;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Player store backed by a single append-only record file.
+ *
+ * <p>Every write appends a record; the newest record per player wins. An in-memory
+ * index maps each player to the offset of their newest record and is rebuilt by one
+ * sequential scan on open. A torn or corrupt tail (e.g. after a crash mid-write) is
+ * copied aside and truncated. Superseded records are dropped by compaction, which
+ * rewrites the live records to a new file and moves it over the old one.
+ *
+ * <p>Record layout (big-endian): magic, UUID (two longs), timestamp millis,
+ * payload length, CRC32 of the preceding fields and payload, then the payload.
+ * A zero-length payload is a tombstone.
+ */
+public class LogPlayerStore implements PlayerStore {
+
+    private static final int MAGIC = 0x56525331; // "VRS1"
+    private static final int HEADER_SIZE = 4 + 8 + 8 + 8 + 4 + 4;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    // Compact once superseded records make up half the file, ignoring small files
+    private static final long COMPACT_MIN_BYTES = 1024 * 1024;
+    private static final double COMPACT_MAX_LIVE_RATIO = 0.5;
+
+    private record Entry(long offset, int length, long timestamp) {
+        long size() {
+            return HEADER_SIZE + length;
+        }
+    }
+
+    private final Path file;
+    private final Logger logger;
+
+    private final Map<UUID, Entry> index = new HashMap<>();
+    private FileChannel channel;
+    private long fileSize;
+    private long liveBytes;
+    private boolean unflushed;
+
+    public LogPlayerStore(Path file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        Files.createDirectories(file.getParent());
+        index.clear();
+        liveBytes = 0;
+
+        long validEnd = Files.exists(file) ? scan() : 0;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > validEnd) {
+            preserveTail(validEnd);
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        fileSize = validEnd;
+    }
+
+    /**
+     * Rebuilds the index from the file.
+     *
+     * @return the offset after the last valid record
+     */
+    private long scan() throws IOException {
+        long offset = 0;
+        byte[] header = new byte[HEADER_SIZE];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int read = in.readNBytes(header, 0, HEADER_SIZE);
+                if (read < HEADER_SIZE) break;
+
+                ByteBuffer buf = ByteBuffer.wrap(header);
+                int magic = buf.getInt();
+                UUID playerId = new UUID(buf.getLong(), buf.getLong());
+                long timestamp = buf.getLong();
+                int length = buf.getInt();
+                int crc = buf.getInt();
+                if (magic != MAGIC || length < 0 || length > MAX_RECORD_SIZE) break;
+
+                byte[] payload = in.readNBytes(length);
+                if (payload.length < length || crc != checksum(header, payload)) break;
+
+                apply(playerId, new Entry(offset, length, timestamp));
+                offset += HEADER_SIZE + length;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Copies bytes past the last valid record aside before they are truncated.
+     */
+    private void preserveTail(long validEnd) throws IOException {
+        long discarded = channel.size() - validEnd;
+        Path tailFile = file.resolveSibling(file.getFileName() + ".corrupt." + System.currentTimeMillis());
+        try (FileChannel out = FileChannel.open(tailFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.transferTo(validEnd, discarded, out);
+        }
+        logger.warning("Player log has " + discarded + " bytes of incomplete or corrupt records at offset "
+                + validEnd + ", moved to " + tailFile.getFileName());
+    }
+
+    @Override
+    public synchronized Set<UUID> ids() {
+        return new HashSet<>(index.keySet());
+    }
+
+    @Override
+    public synchronized byte[] read(UUID playerId) throws IOException {
+        Entry entry = index.get(playerId);
+        if (entry == null) {
+            return null;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(entry.length());
+        long position = entry.offset() + HEADER_SIZE;
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position);
+            if (n < 0) throw new EOFException("Player log truncated at " + position);
+            position += n;
+        }
+        return buf.array();
+    }
+
+    @Override
+    public synchronized long write(UUID playerId, byte[] record) throws IOException {
+        if (record.length == 0 || record.length > MAX_RECORD_SIZE) {
+            throw new IOException("Invalid player record size " + record.length + " for " + playerId);
+        }
+        return append(playerId, record);
+    }
+
+    private long append(UUID playerId, byte[] payload) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        long timestamp = System.currentTimeMillis();
+        buf.putInt(MAGIC)
+                .putLong(playerId.getMostSignificantBits())
+                .putLong(playerId.getLeastSignificantBits())
+                .putLong(timestamp)
+                .putInt(payload.length)
+                .putInt(0)
+                .put(payload);
+        buf.putInt(HEADER_SIZE - 4, checksum(buf.array(), payload));
+        buf.flip();
+
+        long offset = fileSize;
+        long position = offset;
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+        fileSize = position;
+        unflushed = true;
+
+        apply(playerId, new Entry(offset, payload.length, timestamp));
+        return HEADER_SIZE + payload.length;
+    }
+
+    /**
+     * Makes an entry the newest for its player (a tombstone removes the player).
+     */
+    private void apply(UUID playerId, Entry entry) {
+        Entry previous = entry.length() == 0 ? index.remove(playerId) : index.put(playerId, entry);
+        if (previous != null) {
+            liveBytes -= previous.size();
+        }
+        if (entry.length() > 0) {
+            liveBytes += entry.size();
+        }
+    }
+
+    @Override
+    public synchronized long lastModified(UUID playerId) {
+        Entry entry = index.get(playerId);
+        return entry != null ? entry.timestamp() : 0;
+    }
+
+    @Override
+    public synchronized void quarantine(UUID playerId) {
+        try {
+            byte[] payload = read(playerId);
+            if (payload == null) return;
+
+            Path corruptPath = file.resolveSibling(playerId + ".json.corrupt." + System.currentTimeMillis());
+            Files.write(corruptPath, payload);
+            append(playerId, new byte[0]);
+            logger.warning("Corrupt player record moved to: " + corruptPath.getFileName());
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to quarantine corrupt player record " + playerId, e);
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (unflushed) {
+            channel.force(false);
+            unflushed = false;
+        }
+    }
+
+    /**
+     * Compacts the file once superseded records outweigh live ones.
+     */
+    @Override
+    public synchronized void maintain() throws IOException {
+        if (fileSize >= COMPACT_MIN_BYTES && liveBytes < fileSize * COMPACT_MAX_LIVE_RATIO) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites only the newest record of each player to a new file and swaps it in.
+     */
+    synchronized void compact() throws IOException {
+        long before = fileSize;
+        Path compactFile = file.resolveSibling(file.getFileName() + ".compact");
+
+        // Copy live records in file order so the new file keeps write order
+        List<Map.Entry<UUID, Entry>> live = new ArrayList<>(index.entrySet());
+        live.sort(Comparator.comparingLong(e -> e.getValue().offset()));
+
+        Map<UUID, Entry> relocated = new HashMap<>();
+        long position = 0;
+        try (FileChannel out = FileChannel.open(compactFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<UUID, Entry> e : live) {
+                Entry entry = e.getValue();
+                long copied = 0;
+                while (copied < entry.size()) {
+                    copied += channel.transferTo(entry.offset() + copied, entry.size() - copied, out);
+                }
+                relocated.put(e.getKey(), new Entry(position, entry.length(), entry.timestamp()));
+                position += entry.size();
+            }
+            out.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(compactFile);
+            throw e;
+        }
+
+        channel.close();
+        try {
+            Files.move(compactFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(compactFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        index.clear();
+        index.putAll(relocated);
+        fileSize = position;
+        liveBytes = position;
+        unflushed = false;
+        logger.info("Compacted player log: " + before + " -> " + position + " bytes (" + index.size() + " players)");
+    }
+
+    @Override
+    public synchronized void backup(Path backupDir) throws IOException {
+        flush();
+        Files.copy(file, backupDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public Path location() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            flush();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Gets the file size in bytes, including superseded records.
+     */
+    synchronized long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Gets the bytes taken by the newest record of each player.
+     */
+    synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    private static int checksum(byte[] header, byte[] payload) {
+        CRC32 crc = new CRC32();
+        // Everything after the magic up to the CRC field
+        crc.update(header, 4, HEADER_SIZE - 8);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
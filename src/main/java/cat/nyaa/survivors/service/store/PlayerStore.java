@@ -0,0 +1,74 @@
+package cat.nyaa.survivors.service.store;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Storage for serialized player states, keyed by player UUID.
+ * Records are opaque bytes; serialization stays in PersistenceService.
+ * Implementations are thread-safe.
+ */
+public interface PlayerStore {
+
+    /**
+     * Opens the store, creating it if missing.
+     */
+    void open() throws IOException;
+
+    /**
+     * Gets the UUIDs of all stored players.
+     */
+    Set<UUID> ids() throws IOException;
+
+    /**
+     * Reads a player's record.
+     *
+     * @return the record bytes, or null if the player is not stored
+     */
+    byte[] read(UUID playerId) throws IOException;
+
+    /**
+     * Replaces a player's record.
+     * Durability is only guaranteed after {@link #flush()}.
+     *
+     * @return bytes written to disk
+     */
+    long write(UUID playerId, byte[] record) throws IOException;
+
+    /**
+     * Gets when a player's record was last written (epoch millis), or 0 if not stored.
+     */
+    long lastModified(UUID playerId) throws IOException;
+
+    /**
+     * Moves an unreadable record out of the store, keeping a copy beside it for inspection.
+     */
+    void quarantine(UUID playerId);
+
+    /**
+     * Forces written records to disk.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Performs periodic maintenance (e.g. compaction). Called after each full save.
+     */
+    default void maintain() throws IOException {}
+
+    /**
+     * Copies the store's files into a backup directory.
+     */
+    void backup(Path backupDir) throws IOException;
+
+    /**
+     * Gets the file or directory holding the store's data.
+     */
+    Path location();
+
+    /**
+     * Flushes and releases the store.
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,16 @@
+package cat.nyaa.survivors.service.store;
+
+/**
+ * Storage backend for persisted player states.
+ */
+public enum PlayerStoreType {
+    /**
+     * One JSON file per player in players/.
+     */
+    FILES,
+
+    /**
+     * Single append-only record file (players.log) with an in-memory offset index.
+     */
+    LOG
+}
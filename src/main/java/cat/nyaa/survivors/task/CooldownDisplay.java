@@ -6,12 +6,18 @@ import cat.nyaa.survivors.i18n.I18nService;
 import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.service.StateService;
+import cat.nyaa.survivors.util.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Periodic task that displays cooldown remaining in the actionbar
  * for players in COOLDOWN mode.
+ * Cooldown expiry (back to LOBBY) is a timing wheel timeout per online player.
  */
 public class CooldownDisplay implements Runnable {
 
@@ -20,6 +26,9 @@ public class CooldownDisplay implements Runnable {
     private final StateService state;
     private final I18nService i18n;
 
+    // Pending cooldown expiry per player (main thread only)
+    private final Map<UUID, TimingWheel.Timeout> expiryTimeouts = new HashMap<>();
+
     private int taskId = -1;
 
     public CooldownDisplay(KedamaSurvivorsPlugin plugin) {
@@ -30,9 +39,13 @@ public class CooldownDisplay implements Runnable {
     }
 
     /**
-     * Starts the cooldown display task.
+     * Starts the cooldown display task and schedules expiry for players already on cooldown.
      */
     public void start() {
+        for (PlayerState playerState : state.getOnlinePlayersByMode(PlayerMode.COOLDOWN)) {
+            scheduleExpiry(playerState);
+        }
+
         if (taskId != -1) {
             return; // Already running
         }
@@ -47,24 +60,65 @@ public class CooldownDisplay implements Runnable {
     }
 
     /**
-     * Stops the cooldown display task.
+     * Stops the cooldown display task and cancels pending expiries.
      */
     public void stop() {
         if (taskId != -1) {
             Bukkit.getScheduler().cancelTask(taskId);
             taskId = -1;
         }
+        for (TimingWheel.Timeout timeout : expiryTimeouts.values()) {
+            timeout.cancel();
+        }
+        expiryTimeouts.clear();
+    }
+
+    /**
+     * Schedules the return to LOBBY when a player's cooldown ends.
+     * Called when a player enters COOLDOWN and when a player on cooldown joins.
+     */
+    public void scheduleExpiry(PlayerState playerState) {
+        // A cleared cooldown (0) is already past and expires on the next tick
+        long cooldownEnd = playerState.getCooldownUntilMillis();
+        UUID playerId = playerState.getUuid();
+        TimingWheel.Timeout previous = expiryTimeouts.put(playerId,
+                plugin.getTimingWheel().schedule(cooldownEnd, () -> onCooldownDeadline(playerId)));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void onCooldownDeadline(UUID playerId) {
+        expiryTimeouts.remove(playerId);
+
+        PlayerState playerState = state.getPlayer(playerId).orElse(null);
+        if (playerState == null || playerState.getMode() != PlayerMode.COOLDOWN) {
+            return;
+        }
+
+        // Cooldown was extended since this was scheduled
+        if (playerState.isOnCooldown()) {
+            scheduleExpiry(playerState);
+            return;
+        }
+
+        // Offline players are handled when they join
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null || !player.isOnline()) {
+            return;
+        }
+
+        // Cooldown expired - transition to LOBBY mode
+        playerState.setMode(PlayerMode.LOBBY);
+        playerState.setCooldownUntilMillis(0);
+        i18n.send(player, "info.cooldown_expired");
     }
 
     @Override
     public void run() {
         long now = System.currentTimeMillis();
 
-        for (PlayerState playerState : state.getAllPlayers()) {
-            if (playerState.getMode() != PlayerMode.COOLDOWN) {
-                continue;
-            }
-
+        for (PlayerState playerState : state.getOnlinePlayersByMode(PlayerMode.COOLDOWN)) {
             Player player = Bukkit.getPlayer(playerState.getUuid());
             if (player == null || !player.isOnline()) {
                 continue;
@@ -76,11 +130,6 @@ public class CooldownDisplay implements Runnable {
             if (secondsRemaining > 0) {
                 // Display cooldown in actionbar
                 i18n.sendActionBar(player, "actionbar.cooldown", "seconds", secondsRemaining);
-            } else {
-                // Cooldown expired - transition to LOBBY mode
-                playerState.setMode(PlayerMode.LOBBY);
-                playerState.setCooldownUntilMillis(0);
-                i18n.send(player, "info.cooldown_expired");
             }
         }
     }
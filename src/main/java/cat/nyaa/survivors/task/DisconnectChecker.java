@@ -11,17 +11,20 @@ import cat.nyaa.survivors.service.DeathService;
 import cat.nyaa.survivors.service.RunService;
 import cat.nyaa.survivors.service.StatsService;
 import cat.nyaa.survivors.service.StateService;
+import cat.nyaa.survivors.util.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Periodic task that checks for expired disconnect grace periods.
+ * Expires disconnect grace periods with a timing wheel timeout per disconnected player.
  * When a player's grace period expires, applies death penalty and checks for team wipe.
  */
-public class DisconnectChecker implements Runnable {
+public class DisconnectChecker {
 
     private final KedamaSurvivorsPlugin plugin;
     private final ConfigService config;
@@ -30,7 +33,8 @@ public class DisconnectChecker implements Runnable {
     private final RunService runService;
     private final I18nService i18n;
 
-    private int taskId = -1;
+    // Pending grace expiry per disconnected player (main thread only)
+    private final Map<UUID, TimingWheel.Timeout> graceTimeouts = new HashMap<>();
 
     public DisconnectChecker(KedamaSurvivorsPlugin plugin) {
         this.plugin = plugin;
@@ -42,51 +46,73 @@ public class DisconnectChecker implements Runnable {
     }
 
     /**
-     * Starts the periodic disconnect check task.
+     * Schedules grace expiry for players already tracked as disconnected.
      */
     public void start() {
-        if (taskId != -1) {
-            return; // Already running
+        for (UUID playerId : state.getDisconnectedPlayers()) {
+            state.getPlayer(playerId).ifPresent(this::schedule);
         }
-
-        int interval = config.getDisconnectCheckIntervalTicks();
-        taskId = Bukkit.getScheduler().runTaskTimer(plugin, this, interval, interval).getTaskId();
-        plugin.getLogger().info("Disconnect checker started with interval: " + interval + " ticks");
+        plugin.getLogger().info("Disconnect checker started with " + graceTimeouts.size() + " pending grace periods");
     }
 
     /**
-     * Stops the disconnect check task.
+     * Cancels all pending grace expiries.
      */
     public void stop() {
-        if (taskId != -1) {
-            Bukkit.getScheduler().cancelTask(taskId);
-            taskId = -1;
+        for (TimingWheel.Timeout timeout : graceTimeouts.values()) {
+            timeout.cancel();
         }
+        graceTimeouts.clear();
     }
 
-    @Override
-    public void run() {
-        long now = System.currentTimeMillis();
-        long graceMs = config.getDisconnectGraceMs();
+    /**
+     * Schedules grace expiry for a player who just disconnected from a run.
+     */
+    public void schedule(PlayerState playerState) {
+        long disconnectedAt = playerState.getDisconnectedAtMillis();
+        if (disconnectedAt <= 0) return;
 
-        // Check only tracked disconnected players (more efficient than iterating all)
-        for (UUID playerId : state.getDisconnectedPlayers()) {
-            Optional<PlayerState> playerStateOpt = state.getPlayer(playerId);
-            if (playerStateOpt.isEmpty()) continue;
+        UUID playerId = playerState.getUuid();
+        long deadline = disconnectedAt + config.getDisconnectGraceMs();
+        TimingWheel.Timeout previous = graceTimeouts.put(playerId,
+                plugin.getTimingWheel().schedule(deadline, () -> onGraceDeadline(playerId)));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
 
-            PlayerState playerState = playerStateOpt.get();
+    /**
+     * Cancels a player's pending grace expiry (on reconnect).
+     */
+    public void cancel(UUID playerId) {
+        TimingWheel.Timeout timeout = graceTimeouts.remove(playerId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
 
-            // Verify still in DISCONNECTED mode
-            if (playerState.getMode() != PlayerMode.DISCONNECTED) {
-                continue;
-            }
+    private void onGraceDeadline(UUID playerId) {
+        graceTimeouts.remove(playerId);
 
-            // Check if grace period has expired
-            long disconnectedAt = playerState.getDisconnectedAtMillis();
-            if (disconnectedAt > 0 && (now - disconnectedAt) >= graceMs) {
-                handleGraceExpired(playerState);
-            }
+        Optional<PlayerState> playerStateOpt = state.getPlayer(playerId);
+        if (playerStateOpt.isEmpty()) return;
+
+        PlayerState playerState = playerStateOpt.get();
+
+        // Verify still in DISCONNECTED mode
+        if (playerState.getMode() != PlayerMode.DISCONNECTED) {
+            return;
+        }
+
+        // Re-check against the current grace length, which may have been raised since
+        long disconnectedAt = playerState.getDisconnectedAtMillis();
+        if (disconnectedAt <= 0) return;
+        if (System.currentTimeMillis() - disconnectedAt < config.getDisconnectGraceMs()) {
+            schedule(playerState);
+            return;
         }
+
+        handleGraceExpired(playerState);
     }
 
     /**
@@ -6,6 +6,7 @@ import cat.nyaa.survivors.model.PlayerMode;
 import cat.nyaa.survivors.model.PlayerState;
 import cat.nyaa.survivors.service.StateService;
 import cat.nyaa.survivors.service.UpgradeService;
+import cat.nyaa.survivors.util.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -14,10 +15,9 @@ import java.util.Map;
 import java.util.UUID;
 
 /**
- * Periodic task that handles upgrade reminders and auto-selection.
- * Runs every second to:
- * 1. Check if upgrade deadline expired -> auto-select
- * 2. Send chat reminders at configurable intervals
+ * Handles upgrade reminders and auto-selection.
+ * Runs every second to send reminders at configurable intervals;
+ * auto-selection runs from a timing wheel timeout at the upgrade deadline.
  */
 public class UpgradeReminderTask implements Runnable {
 
@@ -29,6 +29,9 @@ public class UpgradeReminderTask implements Runnable {
     // Track last reminder time per player to avoid spam
     private final Map<UUID, Long> lastReminderTime = new HashMap<>();
 
+    // Pending auto-selection per player (main thread only)
+    private final Map<UUID, TimingWheel.Timeout> deadlineTimeouts = new HashMap<>();
+
     private int taskId = -1;
 
     public UpgradeReminderTask(KedamaSurvivorsPlugin plugin) {
@@ -60,6 +63,46 @@ public class UpgradeReminderTask implements Runnable {
             taskId = -1;
         }
         lastReminderTime.clear();
+        for (TimingWheel.Timeout timeout : deadlineTimeouts.values()) {
+            timeout.cancel();
+        }
+        deadlineTimeouts.clear();
+    }
+
+    /**
+     * Schedules auto-selection at a player's upgrade deadline.
+     * Called when the deadline is set and when a player with a pending upgrade returns to a run.
+     */
+    public void scheduleDeadline(PlayerState playerState) {
+        long deadline = playerState.getUpgradeDeadlineMillis();
+        if (deadline <= 0) return;
+
+        UUID playerId = playerState.getUuid();
+        TimingWheel.Timeout previous = deadlineTimeouts.put(playerId,
+                plugin.getTimingWheel().schedule(deadline, () -> onDeadline(playerId, deadline)));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void onDeadline(UUID playerId, long deadline) {
+        deadlineTimeouts.remove(playerId);
+
+        PlayerState playerState = state.getPlayer(playerId).orElse(null);
+        if (playerState == null || playerState.getMode() != PlayerMode.IN_RUN) return;
+
+        // Resolved, or replaced by a newer deadline with its own timeout
+        if (!playerState.isUpgradePending() || playerState.getUpgradeDeadlineMillis() != deadline) return;
+
+        // Skip if both at max level (instant reward case)
+        if (playerState.isWeaponAtMax() && playerState.isHelmetAtMax()) return;
+
+        // Offline players are rescheduled when they reconnect
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null || !player.isOnline()) return;
+
+        upgrade.processAutoUpgrade(player, playerState);
+        lastReminderTime.remove(playerId);
     }
 
     @Override
@@ -67,14 +110,11 @@ public class UpgradeReminderTask implements Runnable {
         long now = System.currentTimeMillis();
         int reminderIntervalMs = config.getUpgradeReminderIntervalSeconds() * 1000;
 
-        for (PlayerState playerState : state.getAllPlayers()) {
-            // Only process players in run with pending upgrade
-            if (playerState.getMode() != PlayerMode.IN_RUN) {
-                // Clean up tracking if player left run
-                lastReminderTime.remove(playerState.getUuid());
-                continue;
-            }
+        // Clean up tracking for players who left their run
+        lastReminderTime.keySet().removeIf(playerId -> !state.isInMode(playerId, PlayerMode.IN_RUN));
 
+        for (PlayerState playerState : state.getOnlinePlayersByMode(PlayerMode.IN_RUN)) {
+            // Only process players with pending upgrade
             if (!playerState.isUpgradePending()) {
                 // Clean up tracking if upgrade resolved
                 lastReminderTime.remove(playerState.getUuid());
@@ -91,12 +131,9 @@ public class UpgradeReminderTask implements Runnable {
                 continue;
             }
 
+            // Deadline passed; auto-selection is due from its timeout
             long deadline = playerState.getUpgradeDeadlineMillis();
-
-            // Check if deadline expired -> auto-select
             if (deadline > 0 && now >= deadline) {
-                upgrade.processAutoUpgrade(player, playerState);
-                lastReminderTime.remove(playerState.getUuid());
                 continue;
             }
 
@@ -0,0 +1,165 @@
+package cat.nyaa.survivors.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Weighted random selection in constant time (Walker's alias method, built with Vose's algorithm).
+ *
+ * <p>Built once from a list of weighted items; each {@link #sample(double)} is one multiply,
+ * one array read and one compare, with no allocation. Items with a weight of zero or less
+ * (or NaN) are left out. Immutable, so it may be shared between threads.
+ */
+public final class AliasTable<T> {
+
+    private static final AliasTable<?> EMPTY = new AliasTable<>(new Object[0], new double[0], new int[0]);
+
+    private final Object[] items;
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(Object[] items, double[] probability, int[] alias) {
+        this.items = items;
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * Gets a table that never returns an item.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AliasTable<T> empty() {
+        return (AliasTable<T>) EMPTY;
+    }
+
+    /**
+     * Builds a table picking each item with probability proportional to its weight.
+     */
+    public static <T> AliasTable<T> of(List<? extends T> candidates, ToDoubleFunction<? super T> weightFunction) {
+        List<T> kept = new ArrayList<>(candidates.size());
+        List<Double> weights = new ArrayList<>(candidates.size());
+        double total = 0.0;
+        for (T candidate : candidates) {
+            double weight = weightFunction.applyAsDouble(candidate);
+            if (!(weight > 0.0) || Double.isInfinite(weight)) continue;
+            kept.add(candidate);
+            weights.add(weight);
+            total += weight;
+        }
+
+        int n = kept.size();
+        if (n == 0 || !(total > 0.0)) {
+            return empty();
+        }
+
+        // Scale weights so the average column holds exactly 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights.get(i) * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            // The large item gives up what filled the small column
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Leftovers are full columns (differences are rounding error)
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+
+        return new AliasTable<>(kept.toArray(), probability, alias);
+    }
+
+    /**
+     * Picks an item.
+     *
+     * @param roll uniform random value in [0, 1)
+     * @return the picked item, or null if the table is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T sample(double roll) {
+        int n = items.length;
+        if (n == 0) return null;
+
+        double scaled = roll * n;
+        int column = (int) scaled;
+        if (column >= n) {
+            column = n - 1;
+        } else if (column < 0) {
+            column = 0;
+        }
+        double fraction = scaled - column;
+        return (T) items[fraction < probability[column] ? column : alias[column]];
+    }
+
+    /**
+     * Gets the number of items with a positive weight.
+     */
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    /**
+     * Gets the items in table order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getItems() {
+        List<T> result = new ArrayList<>(items.length);
+        for (Object item : items) {
+            result.add((T) item);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the exact probability of picking the item at an index of {@link #getItems()}.
+     */
+    double probabilityOf(int index) {
+        int n = items.length;
+        double p = 0.0;
+        for (int column = 0; column < n; column++) {
+            if (column == index) {
+                p += probability[column] / n;
+            }
+            if (alias[column] == index && alias[column] != column) {
+                p += (1.0 - probability[column]) / n;
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,144 @@
+package cat.nyaa.survivors.util;
+
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Per-world cache of captured chunks ({@link ChunkTerrain}), shared by every spawn context.
+ *
+ * <p>A captured chunk is reused until it is older than the configured number of ticks or a
+ * block in it changes, so teammates standing together and consecutive spawn ticks share one
+ * snapshot and its occlusion bitsets instead of each calling {@code getChunkSnapshot()}.
+ * With a max age of 0, chunks are shared within the same tick only.
+ *
+ * <p>Capture and invalidation happen on the main thread; the returned {@link ChunkTerrain}
+ * objects are immutable and may be read from any thread.
+ */
+public class ChunkSnapshotCache {
+
+    /**
+     * Captures a chunk, or returns null if it is not loaded.
+     */
+    @FunctionalInterface
+    interface ChunkCapture {
+        ChunkTerrain capture(int chunkX, int chunkZ, long tick);
+    }
+
+    private final String worldName;
+    private final IntSupplier maxAgeTicks;
+    private final Map<Long, ChunkTerrain> chunks = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxAgeTicks number of ticks a captured chunk stays valid without block changes
+     */
+    public ChunkSnapshotCache(String worldName, IntSupplier maxAgeTicks) {
+        this.worldName = worldName;
+        this.maxAgeTicks = maxAgeTicks;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Gets a loaded chunk, capturing it if there is no valid cached copy.
+     * Unloaded chunks are never force-loaded. Main thread only.
+     *
+     * @param tick the current server tick
+     * @return the captured chunk, or null if the chunk is not loaded
+     */
+    public ChunkTerrain get(World world, int chunkX, int chunkZ, long tick) {
+        return get(chunkX, chunkZ, tick, (cx, cz, t) -> world.isChunkLoaded(cx, cz)
+                ? new ChunkTerrain(world.getChunkAt(cx, cz).getChunkSnapshot(), world.getMinHeight(), world.getMaxHeight(), t)
+                : null);
+    }
+
+    /**
+     * Gets a chunk, capturing it through the given source if there is no valid cached copy.
+     */
+    ChunkTerrain get(int chunkX, int chunkZ, long tick, ChunkCapture capture) {
+        long key = chunkKey(chunkX, chunkZ);
+        ChunkTerrain cached = chunks.get(key);
+        if (cached != null && isFresh(cached, tick)) {
+            hits++;
+            return cached;
+        }
+
+        ChunkTerrain captured = capture.capture(chunkX, chunkZ, tick);
+        if (captured == null) {
+            if (cached != null) {
+                chunks.remove(key);
+            }
+            return null;
+        }
+
+        misses++;
+        chunks.put(key, captured);
+        return captured;
+    }
+
+    private boolean isFresh(ChunkTerrain chunk, long tick) {
+        long age = tick - chunk.getCapturedTick();
+        return age >= 0 && age <= Math.max(0, maxAgeTicks.getAsInt());
+    }
+
+    // ==================== Invalidation ====================
+
+    /**
+     * Drops a chunk after a block change or unload.
+     */
+    public void invalidateChunk(int chunkX, int chunkZ) {
+        chunks.remove(chunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Drops the chunk containing the given block.
+     */
+    public void invalidateBlock(int x, int z) {
+        invalidateChunk(x >> 4, z >> 4);
+    }
+
+    /**
+     * Drops chunks that are too old to be reused, so chunks players left do not pile up.
+     */
+    public void pruneExpired(long tick) {
+        Iterator<ChunkTerrain> iterator = chunks.values().iterator();
+        while (iterator.hasNext()) {
+            if (!isFresh(iterator.next(), tick)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops all cached chunks.
+     */
+    public void clear() {
+        chunks.clear();
+    }
+
+    /**
+     * Returns the number of cached chunks.
+     */
+    public int getCachedChunkCount() {
+        return chunks.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
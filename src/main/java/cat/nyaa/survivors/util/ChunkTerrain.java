@@ -0,0 +1,156 @@
+package cat.nyaa.survivors.util;
+
+import org.bukkit.ChunkSnapshot;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One captured chunk with a lazily built occlusion bitset.
+ *
+ * <p>The bitset is split into 16-block-high sections (4096 bits each) and a section is only
+ * built the first time a query reaches it, so line-of-sight checks read one bit per step
+ * instead of a {@code Material} lookup. Sections the snapshot reports as empty share a
+ * zero bitset. Immutable apart from the section cache; safe to query from any thread.
+ */
+public final class ChunkTerrain {
+
+    /**
+     * Block opacity source in chunk-local X/Z and world Y.
+     */
+    @FunctionalInterface
+    interface BlockOcclusion {
+        boolean isOccluding(int localX, int y, int localZ);
+    }
+
+    /**
+     * Section emptiness source by section index (0 is the lowest section).
+     */
+    @FunctionalInterface
+    interface SectionEmptiness {
+        boolean isEmpty(int section);
+    }
+
+    static final int SECTION_WORDS = 4096 / 64;
+    private static final long[] EMPTY_SECTION = new long[SECTION_WORDS];
+
+    private final ChunkSnapshot snapshot;
+    private final BlockOcclusion occlusion;
+    private final SectionEmptiness emptiness;
+    private final int minHeight;
+    private final int maxHeight;
+    private final long capturedTick;
+    private final long capturedAtNanos;
+    private final AtomicReferenceArray<long[]> sections;
+
+    ChunkTerrain(ChunkSnapshot snapshot, int minHeight, int maxHeight, long capturedTick) {
+        this(snapshot,
+                (x, y, z) -> snapshot.getBlockType(x, y, z).isOccluding(),
+                snapshot::isSectionEmpty,
+                minHeight, maxHeight, capturedTick);
+    }
+
+    ChunkTerrain(ChunkSnapshot snapshot, BlockOcclusion occlusion, SectionEmptiness emptiness,
+                 int minHeight, int maxHeight, long capturedTick) {
+        this.snapshot = snapshot;
+        this.occlusion = occlusion;
+        this.emptiness = emptiness;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.capturedTick = capturedTick;
+        this.capturedAtNanos = System.nanoTime();
+        this.sections = new AtomicReferenceArray<>(Math.max(0, (maxHeight - minHeight + 15) >> 4));
+    }
+
+    /**
+     * Checks if the block is opaque. Blocks outside the world height are transparent.
+     *
+     * @param localX chunk-local X (0-15)
+     * @param y      world Y
+     * @param localZ chunk-local Z (0-15)
+     */
+    public boolean isOccluding(int localX, int y, int localZ) {
+        if (y < minHeight || y >= maxHeight) {
+            return false;
+        }
+        int relativeY = y - minHeight;
+        long[] bits = section(relativeY >> 4);
+        int index = ((relativeY & 15) << 8) | (localZ << 4) | localX;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private long[] section(int section) {
+        long[] bits = sections.get(section);
+        if (bits == null) {
+            bits = buildSection(section);
+            // Another thread may have built it first; both results are identical
+            if (!sections.compareAndSet(section, null, bits)) {
+                bits = sections.get(section);
+            }
+        }
+        return bits;
+    }
+
+    long[] buildSection(int section) {
+        if (emptiness != null && emptiness.isEmpty(section)) {
+            return EMPTY_SECTION;
+        }
+
+        int baseY = minHeight + (section << 4);
+        int topY = Math.min(baseY + 16, maxHeight);
+        long[] bits = new long[SECTION_WORDS];
+        boolean any = false;
+        for (int y = baseY; y < topY; y++) {
+            int rowBase = (y - baseY) << 8;
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (occlusion.isOccluding(x, y, z)) {
+                        int index = rowBase | (z << 4) | x;
+                        bits[index >>> 6] |= 1L << index;
+                        any = true;
+                    }
+                }
+            }
+        }
+        return any ? bits : EMPTY_SECTION;
+    }
+
+    /**
+     * Gets the raw snapshot.
+     */
+    public ChunkSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Gets the server tick at which the chunk was captured.
+     */
+    public long getCapturedTick() {
+        return capturedTick;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} stamp taken when the chunk was captured.
+     */
+    public long getCapturedAtNanos() {
+        return capturedAtNanos;
+    }
+
+    /**
+     * Returns the number of sections whose bitset has been built.
+     */
+    int getBuiltSectionCount() {
+        int count = 0;
+        for (int i = 0; i < sections.length(); i++) {
+            if (sections.get(i) != null) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+package cat.nyaa.survivors.util;
+
+import org.bukkit.Bukkit;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * Adaptive per-tick time budget for console command dispatch, shared by the
+ * spawn pipeline and the command queue.
+ *
+ * <p>The budget is a configured number of milliseconds per tick, shrunk as the
+ * server's average tick time (MSPT) approaches 50 ms. Each dispatch is timed and
+ * an average cost per lane is kept, so a lane stops for the tick once its next
+ * dispatch would overrun what it may spend.
+ *
+ * <p>Each lane is guaranteed its share of the budget. A lane may also use the rest
+ * of the tick's budget unless the other lane was held back by the budget last tick,
+ * so neither lane can starve the other. Every lane always gets at least one dispatch
+ * per tick.
+ *
+ * <p>Main thread only. Count caps such as maxCommandsPerTick still apply on top.
+ */
+public class CommandBudget {
+
+    /**
+     * Dispatch lanes sharing the budget.
+     */
+    public enum Lane {
+        /** Spawner mob spawns (commands or native) */
+        SPAWN,
+        /** Template commands queued through the command queue */
+        QUEUED
+    }
+
+    private static final double TICK_MS = 50.0;
+    private static final double MIN_BUDGET_MS = 0.5;
+    private static final double COST_SMOOTHING = 0.2;
+
+    private final IntSupplier tickSupplier;
+    private final DoubleSupplier msptSupplier;
+    private final DoubleSupplier budgetMsSupplier;
+    private final DoubleSupplier queuedShareSupplier;
+
+    private int currentTick = Integer.MIN_VALUE;
+    private long budgetNanos;
+    private long totalUsedNanos;
+    private final long[] shareNanos = new long[Lane.values().length];
+    private final long[] usedNanos = new long[Lane.values().length];
+    private final int[] dispatched = new int[Lane.values().length];
+    private final boolean[] limited = new boolean[Lane.values().length];
+    private final boolean[] limitedLastTick = new boolean[Lane.values().length];
+    private final double[] averageCostNanos = new double[Lane.values().length];
+
+    /**
+     * Creates a budget driven by the server tick counter and average tick time.
+     *
+     * @param budgetMsSupplier    milliseconds per tick for all lanes (0 or less disables the time budget)
+     * @param queuedShareSupplier fraction of the budget reserved for the queued lane (0 to 1)
+     */
+    public CommandBudget(DoubleSupplier budgetMsSupplier, DoubleSupplier queuedShareSupplier) {
+        this(Bukkit::getCurrentTick, Bukkit::getAverageTickTime, budgetMsSupplier, queuedShareSupplier);
+    }
+
+    CommandBudget(IntSupplier tickSupplier, DoubleSupplier msptSupplier,
+                  DoubleSupplier budgetMsSupplier, DoubleSupplier queuedShareSupplier) {
+        this.tickSupplier = tickSupplier;
+        this.msptSupplier = msptSupplier;
+        this.budgetMsSupplier = budgetMsSupplier;
+        this.queuedShareSupplier = queuedShareSupplier;
+    }
+
+    /**
+     * Checks whether the lane may dispatch once more this tick.
+     * A refusal marks the lane as limited, which reserves its share next tick.
+     */
+    public boolean tryAcquire(Lane lane) {
+        rollover();
+        if (budgetNanos <= 0) return true;
+
+        int i = lane.ordinal();
+        if (dispatched[i] == 0) return true;
+
+        long cost = (long) averageCostNanos[i];
+        if (usedNanos[i] + cost <= shareNanos[i]) return true;
+
+        // Past its own share: borrow unused budget unless the other lane needs its share
+        Lane other = lane == Lane.SPAWN ? Lane.QUEUED : Lane.SPAWN;
+        if (!limitedLastTick[other.ordinal()] && totalUsedNanos + cost <= budgetNanos) return true;
+
+        limited[i] = true;
+        return false;
+    }
+
+    /**
+     * Records the measured time of one dispatch.
+     */
+    public void record(Lane lane, long elapsedNanos) {
+        rollover();
+        int i = lane.ordinal();
+        long nanos = Math.max(0, elapsedNanos);
+
+        usedNanos[i] += nanos;
+        totalUsedNanos += nanos;
+        dispatched[i]++;
+
+        double average = averageCostNanos[i];
+        averageCostNanos[i] = average == 0 ? nanos : average + COST_SMOOTHING * (nanos - average);
+    }
+
+    /**
+     * Gets this tick's total budget in nanoseconds (0 if the time budget is disabled).
+     */
+    public long getBudgetNanos() {
+        rollover();
+        return budgetNanos;
+    }
+
+    /**
+     * Gets the time a lane has used this tick in nanoseconds.
+     */
+    public long getUsedNanos(Lane lane) {
+        rollover();
+        return usedNanos[lane.ordinal()];
+    }
+
+    /**
+     * Gets the smoothed cost of one dispatch in a lane in nanoseconds (0 before the first dispatch).
+     */
+    public double getAverageCostNanos(Lane lane) {
+        return averageCostNanos[lane.ordinal()];
+    }
+
+    private void rollover() {
+        int tick = tickSupplier.getAsInt();
+        if (tick == currentTick) return;
+        currentTick = tick;
+
+        for (int i = 0; i < usedNanos.length; i++) {
+            limitedLastTick[i] = limited[i];
+            limited[i] = false;
+            usedNanos[i] = 0;
+            dispatched[i] = 0;
+        }
+        totalUsedNanos = 0;
+
+        budgetNanos = computeBudgetNanos();
+        double queuedShare = Math.max(0.0, Math.min(1.0, queuedShareSupplier.getAsDouble()));
+        shareNanos[Lane.QUEUED.ordinal()] = (long) (budgetNanos * queuedShare);
+        shareNanos[Lane.SPAWN.ordinal()] = budgetNanos - shareNanos[Lane.QUEUED.ordinal()];
+    }
+
+    private long computeBudgetNanos() {
+        double budgetMs = budgetMsSupplier.getAsDouble();
+        if (budgetMs <= 0) return 0;
+
+        // Shrink the budget to half the remaining tick headroom, but keep a floor so work still drains
+        double headroomMs = TICK_MS - msptSupplier.getAsDouble();
+        double effectiveMs = Math.min(budgetMs, Math.max(MIN_BUDGET_MS, headroomMs * 0.5));
+        return (long) (effectiveMs * 1_000_000L);
+    }
+}
@@ -1,5 +1,6 @@
 package cat.nyaa.survivors.util;
 
+import cat.nyaa.survivors.metrics.LatencyHistogram;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
@@ -9,13 +10,16 @@ import java.util.function.Supplier;
 
 /**
  * A queue for executing commands with tick budgets to prevent lag spikes.
- * Commands are queued and executed up to a configurable limit per tick.
+ * Commands are queued and executed up to a configurable limit per tick,
+ * and within the queued lane of the shared {@link CommandBudget} if one is set.
  */
 public class CommandQueue {
 
     private final Plugin plugin;
     private final Queue<String> pendingCommands = new ConcurrentLinkedQueue<>();
     private final Supplier<Integer> maxCommandsPerTickSupplier;
+    private final CommandBudget budget;
+    private LatencyHistogram dispatchTimer;
     private int taskId = -1;
 
     /**
@@ -25,8 +29,27 @@ public class CommandQueue {
      * @param maxCommandsPerTickSupplier supplier for the max commands per tick config value
      */
     public CommandQueue(Plugin plugin, Supplier<Integer> maxCommandsPerTickSupplier) {
+        this(plugin, maxCommandsPerTickSupplier, null);
+    }
+
+    /**
+     * Creates a new CommandQueue that also stays within a shared time budget.
+     *
+     * @param plugin                     the owning plugin
+     * @param maxCommandsPerTickSupplier supplier for the max commands per tick config value
+     * @param budget                     shared per-tick budget, or null for the count limit only
+     */
+    public CommandQueue(Plugin plugin, Supplier<Integer> maxCommandsPerTickSupplier, CommandBudget budget) {
         this.plugin = plugin;
         this.maxCommandsPerTickSupplier = maxCommandsPerTickSupplier;
+        this.budget = budget;
+    }
+
+    /**
+     * Sets a timer that records each queued command's dispatch time.
+     */
+    public void setDispatchTimer(LatencyHistogram dispatchTimer) {
+        this.dispatchTimer = dispatchTimer;
     }
 
     /**
@@ -93,9 +116,20 @@ public class CommandQueue {
         int executed = 0;
 
         while (executed < maxCommands && !pendingCommands.isEmpty()) {
+            if (budget != null && !budget.tryAcquire(CommandBudget.Lane.QUEUED)) {
+                break;
+            }
             String command = pendingCommands.poll();
             if (command != null) {
+                long start = System.nanoTime();
                 executeImmediately(command);
+                long elapsed = System.nanoTime() - start;
+                if (budget != null) {
+                    budget.record(CommandBudget.Lane.QUEUED, elapsed);
+                }
+                if (dispatchTimer != null) {
+                    dispatchTimer.record(elapsed);
+                }
                 executed++;
             }
         }
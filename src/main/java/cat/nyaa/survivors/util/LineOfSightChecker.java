@@ -1,35 +1,46 @@
 package cat.nyaa.survivors.util;
 
-import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
-import org.bukkit.World;
-import org.bukkit.block.data.BlockData;
-
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Async-safe line-of-sight checker using ChunkSnapshot.
- * Performs 3D Bresenham line traversal to check if path is blocked.
+ * Walks every block the segment passes through (Amanatides-Woo voxel traversal) and stops at
+ * the first opaque one, so diagonal lines cannot slip between blocks.
  *
  * <p>Usage:
  * <ol>
- *   <li>Create checker on main thread via {@link #createForRadius(Location, double)}</li>
- *   <li>Use {@link #hasLineOfSight(Location, Location)} from any thread</li>
+ *   <li>Create checker on main thread via {@link #createForRadius(Location, double)},
+ *       or wrap an existing {@link TerrainSnapshot} via {@link #forTerrain(TerrainSnapshot)}</li>
+ *   <li>Use {@link #hasLineOfSight(Location, Location)} or {@link #findFirstHit(Location, Location)}
+ *       from any thread</li>
  * </ol>
  */
 public class LineOfSightChecker {
 
-    private final Map<ChunkKey, ChunkSnapshot> snapshots;
-    private final int minHeight;
-    private final int maxHeight;
+    /**
+     * Block opacity lookup; blocks that were not captured must report opaque.
+     */
+    @FunctionalInterface
+    interface OcclusionLookup {
+        boolean isOccluding(int x, int y, int z);
+    }
+
+    /**
+     * First opaque block found along a line.
+     */
+    public record BlockHit(int x, int y, int z) {}
+
+    // Returned by the boolean mode so a blocked line allocates nothing
+    private static final BlockHit BLOCKED = new BlockHit(0, 0, 0);
 
-    private record ChunkKey(int x, int z) {}
+    private final TerrainSnapshot terrain;
+    private final OcclusionLookup occlusion;
+    private final int chunkCount;
 
-    private LineOfSightChecker(Map<ChunkKey, ChunkSnapshot> snapshots, int minHeight, int maxHeight) {
-        this.snapshots = snapshots;
-        this.minHeight = minHeight;
-        this.maxHeight = maxHeight;
+    private LineOfSightChecker(TerrainSnapshot terrain, OcclusionLookup occlusion, int chunkCount) {
+        this.terrain = terrain;
+        this.occlusion = occlusion;
+        this.chunkCount = chunkCount;
     }
 
     /**
@@ -41,32 +52,28 @@ public class LineOfSightChecker {
      * @return A new LineOfSightChecker instance
      */
     public static LineOfSightChecker createForRadius(Location center, double radius) {
-        World world = center.getWorld();
-        if (world == null) {
-            throw new IllegalArgumentException("Location must have a valid world");
-        }
-
-        Map<ChunkKey, ChunkSnapshot> snapshots = new HashMap<>();
-
-        int centerX = center.getBlockX();
-        int centerZ = center.getBlockZ();
-        int radiusBlocks = (int) Math.ceil(radius);
-
-        int minChunkX = (centerX - radiusBlocks) >> 4;
-        int maxChunkX = (centerX + radiusBlocks) >> 4;
-        int minChunkZ = (centerZ - radiusBlocks) >> 4;
-        int maxChunkZ = (centerZ + radiusBlocks) >> 4;
+        return forTerrain(TerrainSnapshot.createForRadius(center, radius));
+    }
 
-        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
-            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
-                if (world.isChunkLoaded(cx, cz)) {
-                    ChunkSnapshot snapshot = world.getChunkAt(cx, cz).getChunkSnapshot();
-                    snapshots.put(new ChunkKey(cx, cz), snapshot);
-                }
-            }
+    /**
+     * Creates a checker that reuses already captured terrain.
+     * Safe to call from any thread.
+     *
+     * @param terrain The captured terrain snapshot
+     * @return A new LineOfSightChecker instance
+     */
+    public static LineOfSightChecker forTerrain(TerrainSnapshot terrain) {
+        if (terrain == null) {
+            throw new IllegalArgumentException("Terrain snapshot must not be null");
         }
+        return new LineOfSightChecker(terrain, terrain::isOccluding, terrain.getChunkCount());
+    }
 
-        return new LineOfSightChecker(snapshots, world.getMinHeight(), world.getMaxHeight());
+    /**
+     * Creates a checker over an arbitrary opacity lookup (synthetic terrain in tests and benchmarks).
+     */
+    static LineOfSightChecker forLookup(OcclusionLookup occlusion) {
+        return new LineOfSightChecker(null, occlusion, 0);
     }
 
     /**
@@ -78,51 +85,108 @@ public class LineOfSightChecker {
      * @return true if there's a clear line-of-sight, false if blocked
      */
     public boolean hasLineOfSight(Location from, Location to) {
-        int x0 = from.getBlockX(), y0 = from.getBlockY(), z0 = from.getBlockZ();
-        int x1 = to.getBlockX(), y1 = to.getBlockY(), z1 = to.getBlockZ();
-
-        int dx = Math.abs(x1 - x0);
-        int dy = Math.abs(y1 - y0);
-        int dz = Math.abs(z1 - z0);
-
-        int max = Math.max(dx, Math.max(dy, dz));
-        if (max == 0) return true;
+        return trace(from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ(), false) == null;
+    }
 
-        // Sample at intervals along the line using linear interpolation
-        for (int i = 0; i <= max; i++) {
-            int x = x0 + (x1 - x0) * i / max;
-            int y = y0 + (y1 - y0) * i / max;
-            int z = z0 + (z1 - z0) * i / max;
+    /**
+     * Checks if there's a clear line-of-sight between two points given as raw coordinates.
+     */
+    public boolean hasLineOfSight(double x0, double y0, double z0, double x1, double y1, double z1) {
+        return trace(x0, y0, z0, x1, y1, z1, false) == null;
+    }
 
-            if (isBlockOpaque(x, y, z)) {
-                return false;
-            }
-        }
+    /**
+     * Finds the first opaque block along the line, starting from {@code from}.
+     * Safe to call from async thread.
+     *
+     * @return the blocking block, or null if the line is clear
+     */
+    public BlockHit findFirstHit(Location from, Location to) {
+        return trace(from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ(), true);
+    }
 
-        return true;
+    /**
+     * Finds the first opaque block along a line given as raw coordinates.
+     *
+     * @return the blocking block, or null if the line is clear
+     */
+    public BlockHit findFirstHit(double x0, double y0, double z0, double x1, double y1, double z1) {
+        return trace(x0, y0, z0, x1, y1, z1, true);
     }
 
     /**
-     * Checks if the block at the given coordinates is opaque (blocks light/view).
+     * Visits every block the segment passes through, both end blocks included.
+     * A segment that starts and ends in the same block is always clear.
+     *
+     * @param reportHit return the hit block; otherwise a shared marker is returned
+     * @return null if clear, otherwise the first opaque block
      */
-    private boolean isBlockOpaque(int x, int y, int z) {
-        // Check world height bounds
-        if (y < minHeight || y >= maxHeight) {
-            return false;
-        }
+    private BlockHit trace(double x0, double y0, double z0, double x1, double y1, double z1, boolean reportHit) {
+        int x = floor(x0), y = floor(y0), z = floor(z0);
+        int endX = floor(x1), endY = floor(y1), endZ = floor(z1);
+
+        int steps = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z);
+        if (steps == 0) return null;
+
+        double dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+        int stepX = Integer.signum(endX - x), stepY = Integer.signum(endY - y), stepZ = Integer.signum(endZ - z);
+
+        // Parametric distance (0..1 along the segment) to the next block boundary on each axis,
+        // and between boundaries. Axes already at their end block never step again.
+        double tDeltaX = stepX != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = stepY != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+        double tDeltaZ = stepZ != 0 ? Math.abs(1.0 / dz) : Double.POSITIVE_INFINITY;
+        double tMaxX = stepX != 0 ? ((stepX > 0 ? x + 1 : x) - x0) / dx : Double.POSITIVE_INFINITY;
+        double tMaxY = stepY != 0 ? ((stepY > 0 ? y + 1 : y) - y0) / dy : Double.POSITIVE_INFINITY;
+        double tMaxZ = stepZ != 0 ? ((stepZ > 0 ? z + 1 : z) - z0) / dz : Double.POSITIVE_INFINITY;
+
+        // Current chunk stays cached while the line is inside it
+        int minHeight = terrain != null ? terrain.getMinHeight() : 0;
+        int maxHeight = terrain != null ? terrain.getMaxHeight() : 0;
+        int chunkX = Integer.MIN_VALUE, chunkZ = Integer.MIN_VALUE;
+        ChunkTerrain chunk = null;
+
+        for (int i = 0; ; i++) {
+            boolean opaque;
+            if (terrain == null) {
+                opaque = occlusion.isOccluding(x, y, z);
+            } else if (y < minHeight || y >= maxHeight) {
+                opaque = false;
+            } else {
+                int cx = x >> 4, cz = z >> 4;
+                if (cx != chunkX || cz != chunkZ) {
+                    chunk = terrain.chunkAt(cx, cz);
+                    chunkX = cx;
+                    chunkZ = cz;
+                }
+                // Uncaptured chunks are treated as blocked to be safe
+                opaque = chunk == null || chunk.isOccluding(x & 15, y, z & 15);
+            }
 
-        ChunkKey key = new ChunkKey(x >> 4, z >> 4);
-        ChunkSnapshot snapshot = snapshots.get(key);
-        if (snapshot == null) {
-            // Unloaded chunk - treat as blocked to be safe
-            return true;
-        }
+            if (opaque) {
+                return reportHit ? new BlockHit(x, y, z) : BLOCKED;
+            }
+            if (i == steps) {
+                return null;
+            }
 
-        int localX = x & 15;
-        int localZ = z & 15;
+            // Step along the axis whose boundary is nearest
+            if (tMaxX <= tMaxY && tMaxX <= tMaxZ) {
+                x += stepX;
+                tMaxX = x == endX ? Double.POSITIVE_INFINITY : tMaxX + tDeltaX;
+            } else if (tMaxY <= tMaxZ) {
+                y += stepY;
+                tMaxY = y == endY ? Double.POSITIVE_INFINITY : tMaxY + tDeltaY;
+            } else {
+                z += stepZ;
+                tMaxZ = z == endZ ? Double.POSITIVE_INFINITY : tMaxZ + tDeltaZ;
+            }
+        }
+    }
 
-        BlockData blockData = snapshot.getBlockData(localX, y, localZ);
-        return blockData.getMaterial().isOccluding();
+    private static int floor(double value) {
+        int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
     }
 
     /**
@@ -130,6 +194,6 @@ public class LineOfSightChecker {
      * Useful for debugging and testing.
      */
     public int getChunkCount() {
-        return snapshots.size();
+        return chunkCount;
     }
 }
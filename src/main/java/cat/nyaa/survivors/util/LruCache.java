@@ -0,0 +1,57 @@
+package cat.nyaa.survivors.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small bounded cache that evicts the least recently used entry once full.
+ * Used for values that are costly to derive from a key that repeats often,
+ * such as deserialized text components.
+ *
+ * <p>Not thread-safe.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> map;
+
+    private long hits;
+    private long misses;
+
+    public LruCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached value for a key, computing and caching it if absent.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = map.get(key);
+        if (value != null) {
+            hits++;
+            return value;
+        }
+        misses++;
+        value = loader.apply(key);
+        if (value != null) {
+            map.put(key, value);
+        }
+        return value;
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() { return map.size(); }
+    public int getMaxSize() { return maxSize; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+}
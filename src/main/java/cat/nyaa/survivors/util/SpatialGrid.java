@@ -0,0 +1,156 @@
+package cat.nyaa.survivors.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid over the X/Z plane for range queries on points.
+ * Queries only visit the cells overlapping the query area, so cost depends on
+ * the area and local density rather than the total number of points.
+ *
+ * <p>Not thread-safe. Intended to be rebuilt once per tick on the main thread.
+ *
+ * @param <T> payload stored with each point
+ */
+public class SpatialGrid<T> {
+
+    private final double cellSize;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private int size;
+
+    /**
+     * A point in the grid.
+     */
+    public record Entry<T>(double x, double y, double z, T value) {}
+
+    /**
+     * @param cellSize edge length of a cell in blocks
+     */
+    public SpatialGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds a point.
+     */
+    public void insert(double x, double y, double z, T value) {
+        long key = cellKey(cell(x), cell(z));
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(new Entry<>(x, y, z, value));
+        size++;
+    }
+
+    /**
+     * Removes all points. Cell lists are kept for reuse.
+     */
+    public void clear() {
+        if (cells.size() > 4096) {
+            cells.clear();
+        } else {
+            for (List<Entry<T>> list : cells.values()) {
+                list.clear();
+            }
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ==================== Box Queries ====================
+
+    /**
+     * Counts points inside the axis-aligned box of half-size radius around the center.
+     */
+    public int countInBox(double x, double y, double z, double radius, Predicate<T> filter) {
+        int[] count = {0};
+        forEachInBox(x, y, z, radius, value -> {
+            if (filter == null || filter.test(value)) count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Visits points inside the axis-aligned box of half-size radius around the center.
+     */
+    public void forEachInBox(double x, double y, double z, double radius, Consumer<T> action) {
+        if (size == 0) return;
+
+        int minCellX = cell(x - radius);
+        int maxCellX = cell(x + radius);
+        int minCellZ = cell(z - radius);
+        int maxCellZ = cell(z + radius);
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                List<Entry<T>> list = cells.get(cellKey(cx, cz));
+                if (list == null) continue;
+                for (int i = 0, n = list.size(); i < n; i++) {
+                    Entry<T> entry = list.get(i);
+                    if (Math.abs(entry.x - x) <= radius
+                            && Math.abs(entry.y - y) <= radius
+                            && Math.abs(entry.z - z) <= radius) {
+                        action.accept(entry.value);
+                    }
+                }
+            }
+        }
+    }
+
+    // ==================== Sphere Queries ====================
+
+    /**
+     * Counts points within radius (inclusive) of the center.
+     */
+    public int countInSphere(double x, double y, double z, double radius, Predicate<T> filter) {
+        int[] count = {0};
+        forEachInSphere(x, y, z, radius, value -> {
+            if (filter == null || filter.test(value)) count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Visits points within radius (inclusive) of the center.
+     */
+    public void forEachInSphere(double x, double y, double z, double radius, Consumer<T> action) {
+        if (size == 0) return;
+
+        double radiusSq = radius * radius;
+        int minCellX = cell(x - radius);
+        int maxCellX = cell(x + radius);
+        int minCellZ = cell(z - radius);
+        int maxCellZ = cell(z + radius);
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                List<Entry<T>> list = cells.get(cellKey(cx, cz));
+                if (list == null) continue;
+                for (int i = 0, n = list.size(); i < n; i++) {
+                    Entry<T> entry = list.get(i);
+                    double dx = entry.x - x;
+                    double dy = entry.y - y;
+                    double dz = entry.z - z;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                        action.accept(entry.value);
+                    }
+                }
+            }
+        }
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
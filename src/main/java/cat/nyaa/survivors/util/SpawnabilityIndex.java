@@ -0,0 +1,280 @@
+package cat.nyaa.survivors.util;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Per-world cache of valid standing Y values for each block column.
+ * A standing Y means: ground below is solid, feet and head blocks are passable.
+ *
+ * <p>Columns are built lazily, either from a {@link TerrainSnapshot} (any thread)
+ * or from the live world (main thread only), and dropped per chunk on block change.
+ * Each stored value encodes {@code (y << 1) | dry}, where {@code dry} means
+ * neither feet nor head is in liquid. Values are sorted ascending by Y.
+ */
+public class SpawnabilityIndex {
+
+    /** Marker returned when no standing Y is found. */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    static final int KIND_OPEN = 0;
+    static final int KIND_LIQUID = 1;
+    static final int KIND_SOLID = 2;
+
+    private static final int[] EMPTY_COLUMN = new int[0];
+
+    private final String worldName;
+    private final Map<Long, AtomicReferenceArray<int[]>> chunks = new ConcurrentHashMap<>();
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    public SpawnabilityIndex(String worldName) {
+        this.worldName = worldName;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    // ==================== Column Access ====================
+
+    /**
+     * Gets the standing column at block X/Z, building it from captured terrain if needed.
+     * Safe to call from any thread.
+     *
+     * @return encoded column, or null if the chunk was not captured
+     */
+    public int[] getColumn(TerrainSnapshot terrain, int x, int z) {
+        int[] cached = getCachedColumn(x, z);
+        if (cached != null) return cached;
+
+        ChunkTerrain chunk = terrain.chunkAt(x >> 4, z >> 4);
+        if (chunk == null) return null;
+        ChunkSnapshot snapshot = chunk.getSnapshot();
+
+        int localX = x & 15;
+        int localZ = z & 15;
+        int minY = terrain.getMinHeight();
+        int maxY = terrain.getMaxHeight();
+        int topY = Math.min(maxY, snapshot.getHighestBlockYAt(localX, localZ) + 2);
+
+        int[] column = buildColumn(y -> classify(snapshot.getBlockType(localX, y, localZ)), minY, topY);
+        // Compare against this chunk's own capture; other chunks of the view may be much older
+        return storeColumn(x, z, column, chunk.getCapturedAtNanos());
+    }
+
+    /**
+     * Gets the standing column at block X/Z, building it from the live world if needed.
+     * Main thread only.
+     *
+     * @return encoded column, or null if the chunk is not loaded
+     */
+    public int[] getColumn(World world, int x, int z) {
+        int[] cached = getCachedColumn(x, z);
+        if (cached != null) return cached;
+
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) return null;
+
+        long stamp = System.nanoTime();
+        int minY = world.getMinHeight();
+        int topY = Math.min(world.getMaxHeight(), world.getHighestBlockYAt(x, z) + 2);
+
+        int[] column = buildColumn(y -> classify(world.getBlockAt(x, y, z).getType()), minY, topY);
+        return storeColumn(x, z, column, stamp);
+    }
+
+    int[] getCachedColumn(int x, int z) {
+        AtomicReferenceArray<int[]> columns = chunks.get(chunkKey(x >> 4, z >> 4));
+        return columns != null ? columns.get(columnIndex(x, z)) : null;
+    }
+
+    /**
+     * Stores a column unless the chunk was invalidated after the data was captured.
+     * The stamp is re-checked after the write so a concurrent invalidation never leaves stale data behind.
+     */
+    int[] storeColumn(int x, int z, int[] column, long capturedAt) {
+        long key = chunkKey(x >> 4, z >> 4);
+        if (!isFresh(key, capturedAt)) return column;
+
+        AtomicReferenceArray<int[]> columns = chunks.computeIfAbsent(key, k -> new AtomicReferenceArray<>(256));
+        int index = columnIndex(x, z);
+        columns.compareAndSet(index, null, column);
+
+        if (!isFresh(key, capturedAt)) {
+            columns.compareAndSet(index, column, null);
+        }
+        return column;
+    }
+
+    private boolean isFresh(long key, long capturedAt) {
+        Long invalidated = invalidatedAt.get(key);
+        return invalidated == null || capturedAt - invalidated > 0;
+    }
+
+    // ==================== Invalidation ====================
+
+    /**
+     * Drops all cached columns of a chunk after a block change.
+     * Data captured before this call will not be stored afterwards.
+     */
+    public void invalidateChunk(int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        invalidatedAt.put(key, System.nanoTime());
+        chunks.remove(key);
+    }
+
+    /**
+     * Drops the chunk containing the given block.
+     */
+    public void invalidateBlock(int x, int z) {
+        invalidateChunk(x >> 4, z >> 4);
+    }
+
+    /**
+     * Forgets invalidation stamps older than the oldest capture that may still be stored.
+     * Such a stamp can no longer reject anything, and keeping it would grow the map forever.
+     *
+     * @param oldestCaptureNanos capture stamp of the oldest terrain still in use
+     */
+    public void pruneInvalidations(long oldestCaptureNanos) {
+        invalidatedAt.values().removeIf(stamp -> stamp - oldestCaptureNanos < 0);
+    }
+
+    /**
+     * Returns the number of remembered invalidation stamps.
+     */
+    int getInvalidationCount() {
+        return invalidatedAt.size();
+    }
+
+    /**
+     * Drops all cached data.
+     */
+    public void clear() {
+        chunks.clear();
+        invalidatedAt.clear();
+    }
+
+    /**
+     * Returns the number of chunks with at least one cached column.
+     */
+    public int getCachedChunkCount() {
+        return chunks.size();
+    }
+
+    // ==================== Column Queries ====================
+
+    /**
+     * Finds the standing Y closest to targetY within verticalRange.
+     * Ties prefer the higher Y, matching the at/above-first search order used by spawners.
+     *
+     * @return the standing Y, or {@link #NONE}
+     */
+    public static int nearestStandingY(int[] column, int targetY, int verticalRange) {
+        if (column == null || column.length == 0) return NONE;
+
+        int ceil = lowerBound(column, targetY);
+        int above = ceil < column.length ? decodeY(column[ceil]) : NONE;
+        int below = ceil > 0 ? decodeY(column[ceil - 1]) : NONE;
+
+        int aboveDist = above != NONE ? above - targetY : Integer.MAX_VALUE;
+        int belowDist = below != NONE ? targetY - below : Integer.MAX_VALUE;
+
+        if (aboveDist <= belowDist) {
+            return aboveDist <= verticalRange ? above : NONE;
+        }
+        return belowDist <= verticalRange ? below : NONE;
+    }
+
+    /**
+     * Finds the highest standing Y in the column.
+     *
+     * @param requireDry only accept spots where feet and head are not in liquid
+     * @return the standing Y, or {@link #NONE}
+     */
+    public static int highestStandingY(int[] column, boolean requireDry) {
+        if (column == null) return NONE;
+        for (int i = column.length - 1; i >= 0; i--) {
+            if (!requireDry || isDry(column[i])) {
+                return decodeY(column[i]);
+            }
+        }
+        return NONE;
+    }
+
+    static int decodeY(int encoded) {
+        return encoded >> 1;
+    }
+
+    static boolean isDry(int encoded) {
+        return (encoded & 1) != 0;
+    }
+
+    /**
+     * Index of the first entry with Y >= targetY.
+     */
+    private static int lowerBound(int[] column, int targetY) {
+        int key = targetY << 1;
+        int index = Arrays.binarySearch(column, key);
+        if (index >= 0) return index;
+        return -index - 1;
+    }
+
+    // ==================== Column Building ====================
+
+    /**
+     * Builds an encoded standing column from per-Y block kinds.
+     * Blocks at or above topY are treated as open air.
+     *
+     * @param kindAt block kind lookup ({@link #KIND_OPEN}, {@link #KIND_LIQUID}, {@link #KIND_SOLID})
+     * @param minY lowest block Y of the world
+     * @param topY exclusive upper bound of blocks to read
+     */
+    static int[] buildColumn(IntUnaryOperator kindAt, int minY, int topY) {
+        if (topY <= minY + 1) return EMPTY_COLUMN;
+
+        int[] result = new int[8];
+        int count = 0;
+
+        int ground = kindAt.applyAsInt(minY);
+        int feet = kindAt.applyAsInt(minY + 1);
+        for (int y = minY + 1; y < topY; y++) {
+            int head = y + 1 < topY ? kindAt.applyAsInt(y + 1) : KIND_OPEN;
+
+            if (ground == KIND_SOLID && feet != KIND_SOLID && head != KIND_SOLID) {
+                boolean dry = feet == KIND_OPEN && head == KIND_OPEN;
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = (y << 1) | (dry ? 1 : 0);
+            }
+
+            ground = feet;
+            feet = head;
+        }
+
+        return count == 0 ? EMPTY_COLUMN : Arrays.copyOf(result, count);
+    }
+
+    private static int classify(Material material) {
+        if (material.isSolid()) return KIND_SOLID;
+        if (material == Material.WATER || material == Material.LAVA || material == Material.BUBBLE_COLUMN) {
+            return KIND_LIQUID;
+        }
+        return KIND_OPEN;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int columnIndex(int x, int z) {
+        return ((z & 15) << 4) | (x & 15);
+    }
+}
@@ -4,21 +4,29 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Template engine for expanding command templates with placeholders.
  * Supports placeholders in the format {placeholder_name}.
+ *
+ * <p>Templates are compiled once into literal and placeholder segments and cached
+ * by template string. Hot paths can bind placeholders to a fixed {@link SlotLayout}
+ * and expand from a reusable {@link Slots} array instead of building a map.
  */
 public class TemplateEngine {
 
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{(\\w+)}");
     private static final String DEFAULT_ESCAPE_CHARS = ";&|`$\\";
 
+    // Templates come from config; the cap only guards against unbounded ad-hoc input
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+
     /**
      * Mode for handling missing placeholders.
      */
@@ -37,6 +45,8 @@ public class TemplateEngine {
     private Logger logger;
     private CommandQueue commandQueue;
 
+    private final Map<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+
     /**
      * Sets whether variable escaping is enabled.
      * When enabled, dangerous characters in placeholder values are escaped.
@@ -76,18 +86,58 @@ public class TemplateEngine {
     /**
      * Escapes dangerous characters in a value to prevent command injection.
      */
-    private String escapeValue(String value) {
-        if (value == null || !escapingEnabled || escapeChars.isEmpty()) {
-            return value;
+    private void appendEscaped(StringBuilder sb, String value) {
+        if (!escapingEnabled || escapeChars.isEmpty()) {
+            sb.append(value);
+            return;
         }
-        StringBuilder sb = new StringBuilder(value.length());
-        for (char c : value.toCharArray()) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
             if (escapeChars.indexOf(c) >= 0) {
                 sb.append('\\');
             }
             sb.append(c);
         }
-        return sb.toString();
+    }
+
+    /**
+     * Appends the text for a placeholder that has no value, according to the missing mode.
+     */
+    private void appendMissing(StringBuilder sb, String placeholder) {
+        switch (missingPlaceholderMode) {
+            case EMPTY:
+                break;
+            case ERROR:
+                if (logger != null) {
+                    logger.warning("Missing placeholder in template: {" + placeholder + "}");
+                }
+                sb.append('{').append(placeholder).append('}');
+                break;
+            case KEEP:
+            default:
+                sb.append('{').append(placeholder).append('}');
+                break;
+        }
+    }
+
+    /**
+     * Compiles a template into literal and placeholder segments.
+     * Results are cached by template string.
+     *
+     * @param template the command template with placeholders
+     * @return the compiled template
+     */
+    public CompiledTemplate compile(String template) {
+        if (template == null) template = "";
+        CompiledTemplate compiled = compiledTemplates.get(template);
+        if (compiled != null) return compiled;
+
+        if (compiledTemplates.size() >= MAX_CACHED_TEMPLATES) {
+            compiledTemplates.clear();
+        }
+        compiled = CompiledTemplate.parse(template);
+        compiledTemplates.put(template, compiled);
+        return compiled;
     }
 
     /**
@@ -104,41 +154,60 @@ public class TemplateEngine {
             return template;
         }
 
-        Map<String, Object> safeContext = context != null ? context : Map.of();
-        StringBuffer result = new StringBuffer();
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
-
-        while (matcher.find()) {
-            String placeholder = matcher.group(1);
-            Object value = safeContext.get(placeholder);
-            String replacement;
+        CompiledTemplate compiled = compile(template);
+        if (compiled.names.length == 0) return template;
 
+        Map<String, Object> safeContext = context != null ? context : Map.of();
+        StringBuilder sb = new StringBuilder(compiled.estimatedLength());
+        for (int i = 0; i < compiled.names.length; i++) {
+            sb.append(compiled.literals[i]);
+            Object value = safeContext.get(compiled.names[i]);
             if (value != null) {
                 // Escape the value to prevent command injection
-                replacement = escapeValue(String.valueOf(value));
+                appendEscaped(sb, String.valueOf(value));
             } else {
-                // Handle missing placeholder based on mode
-                switch (missingPlaceholderMode) {
-                    case EMPTY:
-                        replacement = "";
-                        break;
-                    case ERROR:
-                        if (logger != null) {
-                            logger.warning("Missing placeholder in template: {" + placeholder + "}");
-                        }
-                        replacement = matcher.group(0);
-                        break;
-                    case KEEP:
-                    default:
-                        replacement = matcher.group(0);
-                        break;
-                }
+                appendMissing(sb, compiled.names[i]);
             }
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
         }
-        matcher.appendTail(result);
+        sb.append(compiled.literals[compiled.names.length]);
+        return sb.toString();
+    }
 
-        return result.toString();
+    /**
+     * Expands a template from a slot array.
+     * Placeholders not in the slots' layout, or whose slot is unset, are handled
+     * by the missing placeholder mode.
+     *
+     * @param template the command template with placeholders
+     * @param slots    slot values for a fixed layout
+     * @return the expanded command string
+     */
+    public String expandSlots(String template, Slots slots) {
+        if (template == null) return "";
+        return expandSlots(compile(template), slots);
+    }
+
+    /**
+     * Expands a compiled template from a slot array.
+     *
+     * @param template the compiled template
+     * @param slots    slot values for a fixed layout
+     * @return the expanded command string
+     */
+    public String expandSlots(CompiledTemplate template, Slots slots) {
+        if (template.names.length == 0) return template.source;
+
+        int[] binding = template.bind(slots.layout);
+        StringBuilder sb = new StringBuilder(template.estimatedLength());
+        for (int i = 0; i < binding.length; i++) {
+            sb.append(template.literals[i]);
+            int slot = binding[i];
+            if (slot < 0 || !slots.appendTo(sb, slot, this)) {
+                appendMissing(sb, template.names[i]);
+            }
+        }
+        sb.append(template.literals[binding.length]);
+        return sb.toString();
     }
 
     /**
@@ -193,6 +262,229 @@ public class TemplateEngine {
         }
     }
 
+    /**
+     * A template split into literal text and placeholder names.
+     * literals has one more element than names: literals[i] precedes names[i].
+     */
+    public static final class CompiledTemplate {
+        private final String source;
+        private final String[] literals;
+        private final String[] names;
+        private final int literalLength;
+
+        // Last layout this template was bound to; call sites use one static layout each
+        private volatile Binding binding;
+
+        private record Binding(SlotLayout layout, int[] slots) {}
+
+        private CompiledTemplate(String source, String[] literals, String[] names) {
+            this.source = source;
+            this.literals = literals;
+            this.names = names;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        /**
+         * Splits a template on placeholders matching {@code \{(\w+)}}.
+         */
+        static CompiledTemplate parse(String template) {
+            List<String> literals = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+
+            int literalStart = 0;
+            int i = 0;
+            int n = template.length();
+            while (i < n) {
+                if (template.charAt(i) != '{') {
+                    i++;
+                    continue;
+                }
+                int j = i + 1;
+                while (j < n && isWordChar(template.charAt(j))) {
+                    j++;
+                }
+                if (j > i + 1 && j < n && template.charAt(j) == '}') {
+                    literals.add(template.substring(literalStart, i));
+                    names.add(template.substring(i + 1, j));
+                    i = j + 1;
+                    literalStart = i;
+                } else {
+                    i++;
+                }
+            }
+            literals.add(template.substring(literalStart));
+
+            return new CompiledTemplate(template,
+                    literals.toArray(new String[0]), names.toArray(new String[0]));
+        }
+
+        private static boolean isWordChar(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+        }
+
+        /**
+         * Gets the slot index of each placeholder in the layout (-1 if absent).
+         */
+        int[] bind(SlotLayout layout) {
+            Binding current = binding;
+            if (current != null && current.layout == layout) {
+                return current.slots;
+            }
+            int[] slots = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                slots[i] = layout.indexOf(names[i]);
+            }
+            binding = new Binding(layout, slots);
+            return slots;
+        }
+
+        int estimatedLength() {
+            return literalLength + names.length * 8;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * Gets the placeholder names in order of appearance.
+         */
+        public List<String> getPlaceholders() {
+            return List.of(names);
+        }
+    }
+
+    /**
+     * A fixed set of placeholder names, each assigned a slot index.
+     * Create once per call site and keep it in a static field.
+     */
+    public static final class SlotLayout {
+        private final String[] names;
+        private final Map<String, Integer> indices;
+
+        private SlotLayout(String[] names) {
+            this.names = names;
+            Map<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                if (map.put(names[i], i) != null) {
+                    throw new IllegalArgumentException("Duplicate slot name: " + names[i]);
+                }
+            }
+            this.indices = map;
+        }
+
+        /**
+         * Creates a layout; slot indices follow argument order.
+         */
+        public static SlotLayout of(String... names) {
+            return new SlotLayout(names.clone());
+        }
+
+        /**
+         * Gets the slot index of a placeholder name, or -1 if not in this layout.
+         */
+        public int indexOf(String name) {
+            Integer index = indices.get(name);
+            return index != null ? index : -1;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        /**
+         * Creates an empty slot array for this layout.
+         */
+        public Slots newSlots() {
+            return new Slots(this);
+        }
+    }
+
+    /**
+     * Values for a {@link SlotLayout}. Integer slots are appended without boxing.
+     * Reusable: set every slot before each expansion or call {@link #clear()}.
+     * Not thread-safe.
+     */
+    public static final class Slots {
+        private static final byte UNSET = 0;
+        private static final byte TEXT = 1;
+        private static final byte NUMBER = 2;
+
+        private final SlotLayout layout;
+        private final byte[] kinds;
+        private final String[] text;
+        private final long[] numbers;
+
+        private Slots(SlotLayout layout) {
+            this.layout = layout;
+            this.kinds = new byte[layout.size()];
+            this.text = new String[layout.size()];
+            this.numbers = new long[layout.size()];
+        }
+
+        /**
+         * Sets a text slot. A null value leaves the slot unset.
+         */
+        public Slots set(int slot, String value) {
+            if (value == null) {
+                kinds[slot] = UNSET;
+                text[slot] = null;
+            } else {
+                kinds[slot] = TEXT;
+                text[slot] = value;
+            }
+            return this;
+        }
+
+        /**
+         * Sets an integer slot.
+         */
+        public Slots set(int slot, long value) {
+            kinds[slot] = NUMBER;
+            numbers[slot] = value;
+            text[slot] = null;
+            return this;
+        }
+
+        /**
+         * Sets a slot from any value, using its string form. A null value leaves the slot unset.
+         */
+        public Slots set(int slot, Object value) {
+            return set(slot, value != null ? String.valueOf(value) : null);
+        }
+
+        /**
+         * Unsets all slots.
+         */
+        public Slots clear() {
+            Arrays.fill(kinds, UNSET);
+            Arrays.fill(text, null);
+            return this;
+        }
+
+        public SlotLayout getLayout() {
+            return layout;
+        }
+
+        private boolean appendTo(StringBuilder sb, int slot, TemplateEngine engine) {
+            switch (kinds[slot]) {
+                case TEXT:
+                    engine.appendEscaped(sb, text[slot]);
+                    return true;
+                case NUMBER:
+                    // Digits and '-' never need escaping
+                    sb.append(numbers[slot]);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
     /**
      * Builder for creating placeholder contexts.
      */
@@ -0,0 +1,243 @@
+package cat.nyaa.survivors.util;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/**
+ * Read-only view of world terrain backed by ChunkSnapshots.
+ * Answers passable/solid queries without touching live world state.
+ *
+ * <p>Usage:
+ * <ol>
+ *   <li>Capture on main thread via {@link #createForRadius(Location, double)}, or reuse chunks
+ *       from a {@link ChunkSnapshotCache} via {@link #createForRadius(Location, double, ChunkSnapshotCache, long)}</li>
+ *   <li>Query from any thread (snapshots are immutable)</li>
+ * </ol>
+ *
+ * <p>Chunks that were not loaded at capture time are reported as unsafe:
+ * not passable, not solid and occluding.
+ */
+public class TerrainSnapshot {
+
+    // Chunks of the captured rectangle, indexed by (chunkZ - minChunkZ) * width + (chunkX - minChunkX)
+    private final ChunkTerrain[] chunks;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int width;
+    private final int depth;
+    private final int chunkCount;
+    private final String worldName;
+    private final int minHeight;
+    private final int maxHeight;
+    private final long capturedAtNanos;
+
+    private TerrainSnapshot(ChunkTerrain[] chunks, int minChunkX, int minChunkZ, int width, int depth,
+                            String worldName, int minHeight, int maxHeight) {
+        this.chunks = chunks;
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.width = width;
+        this.depth = depth;
+        this.worldName = worldName;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+
+        // Cached chunks may predate this view; the oldest capture bounds every chunk in it
+        int count = 0;
+        long oldest = System.nanoTime();
+        for (ChunkTerrain chunk : chunks) {
+            if (chunk == null) continue;
+            count++;
+            if (chunk.getCapturedAtNanos() - oldest < 0) {
+                oldest = chunk.getCapturedAtNanos();
+            }
+        }
+        this.chunkCount = count;
+        this.capturedAtNanos = oldest;
+    }
+
+    /**
+     * Captures snapshots for all loaded chunks within radius of center.
+     * Unloaded chunks are skipped (never force-loaded).
+     * Must be called from main thread.
+     *
+     * @param center The center location
+     * @param radius The radius in blocks to capture chunks for
+     * @return A new TerrainSnapshot instance
+     */
+    public static TerrainSnapshot createForRadius(Location center, double radius) {
+        World world = requireWorld(center);
+        return capture(center, radius, world, (cx, cz) -> {
+            if (!world.isChunkLoaded(cx, cz)) return null;
+            ChunkSnapshot snapshot = world.getChunkAt(cx, cz).getChunkSnapshot();
+            return new ChunkTerrain(snapshot, world.getMinHeight(), world.getMaxHeight(), 0);
+        });
+    }
+
+    /**
+     * Builds a view of all loaded chunks within radius of center, reusing chunks still valid
+     * in the world's cache. Unloaded chunks are skipped (never force-loaded).
+     * Must be called from main thread.
+     *
+     * @param center The center location
+     * @param radius The radius in blocks to capture chunks for
+     * @param cache  The snapshot cache of the center's world
+     * @param tick   The current server tick
+     * @return A new TerrainSnapshot instance
+     */
+    public static TerrainSnapshot createForRadius(Location center, double radius, ChunkSnapshotCache cache, long tick) {
+        World world = requireWorld(center);
+        return capture(center, radius, world, (cx, cz) -> cache.get(world, cx, cz, tick));
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader {
+        ChunkTerrain load(int chunkX, int chunkZ);
+    }
+
+    private static World requireWorld(Location center) {
+        World world = center.getWorld();
+        if (world == null) {
+            throw new IllegalArgumentException("Location must have a valid world");
+        }
+        return world;
+    }
+
+    private static TerrainSnapshot capture(Location center, double radius, World world, ChunkLoader loader) {
+        int centerX = center.getBlockX();
+        int centerZ = center.getBlockZ();
+        int radiusBlocks = (int) Math.ceil(radius);
+
+        int minChunkX = (centerX - radiusBlocks) >> 4;
+        int maxChunkX = (centerX + radiusBlocks) >> 4;
+        int minChunkZ = (centerZ - radiusBlocks) >> 4;
+        int maxChunkZ = (centerZ + radiusBlocks) >> 4;
+
+        int width = maxChunkX - minChunkX + 1;
+        int depth = maxChunkZ - minChunkZ + 1;
+        ChunkTerrain[] chunks = new ChunkTerrain[width * depth];
+        for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                chunks[(cz - minChunkZ) * width + (cx - minChunkX)] = loader.load(cx, cz);
+            }
+        }
+
+        return new TerrainSnapshot(chunks, minChunkX, minChunkZ, width, depth,
+                world.getName(), world.getMinHeight(), world.getMaxHeight());
+    }
+
+    /**
+     * Builds a view over already captured chunks (synthetic terrain in tests and benchmarks).
+     *
+     * @param chunks chunks of the rectangle, indexed by {@code (chunkZ - minChunkZ) * width + (chunkX - minChunkX)}
+     */
+    static TerrainSnapshot of(String worldName, int minChunkX, int minChunkZ, int width, int depth,
+                              ChunkTerrain[] chunks, int minHeight, int maxHeight) {
+        if (chunks.length != width * depth) {
+            throw new IllegalArgumentException("Expected " + (width * depth) + " chunks, got " + chunks.length);
+        }
+        return new TerrainSnapshot(chunks, minChunkX, minChunkZ, width, depth, worldName, minHeight, maxHeight);
+    }
+
+    /**
+     * Gets a captured chunk by chunk coordinates without allocating, or null if not captured.
+     */
+    ChunkTerrain chunkAt(int chunkX, int chunkZ) {
+        int dx = chunkX - minChunkX;
+        int dz = chunkZ - minChunkZ;
+        if (dx < 0 || dz < 0 || dx >= width || dz >= depth) {
+            return null;
+        }
+        return chunks[dz * width + dx];
+    }
+
+    /**
+     * Checks if the column containing the block coordinates was captured.
+     */
+    public boolean isLoaded(int x, int z) {
+        return chunkAt(x >> 4, z >> 4) != null;
+    }
+
+    /**
+     * Checks if an entity can move through the block (no collision).
+     * Blocks outside the world height are passable; uncaptured chunks are not.
+     */
+    public boolean isPassable(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) {
+            return true;
+        }
+        Material material = getMaterial(x, y, z);
+        return material != null && !material.isSolid();
+    }
+
+    /**
+     * Checks if the block is solid enough to stand on.
+     * Blocks outside the world height and uncaptured chunks are not solid.
+     */
+    public boolean isSolid(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) {
+            return false;
+        }
+        Material material = getMaterial(x, y, z);
+        return material != null && material.isSolid();
+    }
+
+    /**
+     * Checks if the block is opaque (blocks light/view), using the chunk's occlusion bitset.
+     * Blocks outside the world height are transparent; uncaptured chunks are opaque.
+     */
+    public boolean isOccluding(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) {
+            return false;
+        }
+        ChunkTerrain chunk = chunkAt(x >> 4, z >> 4);
+        return chunk == null || chunk.isOccluding(x & 15, y, z & 15);
+    }
+
+    /**
+     * Gets the material at the given block, or null if the chunk was not captured.
+     */
+    private Material getMaterial(int x, int y, int z) {
+        ChunkTerrain chunk = chunkAt(x >> 4, z >> 4);
+        if (chunk == null) {
+            return null;
+        }
+        return chunk.getSnapshot().getBlockType(x & 15, y, z & 15);
+    }
+
+    /**
+     * Gets the raw snapshot for a chunk, or null if not captured.
+     */
+    ChunkSnapshot getChunk(int chunkX, int chunkZ) {
+        ChunkTerrain chunk = chunkAt(chunkX, chunkZ);
+        return chunk != null ? chunk.getSnapshot() : null;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} stamp of the oldest captured chunk.
+     */
+    public long getCapturedAtNanos() {
+        return capturedAtNanos;
+    }
+
+    /**
+     * Returns the number of chunks captured in this snapshot.
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+}
@@ -0,0 +1,379 @@
+package cat.nyaa.survivors.util;
+
+import cat.nyaa.survivors.metrics.LatencyHistogram;
+import cat.nyaa.survivors.metrics.MetricsRegistry;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single per-tick driver for periodic run work (expirations, battery, merchants, countdowns, flashes),
+ * replacing one Bukkit timer per run, team or player.
+ *
+ * <p>Each tick, due jobs are grouped by owner (usually a run) and each owner's jobs run
+ * in {@link Phase} order. Owners take turns going first across ticks. Jobs in deferrable
+ * phases stop for the tick once the tick budget or the owner's budget is spent; they stay
+ * due and run first on the next tick, keeping their period. At least one due job runs
+ * every tick.
+ *
+ * <p>Staggered jobs start at an offset within a short window, chosen to spread jobs of
+ * the same phase and period over different ticks, so runs started together do not all
+ * do their heavy work on the same tick.
+ *
+ * <p>Main thread only.
+ */
+public class TickDriver {
+
+    /**
+     * Job phases, run in this order within an owner's tick.
+     */
+    public enum Phase {
+        /** Timing wheel expirations (timing-sensitive) */
+        EXPIRY(false),
+        /** Team ready countdowns (timing-sensitive) */
+        COUNTDOWN(false),
+        /** Battery spawn attempts and charge updates */
+        BATTERY(true),
+        /** Wandering merchant spawn attempts */
+        MERCHANT(true),
+        /** Spawn loop (keeps its own command budget) */
+        SPAWNER(false),
+        /** Queued kill rewards, applied once per player (timing-sensitive) */
+        REWARD(false),
+        /** Display effects such as scoreboard flashes (timing-sensitive) */
+        DISPLAY(false);
+
+        private final boolean deferrable;
+
+        Phase(boolean deferrable) {
+            this.deferrable = deferrable;
+        }
+
+        /**
+         * Checks if jobs in this phase may be pushed to a later tick when over budget.
+         */
+        public boolean isDeferrable() {
+            return deferrable;
+        }
+    }
+
+    /**
+     * Owner of jobs that do not belong to a run, team or player.
+     */
+    public static final UUID GLOBAL_OWNER = new UUID(0L, 0L);
+
+    /**
+     * A scheduled periodic job.
+     */
+    public static final class Job {
+        private final UUID owner;
+        private final Phase phase;
+        private final int periodTicks;
+        private final Runnable action;
+        private final long sequence;
+        private long nextTick;
+        private boolean cancelled;
+
+        private Job(UUID owner, Phase phase, int periodTicks, Runnable action, long sequence, long nextTick) {
+            this.owner = owner;
+            this.phase = phase;
+            this.periodTicks = periodTicks;
+            this.action = action;
+            this.sequence = sequence;
+            this.nextTick = nextTick;
+        }
+
+        /**
+         * Stops the job; it will not run again.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() { return cancelled; }
+        public UUID getOwner() { return owner; }
+        public Phase getPhase() { return phase; }
+        public int getPeriodTicks() { return periodTicks; }
+    }
+
+    private static final Comparator<Job> DUE_ORDER = Comparator
+            .comparingLong((Job job) -> job.nextTick)
+            .thenComparingLong(job -> job.sequence);
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final IntSupplier tickSupplier;
+    private final LongSupplier clock;
+    private final DoubleSupplier tickBudgetMsSupplier;
+    private final DoubleSupplier ownerBudgetMsSupplier;
+    private final IntSupplier staggerTicksSupplier;
+
+    private final PriorityQueue<Job> queue = new PriorityQueue<>(DUE_ORDER);
+    private final Map<UUID, List<Job>> jobsByOwner = new HashMap<>();
+    private long nextSequence;
+    private int taskId = -1;
+
+    // Last tick's figures, for diagnostics
+    private int lastRunCount;
+    private int lastDeferredCount;
+    private long lastTickNanos;
+
+    // Per-phase job timings and the whole tick, if metrics are set
+    private LatencyHistogram[] phaseTimers;
+    private LatencyHistogram tickTimer;
+
+    /**
+     * Creates a driver ticked by a Bukkit timer.
+     *
+     * @param tickBudgetMsSupplier  milliseconds per tick for deferrable jobs (0 or less = no limit)
+     * @param ownerBudgetMsSupplier milliseconds per tick for one owner's deferrable jobs (0 or less = no limit)
+     * @param staggerTicksSupplier  window for staggered first runs, in ticks
+     */
+    public TickDriver(Plugin plugin, DoubleSupplier tickBudgetMsSupplier,
+                      DoubleSupplier ownerBudgetMsSupplier, IntSupplier staggerTicksSupplier) {
+        this(plugin, plugin.getLogger(), Bukkit::getCurrentTick, System::nanoTime,
+                tickBudgetMsSupplier, ownerBudgetMsSupplier, staggerTicksSupplier);
+    }
+
+    TickDriver(Plugin plugin, Logger logger, IntSupplier tickSupplier, LongSupplier clock,
+               DoubleSupplier tickBudgetMsSupplier, DoubleSupplier ownerBudgetMsSupplier,
+               IntSupplier staggerTicksSupplier) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.tickSupplier = tickSupplier;
+        this.clock = clock;
+        this.tickBudgetMsSupplier = tickBudgetMsSupplier;
+        this.ownerBudgetMsSupplier = ownerBudgetMsSupplier;
+        this.staggerTicksSupplier = staggerTicksSupplier;
+    }
+
+    /**
+     * Records job time per phase ({@code vrs_tick_<phase>_seconds}) and the whole driver tick.
+     */
+    public void setMetrics(MetricsRegistry registry) {
+        LatencyHistogram[] timers = new LatencyHistogram[Phase.values().length];
+        for (Phase phase : Phase.values()) {
+            String name = phase.name().toLowerCase(Locale.ROOT);
+            timers[phase.ordinal()] = registry.timer("vrs_tick_" + name + "_seconds",
+                    "Tick driver jobs in the " + name + " phase");
+        }
+        phaseTimers = timers;
+        tickTimer = registry.timer("vrs_tick_driver_seconds", "Tick driver, all jobs of one tick");
+    }
+
+    /**
+     * Starts the driver's timer.
+     */
+    public void start() {
+        if (taskId != -1) {
+            return; // Already running
+        }
+        taskId = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1).getTaskId();
+    }
+
+    /**
+     * Stops the driver's timer and drops all jobs.
+     */
+    public void stop() {
+        if (taskId != -1) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+        for (Job job : queue) {
+            job.cancelled = true;
+        }
+        queue.clear();
+        jobsByOwner.clear();
+    }
+
+    /**
+     * Schedules a periodic job, like a Bukkit timer.
+     *
+     * @param delayTicks  ticks until the first run (at least 1)
+     * @param periodTicks ticks between runs (at least 1)
+     */
+    public Job schedule(UUID owner, Phase phase, int delayTicks, int periodTicks, Runnable action) {
+        return add(owner, phase, Math.max(1, delayTicks), periodTicks, action);
+    }
+
+    /**
+     * Schedules a periodic job whose first run is moved by up to the stagger window
+     * to the tick with the fewest jobs of the same phase and period.
+     */
+    public Job scheduleStaggered(UUID owner, Phase phase, int delayTicks, int periodTicks, Runnable action) {
+        int period = Math.max(1, periodTicks);
+        int window = Math.max(1, Math.min(period, staggerTicksSupplier.getAsInt()));
+        long first = currentTick() + Math.max(1, delayTicks);
+
+        // Count jobs of the same kind per slot (tick modulo period)
+        int[] load = new int[window];
+        for (Job job : queue) {
+            if (job.cancelled || job.phase != phase || job.periodTicks != period) continue;
+            long slot = Math.floorMod(job.nextTick - first, (long) period);
+            if (slot < window) {
+                load[(int) slot]++;
+            }
+        }
+
+        int offset = 0;
+        for (int i = 1; i < window; i++) {
+            if (load[i] < load[offset]) {
+                offset = i;
+            }
+        }
+        return add(owner, phase, Math.max(1, delayTicks) + offset, period, action);
+    }
+
+    private Job add(UUID owner, Phase phase, int delayTicks, int periodTicks, Runnable action) {
+        UUID jobOwner = owner != null ? owner : GLOBAL_OWNER;
+        Job job = new Job(jobOwner, phase, Math.max(1, periodTicks), action, nextSequence++,
+                currentTick() + delayTicks);
+        queue.add(job);
+        jobsByOwner.computeIfAbsent(jobOwner, k -> new ArrayList<>()).add(job);
+        return job;
+    }
+
+    /**
+     * Cancels every job of an owner.
+     */
+    public void cancelAll(UUID owner) {
+        List<Job> jobs = jobsByOwner.remove(owner);
+        if (jobs != null) {
+            for (Job job : jobs) {
+                job.cancelled = true;
+            }
+        }
+    }
+
+    /**
+     * Runs the jobs due this tick.
+     */
+    void tick() {
+        long now = currentTick();
+        long tickStart = clock.getAsLong();
+        long tickBudget = toNanos(tickBudgetMsSupplier.getAsDouble());
+        long ownerBudget = toNanos(ownerBudgetMsSupplier.getAsDouble());
+
+        // Collect due jobs per owner; owners with the oldest due job (deferred) come first
+        Map<UUID, List<Job>> due = new LinkedHashMap<>();
+        while (!queue.isEmpty() && queue.peek().nextTick <= now) {
+            Job job = queue.poll();
+            if (job.cancelled) {
+                forget(job);
+                continue;
+            }
+            due.computeIfAbsent(job.owner, k -> new ArrayList<>()).add(job);
+        }
+
+        List<List<Job>> owners = new ArrayList<>(due.values());
+        rotate(owners, now);
+
+        int ran = 0;
+        int deferred = 0;
+        long usedNanos = 0;
+        for (List<Job> jobs : owners) {
+            jobs.sort(Comparator.comparing((Job job) -> job.phase).thenComparingLong(job -> job.sequence));
+            long ownerUsed = 0;
+            for (Job job : jobs) {
+                if (job.cancelled) {
+                    forget(job);
+                    continue;
+                }
+
+                boolean overBudget = (tickBudget > 0 && usedNanos >= tickBudget)
+                        || (ownerBudget > 0 && ownerUsed >= ownerBudget);
+                if (job.phase.isDeferrable() && overBudget && ran > 0) {
+                    // Keep it due; it sorts ahead of newer jobs next tick
+                    queue.add(job);
+                    deferred++;
+                    continue;
+                }
+
+                long start = clock.getAsLong();
+                try {
+                    job.action.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Tick job failed (" + job.phase + ", owner " + job.owner + ")", e);
+                }
+                long elapsed = clock.getAsLong() - start;
+                if (phaseTimers != null) {
+                    phaseTimers[job.phase.ordinal()].record(elapsed);
+                }
+                ran++;
+                if (job.phase.isDeferrable()) {
+                    usedNanos += elapsed;
+                    ownerUsed += elapsed;
+                }
+
+                if (job.cancelled) {
+                    forget(job);
+                } else {
+                    // Keep the cadence, but never schedule into the past after a deferral
+                    job.nextTick = Math.max(job.nextTick + job.periodTicks, now + 1);
+                    queue.add(job);
+                }
+            }
+        }
+
+        lastRunCount = ran;
+        lastDeferredCount = deferred;
+        lastTickNanos = clock.getAsLong() - tickStart;
+        if (tickTimer != null) {
+            tickTimer.record(lastTickNanos);
+        }
+    }
+
+    /**
+     * Orders owners so the ones holding deferred jobs go first, then rotates the rest by
+     * tick so no owner is always first.
+     */
+    private static void rotate(List<List<Job>> owners, long now) {
+        if (owners.size() < 2) return;
+
+        int deferredOwners = 0;
+        for (int i = 0; i < owners.size(); i++) {
+            if (owners.get(i).get(0).nextTick < now) {
+                Collections.swap(owners, i, deferredOwners++);
+            }
+        }
+        List<List<Job>> rest = owners.subList(deferredOwners, owners.size());
+        if (rest.size() > 1) {
+            Collections.rotate(rest, (int) (now % rest.size()));
+        }
+    }
+
+    private void forget(Job job) {
+        List<Job> jobs = jobsByOwner.get(job.owner);
+        if (jobs != null) {
+            jobs.remove(job);
+            if (jobs.isEmpty()) {
+                jobsByOwner.remove(job.owner);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of scheduled jobs, including cancelled ones not yet dropped.
+     */
+    public int getJobCount() {
+        return queue.size();
+    }
+
+    public int getLastRunCount() { return lastRunCount; }
+    public int getLastDeferredCount() { return lastDeferredCount; }
+    public long getLastTickNanos() { return lastTickNanos; }
+
+    private long currentTick() {
+        return tickSupplier.getAsInt();
+    }
+
+    private static long toNanos(double ms) {
+        return ms > 0 ? (long) (ms * 1_000_000L) : 0;
+    }
+}
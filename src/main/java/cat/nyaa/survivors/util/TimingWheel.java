@@ -0,0 +1,256 @@
+package cat.nyaa.survivors.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hierarchical timing wheel for wall-clock deadlines (grace periods, cooldowns, upgrade
+ * deadlines, suppression windows, merchant lifetimes).
+ *
+ * <p>Deadlines are bucketed by tick ({@code resolutionMillis}) into four levels of 64 slots;
+ * level {@code n} slots span {@code 64^n} ticks. Each advanced tick visits one level-0 slot,
+ * and every 64 ticks one higher-level slot is cascaded down. The cost of a tick is therefore
+ * proportional to what expires (plus the occasional cascade), not to everything tracked.
+ * Deadlines past the top level wait in it and are re-placed on each cascade.
+ *
+ * <p>Callbacks fire on the thread that calls {@link #advance()} (the main thread), at the
+ * first tick at or after the deadline, so never early and at most one tick late. They should
+ * still re-check the state they act on, since the deadline they were scheduled for may have
+ * been moved or cleared in the meantime.
+ *
+ * <p>{@link #schedule} and {@link Timeout#cancel()} are safe from any thread: new timeouts are
+ * queued and placed on the next advance, and cancelled ones are dropped when reached.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * A scheduled deadline.
+     */
+    public static final class Timeout {
+        private final long deadlineMillis;
+        private final Runnable task;
+        private long expiryTick;
+        private Timeout next;
+        private volatile boolean cancelled;
+
+        private Timeout(long deadlineMillis, Runnable task) {
+            this.deadlineMillis = deadlineMillis;
+            this.task = task;
+        }
+
+        /**
+         * Cancels the timeout; its callback will not run.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() { return cancelled; }
+        public long getDeadlineMillis() { return deadlineMillis; }
+    }
+
+    private final Logger logger;
+    private final LongSupplier clock;
+    private final long resolutionMillis;
+
+    // slots[level][index] is the head of a singly linked list of timeouts
+    private final Timeout[][] slots = new Timeout[LEVELS][SLOTS];
+    private final Queue<Timeout> inbox = new ConcurrentLinkedQueue<>();
+
+    // Last tick processed; timeouts are placed relative to it
+    private long currentTick;
+    private int placedCount;
+    private TickDriver.Job job;
+
+    // Figures for diagnostics
+    private int lastFiredCount;
+    private long firedTotal;
+
+    /**
+     * Creates a wheel on the system clock.
+     *
+     * @param resolutionMillis tick length in milliseconds (one server tick is 50)
+     */
+    public TimingWheel(Logger logger, long resolutionMillis) {
+        this(logger, System::currentTimeMillis, resolutionMillis);
+    }
+
+    TimingWheel(Logger logger, LongSupplier clock, long resolutionMillis) {
+        this.logger = logger;
+        this.clock = clock;
+        this.resolutionMillis = Math.max(1, resolutionMillis);
+        this.currentTick = Math.floorDiv(clock.getAsLong(), this.resolutionMillis);
+    }
+
+    /**
+     * Advances the wheel every tick from a tick driver job.
+     */
+    public void start(TickDriver driver) {
+        if (job != null) {
+            return; // Already running
+        }
+        job = driver.schedule(TickDriver.GLOBAL_OWNER, TickDriver.Phase.EXPIRY, 1, 1, this::advance);
+    }
+
+    /**
+     * Stops advancing and drops all timeouts without running them.
+     */
+    public void stop() {
+        if (job != null) {
+            job.cancel();
+            job = null;
+        }
+        clear();
+    }
+
+    /**
+     * Schedules a callback at a wall-clock deadline.
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(deadlineMillis, task);
+        inbox.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Schedules a callback after a delay from now.
+     */
+    public Timeout scheduleAfter(long delayMillis, Runnable task) {
+        return schedule(clock.getAsLong() + Math.max(0, delayMillis), task);
+    }
+
+    /**
+     * Advances to the current time and runs every callback whose deadline has passed.
+     *
+     * @return the number of callbacks run
+     */
+    public int advance() {
+        // Place timeouts scheduled since the last advance
+        Timeout queued;
+        while ((queued = inbox.poll()) != null) {
+            if (!queued.cancelled) {
+                long tick = Math.floorDiv(queued.deadlineMillis + resolutionMillis - 1, resolutionMillis);
+                queued.expiryTick = Math.max(tick, currentTick + 1);
+                place(queued, currentTick);
+            }
+        }
+
+        int fired = 0;
+        long targetTick = Math.floorDiv(clock.getAsLong(), resolutionMillis);
+        while (currentTick < targetTick) {
+            long tick = ++currentTick;
+            cascade(tick);
+
+            int index = (int) (tick & SLOT_MASK);
+            Timeout timeout = slots[0][index];
+            slots[0][index] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                placedCount--;
+                if (!timeout.cancelled) {
+                    fired++;
+                    run(timeout);
+                }
+                timeout = next;
+            }
+        }
+
+        lastFiredCount = fired;
+        firedTotal += fired;
+        return fired;
+    }
+
+    /**
+     * Moves the slots that come due at this tick down a level, highest level first.
+     */
+    private void cascade(long tick) {
+        if ((tick & SLOT_MASK) != 0) return;
+
+        int top = 1;
+        while (top < LEVELS - 1 && ((tick >>> (SLOT_BITS * top)) & SLOT_MASK) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Timeout timeout = slots[level][index];
+            slots[level][index] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                placedCount--;
+                if (!timeout.cancelled) {
+                    place(timeout, tick);
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Puts a timeout in the lowest level whose range covers it, measured from a base tick.
+     */
+    private void place(Timeout timeout, long baseTick) {
+        long delta = timeout.expiryTick - baseTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        int index;
+        if (delta >= (1L << (SLOT_BITS * LEVELS))) {
+            // Beyond the top level: park in the top slot that cascades last
+            index = (int) ((baseTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        } else {
+            index = (int) ((timeout.expiryTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+        timeout.next = slots[level][index];
+        slots[level][index] = timeout;
+        placedCount++;
+    }
+
+    private void run(Timeout timeout) {
+        try {
+            timeout.task.run();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Timeout callback failed", e);
+        }
+    }
+
+    /**
+     * Drops all timeouts without running them.
+     */
+    public void clear() {
+        for (Timeout[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                for (Timeout timeout = level[i]; timeout != null; timeout = timeout.next) {
+                    timeout.cancelled = true;
+                }
+                level[i] = null;
+            }
+        }
+        Timeout queued;
+        while ((queued = inbox.poll()) != null) {
+            queued.cancelled = true;
+        }
+        placedCount = 0;
+    }
+
+    /**
+     * Gets the number of pending timeouts, including cancelled ones not yet dropped.
+     */
+    public int getPendingCount() {
+        return placedCount + inbox.size();
+    }
+
+    public int getLastFiredCount() { return lastFiredCount; }
+    public long getFiredTotal() { return firedTotal; }
+}
@@ -0,0 +1,140 @@
+package cat.nyaa.survivors.i18n;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MessageTemplate.
+ * Rendering is compared against the string replacement I18nService used before templates.
+ */
+class MessageTemplateTest {
+
+    private static final List<String> MESSAGES = List.of(
+            "&7Plain message",
+            "§7金币 §f{total} §8(§a+{run}§8)",
+            "&aLevel {level} &7- {level}!",
+            "{0} joined {1}",
+            "&e{player} &7dealt &c{amount} &7to {0}",
+            "Unclosed {brace and {name}",
+            "Nested {{name}}",
+            "Empty {} and {missing}",
+            "{name}{name}{name}",
+            "Tail {"
+    );
+
+    /**
+     * The replacement logic I18nService used before templates.
+     */
+    private static String reference(String message, Object... args) {
+        if (args != null && args.length > 0) {
+            for (int i = 0; i < args.length; i++) {
+                message = message.replace("{" + i + "}", String.valueOf(args[i]));
+            }
+            if (args.length >= 2 && args.length % 2 == 0) {
+                for (int i = 0; i < args.length; i += 2) {
+                    if (args[i] instanceof String key) {
+                        message = message.replace("{" + key + "}", String.valueOf(args[i + 1]));
+                    }
+                }
+            }
+        }
+        return message.replace('&', '§');
+    }
+
+    private static void assertParity(Object... args) {
+        for (String message : MESSAGES) {
+            assertEquals(reference(message, args), MessageTemplate.compile(message).render(args),
+                    "message: " + message);
+        }
+    }
+
+    @Nested
+    @DisplayName("Rendering Parity")
+    class RenderingParity {
+
+        @Test
+        @DisplayName("should match replacement without arguments")
+        void shouldMatchWithoutArgs() {
+            assertParity();
+        }
+
+        @Test
+        @DisplayName("should match replacement with named arguments")
+        void shouldMatchNamedArgs() {
+            assertParity("total", 20, "run", 3);
+            assertParity("level", 5, "player", "Alice", "amount", 12, "name", "cats");
+        }
+
+        @Test
+        @DisplayName("should match replacement with indexed arguments")
+        void shouldMatchIndexedArgs() {
+            assertParity("Alice", "team");
+            assertParity("Alice");
+            assertParity("Alice", "team", "third");
+        }
+
+        @Test
+        @DisplayName("should match replacement when indexed and named slots mix")
+        void shouldMatchMixedArgs() {
+            assertParity("player", "Alice", "amount", 7);
+        }
+
+        @Test
+        @DisplayName("should convert color codes in inserted values")
+        void shouldColorInsertedValues() {
+            assertParity("player", "&cRed", "level", null);
+        }
+
+        @Test
+        @DisplayName("should use the first value of a repeated key")
+        void shouldUseFirstRepeatedKey() {
+            assertParity("level", 1, "level", 2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Compilation")
+    class Compilation {
+
+        @Test
+        @DisplayName("should treat messages without placeholders as static")
+        void shouldDetectStaticMessages() {
+            assertTrue(MessageTemplate.compile("&7Static").isStatic());
+            assertFalse(MessageTemplate.compile("&7{x}").isStatic());
+            assertTrue(MessageTemplate.compile("Empty {}").isStatic());
+        }
+
+        @Test
+        @DisplayName("should keep the raw text and precompute the colored text")
+        void shouldKeepRawAndColoredText() {
+            MessageTemplate template = MessageTemplate.compile("&7Hi {name}");
+
+            assertEquals("&7Hi {name}", template.getRaw());
+            assertEquals("§7Hi {name}", template.getText());
+        }
+
+        @Test
+        @DisplayName("should render named placeholders from a map")
+        void shouldRenderFromMap() {
+            Map<String, Object> placeholders = new LinkedHashMap<>();
+            placeholders.put("player", "Alice");
+            placeholders.put("amount", 3);
+
+            assertEquals("§eAlice §7dealt §c3 §7to {0}",
+                    MessageTemplate.compile("&e{player} &7dealt &c{amount} &7to {0}").render(placeholders));
+        }
+
+        @Test
+        @DisplayName("should treat null as empty")
+        void shouldTreatNullAsEmpty() {
+            assertEquals("", MessageTemplate.compile(null).render("a", 1));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package cat.nyaa.survivors.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the custom JFR events.
+ */
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("should record events with their fields when enabled")
+    void shouldRecordEventsWhenEnabled() throws Exception {
+        Path file = tempDir.resolve("vrs.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("cat.nyaa.survivors.SpawnPlan");
+            recording.enable("cat.nyaa.survivors.SpawnDispatch").withThreshold(Duration.ZERO);
+            recording.start();
+
+            JfrEvents.SpawnPlan plan = new JfrEvents.SpawnPlan();
+            plan.begin();
+            assertTrue(plan.shouldCommit());
+            plan.contexts = 3;
+            plan.plans = 7;
+            plan.commit();
+
+            JfrEvents.SpawnDispatch dispatch = new JfrEvents.SpawnDispatch();
+            dispatch.begin();
+            dispatch.runId = "run";
+            dispatch.archetypeId = "zombie";
+            dispatch.commands = 2;
+            dispatch.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent plan = events.stream()
+                .filter(e -> e.getEventType().getName().equals("cat.nyaa.survivors.SpawnPlan"))
+                .findFirst().orElseThrow();
+        assertEquals(3, plan.getInt("contexts"));
+        assertEquals(7, plan.getInt("plans"));
+
+        RecordedEvent dispatch = events.stream()
+                .filter(e -> e.getEventType().getName().equals("cat.nyaa.survivors.SpawnDispatch"))
+                .findFirst().orElseThrow();
+        assertEquals("zombie", dispatch.getString("archetypeId"));
+        assertEquals(2, dispatch.getInt("commands"));
+    }
+
+    @Test
+    @DisplayName("should not commit when no recording enables the event")
+    void shouldNotCommitWithoutRecording() {
+        JfrEvents.RunEnd event = new JfrEvents.RunEnd();
+        event.begin();
+        assertFalse(event.shouldCommit());
+    }
+}
@@ -0,0 +1,143 @@
+package cat.nyaa.survivors.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MetricsRegistry and LatencyHistogram.
+ */
+class MetricsRegistryTest {
+
+    @Nested
+    @DisplayName("Latency histogram")
+    class Histogram {
+
+        @Test
+        @DisplayName("should place every value inside its bucket's bounds")
+        void shouldPlaceValuesInsideBucketBounds() {
+            long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 100, 1_000, 123_456, 50_000_000L, 1L << 40};
+            for (long value : values) {
+                int index = LatencyHistogram.bucketIndex(value);
+                assertTrue(LatencyHistogram.bucketLowerBound(index) <= value, "lower bound of " + value);
+                assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, "upper bound of " + value);
+            }
+        }
+
+        @Test
+        @DisplayName("should keep buckets contiguous")
+        void shouldKeepBucketsContiguous() {
+            for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++) {
+                assertEquals(LatencyHistogram.bucketUpperBound(i) + 1, LatencyHistogram.bucketLowerBound(i + 1));
+            }
+        }
+
+        @Test
+        @DisplayName("should put very large values in the last bucket")
+        void shouldClampLargeValues() {
+            assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        }
+
+        @Test
+        @DisplayName("should report quantiles within the bucket precision")
+        void shouldReportQuantilesWithinPrecision() {
+            LatencyHistogram timer = new MetricsRegistry().timer("t_seconds", "");
+            for (long v = 1; v <= 1000; v++) {
+                timer.record(v * 1_000L);
+            }
+
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            assertEquals(1000, snapshot.getCount());
+            assertEquals(1_000_000L, snapshot.getMaxNanos());
+            assertEquals(500_500_000L, snapshot.getSumNanos());
+            assertEquals(500_000.0, snapshot.getValueAtQuantile(0.5), 500_000 * 0.125);
+            assertEquals(990_000.0, snapshot.getValueAtQuantile(0.99), 990_000 * 0.125);
+            assertEquals(1_000_000L, snapshot.getValueAtQuantile(1.0));
+        }
+
+        @Test
+        @DisplayName("should report zero when empty")
+        void shouldReportZeroWhenEmpty() {
+            LatencyHistogram.Snapshot snapshot = new MetricsRegistry().timer("t_seconds", "").snapshot();
+            assertEquals(0, snapshot.getCount());
+            assertEquals(0L, snapshot.getValueAtQuantile(0.99));
+            assertEquals(0.0, snapshot.getMeanNanos());
+        }
+    }
+
+    @Nested
+    @DisplayName("Registry")
+    class Registry {
+
+        @Test
+        @DisplayName("should return the same metric for the same name")
+        void shouldReuseMetricsByName() {
+            MetricsRegistry registry = new MetricsRegistry();
+            assertSame(registry.timer("a_seconds", "A"), registry.timer("a_seconds", "A again"));
+            assertSame(registry.counter("b_total", "B"), registry.counter("b_total", "B again"));
+        }
+
+        @Test
+        @DisplayName("should ignore recordings while disabled")
+        void shouldIgnoreRecordingsWhileDisabled() {
+            MetricsRegistry registry = new MetricsRegistry();
+            LatencyHistogram timer = registry.timer("a_seconds", "");
+            Counter counter = registry.counter("b_total", "");
+
+            registry.setEnabled(false);
+            timer.record(100);
+            counter.increment();
+            registry.setEnabled(true);
+            timer.record(200);
+            counter.add(2);
+
+            assertEquals(1, timer.snapshot().getCount());
+            assertEquals(2, counter.get());
+        }
+
+        @Test
+        @DisplayName("should clear counters and timers on reset")
+        void shouldClearOnReset() {
+            MetricsRegistry registry = new MetricsRegistry();
+            LatencyHistogram timer = registry.timer("a_seconds", "");
+            Counter counter = registry.counter("b_total", "");
+            timer.record(100);
+            counter.increment();
+
+            registry.reset();
+
+            assertEquals(0, timer.snapshot().getCount());
+            assertEquals(0, timer.snapshot().getMaxNanos());
+            assertEquals(0, counter.get());
+        }
+
+        @Test
+        @DisplayName("should render the Prometheus text format")
+        void shouldRenderPrometheusText() {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.counter("vrs_things_total", "Things").add(3);
+            registry.gauge("vrs_level", "Level", () -> 2);
+            registry.timer("vrs_work_seconds", "Work").record(2_000_000_000L);
+
+            String text = registry.toPrometheusText();
+
+            assertTrue(text.contains("# HELP vrs_things_total Things\n# TYPE vrs_things_total counter\nvrs_things_total 3\n"));
+            assertTrue(text.contains("# TYPE vrs_level gauge\nvrs_level 2.0\n"));
+            assertTrue(text.contains("# TYPE vrs_work_seconds summary\n"));
+            assertTrue(text.contains("vrs_work_seconds{quantile=\"0.99\"} 2.0\n"));
+            assertTrue(text.contains("vrs_work_seconds_sum 2.0\n"));
+            assertTrue(text.contains("vrs_work_seconds_count 1\n"));
+        }
+
+        @Test
+        @DisplayName("should render NaN for a failing gauge")
+        void shouldRenderNanForFailingGauge() {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.gauge("vrs_broken", "", () -> { throw new IllegalStateException(); });
+
+            assertTrue(registry.toPrometheusText().contains("vrs_broken NaN\n"));
+        }
+    }
+}
@@ -286,4 +286,49 @@ class PlayerStateTest {
             assertEquals(0, playerState.getXpProgress());
         }
     }
+
+    @Nested
+    @DisplayName("Dirty Version")
+    class DirtyVersion {
+
+        @Test
+        @DisplayName("should change when a persisted field changes")
+        void shouldChangeOnPersistedField() {
+            long before = playerState.getDirtyVersion();
+            playerState.setPermaScore(10);
+            assertNotEquals(before, playerState.getDirtyVersion());
+
+            before = playerState.getDirtyVersion();
+            playerState.setBalance(5);
+            assertNotEquals(before, playerState.getDirtyVersion());
+        }
+
+        @Test
+        @DisplayName("should change when stats change")
+        void shouldChangeOnStats() {
+            long before = playerState.getDirtyVersion();
+            playerState.getStats().incrementTotalKills();
+            assertNotEquals(before, playerState.getDirtyVersion());
+        }
+
+        @Test
+        @DisplayName("should not change when a stat update does not improve the record")
+        void shouldNotChangeOnIgnoredStatUpdate() {
+            playerState.getStats().updateLongestKillStreak(10);
+            long before = playerState.getDirtyVersion();
+
+            playerState.getStats().updateLongestKillStreak(5);
+            assertEquals(before, playerState.getDirtyVersion());
+        }
+
+        @Test
+        @DisplayName("should not change for run-only fields")
+        void shouldNotChangeOnRunOnlyFields() {
+            long before = playerState.getDirtyVersion();
+            playerState.setXpProgress(50);
+            playerState.setWeaponLevel(2);
+            playerState.setReady(true);
+            assertEquals(before, playerState.getDirtyVersion());
+        }
+    }
 }
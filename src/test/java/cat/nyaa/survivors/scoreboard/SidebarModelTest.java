@@ -0,0 +1,185 @@
+package cat.nyaa.survivors.scoreboard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SidebarModel.
+ */
+class SidebarModelTest {
+
+    private static final int LEVEL = 0;
+    private static final int TEAM = 1;
+    private static final int TIME = 2;
+
+    private SidebarModel model;
+    private int renders;
+
+    @BeforeEach
+    void setUp() {
+        model = new SidebarModel();
+        renders = 0;
+    }
+
+    /**
+     * Renders a small three-segment layout, counting segment renders.
+     */
+    private void render(int level, String team, long seconds) {
+        model.begin(1, 3);
+        if (model.isStale(LEVEL, level)) {
+            renders++;
+            model.addLine(LEVEL, "Level " + level);
+        }
+        if (model.isStale(TEAM, team != null ? 1 : 0, 0, 0, team) && team != null) {
+            renders++;
+            model.addLine(TEAM, "Team " + team);
+        }
+        if (model.isStale(TIME, seconds)) {
+            renders++;
+            model.addLine(TIME, "Time " + seconds);
+        }
+    }
+
+    /**
+     * Collects the indices that would be sent, then commits.
+     */
+    private List<Integer> send() {
+        List<Integer> sent = new ArrayList<>();
+        if (!model.hasChanges()) return sent;
+        List<String> lines = model.assemble();
+        for (int i = 0; i < lines.size(); i++) {
+            if (model.isResized() || model.isLineChanged(i)) {
+                sent.add(i);
+            }
+        }
+        model.commit();
+        return sent;
+    }
+
+    @Nested
+    @DisplayName("Segment Rendering")
+    class SegmentRendering {
+
+        @Test
+        @DisplayName("should render every segment the first time")
+        void shouldRenderAllFirstTime() {
+            render(1, "cats", 0);
+
+            assertEquals(3, renders);
+            assertEquals(List.of(0, 1, 2), send());
+            assertEquals(List.of("Level 1", "Team cats", "Time 0"), model.getSentLines());
+        }
+
+        @Test
+        @DisplayName("should only re-render segments whose inputs changed")
+        void shouldOnlyRenderChangedSegments() {
+            render(1, "cats", 0);
+            send();
+            renders = 0;
+
+            render(1, "cats", 1);
+
+            assertEquals(1, renders);
+            assertEquals(List.of(2), send());
+        }
+
+        @Test
+        @DisplayName("should report nothing when no input changed")
+        void shouldReportNothingWhenUnchanged() {
+            render(1, "cats", 0);
+            send();
+            renders = 0;
+
+            render(1, "cats", 0);
+
+            assertEquals(0, renders);
+            assertFalse(model.hasChanges());
+            assertTrue(send().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should compare reference inputs by equality")
+        void shouldCompareRefsByEquality() {
+            render(1, "cats", 0);
+            send();
+            renders = 0;
+
+            render(1, new String("cats"), 0);
+            assertEquals(0, renders);
+
+            render(1, "dogs", 0);
+            assertEquals(1, renders);
+            assertEquals(List.of(1), send());
+        }
+
+        @Test
+        @DisplayName("should re-render everything after invalidate but send only changed text")
+        void shouldRenderAllAfterInvalidate() {
+            render(1, "cats", 0);
+            send();
+            renders = 0;
+
+            model.invalidate();
+            render(1, "cats", 0);
+
+            assertEquals(3, renders);
+            assertTrue(send().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should re-render everything when the layout changes")
+        void shouldRenderAllOnLayoutChange() {
+            render(1, "cats", 0);
+            send();
+            renders = 0;
+
+            model.begin(2, 1);
+            assertTrue(model.isStale(0, 1));
+            model.addLine(0, "Lobby");
+
+            assertEquals(List.of("Lobby"), model.assemble());
+            assertTrue(model.isResized());
+        }
+    }
+
+    @Nested
+    @DisplayName("Line Diffing")
+    class LineDiffing {
+
+        @Test
+        @DisplayName("should send all lines when a segment adds or removes lines")
+        void shouldSendAllWhenResized() {
+            render(1, "cats", 0);
+            send();
+
+            render(1, null, 0);
+
+            assertEquals(List.of(0, 1), send());
+            assertEquals(List.of("Level 1", "Time 0"), model.getSentLines());
+        }
+
+        @Test
+        @DisplayName("should not send a re-rendered line with unchanged text")
+        void shouldNotSendUnchangedText() {
+            model.begin(1, 1);
+            model.isStale(0, 10, 0, 0, null);
+            model.addLine(0, "Same");
+            send();
+
+            // Input changed, rendered text did not
+            model.begin(1, 1);
+            assertTrue(model.isStale(0, 11, 0, 0, null));
+            model.addLine(0, "Same");
+
+            assertTrue(model.hasChanges());
+            assertTrue(send().isEmpty());
+        }
+    }
+}
@@ -374,4 +374,102 @@ class RewardServiceTest {
             assertEquals(10, playerState.getPermaScore());
         }
     }
+
+    @Nested
+    @DisplayName("Batched Kill Rewards")
+    class BatchedKillRewards {
+
+        private PlayerState copyOf(PlayerState source) {
+            PlayerState copy = new PlayerState(source.getUuid(), source.getName());
+            copy.setXpProgress(source.getXpProgress());
+            copy.setXpRequired(source.getXpRequired());
+            copy.setXpHeld(source.getXpHeld());
+            copy.setUpgradePending(source.isUpgradePending());
+            copy.setOverflowXpAccumulated(source.getOverflowXpAccumulated());
+            copy.setPermaScore(source.getPermaScore());
+            copy.setRunLevel(source.getRunLevel());
+            return copy;
+        }
+
+        private void assertSameXpState(PlayerState expected, PlayerState actual) {
+            assertEquals(expected.getXpProgress(), actual.getXpProgress(), "xpProgress");
+            assertEquals(expected.getXpRequired(), actual.getXpRequired(), "xpRequired");
+            assertEquals(expected.getXpHeld(), actual.getXpHeld(), "xpHeld");
+            assertEquals(expected.isUpgradePending(), actual.isUpgradePending(), "upgradePending");
+            assertEquals(expected.getOverflowXpAccumulated(), actual.getOverflowXpAccumulated(), "overflow");
+            assertEquals(expected.getPermaScore(), actual.getPermaScore(), "permaScore");
+            assertEquals(expected.getRunLevel(), actual.getRunLevel(), "runLevel");
+        }
+
+        @Test
+        @DisplayName("should match per-kill XP when the sum fills the bar")
+        void shouldMatchPerKillWhenFillingBar() {
+            playerState.setXpRequired(100);
+            playerState.setXpProgress(70);
+            PlayerState batched = copyOf(playerState);
+
+            int levelUps = 0;
+            for (int i = 0; i < 20; i++) {
+                if (RewardService.addXpToBar(playerState, 10)) levelUps++;
+            }
+            boolean batchedLevelUp = RewardService.addXpToBar(batched, 200);
+
+            assertEquals(1, levelUps);
+            assertTrue(batchedLevelUp);
+            assertSameXpState(playerState, batched);
+            assertEquals(170, batched.getXpHeld());
+        }
+
+        @Test
+        @DisplayName("should match per-kill XP while an upgrade is pending")
+        void shouldMatchPerKillWhilePending() {
+            playerState.setXpRequired(100);
+            playerState.setXpProgress(100);
+            playerState.setXpHeld(15);
+            playerState.setUpgradePending(true);
+            PlayerState batched = copyOf(playerState);
+
+            for (int i = 0; i < 7; i++) {
+                RewardService.addXpToBar(playerState, 3);
+            }
+            assertFalse(RewardService.addXpToBar(batched, 21));
+
+            assertSameXpState(playerState, batched);
+        }
+
+        @Test
+        @DisplayName("should match per-kill overflow conversions")
+        void shouldMatchPerKillOverflow() {
+            playerState.setOverflowXpAccumulated(40);
+            playerState.setPermaScore(5);
+            playerState.setRunLevel(12);
+            PlayerState batched = copyOf(playerState);
+
+            int conversions = 0;
+            for (int i = 0; i < 25; i++) {
+                conversions += RewardService.addOverflowXp(playerState, 13, 50);
+            }
+            int batchedConversions = RewardService.addOverflowXp(batched, 25 * 13, 50);
+
+            assertEquals(conversions, batchedConversions);
+            assertSameXpState(playerState, batched);
+        }
+
+        @Test
+        @DisplayName("should match per-kill own and shared XP mixed")
+        void shouldMatchMixedOwnAndSharedXp() {
+            playerState.setXpRequired(120);
+            PlayerState batched = copyOf(playerState);
+
+            // Kills interleave own (12) and shared (5) XP; the batch applies own then shared
+            for (int i = 0; i < 9; i++) {
+                RewardService.addXpToBar(playerState, 12);
+                RewardService.addXpToBar(playerState, 5);
+            }
+            RewardService.addXpToBar(batched, 9 * 12);
+            RewardService.addXpToBar(batched, 9 * 5);
+
+            assertSameXpState(playerState, batched);
+        }
+    }
 }
@@ -520,6 +520,35 @@ class SpawnerServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Archetype Spawn Mode")
+    class ArchetypeSpawnMode {
+
+        @Test
+        @DisplayName("should default to command spawning")
+        void shouldDefaultToCommand() {
+            EnemyArchetypeConfig config = new EnemyArchetypeConfig();
+
+            assertEquals(EnemyArchetypeConfig.SpawnMode.COMMAND, config.spawnMode);
+            assertTrue(config.attributes.isEmpty());
+            assertTrue(config.equipment.isEmpty());
+        }
+
+        @Test
+        @DisplayName("should parse spawn mode case-insensitively")
+        void shouldParseCaseInsensitive() {
+            assertEquals(EnemyArchetypeConfig.SpawnMode.NATIVE, EnemyArchetypeConfig.SpawnMode.fromString("native"));
+            assertEquals(EnemyArchetypeConfig.SpawnMode.COMMAND, EnemyArchetypeConfig.SpawnMode.fromString(" Command "));
+        }
+
+        @Test
+        @DisplayName("should return null for unknown spawn mode")
+        void shouldReturnNullForUnknown() {
+            assertNull(EnemyArchetypeConfig.SpawnMode.fromString("summon"));
+            assertNull(EnemyArchetypeConfig.SpawnMode.fromString(null));
+        }
+    }
+
     @Nested
     @DisplayName("Archetype World Filtering")
     class ArchetypeWorldFiltering {
@@ -944,4 +973,51 @@ class SpawnerServiceTest {
 
         private record MockPlayer(int level, double distance) {}
     }
+
+    @Nested
+    @DisplayName("Planning Partitions")
+    class PlanningPartitions {
+
+        @Test
+        @DisplayName("should group by key in first-appearance order")
+        void shouldGroupByKeyInOrder() {
+            List<String> items = List.of("a1", "b1", "a2", "c1", "b2");
+
+            List<List<String>> groups = SpawnerService.partition(items, item -> item.charAt(0));
+
+            assertEquals(List.of(List.of("a1", "a2"), List.of("b1", "b2"), List.of("c1")), groups);
+        }
+
+        @Test
+        @DisplayName("should flatten partitions into the same player order as one pass")
+        void shouldFlattenLikeSinglePass() {
+            // Two runs: run A has players with 2 and 1 plans, run B has one player with 3 plans
+            List<List<String>> runA = List.of(List.of("a1", "a2"), List.of("b1"));
+            List<List<String>> runB = List.of(List.of("c1", "c2", "c3"));
+
+            List<List<String>> flattened = SpawnerService.flattenPartitions(List.of(runA, runB));
+
+            assertEquals(List.of(List.of("a1", "a2"), List.of("b1"), List.of("c1", "c2", "c3")), flattened);
+        }
+
+        @Test
+        @DisplayName("should derive stable, distinct seeds per run")
+        void shouldDeriveDistinctSeeds() {
+            UUID runA = UUID.randomUUID();
+            UUID runB = UUID.randomUUID();
+
+            assertEquals(SpawnerService.partitionSeed(42L, runA), SpawnerService.partitionSeed(42L, runA));
+            assertNotEquals(SpawnerService.partitionSeed(42L, runA), SpawnerService.partitionSeed(42L, runB));
+            assertNotEquals(SpawnerService.partitionSeed(42L, runA), SpawnerService.partitionSeed(43L, runA));
+        }
+
+        @Test
+        @DisplayName("should size the planner pool from cores unless configured")
+        void shouldResolvePlannerThreads() {
+            assertEquals(3, SpawnerService.resolvePlannerThreads(3, 64));
+            assertEquals(1, SpawnerService.resolvePlannerThreads(0, 1));
+            assertEquals(4, SpawnerService.resolvePlannerThreads(0, 8));
+            assertEquals(8, SpawnerService.resolvePlannerThreads(-1, 64));
+        }
+    }
 }
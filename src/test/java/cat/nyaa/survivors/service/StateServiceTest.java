@@ -9,6 +9,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -285,4 +288,277 @@ class StateServiceTest {
             assertEquals(2, service.getPlayersInRunCount());
         }
     }
+
+    @Nested
+    @DisplayName("Lazy Loading")
+    class LazyLoading {
+
+        private final Map<UUID, PlayerState> persisted = new HashMap<>();
+        private int loads;
+
+        @BeforeEach
+        void setUpLoader() {
+            service.setPlayerLoader(playerId -> {
+                loads++;
+                return Optional.ofNullable(persisted.get(playerId));
+            });
+        }
+
+        private UUID persist(String name) {
+            UUID playerId = UUID.randomUUID();
+            PlayerState player = new PlayerState(playerId, name);
+            player.setPermaScore(42);
+            persisted.put(playerId, player);
+            return playerId;
+        }
+
+        @Test
+        @DisplayName("should load persisted player at pre-login")
+        void shouldLoadOnPreLogin() {
+            UUID playerId = persist("Stored");
+            assertFalse(service.isResident(playerId));
+
+            Optional<PlayerState> player = service.loadPlayer(playerId);
+
+            assertTrue(player.isPresent());
+            assertEquals(42, player.get().getPermaScore());
+            assertTrue(service.isResident(playerId));
+            assertSame(player.get(), service.requirePlayer(playerId));
+        }
+
+        @Test
+        @DisplayName("should never load on lookup")
+        void shouldNotLoadOnLookup() {
+            UUID playerId = persist("Stored");
+
+            assertTrue(service.getPlayer(playerId).isEmpty());
+            assertThrows(IllegalStateException.class, () -> service.requirePlayer(playerId));
+            assertEquals(0, loads);
+            assertFalse(service.isResident(playerId));
+        }
+
+        @Test
+        @DisplayName("should not reload resident player")
+        void shouldNotReloadResidentPlayer() {
+            UUID playerId = persist("Stored");
+
+            service.loadPlayer(playerId);
+            service.loadPlayer(playerId);
+            service.getPlayer(playerId);
+
+            assertEquals(1, loads);
+        }
+
+        @Test
+        @DisplayName("should create from the loaded player on join")
+        void shouldCreateFromLoadedPlayer() {
+            UUID playerId = persist("Stored");
+            service.loadPlayer(playerId);
+
+            PlayerState player = service.getOrCreatePlayer(playerId, "NewName");
+
+            assertEquals("Stored", player.getName());
+            assertEquals(42, player.getPermaScore());
+        }
+
+        @Test
+        @DisplayName("should refuse a fresh state for a persisted player that is not loaded")
+        void shouldRefuseFreshStateForPersistedPlayer() {
+            // After a reload, online players get no pre-login; their data must not be replaced
+            service.setPersistedCheck(persisted::containsKey);
+            UUID playerId = persist("Stored");
+
+            assertThrows(IllegalStateException.class, () -> service.getOrCreatePlayer(playerId, "Stored"));
+            assertFalse(service.isResident(playerId));
+
+            service.loadPlayer(playerId);
+            service.markOnline(playerId);
+            assertEquals(42, service.getOrCreatePlayer(playerId, "Stored").getPermaScore());
+
+            // Players without persisted data are still created
+            assertNotNull(service.getOrCreatePlayer(UUID.randomUUID(), "New"));
+        }
+
+        @Test
+        @DisplayName("should return empty for unknown player")
+        void shouldReturnEmptyForUnknownPlayer() {
+            assertTrue(service.loadPlayer(UUID.randomUUID()).isEmpty());
+            assertTrue(service.getPlayer(UUID.randomUUID()).isEmpty());
+            assertThrows(IllegalStateException.class, () -> service.requirePlayer(UUID.randomUUID()));
+        }
+
+        @Test
+        @DisplayName("should keep a player loaded for a pending login")
+        void shouldNotEvictPendingLogin() {
+            UUID playerId = persist("Stored");
+            service.loadPlayer(playerId);
+
+            assertFalse(service.evictPlayer(playerId, p -> true));
+
+            service.markOnline(playerId);
+            service.markOffline(playerId);
+            assertTrue(service.evictPlayer(playerId, p -> true));
+        }
+
+        @Test
+        @DisplayName("should evict player outside team and reload at next pre-login")
+        void shouldEvictAndReload() {
+            UUID playerId = persist("Stored");
+            service.loadPlayer(playerId);
+            service.markOnline(playerId);
+            service.markOffline(playerId);
+
+            assertTrue(service.evictPlayer(playerId, p -> true));
+            assertFalse(service.isResident(playerId));
+            assertTrue(service.getPlayer(playerId).isEmpty());
+
+            assertTrue(service.loadPlayer(playerId).isPresent());
+            assertEquals(2, loads);
+        }
+
+        @Test
+        @DisplayName("should stamp last access on join and quit only")
+        void shouldStampAtCoarsePoints() throws InterruptedException {
+            UUID playerId = UUID.randomUUID();
+            PlayerState player = service.getOrCreatePlayer(playerId, "Player");
+            long created = player.getLastAccessMillis();
+            Thread.sleep(2);
+
+            service.getPlayer(playerId);
+            service.requirePlayer(playerId);
+            service.getOrCreatePlayer(playerId, "Player");
+            assertEquals(created, player.getLastAccessMillis());
+
+            service.markOnline(playerId);
+            assertTrue(player.getLastAccessMillis() > created);
+        }
+
+        @Test
+        @DisplayName("should link a member loaded after its team was registered")
+        void shouldLinkMemberLoadedAfterTeam() {
+            // Teams load at startup, before any member is resident; teamId itself is not persisted
+            UUID playerId = persist("Member");
+            TeamState team = new TeamState(UUID.randomUUID(), "Team", playerId);
+            service.registerTeam(team);
+
+            PlayerState player = service.loadPlayer(playerId).orElseThrow();
+
+            assertEquals(team.getTeamId(), player.getTeamId());
+            assertEquals(team, service.getPlayerTeam(playerId).orElseThrow());
+            service.markOnline(playerId);
+            assertFalse(service.evictPlayer(playerId, p -> true));
+        }
+
+        @Test
+        @DisplayName("should not evict team members")
+        void shouldNotEvictTeamMembers() {
+            UUID playerId = UUID.randomUUID();
+            service.getOrCreatePlayer(playerId, "Leader");
+            service.createTeam("Team", playerId);
+
+            assertFalse(service.evictPlayer(playerId, p -> true));
+            assertTrue(service.isResident(playerId));
+        }
+
+        @Test
+        @DisplayName("should not evict disconnected players")
+        void shouldNotEvictDisconnectedPlayers() {
+            UUID playerId = UUID.randomUUID();
+            service.getOrCreatePlayer(playerId, "Player");
+            service.markDisconnected(playerId);
+
+            assertFalse(service.evictPlayer(playerId, p -> true));
+        }
+
+        @Test
+        @DisplayName("should respect caller eviction condition")
+        void shouldRespectCallerCondition() {
+            UUID playerId = UUID.randomUUID();
+            service.getOrCreatePlayer(playerId, "Player");
+
+            assertFalse(service.evictPlayer(playerId, p -> false));
+            assertTrue(service.isResident(playerId));
+        }
+    }
+
+    @Nested
+    @DisplayName("Mode Index")
+    class ModeIndex {
+
+        @Test
+        @DisplayName("should index new players by their mode")
+        void shouldIndexNewPlayers() {
+            UUID playerId = UUID.randomUUID();
+            PlayerState player = service.getOrCreatePlayer(playerId, "Player");
+
+            assertEquals(List.of(player), service.getPlayersByMode(PlayerMode.LOBBY));
+            assertTrue(service.isInMode(playerId, PlayerMode.LOBBY));
+        }
+
+        @Test
+        @DisplayName("should follow mode transitions")
+        void shouldFollowModeTransitions() {
+            UUID playerId = UUID.randomUUID();
+            PlayerState player = service.getOrCreatePlayer(playerId, "Player");
+
+            player.setMode(PlayerMode.IN_RUN);
+
+            assertTrue(service.getPlayersByMode(PlayerMode.LOBBY).isEmpty());
+            assertEquals(List.of(player), service.getPlayersByMode(PlayerMode.IN_RUN));
+            assertEquals(1, service.countPlayersByMode(PlayerMode.IN_RUN));
+
+            player.resetAll();
+
+            assertFalse(service.isInMode(playerId, PlayerMode.IN_RUN));
+            assertTrue(service.isInMode(playerId, PlayerMode.LOBBY));
+        }
+
+        @Test
+        @DisplayName("should index registered and loaded players")
+        void shouldIndexRegisteredPlayers() {
+            PlayerState registered = new PlayerState(UUID.randomUUID(), "Registered");
+            registered.setMode(PlayerMode.COOLDOWN);
+            service.registerPlayer(registered);
+
+            PlayerState stored = new PlayerState(UUID.randomUUID(), "Stored");
+            stored.setMode(PlayerMode.COOLDOWN);
+            service.setPlayerLoader(id -> id.equals(stored.getUuid()) ? Optional.of(stored) : Optional.empty());
+            service.loadPlayer(stored.getUuid());
+
+            assertEquals(2, service.countPlayersByMode(PlayerMode.COOLDOWN));
+        }
+
+        @Test
+        @DisplayName("should drop removed and evicted players")
+        void shouldDropRemovedPlayers() {
+            PlayerState removed = service.getOrCreatePlayer(UUID.randomUUID(), "Removed");
+            PlayerState evicted = service.getOrCreatePlayer(UUID.randomUUID(), "Evicted");
+
+            service.removePlayer(removed.getUuid());
+            service.evictPlayer(evicted.getUuid(), p -> true);
+
+            assertEquals(0, service.countPlayersByMode(PlayerMode.LOBBY));
+
+            // Detached states no longer update the index
+            evicted.setMode(PlayerMode.IN_RUN);
+            assertEquals(0, service.countPlayersByMode(PlayerMode.IN_RUN));
+        }
+
+        @Test
+        @DisplayName("should filter by online players")
+        void shouldFilterByOnlinePlayers() {
+            PlayerState online = service.getOrCreatePlayer(UUID.randomUUID(), "Online");
+            PlayerState offline = service.getOrCreatePlayer(UUID.randomUUID(), "Offline");
+            online.setMode(PlayerMode.COOLDOWN);
+            offline.setMode(PlayerMode.COOLDOWN);
+
+            service.markOnline(online.getUuid());
+            service.markOnline(offline.getUuid());
+            service.markOffline(offline.getUuid());
+
+            assertEquals(List.of(online), service.getOnlinePlayersByMode(PlayerMode.COOLDOWN));
+            assertTrue(service.isOnline(online.getUuid()));
+            assertFalse(service.isOnline(offline.getUuid()));
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package cat.nyaa.survivors.service.spawner;
+
+import cat.nyaa.survivors.config.ConfigService.EnemyArchetypeConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ArchetypeSampler.
+ */
+class ArchetypeSamplerTest {
+
+    private static EnemyArchetypeConfig archetype(String id, double weight, int minLevel, String... worlds) {
+        EnemyArchetypeConfig archetype = new EnemyArchetypeConfig();
+        archetype.archetypeId = id;
+        archetype.weight = weight;
+        archetype.minSpawnLevel = minLevel;
+        if (worlds.length > 0) {
+            archetype.allowedWorlds = List.of(worlds);
+        }
+        return archetype;
+    }
+
+    private static ArchetypeSampler compile(EnemyArchetypeConfig... archetypes) {
+        Map<String, EnemyArchetypeConfig> byId = new HashMap<>();
+        for (EnemyArchetypeConfig archetype : archetypes) {
+            byId.put(archetype.archetypeId, archetype);
+        }
+        return ArchetypeSampler.compile(byId);
+    }
+
+    private static Set<String> ids(Collection<EnemyArchetypeConfig> archetypes) {
+        Set<String> ids = new TreeSet<>();
+        for (EnemyArchetypeConfig archetype : archetypes) {
+            ids.add(archetype.archetypeId);
+        }
+        return ids;
+    }
+
+    @Nested
+    @DisplayName("Eligibility")
+    class Eligibility {
+
+        @Test
+        @DisplayName("should unlock archetypes by minimum spawn level")
+        void shouldUnlockByLevel() {
+            ArchetypeSampler sampler = compile(
+                    archetype("zombie", 1, 1),
+                    archetype("skeleton", 1, 5),
+                    archetype("blaze", 1, 10));
+
+            assertEquals(Set.of("zombie"), ids(sampler.eligible("arena", 4)));
+            assertEquals(Set.of("zombie", "skeleton"), ids(sampler.eligible("arena", 5)));
+            assertEquals(Set.of("zombie", "skeleton", "blaze"), ids(sampler.eligible("arena", 99)));
+        }
+
+        @Test
+        @DisplayName("should return nothing below the lowest minimum level")
+        void shouldReturnNothingBelowLowestLevel() {
+            ArchetypeSampler sampler = compile(archetype("skeleton", 1, 5));
+
+            assertTrue(sampler.eligible("arena", 4).isEmpty());
+            assertNull(sampler.sample("arena", 4, 0.5));
+        }
+
+        @Test
+        @DisplayName("should restrict archetypes to their allowed worlds, ignoring case")
+        void shouldRestrictToAllowedWorlds() {
+            ArchetypeSampler sampler = compile(
+                    archetype("zombie", 1, 1),
+                    archetype("guardian", 1, 1, "Ocean_Arena"),
+                    archetype("wither", 1, 1, "nether_arena", "end_arena"));
+
+            assertEquals(Set.of("zombie", "guardian"), ids(sampler.eligible("ocean_arena", 1)));
+            assertEquals(Set.of("zombie", "wither"), ids(sampler.eligible("END_ARENA", 1)));
+            assertEquals(Set.of("zombie"), ids(sampler.eligible("plains", 1)));
+        }
+
+        @Test
+        @DisplayName("should match a plain filter for every world and level")
+        void shouldMatchPlainFilter() {
+            List<EnemyArchetypeConfig> all = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                String[] worlds = switch (i % 4) {
+                    case 0 -> new String[]{"arena_" + (i % 3)};
+                    case 1 -> new String[]{"any"};
+                    case 2 -> new String[]{};
+                    default -> new String[]{"arena_1", "arena_2"};
+                };
+                all.add(archetype("a" + i, 1 + i % 5, 1 + (i % 7) * 3, worlds));
+            }
+            ArchetypeSampler sampler = compile(all.toArray(new EnemyArchetypeConfig[0]));
+
+            for (String world : List.of("arena_0", "arena_1", "arena_2", "other")) {
+                for (int level = 0; level <= 25; level++) {
+                    final int lvl = level;
+                    Set<String> expected = ids(all.stream()
+                            .filter(a -> a.minSpawnLevel <= lvl)
+                            .filter(a -> a.isAllowedInWorld(world))
+                            .toList());
+                    assertEquals(expected, ids(sampler.eligible(world, level)), world + " level " + level);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Sampling")
+    class Sampling {
+
+        @Test
+        @DisplayName("should pick archetypes in proportion to their weights")
+        void shouldPickByWeight() {
+            ArchetypeSampler sampler = compile(
+                    archetype("common", 3, 1),
+                    archetype("rare", 1, 1));
+
+            Random random = new Random(7);
+            int rare = 0;
+            int draws = 40_000;
+            for (int i = 0; i < draws; i++) {
+                if (sampler.sample("arena", 1, random.nextDouble()).archetypeId.equals("rare")) {
+                    rare++;
+                }
+            }
+
+            assertEquals(0.25, rare / (double) draws, 0.01);
+        }
+
+        @Test
+        @DisplayName("should never pick zero-weight archetypes")
+        void shouldSkipZeroWeight() {
+            ArchetypeSampler sampler = compile(
+                    archetype("disabled", 0, 1),
+                    archetype("enabled", 1, 1));
+
+            for (double roll = 0; roll < 1; roll += 0.05) {
+                assertEquals("enabled", sampler.sample("arena", 1, roll).archetypeId);
+            }
+            assertEquals(2, sampler.eligible("arena", 1).size());
+        }
+
+        @Test
+        @DisplayName("should return null when there are no archetypes")
+        void shouldReturnNullWhenEmpty() {
+            ArchetypeSampler sampler = ArchetypeSampler.compile(Map.of());
+
+            assertTrue(sampler.isEmpty());
+            assertNull(sampler.sample("arena", 10, 0.5));
+        }
+    }
+
+    @Nested
+    @DisplayName("Stage boss candidates")
+    class StageBossCandidates {
+
+        @Test
+        @DisplayName("should skip unknown, blank, duplicate and disallowed ids")
+        void shouldFilterIds() {
+            ArchetypeSampler sampler = compile(
+                    archetype("boss_a", 1, 1),
+                    archetype("boss_b", 1, 1, "other_world"),
+                    archetype("boss_c", 1, 1));
+
+            List<String> ids = Arrays.asList("boss_a", " ", null, "BOSS_A", "missing", "boss_b", " boss_c ");
+
+            assertEquals(List.of("boss_a", "boss_c"),
+                    sampler.stageBossCandidates(ids, "arena").stream().map(a -> a.archetypeId).toList());
+        }
+
+        @Test
+        @DisplayName("should reuse the resolved list for the same stage and world")
+        void shouldCacheResults() {
+            ArchetypeSampler sampler = compile(archetype("boss_a", 1, 1));
+            List<String> ids = new ArrayList<>(List.of("boss_a"));
+
+            List<EnemyArchetypeConfig> first = sampler.stageBossCandidates(ids, "arena");
+            assertSame(first, sampler.stageBossCandidates(List.of("boss_a"), "arena"));
+
+            ids.add("boss_b");
+            assertEquals(1, sampler.stageBossCandidates(List.of("boss_a"), "arena").size());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package cat.nyaa.survivors.service.spawner;
+
+import org.bukkit.Location;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpawnPlanQueue.
+ * Plans carry no world or archetype, so no server is required.
+ */
+class SpawnPlanQueueTest {
+
+    private static final UUID RUN = UUID.randomUUID();
+
+    private SpawnPlanQueue queue;
+    private UUID alice;
+    private UUID bob;
+    private UUID carol;
+
+    @BeforeEach
+    void setUp() {
+        queue = new SpawnPlanQueue();
+        alice = UUID.randomUUID();
+        bob = UUID.randomUUID();
+        carol = UUID.randomUUID();
+    }
+
+    private static List<SpawnPlan> plans(UUID playerId, int count, int level) {
+        List<SpawnPlan> plans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            plans.add(new SpawnPlan(playerId, RUN, "arena", new Location(null, i, 64, 0), null, level));
+        }
+        return plans;
+    }
+
+    private List<SpawnPlan> take(int count) {
+        List<SpawnPlan> taken = new ArrayList<>();
+        SpawnPlan plan;
+        while (taken.size() < count && (plan = queue.peek()) != null) {
+            taken.add(plan);
+            queue.remove();
+        }
+        return taken;
+    }
+
+    @Nested
+    @DisplayName("Ordering")
+    class Ordering {
+
+        @Test
+        @DisplayName("should hand plans out round-robin across players")
+        void shouldHandOutRoundRobin() {
+            List<List<SpawnPlan>> batch = List.of(plans(alice, 2, 1), plans(bob, 1, 1), plans(carol, 3, 1));
+            queue.publish(1, batch);
+            queue.drain(8);
+
+            assertEquals(6, queue.size());
+            List<SpawnPlan> expected = List.of(
+                    batch.get(0).get(0), batch.get(1).get(0), batch.get(2).get(0),
+                    batch.get(0).get(1), batch.get(2).get(1),
+                    batch.get(2).get(2));
+            assertEquals(expected, take(10));
+            assertTrue(queue.isEmpty());
+        }
+
+        @Test
+        @DisplayName("should resume with the next player after a partial take")
+        void shouldCarryOverInOrder() {
+            List<List<SpawnPlan>> batch = List.of(plans(alice, 2, 1), plans(bob, 2, 1));
+            queue.publish(1, batch);
+            queue.drain(8);
+
+            assertEquals(List.of(batch.get(0).get(0), batch.get(1).get(0), batch.get(0).get(1)), take(3));
+            assertEquals(1, queue.size());
+            assertEquals(List.of(batch.get(1).get(1)), take(3));
+        }
+    }
+
+    @Nested
+    @DisplayName("Generations")
+    class Generations {
+
+        @Test
+        @DisplayName("should replace carried-over plans with a newer batch")
+        void shouldSupersedeOlderPlans() {
+            queue.publish(1, List.of(plans(alice, 3, 1), plans(bob, 3, 1)));
+            queue.drain(8);
+            take(1);
+
+            queue.publish(2, List.of(plans(alice, 1, 2)));
+            int dropped = queue.drain(8);
+
+            assertEquals(5, dropped);
+            assertEquals(1, queue.size());
+            assertEquals(2, take(1).get(0).enemyLevel());
+            assertEquals(2, queue.getGeneration());
+        }
+
+        @Test
+        @DisplayName("should drop a batch that arrives after a newer one")
+        void shouldDropLateBatch() {
+            queue.publish(2, List.of(plans(alice, 1, 2)));
+            queue.publish(1, List.of(plans(bob, 2, 1)));
+
+            assertEquals(2, queue.drain(8));
+            assertEquals(1, queue.size());
+            assertEquals(alice, queue.peek().targetPlayerId());
+        }
+
+        @Test
+        @DisplayName("should bound plans kept per player")
+        void shouldBoundPerPlayer() {
+            queue.publish(1, List.of(plans(alice, 5, 1)));
+
+            assertEquals(2, queue.drain(3));
+            assertEquals(3, queue.size());
+        }
+
+        @Test
+        @DisplayName("should reject batches while the handoff ring is full")
+        void shouldRejectWhenFull() {
+            for (int generation = 1; generation <= 4; generation++) {
+                assertTrue(queue.publish(generation, List.of(plans(alice, 1, generation))));
+            }
+            assertFalse(queue.publish(5, List.of(plans(alice, 2, 5))));
+
+            // Three superseded batches plus the two plans of the rejected one
+            assertEquals(5, queue.drain(8));
+            assertEquals(4, queue.peek().enemyLevel());
+            assertTrue(queue.publish(6, List.of(plans(alice, 1, 6))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Carry-over checks")
+    class CarryOverChecks {
+
+        @Test
+        @DisplayName("should check each player once and drop all of a failing player's plans")
+        void shouldRetainPerPlayer() {
+            queue.publish(1, List.of(plans(alice, 3, 1), plans(bob, 2, 1)));
+            queue.drain(8);
+
+            List<UUID> checked = new ArrayList<>();
+            int dropped = queue.retainPlans(plan -> {
+                checked.add(plan.targetPlayerId());
+                return plan.targetPlayerId().equals(alice) ? null : candidate -> true;
+            });
+
+            assertEquals(List.of(alice, bob), checked);
+            assertEquals(3, dropped);
+            assertEquals(2, queue.size());
+            take(2).forEach(plan -> assertEquals(bob, plan.targetPlayerId()));
+        }
+
+        @Test
+        @DisplayName("should check every plan, not only the player's next one")
+        void shouldFilterEachPlan() {
+            // Only alice's second plan (x = 1) lies inside a suppression zone
+            queue.publish(1, List.of(plans(alice, 3, 1), plans(bob, 2, 1)));
+            queue.drain(8);
+
+            int dropped = queue.retainPlans(plan -> candidate -> candidate.spawnLocation().getX() != 1
+                    || !candidate.targetPlayerId().equals(alice));
+
+            assertEquals(1, dropped);
+            assertEquals(4, queue.size());
+            List<SpawnPlan> remaining = take(10);
+            assertEquals(List.of(alice, bob, alice, bob),
+                    remaining.stream().map(SpawnPlan::targetPlayerId).toList());
+            assertEquals(List.of(0.0, 0.0, 2.0, 1.0),
+                    remaining.stream().map(plan -> plan.spawnLocation().getX()).toList());
+        }
+
+        @Test
+        @DisplayName("should drop everything on clear")
+        void shouldClear() {
+            queue.publish(1, List.of(plans(alice, 2, 1)));
+            queue.drain(8);
+
+            queue.clear();
+
+            assertTrue(queue.isEmpty());
+            assertNull(queue.peek());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package cat.nyaa.survivors.service.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogPlayerStore.
+ */
+class LogPlayerStoreTest {
+
+    private static final Logger LOGGER = Logger.getLogger("LogPlayerStoreTest");
+
+    @TempDir
+    Path tempDir;
+
+    private Path logFile;
+    private LogPlayerStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        logFile = tempDir.resolve("players.log");
+        store = new LogPlayerStore(logFile, LOGGER);
+        store.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private void reopen() throws IOException {
+        store.close();
+        store = new LogPlayerStore(logFile, LOGGER);
+        store.open();
+    }
+
+    @Nested
+    @DisplayName("Read and Write")
+    class ReadWrite {
+
+        @Test
+        @DisplayName("should read back written record")
+        void shouldReadBackWrittenRecord() throws IOException {
+            UUID playerId = UUID.randomUUID();
+            store.write(playerId, bytes("{\"name\":\"A\"}"));
+
+            assertEquals("{\"name\":\"A\"}", text(store.read(playerId)));
+            assertEquals(Set.of(playerId), store.ids());
+        }
+
+        @Test
+        @DisplayName("should return null for unknown player")
+        void shouldReturnNullForUnknownPlayer() throws IOException {
+            assertNull(store.read(UUID.randomUUID()));
+            assertEquals(0, store.lastModified(UUID.randomUUID()));
+        }
+
+        @Test
+        @DisplayName("should return newest record after overwrite")
+        void shouldReturnNewestRecord() throws IOException {
+            UUID playerId = UUID.randomUUID();
+            store.write(playerId, bytes("old"));
+            store.write(playerId, bytes("new"));
+
+            assertEquals("new", text(store.read(playerId)));
+            assertEquals(1, store.ids().size());
+        }
+
+        @Test
+        @DisplayName("should append instead of rewriting")
+        void shouldAppendInsteadOfRewriting() throws IOException {
+            UUID playerId = UUID.randomUUID();
+            long first = store.write(playerId, bytes("aaaa"));
+            long second = store.write(playerId, bytes("bbbb"));
+
+            assertEquals(first + second, store.getFileSize());
+            assertEquals(second, store.getLiveBytes());
+        }
+
+        @Test
+        @DisplayName("should reject empty records")
+        void shouldRejectEmptyRecords() {
+            assertThrows(IOException.class, () -> store.write(UUID.randomUUID(), new byte[0]));
+        }
+    }
+
+    @Nested
+    @DisplayName("Recovery")
+    class Recovery {
+
+        @Test
+        @DisplayName("should rebuild index on reopen")
+        void shouldRebuildIndexOnReopen() throws IOException {
+            UUID a = UUID.randomUUID();
+            UUID b = UUID.randomUUID();
+            store.write(a, bytes("a1"));
+            store.write(b, bytes("b1"));
+            store.write(a, bytes("a2"));
+
+            reopen();
+
+            assertEquals(Set.of(a, b), store.ids());
+            assertEquals("a2", text(store.read(a)));
+            assertEquals("b1", text(store.read(b)));
+        }
+
+        @Test
+        @DisplayName("should truncate torn tail and keep earlier records")
+        void shouldTruncateTornTail() throws IOException {
+            UUID a = UUID.randomUUID();
+            store.write(a, bytes("complete"));
+            long validSize = store.getFileSize();
+            store.close();
+
+            // Simulate a crash mid-append
+            Files.write(logFile, new byte[] {0x56, 0x52, 0x53, 0x31, 1, 2, 3}, StandardOpenOption.APPEND);
+
+            store = new LogPlayerStore(logFile, LOGGER);
+            store.open();
+
+            assertEquals("complete", text(store.read(a)));
+            assertEquals(validSize, Files.size(logFile));
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertTrue(files.anyMatch(p -> p.getFileName().toString().startsWith("players.log.corrupt.")));
+            }
+        }
+
+        @Test
+        @DisplayName("should stop at record with bad checksum")
+        void shouldStopAtBadChecksum() throws IOException {
+            UUID a = UUID.randomUUID();
+            UUID b = UUID.randomUUID();
+            store.write(a, bytes("first"));
+            store.write(b, bytes("second"));
+            store.close();
+
+            // Flip the last payload byte of the second record
+            byte[] content = Files.readAllBytes(logFile);
+            content[content.length - 1] ^= 0x7F;
+            Files.write(logFile, content);
+
+            store = new LogPlayerStore(logFile, LOGGER);
+            store.open();
+
+            assertEquals("first", text(store.read(a)));
+            assertNull(store.read(b));
+        }
+
+        @Test
+        @DisplayName("should keep quarantined record removed after reopen")
+        void shouldKeepQuarantinedRecordRemoved() throws IOException {
+            UUID playerId = UUID.randomUUID();
+            store.write(playerId, bytes("not json"));
+
+            store.quarantine(playerId);
+            assertNull(store.read(playerId));
+
+            reopen();
+            assertNull(store.read(playerId));
+            assertTrue(store.ids().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Compaction")
+    class Compaction {
+
+        @Test
+        @DisplayName("should drop superseded records")
+        void shouldDropSupersededRecords() throws IOException {
+            UUID a = UUID.randomUUID();
+            UUID b = UUID.randomUUID();
+            for (int i = 0; i < 10; i++) {
+                store.write(a, bytes("a" + i));
+                store.write(b, bytes("b" + i));
+            }
+            long before = store.getFileSize();
+
+            store.compact();
+
+            assertTrue(store.getFileSize() < before);
+            assertEquals(store.getLiveBytes(), store.getFileSize());
+            assertEquals(store.getFileSize(), Files.size(logFile));
+            assertEquals("a9", text(store.read(a)));
+            assertEquals("b9", text(store.read(b)));
+        }
+
+        @Test
+        @DisplayName("should accept writes and reopen after compaction")
+        void shouldAcceptWritesAfterCompaction() throws IOException {
+            UUID a = UUID.randomUUID();
+            store.write(a, bytes("a1"));
+            store.write(a, bytes("a2"));
+            store.compact();
+
+            UUID b = UUID.randomUUID();
+            store.write(b, bytes("b1"));
+            reopen();
+
+            assertEquals("a2", text(store.read(a)));
+            assertEquals("b1", text(store.read(b)));
+        }
+
+        @Test
+        @DisplayName("should not compact small files")
+        void shouldNotCompactSmallFiles() throws IOException {
+            UUID a = UUID.randomUUID();
+            for (int i = 0; i < 10; i++) {
+                store.write(a, bytes("a" + i));
+            }
+            long before = store.getFileSize();
+
+            store.maintain();
+
+            assertEquals(before, store.getFileSize());
+        }
+    }
+}
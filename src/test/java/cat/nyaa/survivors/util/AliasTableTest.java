@@ -0,0 +1,84 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AliasTable.
+ */
+class AliasTableTest {
+
+    @Test
+    @DisplayName("should give each item a probability proportional to its weight")
+    void shouldMatchWeights() {
+        List<Double> weights = List.of(1.0, 2.5, 0.5, 6.0, 3.0);
+        AliasTable<Double> table = AliasTable.of(weights, w -> w);
+        double total = weights.stream().mapToDouble(Double::doubleValue).sum();
+
+        List<Double> items = table.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(items.get(i) / total, table.probabilityOf(i), 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("should sample close to the weights")
+    void shouldSampleCloseToWeights() {
+        AliasTable<String> table = AliasTable.of(List.of("a", "b", "c"), s -> switch (s) {
+            case "a" -> 1.0;
+            case "b" -> 3.0;
+            default -> 6.0;
+        });
+
+        Random random = new Random(42);
+        Map<String, Integer> counts = new HashMap<>();
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            counts.merge(table.sample(random.nextDouble()), 1, Integer::sum);
+        }
+
+        assertEquals(0.1, counts.get("a") / (double) draws, 0.01);
+        assertEquals(0.3, counts.get("b") / (double) draws, 0.01);
+        assertEquals(0.6, counts.get("c") / (double) draws, 0.01);
+    }
+
+    @Test
+    @DisplayName("should leave out items without a positive weight")
+    void shouldSkipNonPositiveWeights() {
+        AliasTable<String> table = AliasTable.of(List.of("zero", "one", "negative"), s -> switch (s) {
+            case "one" -> 1.0;
+            case "zero" -> 0.0;
+            default -> -2.0;
+        });
+
+        assertEquals(List.of("one"), table.getItems());
+        assertEquals("one", table.sample(0.0));
+        assertEquals("one", table.sample(0.999999));
+    }
+
+    @Test
+    @DisplayName("should return null when empty")
+    void shouldReturnNullWhenEmpty() {
+        AliasTable<String> table = AliasTable.of(List.of("a"), s -> 0.0);
+
+        assertTrue(table.isEmpty());
+        assertNull(table.sample(0.5));
+    }
+
+    @Test
+    @DisplayName("should stay in range for rolls at the edges")
+    void shouldHandleEdgeRolls() {
+        AliasTable<Integer> table = AliasTable.of(List.of(1, 2, 3), i -> i);
+
+        assertNotNull(table.sample(0.0));
+        assertNotNull(table.sample(Math.nextDown(1.0)));
+        assertNotNull(table.sample(1.0));
+    }
+}
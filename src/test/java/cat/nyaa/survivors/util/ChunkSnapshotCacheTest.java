@@ -0,0 +1,112 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkSnapshotCache reuse, expiry and invalidation.
+ * Chunks are captured from synthetic terrain at explicit ticks, so no world access is required.
+ */
+class ChunkSnapshotCacheTest {
+
+    private int maxAgeTicks;
+    private int captures;
+    private Set<Long> unloaded;
+    private ChunkSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        maxAgeTicks = 100;
+        captures = 0;
+        unloaded = new HashSet<>();
+        cache = new ChunkSnapshotCache("arena", () -> maxAgeTicks);
+    }
+
+    private ChunkTerrain get(int chunkX, int chunkZ, long tick) {
+        return cache.get(chunkX, chunkZ, tick, (cx, cz, t) -> {
+            if (unloaded.contains(ChunkSnapshotCache.chunkKey(cx, cz))) return null;
+            captures++;
+            return new ChunkTerrain(null, (x, y, z) -> false, section -> true, -64, 320, t);
+        });
+    }
+
+    @Test
+    @DisplayName("should reuse a chunk until it is older than the max age")
+    void shouldReuseUntilExpired() {
+        ChunkTerrain first = get(0, 0, 1000);
+
+        assertSame(first, get(0, 0, 1100));
+        assertEquals(1, captures);
+
+        ChunkTerrain recaptured = get(0, 0, 1101);
+        assertNotSame(first, recaptured);
+        assertEquals(1101, recaptured.getCapturedTick());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("should share chunks within the same tick only when max age is 0")
+    void shouldShareWithinTickAtZeroAge() {
+        maxAgeTicks = 0;
+        ChunkTerrain first = get(0, 0, 1000);
+
+        assertSame(first, get(0, 0, 1000));
+        assertNotSame(first, get(0, 0, 1001));
+    }
+
+    @Test
+    @DisplayName("should recapture a chunk after a block in it changes")
+    void shouldRecaptureAfterInvalidation() {
+        ChunkTerrain first = get(1, -1, 1000);
+
+        cache.invalidateBlock(20, -3);
+
+        assertNotSame(first, get(1, -1, 1001));
+        assertEquals(2, captures);
+    }
+
+    @Test
+    @DisplayName("should keep other chunks when one is invalidated")
+    void shouldKeepOtherChunks() {
+        ChunkTerrain kept = get(0, 0, 1000);
+        get(1, 0, 1000);
+
+        cache.invalidateChunk(1, 0);
+
+        assertEquals(1, cache.getCachedChunkCount());
+        assertSame(kept, get(0, 0, 1001));
+    }
+
+    @Test
+    @DisplayName("should prune only expired chunks")
+    void shouldPruneExpired() {
+        get(0, 0, 1000);
+        get(1, 0, 1050);
+
+        cache.pruneExpired(1120);
+
+        assertEquals(1, cache.getCachedChunkCount());
+        get(1, 0, 1120);
+        assertEquals(2, captures);
+    }
+
+    @Test
+    @DisplayName("should return null and drop the stale copy of an unloaded chunk")
+    void shouldDropUnloadedChunk() {
+        get(0, 0, 1000);
+        unloaded.add(ChunkSnapshotCache.chunkKey(0, 0));
+
+        // Still fresh: served from cache without touching the world
+        assertNotNull(get(0, 0, 1050));
+
+        assertNull(get(0, 0, 1200));
+        assertEquals(0, cache.getCachedChunkCount());
+    }
+}
@@ -0,0 +1,84 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkTerrain occlusion bitsets.
+ * Chunks are built from synthetic opacity lookups, so no world access is required.
+ */
+class ChunkTerrainTest {
+
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 320;
+
+    private static ChunkTerrain chunk(ChunkTerrain.BlockOcclusion occlusion) {
+        return new ChunkTerrain(null, occlusion, section -> false, MIN_Y, MAX_Y, 0);
+    }
+
+    @Test
+    @DisplayName("should match the source for every block of a section")
+    void shouldMatchSource() {
+        ChunkTerrain.BlockOcclusion source = (x, y, z) -> ((x * 7 + y * 3 + z * 5) % 4) == 0;
+        ChunkTerrain terrain = chunk(source);
+
+        for (int y = 0; y < 32; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    assertEquals(source.isOccluding(x, y, z), terrain.isOccluding(x, y, z), x + "," + y + "," + z);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should map negative Y to the right section")
+    void shouldHandleNegativeY() {
+        ChunkTerrain terrain = chunk((x, y, z) -> y == -60 && x == 3 && z == 9);
+
+        assertTrue(terrain.isOccluding(3, -60, 9));
+        assertFalse(terrain.isOccluding(3, -59, 9));
+        assertFalse(terrain.isOccluding(9, -60, 3));
+    }
+
+    @Test
+    @DisplayName("should treat blocks outside the world height as transparent")
+    void shouldTreatOutOfRangeAsTransparent() {
+        ChunkTerrain terrain = chunk((x, y, z) -> true);
+
+        assertTrue(terrain.isOccluding(0, MIN_Y, 0));
+        assertTrue(terrain.isOccluding(0, MAX_Y - 1, 0));
+        assertFalse(terrain.isOccluding(0, MIN_Y - 1, 0));
+        assertFalse(terrain.isOccluding(0, MAX_Y, 0));
+    }
+
+    @Test
+    @DisplayName("should build only the sections that are queried")
+    void shouldBuildSectionsLazily() {
+        int[] reads = new int[1];
+        ChunkTerrain terrain = chunk((x, y, z) -> {
+            reads[0]++;
+            return false;
+        });
+
+        terrain.isOccluding(0, 64, 0);
+        terrain.isOccluding(15, 70, 15);
+        assertEquals(1, terrain.getBuiltSectionCount());
+        assertEquals(4096, reads[0]);
+
+        terrain.isOccluding(0, 100, 0);
+        assertEquals(2, terrain.getBuiltSectionCount());
+    }
+
+    @Test
+    @DisplayName("should skip reading blocks of empty sections")
+    void shouldSkipEmptySections() {
+        ChunkTerrain terrain = new ChunkTerrain(null, (x, y, z) -> {
+            throw new AssertionError("empty section should not be read");
+        }, section -> true, MIN_Y, MAX_Y, 0);
+
+        assertFalse(terrain.isOccluding(5, 10, 5));
+    }
+}
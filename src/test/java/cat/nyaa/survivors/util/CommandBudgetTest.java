@@ -0,0 +1,154 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommandBudget.
+ */
+class CommandBudgetTest {
+
+    private static final long MS = 1_000_000L;
+
+    private int tick;
+    private double mspt;
+    private double budgetMs;
+    private double queuedShare;
+    private CommandBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        tick = 1;
+        mspt = 10.0;
+        budgetMs = 10.0;
+        queuedShare = 0.3;
+        budget = new CommandBudget(() -> tick, () -> mspt, () -> budgetMs, () -> queuedShare);
+    }
+
+    /**
+     * Dispatches in a lane while the budget allows, each costing the given time.
+     */
+    private int drain(CommandBudget.Lane lane, long costNanos, int max) {
+        int count = 0;
+        while (count < max && budget.tryAcquire(lane)) {
+            budget.record(lane, costNanos);
+            count++;
+        }
+        return count;
+    }
+
+    @Nested
+    @DisplayName("Budget Sizing")
+    class BudgetSizing {
+
+        @Test
+        @DisplayName("should use configured budget when server has headroom")
+        void shouldUseConfiguredBudget() {
+            assertEquals(10 * MS, budget.getBudgetNanos());
+        }
+
+        @Test
+        @DisplayName("should shrink budget as MSPT approaches 50")
+        void shouldShrinkBudgetUnderLoad() {
+            mspt = 44.0;
+            assertEquals(3 * MS, budget.getBudgetNanos());
+        }
+
+        @Test
+        @DisplayName("should keep a minimum budget when overloaded")
+        void shouldKeepMinimumBudget() {
+            mspt = 70.0;
+            assertEquals(MS / 2, budget.getBudgetNanos());
+        }
+
+        @Test
+        @DisplayName("should disable time budget when configured to zero")
+        void shouldDisableWhenZero() {
+            budgetMs = 0;
+            assertEquals(1000, drain(CommandBudget.Lane.SPAWN, 5 * MS, 1000));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lane Limits")
+    class LaneLimits {
+
+        @Test
+        @DisplayName("should stop a lane once its measured cost exhausts the budget")
+        void shouldStopWhenBudgetExhausted() {
+            // Queued lane idle: spawns may use the whole 10 ms
+            assertEquals(10, drain(CommandBudget.Lane.SPAWN, MS, 100));
+        }
+
+        @Test
+        @DisplayName("should always allow one dispatch per lane per tick")
+        void shouldAllowOneDispatchPerTick() {
+            mspt = 70.0;
+            assertEquals(1, drain(CommandBudget.Lane.SPAWN, 5 * MS, 100));
+            assertEquals(1, drain(CommandBudget.Lane.QUEUED, 5 * MS, 100));
+        }
+
+        @Test
+        @DisplayName("should reset usage on the next tick")
+        void shouldResetOnNextTick() {
+            drain(CommandBudget.Lane.SPAWN, MS, 100);
+            assertEquals(10 * MS, budget.getUsedNanos(CommandBudget.Lane.SPAWN));
+
+            tick++;
+            assertEquals(0, budget.getUsedNanos(CommandBudget.Lane.SPAWN));
+            assertTrue(budget.tryAcquire(CommandBudget.Lane.SPAWN));
+        }
+
+        @Test
+        @DisplayName("should smooth dispatch cost")
+        void shouldSmoothDispatchCost() {
+            budget.record(CommandBudget.Lane.QUEUED, 1000);
+            assertEquals(1000.0, budget.getAverageCostNanos(CommandBudget.Lane.QUEUED));
+
+            budget.record(CommandBudget.Lane.QUEUED, 2000);
+            assertEquals(1200.0, budget.getAverageCostNanos(CommandBudget.Lane.QUEUED), 0.001);
+        }
+    }
+
+    @Nested
+    @DisplayName("Starvation")
+    class Starvation {
+
+        @Test
+        @DisplayName("should keep queued share when both lanes are busy")
+        void shouldKeepQueuedShare() {
+            // Tick 1: spawns borrow the idle queued share, then queued commands are held back
+            drain(CommandBudget.Lane.SPAWN, MS, 100);
+            drain(CommandBudget.Lane.QUEUED, MS, 100);
+
+            // Tick 2: queued lane was limited, so spawns are capped at their own 7 ms
+            tick++;
+            assertEquals(7, drain(CommandBudget.Lane.SPAWN, MS, 100));
+            assertEquals(3, drain(CommandBudget.Lane.QUEUED, MS, 100));
+        }
+
+        @Test
+        @DisplayName("should keep spawn share when both lanes are busy")
+        void shouldKeepSpawnShare() {
+            drain(CommandBudget.Lane.QUEUED, MS, 100);
+            drain(CommandBudget.Lane.SPAWN, MS, 100);
+
+            tick++;
+            assertEquals(3, drain(CommandBudget.Lane.QUEUED, MS, 100));
+            assertEquals(7, drain(CommandBudget.Lane.SPAWN, MS, 100));
+        }
+
+        @Test
+        @DisplayName("should lend unused share to the busy lane")
+        void shouldLendUnusedShare() {
+            assertEquals(10, drain(CommandBudget.Lane.QUEUED, MS, 100));
+
+            tick++;
+            assertEquals(10, drain(CommandBudget.Lane.QUEUED, MS, 100));
+        }
+    }
+}
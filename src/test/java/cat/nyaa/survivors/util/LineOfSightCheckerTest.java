@@ -4,6 +4,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.*;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -15,6 +17,23 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class LineOfSightCheckerTest {
 
+    /**
+     * Records the blocks a traversal visits, in order, over fully transparent terrain.
+     */
+    private static List<List<Integer>> visit(double x0, double y0, double z0, double x1, double y1, double z1) {
+        List<List<Integer>> visited = new ArrayList<>();
+        LineOfSightChecker checker = LineOfSightChecker.forLookup((x, y, z) -> {
+            visited.add(List.of(x, y, z));
+            return false;
+        });
+        assertTrue(checker.hasLineOfSight(x0, y0, z0, x1, y1, z1));
+        return visited;
+    }
+
+    private static LineOfSightChecker withOpaque(Set<List<Integer>> opaque) {
+        return LineOfSightChecker.forLookup((x, y, z) -> opaque.contains(List.of(x, y, z)));
+    }
+
     @Nested
     @DisplayName("Bresenham Algorithm Logic")
     class BresenhamAlgorithmTests {
@@ -313,4 +332,176 @@ class LineOfSightCheckerTest {
             assertTrue(inBounds, "Y=64 should be in bounds");
         }
     }
+
+    @Nested
+    @DisplayName("Voxel Traversal")
+    class VoxelTraversalTests {
+
+        @Test
+        @DisplayName("should visit all blocks along horizontal line")
+        void shouldVisitAllBlocksHorizontal() {
+            List<List<Integer>> visited = visit(0.5, 0.5, 0.5, 5.5, 0.5, 0.5);
+
+            assertEquals(6, visited.size(), "Should visit 6 blocks (0 to 5 inclusive)");
+            for (int i = 0; i < visited.size(); i++) {
+                assertEquals(List.of(i, 0, 0), visited.get(i));
+            }
+        }
+
+        @Test
+        @DisplayName("should visit all blocks along vertical line")
+        void shouldVisitAllBlocksVertical() {
+            List<List<Integer>> visited = visit(5.5, 10.5, 5.5, 5.5, 20.5, 5.5);
+
+            assertEquals(11, visited.size());
+            assertEquals(List.of(5, 10, 5), visited.get(0));
+            assertEquals(List.of(5, 20, 5), visited.get(10));
+        }
+
+        @Test
+        @DisplayName("should walk negative directions from start to end")
+        void shouldWalkNegativeDirection() {
+            List<List<Integer>> visited = visit(10.5, 10.5, 10.5, 0.5, 10.5, 0.5);
+
+            assertEquals(List.of(10, 10, 10), visited.get(0));
+            assertEquals(List.of(0, 10, 0), visited.get(visited.size() - 1));
+            assertEquals(21, visited.size(), "Each step crosses exactly one block face");
+        }
+
+        @Test
+        @DisplayName("should treat the same block as clear without lookups")
+        void shouldHandleSamePoint() {
+            LineOfSightChecker checker = LineOfSightChecker.forLookup((x, y, z) -> {
+                throw new AssertionError("no lookup expected");
+            });
+
+            assertTrue(checker.hasLineOfSight(5.2, 10.1, 15.9, 5.8, 10.9, 15.1));
+        }
+
+        @Test
+        @DisplayName("should visit every block the sampled line visited")
+        void shouldCoverSampledBlocks() {
+            // Same endpoints as the interpolation cases above
+            List<List<Integer>> visited = visit(0.5, 0.5, 0.5, 4.5, 2.5, 0.5);
+
+            for (int i = 0; i <= 4; i++) {
+                int y = 2 * i / 4;
+                assertTrue(visited.contains(List.of(i, y, 0)), "missing " + i + "," + y);
+            }
+            assertEquals(7, visited.size(), "4 + 2 face crossings after the start block");
+        }
+
+        @Test
+        @DisplayName("should catch diagonal blocks that sampling skips")
+        void shouldCatchSkippedDiagonalBlocks() {
+            // Sampling (0,0),(1,0),(2,1),(3,2) steps over (2,2); the real line passes through it
+            LineOfSightChecker checker = withOpaque(Set.of(List.of(2, 0, 2)));
+
+            assertFalse(checker.hasLineOfSight(0.5, 0.5, 0.5, 3.5, 0.5, 2.5));
+        }
+
+        @Test
+        @DisplayName("should report the first opaque block from the start")
+        void shouldReportFirstHit() {
+            LineOfSightChecker checker = withOpaque(Set.of(List.of(5, 64, 0), List.of(3, 64, 0)));
+
+            assertEquals(new LineOfSightChecker.BlockHit(3, 64, 0), checker.findFirstHit(0.5, 64.5, 0.5, 8.5, 64.5, 0.5));
+            assertEquals(new LineOfSightChecker.BlockHit(5, 64, 0), checker.findFirstHit(8.5, 64.5, 0.5, 0.5, 64.5, 0.5));
+            assertNull(checker.findFirstHit(0.5, 65.5, 0.5, 8.5, 65.5, 0.5));
+        }
+
+        @Test
+        @DisplayName("should include both end blocks")
+        void shouldIncludeEndBlocks() {
+            assertFalse(withOpaque(Set.of(List.of(0, 0, 0))).hasLineOfSight(0.5, 0.5, 0.5, 6.5, 0.5, 0.5));
+            assertFalse(withOpaque(Set.of(List.of(6, 0, 0))).hasLineOfSight(0.5, 0.5, 0.5, 6.5, 0.5, 0.5));
+        }
+
+        @Test
+        @DisplayName("should visit a connected path covering densely sampled points")
+        void shouldCoverDenseSamples() {
+            Random random = new Random(42);
+            for (int ray = 0; ray < 500; ray++) {
+                double x0 = random.nextDouble() * 40 - 20, y0 = random.nextDouble() * 20, z0 = random.nextDouble() * 40 - 20;
+                double x1 = random.nextDouble() * 40 - 20, y1 = random.nextDouble() * 20, z1 = random.nextDouble() * 40 - 20;
+
+                List<List<Integer>> visited = visit(x0, y0, z0, x1, y1, z1);
+                Set<List<Integer>> visitedSet = new HashSet<>(visited);
+
+                for (int i = 0; i < visited.size() - 1; i++) {
+                    List<Integer> a = visited.get(i), b = visited.get(i + 1);
+                    int distance = Math.abs(a.get(0) - b.get(0)) + Math.abs(a.get(1) - b.get(1)) + Math.abs(a.get(2) - b.get(2));
+                    assertEquals(1, distance, "consecutive blocks must share a face");
+                }
+                assertEquals(List.of((int) Math.floor(x1), (int) Math.floor(y1), (int) Math.floor(z1)),
+                        visited.get(visited.size() - 1));
+
+                for (int s = 0; s <= 2000; s++) {
+                    double t = s / 2000.0;
+                    List<Integer> block = List.of((int) Math.floor(x0 + (x1 - x0) * t),
+                            (int) Math.floor(y0 + (y1 - y0) * t), (int) Math.floor(z0 + (z1 - z0) * t));
+                    assertTrue(visitedSet.contains(block), "ray " + ray + " missed " + block);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Captured Terrain")
+    class CapturedTerrainTests {
+
+        private static final int MIN_Y = -64;
+        private static final int MAX_Y = 320;
+
+        /**
+         * 3x3 chunks starting at chunk (-1, -1); chunk (1, 1) is not captured.
+         *
+         * @param scattered fill chunks with a pseudo-random block pattern instead of air
+         */
+        private TerrainSnapshot terrain(boolean scattered) {
+            ChunkTerrain[] chunks = new ChunkTerrain[9];
+            for (int i = 0; i < 8; i++) {
+                int seed = i;
+                chunks[i] = new ChunkTerrain(null,
+                        (x, y, z) -> scattered && Math.floorMod(x * 31 + y * 17 + z * 13 + seed, 23) == 0,
+                        section -> false, MIN_Y, MAX_Y, 0);
+            }
+            return TerrainSnapshot.of("arena", -1, -1, 3, 3, chunks, MIN_Y, MAX_Y);
+        }
+
+        @Test
+        @DisplayName("should match block lookups across chunk boundaries")
+        void shouldMatchLookupAcrossChunks() {
+            TerrainSnapshot terrain = terrain(true);
+            LineOfSightChecker cached = LineOfSightChecker.forTerrain(terrain);
+            LineOfSightChecker direct = LineOfSightChecker.forLookup(terrain::isOccluding);
+
+            Random random = new Random(7);
+            for (int ray = 0; ray < 2000; ray++) {
+                double x0 = random.nextDouble() * 48 - 16, y0 = 60 + random.nextDouble() * 10, z0 = random.nextDouble() * 48 - 16;
+                double x1 = random.nextDouble() * 48 - 16, y1 = 60 + random.nextDouble() * 10, z1 = random.nextDouble() * 48 - 16;
+
+                assertEquals(direct.findFirstHit(x0, y0, z0, x1, y1, z1), cached.findFirstHit(x0, y0, z0, x1, y1, z1));
+                assertEquals(direct.hasLineOfSight(x0, y0, z0, x1, y1, z1), cached.hasLineOfSight(x0, y0, z0, x1, y1, z1));
+            }
+        }
+
+        @Test
+        @DisplayName("should treat uncaptured chunks as blocked")
+        void shouldBlockUncapturedChunks() {
+            LineOfSightChecker checker = LineOfSightChecker.forTerrain(terrain(false));
+
+            assertNull(checker.findFirstHit(20.5, 400.5, 20.5, 20.5, 400.5, 40.5),
+                    "above the world height is transparent");
+            assertEquals(new LineOfSightChecker.BlockHit(16, 100, 20),
+                    checker.findFirstHit(8.5, 100.5, 20.5, 20.5, 100.5, 20.5));
+            assertTrue(checker.hasLineOfSight(-8.5, 100.5, -8.5, 8.5, 100.5, 8.5));
+        }
+
+        @Test
+        @DisplayName("should count only captured chunks")
+        void shouldCountCapturedChunks() {
+            assertEquals(8, LineOfSightChecker.forTerrain(terrain(false)).getChunkCount());
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LruCache.
+ */
+class LruCacheTest {
+
+    @Nested
+    @DisplayName("Caching")
+    class Caching {
+
+        @Test
+        @DisplayName("should compute a value once per key")
+        void shouldComputeOncePerKey() {
+            LruCache<String, Integer> cache = new LruCache<>(4);
+            List<String> loaded = new ArrayList<>();
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(Integer.valueOf(1), cache.get("a", key -> { loaded.add(key); return 1; }));
+            }
+
+            assertEquals(List.of("a"), loaded);
+            assertEquals(2, cache.getHits());
+            assertEquals(1, cache.getMisses());
+        }
+
+        @Test
+        @DisplayName("should evict the least recently used entry when full")
+        void shouldEvictLeastRecentlyUsed() {
+            LruCache<String, String> cache = new LruCache<>(2);
+            cache.get("a", key -> key);
+            cache.get("b", key -> key);
+            cache.get("a", key -> key); // a is now the most recent
+            cache.get("c", key -> key);
+
+            List<String> loaded = new ArrayList<>();
+            cache.get("a", key -> { loaded.add(key); return key; });
+            cache.get("b", key -> { loaded.add(key); return key; });
+
+            assertEquals(List.of("b"), loaded);
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        @DisplayName("should not cache null values")
+        void shouldNotCacheNull() {
+            LruCache<String, String> cache = new LruCache<>(2);
+
+            assertNull(cache.get("a", key -> null));
+            assertEquals(0, cache.size());
+        }
+    }
+}
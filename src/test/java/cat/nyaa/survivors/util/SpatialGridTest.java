@@ -0,0 +1,130 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpatialGrid range queries.
+ */
+class SpatialGridTest {
+
+    private SpatialGrid<String> grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new SpatialGrid<>(16.0);
+    }
+
+    @Nested
+    @DisplayName("Sphere Queries")
+    class SphereQueries {
+
+        @Test
+        @DisplayName("should count points within radius inclusive")
+        void shouldCountWithinRadius() {
+            grid.insert(0, 64, 0, "center");
+            grid.insert(10, 64, 0, "edge");
+            grid.insert(10.01, 64, 0, "outside");
+            grid.insert(0, 74, 0, "above");
+
+            assertEquals(3, grid.countInSphere(0, 64, 0, 10, null));
+        }
+
+        @Test
+        @DisplayName("should find points across cell and sign boundaries")
+        void shouldFindAcrossCells() {
+            grid.insert(-1, 64, -1, "a");
+            grid.insert(1, 64, 1, "b");
+            grid.insert(-17, 64, 15, "c");
+
+            List<String> found = new ArrayList<>();
+            grid.forEachInSphere(0, 64, 0, 3, found::add);
+
+            assertEquals(List.of("a", "b"), found.stream().sorted().toList());
+            assertEquals(3, grid.countInSphere(-8, 64, 8, 30, null));
+        }
+
+        @Test
+        @DisplayName("should apply filter")
+        void shouldApplyFilter() {
+            grid.insert(0, 64, 0, "keep");
+            grid.insert(1, 64, 0, "drop");
+
+            assertEquals(1, grid.countInSphere(0, 64, 0, 5, "keep"::equals));
+        }
+    }
+
+    @Nested
+    @DisplayName("Box Queries")
+    class BoxQueries {
+
+        @Test
+        @DisplayName("should include box corners excluded by sphere")
+        void shouldIncludeCorners() {
+            grid.insert(9, 73, 9, "corner");
+
+            assertEquals(1, grid.countInBox(0, 64, 0, 10, null));
+            assertEquals(0, grid.countInSphere(0, 64, 0, 10, null));
+        }
+
+        @Test
+        @DisplayName("should match brute force on random points")
+        void shouldMatchBruteForce() {
+            Random random = new Random(42);
+            List<double[]> points = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                double[] p = {random.nextDouble() * 200 - 100, 60 + random.nextDouble() * 20, random.nextDouble() * 200 - 100};
+                points.add(p);
+                grid.insert(p[0], p[1], p[2], "p" + i);
+            }
+
+            for (int q = 0; q < 50; q++) {
+                double x = random.nextDouble() * 200 - 100;
+                double z = random.nextDouble() * 200 - 100;
+                double r = 5 + random.nextDouble() * 40;
+
+                int box = 0;
+                int sphere = 0;
+                for (double[] p : points) {
+                    double dx = p[0] - x, dy = p[1] - 70, dz = p[2] - z;
+                    if (Math.abs(dx) <= r && Math.abs(dy) <= r && Math.abs(dz) <= r) box++;
+                    if (dx * dx + dy * dy + dz * dz <= r * r) sphere++;
+                }
+
+                assertEquals(box, grid.countInBox(x, 70, z, r, null));
+                assertEquals(sphere, grid.countInSphere(x, 70, z, r, null));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Lifecycle")
+    class Lifecycle {
+
+        @Test
+        @DisplayName("should be empty after clear")
+        void shouldBeEmptyAfterClear() {
+            grid.insert(0, 64, 0, "a");
+            assertEquals(1, grid.size());
+
+            grid.clear();
+
+            assertEquals(0, grid.size());
+            assertEquals(0, grid.countInSphere(0, 64, 0, 100, null));
+        }
+
+        @Test
+        @DisplayName("should reject non-positive cell size")
+        void shouldRejectInvalidCellSize() {
+            assertThrows(IllegalArgumentException.class, () -> new SpatialGrid<String>(0));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static cat.nyaa.survivors.util.SpawnabilityIndex.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpawnabilityIndex column building and lookup.
+ * Columns are built from synthetic block kinds, so no world access is required.
+ */
+class SpawnabilityIndexTest {
+
+    private static final int MIN_Y = -64;
+
+    /**
+     * Builds a column kind lookup from a bottom-up array starting at MIN_Y.
+     */
+    private static int[] build(int... kindsFromMinY) {
+        return buildColumn(y -> {
+            int index = y - MIN_Y;
+            return index < kindsFromMinY.length ? kindsFromMinY[index] : KIND_OPEN;
+        }, MIN_Y, MIN_Y + kindsFromMinY.length + 1);
+    }
+
+    private static int[] decodeAll(int[] column) {
+        int[] ys = new int[column.length];
+        for (int i = 0; i < column.length; i++) {
+            ys[i] = decodeY(column[i]);
+        }
+        return ys;
+    }
+
+    @Nested
+    @DisplayName("Column Building")
+    class ColumnBuilding {
+
+        @Test
+        @DisplayName("should record standing spot above solid ground with two open blocks")
+        void shouldRecordStandingSpotAboveGround() {
+            int[] column = build(KIND_SOLID, KIND_SOLID, KIND_OPEN, KIND_OPEN);
+
+            assertArrayEquals(new int[]{MIN_Y + 2}, decodeAll(column));
+            assertTrue(isDry(column[0]));
+        }
+
+        @Test
+        @DisplayName("should reject spots with one-block headroom")
+        void shouldRejectLowCeiling() {
+            int[] column = build(KIND_SOLID, KIND_OPEN, KIND_SOLID, KIND_SOLID);
+
+            // Only the roof top qualifies (air above the column)
+            assertArrayEquals(new int[]{MIN_Y + 4}, decodeAll(column));
+        }
+
+        @Test
+        @DisplayName("should record multiple floors in ascending order")
+        void shouldRecordMultipleFloors() {
+            int[] column = build(
+                    KIND_SOLID, KIND_OPEN, KIND_OPEN, KIND_OPEN,
+                    KIND_SOLID, KIND_OPEN, KIND_OPEN
+            );
+
+            assertArrayEquals(new int[]{MIN_Y + 1, MIN_Y + 5}, decodeAll(column));
+        }
+
+        @Test
+        @DisplayName("should mark liquid spots as not dry")
+        void shouldMarkLiquidSpotsAsNotDry() {
+            int[] feetWet = build(KIND_SOLID, KIND_LIQUID, KIND_OPEN);
+            int[] headWet = build(KIND_SOLID, KIND_OPEN, KIND_LIQUID);
+
+            assertArrayEquals(new int[]{MIN_Y + 1}, decodeAll(feetWet));
+            assertFalse(isDry(feetWet[0]), "Feet in water");
+            assertArrayEquals(new int[]{MIN_Y + 1}, decodeAll(headWet));
+            assertFalse(isDry(headWet[0]), "Head in water");
+        }
+
+        @Test
+        @DisplayName("should not stand on liquid")
+        void shouldNotStandOnLiquid() {
+            int[] column = build(KIND_LIQUID, KIND_OPEN, KIND_OPEN);
+
+            assertEquals(0, column.length);
+        }
+
+        @Test
+        @DisplayName("should treat blocks at or above top as open air")
+        void shouldTreatTopAsOpenAir() {
+            // Y=6 is solid but lies at topY, so it is never read
+            int[] column = buildColumn(y -> y < 5 || y == 6 ? KIND_SOLID : KIND_OPEN, 0, 6);
+
+            assertArrayEquals(new int[]{5}, decodeAll(column), "Head at topY is assumed open");
+        }
+
+        @Test
+        @DisplayName("should return empty column for empty range")
+        void shouldReturnEmptyForEmptyRange() {
+            assertEquals(0, buildColumn(y -> KIND_SOLID, 0, 1).length);
+        }
+    }
+
+    @Nested
+    @DisplayName("Nearest Standing Y")
+    class NearestStandingY {
+
+        private final int[] floors = build(
+                KIND_SOLID, KIND_OPEN, KIND_OPEN, KIND_OPEN,
+                KIND_SOLID, KIND_OPEN, KIND_OPEN, KIND_OPEN,
+                KIND_SOLID, KIND_OPEN, KIND_OPEN
+        ); // standing at MIN_Y+1, MIN_Y+5, MIN_Y+9
+
+        @Test
+        @DisplayName("should return exact level when standable")
+        void shouldReturnExactLevel() {
+            assertEquals(MIN_Y + 5, nearestStandingY(floors, MIN_Y + 5, 10));
+        }
+
+        @Test
+        @DisplayName("should prefer above on equal distance")
+        void shouldPreferAboveOnTie() {
+            assertEquals(MIN_Y + 5, nearestStandingY(floors, MIN_Y + 3, 10));
+        }
+
+        @Test
+        @DisplayName("should pick closer level below")
+        void shouldPickCloserBelow() {
+            assertEquals(MIN_Y + 5, nearestStandingY(floors, MIN_Y + 6, 10));
+        }
+
+        @Test
+        @DisplayName("should respect vertical range")
+        void shouldRespectVerticalRange() {
+            assertEquals(NONE, nearestStandingY(floors, MIN_Y + 3, 1));
+            assertEquals(NONE, nearestStandingY(floors, MIN_Y + 30, 10));
+        }
+
+        @Test
+        @DisplayName("should match outward search order of the old block scan")
+        void shouldMatchOutwardSearchOrder() {
+            for (int target = MIN_Y - 5; target < MIN_Y + 20; target++) {
+                for (int range = 0; range <= 6; range++) {
+                    assertEquals(scan(floors, target, range), nearestStandingY(floors, target, range),
+                            "target=" + target + ", range=" + range);
+                }
+            }
+        }
+
+        private int scan(int[] column, int target, int range) {
+            for (int offset = 0; offset <= range; offset++) {
+                if (contains(column, target + offset)) return target + offset;
+                if (offset > 0 && contains(column, target - offset)) return target - offset;
+            }
+            return NONE;
+        }
+
+        private boolean contains(int[] column, int y) {
+            for (int encoded : column) {
+                if (decodeY(encoded) == y) return true;
+            }
+            return false;
+        }
+
+        @Test
+        @DisplayName("should handle null and empty columns")
+        void shouldHandleMissingColumns() {
+            assertEquals(NONE, nearestStandingY(null, 0, 10));
+            assertEquals(NONE, nearestStandingY(new int[0], 0, 10));
+        }
+    }
+
+    @Nested
+    @DisplayName("Highest Standing Y")
+    class HighestStandingY {
+
+        @Test
+        @DisplayName("should return top standing spot")
+        void shouldReturnTopSpot() {
+            int[] column = build(KIND_SOLID, KIND_OPEN, KIND_OPEN, KIND_SOLID, KIND_OPEN, KIND_OPEN);
+            assertEquals(MIN_Y + 4, highestStandingY(column, false));
+        }
+
+        @Test
+        @DisplayName("should skip wet spots when dry is required")
+        void shouldSkipWetSpots() {
+            int[] column = build(
+                    KIND_SOLID, KIND_OPEN, KIND_OPEN, KIND_SOLID,
+                    KIND_LIQUID, KIND_LIQUID
+            );
+
+            assertEquals(MIN_Y + 4, highestStandingY(column, false));
+            assertEquals(MIN_Y + 1, highestStandingY(column, true));
+        }
+
+        @Test
+        @DisplayName("should return none for null column")
+        void shouldReturnNoneForNull() {
+            assertEquals(NONE, highestStandingY(null, true));
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class Invalidation {
+
+        @Test
+        @DisplayName("should not store columns captured before the chunk changed")
+        void shouldRejectColumnsCapturedBeforeInvalidation() {
+            SpawnabilityIndex index = new SpawnabilityIndex("arena");
+            long capturedBefore = System.nanoTime();
+            index.invalidateChunk(0, 0);
+
+            int[] column = build(KIND_SOLID, KIND_OPEN, KIND_OPEN);
+            assertSame(column, index.storeColumn(3, 5, column, capturedBefore));
+            assertNull(index.getCachedColumn(3, 5));
+        }
+
+        @Test
+        @DisplayName("should store columns of a chunk recaptured after the change")
+        void shouldStoreColumnsCapturedAfterInvalidation() {
+            SpawnabilityIndex index = new SpawnabilityIndex("arena");
+            index.invalidateChunk(0, 0);
+            long recaptured = System.nanoTime() + 1;
+
+            int[] column = build(KIND_SOLID, KIND_OPEN, KIND_OPEN);
+            index.storeColumn(3, 5, column, recaptured);
+            assertSame(column, index.getCachedColumn(3, 5));
+        }
+
+        @Test
+        @DisplayName("should only affect the invalidated chunk")
+        void shouldKeepOtherChunks() {
+            SpawnabilityIndex index = new SpawnabilityIndex("arena");
+            long captured = System.nanoTime();
+            index.invalidateChunk(0, 0);
+
+            int[] column = build(KIND_SOLID, KIND_OPEN, KIND_OPEN);
+            index.storeColumn(20, 5, column, captured);
+            assertSame(column, index.getCachedColumn(20, 5));
+        }
+
+        @Test
+        @DisplayName("should forget only stamps older than the oldest capture in use")
+        void shouldPruneOldStamps() {
+            SpawnabilityIndex index = new SpawnabilityIndex("arena");
+            long capturedBefore = System.nanoTime();
+            index.invalidateChunk(0, 0);
+            index.invalidateChunk(1, 0);
+
+            // A capture from before the changes may still be stored: keep both stamps
+            index.pruneInvalidations(capturedBefore);
+            assertEquals(2, index.getInvalidationCount());
+
+            index.pruneInvalidations(System.nanoTime() + 1);
+            assertEquals(0, index.getInvalidationCount());
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -326,4 +327,94 @@ class TemplateEngineTest {
             assertEquals("Hello {missing}!", engine.expand(template, Map.of()));
         }
     }
+
+    @Nested
+    @DisplayName("Compiled Templates")
+    class CompiledTemplates {
+
+        @Test
+        @DisplayName("should split template into placeholders")
+        void shouldSplitTemplateIntoPlaceholders() {
+            TemplateEngine.CompiledTemplate compiled = engine.compile("summon {enemyType} {sx} {sy} {sz}");
+            assertEquals(List.of("enemyType", "sx", "sy", "sz"), compiled.getPlaceholders());
+        }
+
+        @Test
+        @DisplayName("should cache compiled templates by string")
+        void shouldCacheCompiledTemplates() {
+            assertSame(engine.compile("tp {player}"), engine.compile("tp {player}"));
+        }
+
+        @Test
+        @DisplayName("should treat malformed braces as literal text")
+        void shouldTreatMalformedBracesAsLiteral() {
+            TemplateEngine.CompiledTemplate compiled = engine.compile("{} {a-b} {{x}} {open");
+            assertEquals(List.of("x"), compiled.getPlaceholders());
+            assertEquals("{} {a-b} {1} {open", engine.expand("{} {a-b} {{x}} {open", Map.of("x", 1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Slot Expansion")
+    class SlotExpansion {
+
+        private final TemplateEngine.SlotLayout layout = TemplateEngine.SlotLayout.of("sx", "enemyType", "runWorld");
+
+        @Test
+        @DisplayName("should expand text and integer slots")
+        void shouldExpandTextAndIntegerSlots() {
+            TemplateEngine.Slots slots = layout.newSlots()
+                    .set(0, -12)
+                    .set(1, "minecraft:zombie")
+                    .set(2, "arena");
+            assertEquals("summon minecraft:zombie -12 in arena",
+                    engine.expandSlots("summon {enemyType} {sx} in {runWorld}", slots));
+        }
+
+        @Test
+        @DisplayName("should match map expansion for the same values")
+        void shouldMatchMapExpansion() {
+            String template = "execute in {runWorld} run summon {enemyType} {sx} 64 0; {unknown}";
+            TemplateEngine.Slots slots = layout.newSlots()
+                    .set(0, 5)
+                    .set(1, "zombie")
+                    .set(2, "world;evil");
+            Map<String, Object> context = Map.of("sx", 5, "enemyType", "zombie", "runWorld", "world;evil");
+
+            assertEquals(engine.expand(template, context), engine.expandSlots(template, slots));
+        }
+
+        @Test
+        @DisplayName("should escape text slots")
+        void shouldEscapeTextSlots() {
+            TemplateEngine.Slots slots = layout.newSlots().set(1, "a;b");
+            assertEquals("a\\;b", engine.expandSlots("{enemyType}", slots));
+        }
+
+        @Test
+        @DisplayName("should apply missing mode to unset and unknown slots")
+        void shouldApplyMissingModeToUnsetSlots() {
+            TemplateEngine.Slots slots = layout.newSlots().set(0, 1);
+            assertEquals("1 {enemyType} {other}", engine.expandSlots("{sx} {enemyType} {other}", slots));
+
+            engine.setMissingPlaceholderMode(TemplateEngine.MissingPlaceholderMode.EMPTY);
+            assertEquals("1  ", engine.expandSlots("{sx} {enemyType} {other}", slots));
+        }
+
+        @Test
+        @DisplayName("should reuse slots after clear")
+        void shouldReuseSlotsAfterClear() {
+            TemplateEngine.Slots slots = layout.newSlots().set(1, "zombie");
+            assertEquals("zombie", engine.expandSlots("{enemyType}", slots));
+
+            slots.clear();
+            assertEquals("{enemyType}", engine.expandSlots("{enemyType}", slots));
+        }
+
+        @Test
+        @DisplayName("should reject duplicate slot names")
+        void shouldRejectDuplicateSlotNames() {
+            assertThrows(IllegalArgumentException.class, () -> TemplateEngine.SlotLayout.of("a", "a"));
+        }
+    }
 }
@@ -0,0 +1,262 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TickDriver.
+ */
+class TickDriverTest {
+
+    private static final long MS = 1_000_000L;
+
+    private int tick;
+    private long nanos;
+    private double tickBudgetMs;
+    private double ownerBudgetMs;
+    private int staggerTicks;
+    private TickDriver driver;
+    private List<String> log;
+
+    @BeforeEach
+    void setUp() {
+        tick = 0;
+        nanos = 0;
+        tickBudgetMs = 0;
+        ownerBudgetMs = 0;
+        staggerTicks = 20;
+        log = new ArrayList<>();
+        driver = new TickDriver(null, Logger.getLogger("TickDriverTest"), () -> tick, () -> nanos,
+                () -> tickBudgetMs, () -> ownerBudgetMs, () -> staggerTicks);
+    }
+
+    /**
+     * Advances one tick and runs the driver.
+     */
+    private void step() {
+        tick++;
+        driver.tick();
+    }
+
+    private void steps(int count) {
+        for (int i = 0; i < count; i++) {
+            step();
+        }
+    }
+
+    /**
+     * An action that logs its name and advances the clock by its cost.
+     */
+    private Runnable work(String name, long costNanos) {
+        return () -> {
+            log.add(name + "@" + tick);
+            nanos += costNanos;
+        };
+    }
+
+    @Nested
+    @DisplayName("Scheduling")
+    class Scheduling {
+
+        @Test
+        @DisplayName("should run after delay and then every period")
+        void shouldRunAfterDelayThenEveryPeriod() {
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 3, 5, work("a", 0));
+
+            steps(13);
+
+            assertEquals(List.of("a@3", "a@8", "a@13"), log);
+        }
+
+        @Test
+        @DisplayName("should stop running cancelled job")
+        void shouldStopCancelledJob() {
+            TickDriver.Job job = driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 1, work("a", 0));
+            steps(2);
+            job.cancel();
+            steps(3);
+
+            assertEquals(List.of("a@1", "a@2"), log);
+            assertEquals(0, driver.getJobCount());
+        }
+
+        @Test
+        @DisplayName("should cancel all jobs of an owner")
+        void shouldCancelAllJobsOfOwner() {
+            UUID run = UUID.randomUUID();
+            driver.schedule(run, TickDriver.Phase.BATTERY, 1, 1, work("battery", 0));
+            driver.schedule(run, TickDriver.Phase.MERCHANT, 1, 1, work("merchant", 0));
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 1, work("other", 0));
+
+            driver.cancelAll(run);
+            step();
+
+            assertEquals(List.of("other@1"), log);
+        }
+
+        @Test
+        @DisplayName("should run an owner's jobs in phase order")
+        void shouldRunInPhaseOrder() {
+            UUID run = UUID.randomUUID();
+            driver.schedule(run, TickDriver.Phase.SPAWNER, 1, 1, work("spawner", 0));
+            driver.schedule(run, TickDriver.Phase.MERCHANT, 1, 1, work("merchant", 0));
+            driver.schedule(run, TickDriver.Phase.BATTERY, 1, 1, work("battery", 0));
+
+            step();
+
+            assertEquals(List.of("battery@1", "merchant@1", "spawner@1"), log);
+        }
+
+        @Test
+        @DisplayName("should keep running other jobs when one throws")
+        void shouldSurviveFailingJob() {
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 1, () -> {
+                throw new IllegalStateException("boom");
+            });
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 1, work("ok", 0));
+
+            steps(2);
+
+            assertEquals(List.of("ok@1", "ok@2"), log);
+        }
+    }
+
+    @Nested
+    @DisplayName("Budgets")
+    class Budgets {
+
+        @Test
+        @DisplayName("should defer deferrable jobs past the tick budget")
+        void shouldDeferPastTickBudget() {
+            tickBudgetMs = 2;
+            for (int i = 0; i < 4; i++) {
+                driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 100, work("r" + i, MS));
+            }
+
+            step();
+            assertEquals(2, driver.getLastRunCount());
+            assertEquals(2, driver.getLastDeferredCount());
+
+            step();
+            assertEquals(4, log.size());
+        }
+
+        @Test
+        @DisplayName("should defer an owner's jobs past its own budget")
+        void shouldDeferPastOwnerBudget() {
+            ownerBudgetMs = 1;
+            UUID busy = UUID.randomUUID();
+            driver.schedule(busy, TickDriver.Phase.BATTERY, 1, 100, work("busy-battery", 2 * MS));
+            driver.schedule(busy, TickDriver.Phase.MERCHANT, 1, 100, work("busy-merchant", MS));
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 100, work("calm", MS));
+
+            step();
+
+            assertTrue(log.contains("busy-battery@1"));
+            assertTrue(log.contains("calm@1"));
+            assertFalse(log.contains("busy-merchant@1"));
+
+            step();
+            assertTrue(log.contains("busy-merchant@2"));
+        }
+
+        @Test
+        @DisplayName("should keep cadence after a deferral")
+        void shouldKeepCadenceAfterDeferral() {
+            tickBudgetMs = 1;
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 10, work("a", MS));
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 10, work("b", MS));
+
+            steps(2);
+            assertEquals(2, log.size());
+
+            // The one deferred to tick 2 still runs again at tick 11
+            tickBudgetMs = 0;
+            steps(9);
+            assertEquals(4, log.size());
+            assertTrue(log.contains("a@11"));
+            assertTrue(log.contains("b@11"));
+        }
+
+        @Test
+        @DisplayName("should always run timing-sensitive phases")
+        void shouldAlwaysRunTimingSensitivePhases() {
+            tickBudgetMs = 1;
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 100, work("heavy", 5 * MS));
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.COUNTDOWN, 1, 100, work("countdown", MS));
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.DISPLAY, 1, 100, work("flash", MS));
+
+            step();
+
+            assertTrue(log.contains("countdown@1"));
+            assertTrue(log.contains("flash@1"));
+        }
+
+        @Test
+        @DisplayName("should run at least one job per tick")
+        void shouldRunAtLeastOneJob() {
+            tickBudgetMs = 0.001;
+            ownerBudgetMs = 0.001;
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 100, work("a", 10 * MS));
+            driver.schedule(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 100, work("b", 10 * MS));
+
+            step();
+            assertEquals(1, log.size());
+
+            step();
+            assertEquals(2, log.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Staggering")
+    class Staggering {
+
+        @Test
+        @DisplayName("should spread first runs of same-period jobs over different ticks")
+        void shouldSpreadFirstRuns() {
+            for (int i = 0; i < 4; i++) {
+                driver.scheduleStaggered(UUID.randomUUID(), TickDriver.Phase.BATTERY, 10, 100, work("r" + i, 0));
+            }
+
+            steps(20);
+
+            assertEquals(List.of("r0@10", "r1@11", "r2@12", "r3@13"), log);
+        }
+
+        @Test
+        @DisplayName("should keep offsets within the stagger window")
+        void shouldKeepOffsetsWithinWindow() {
+            staggerTicks = 2;
+            for (int i = 0; i < 4; i++) {
+                driver.scheduleStaggered(UUID.randomUUID(), TickDriver.Phase.BATTERY, 10, 100, work("r" + i, 0));
+            }
+
+            steps(20);
+
+            assertEquals(Set.of("r0@10", "r2@10", "r1@11", "r3@11"), new HashSet<>(log));
+        }
+
+        @Test
+        @DisplayName("should not stagger beyond the period")
+        void shouldNotStaggerBeyondPeriod() {
+            driver.scheduleStaggered(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 1, work("a", 0));
+            driver.scheduleStaggered(UUID.randomUUID(), TickDriver.Phase.BATTERY, 1, 1, work("b", 0));
+
+            step();
+
+            assertEquals(2, log.size());
+        }
+    }
+}
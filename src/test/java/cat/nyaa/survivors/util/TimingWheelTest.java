@@ -0,0 +1,206 @@
+package cat.nyaa.survivors.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TimingWheel.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 50L;
+    private static final long START = 1_700_000_000_000L;
+
+    private long now;
+    private TimingWheel wheel;
+    private List<String> fired;
+
+    @BeforeEach
+    void setUp() {
+        now = START;
+        fired = new ArrayList<>();
+        wheel = new TimingWheel(Logger.getLogger("TimingWheelTest"), () -> now, TICK);
+    }
+
+    /**
+     * Moves the clock forward one tick at a time, advancing the wheel each tick.
+     */
+    private void advanceBy(long millis) {
+        long end = now + millis;
+        while (now < end) {
+            now = Math.min(end, now + TICK);
+            wheel.advance();
+        }
+    }
+
+    /**
+     * A callback that records the time it fired at.
+     */
+    private Runnable record(String name) {
+        return () -> fired.add(name + "@" + (now - START));
+    }
+
+    @Nested
+    @DisplayName("Expiry")
+    class Expiry {
+
+        @Test
+        @DisplayName("should fire at the first tick at or after the deadline")
+        void shouldFireAtDeadline() {
+            wheel.scheduleAfter(120, record("a"));
+
+            advanceBy(100);
+            assertTrue(fired.isEmpty());
+
+            advanceBy(50);
+            assertEquals(List.of("a@150"), fired);
+        }
+
+        @Test
+        @DisplayName("should fire past-due deadlines on the next tick")
+        void shouldFirePastDueDeadlines() {
+            wheel.schedule(START - 10_000, record("late"));
+
+            advanceBy(50);
+
+            assertEquals(List.of("late@50"), fired);
+        }
+
+        @Test
+        @DisplayName("should fire deadlines in order across levels")
+        void shouldFireInOrderAcrossLevels() {
+            // Level 0 (< 3.2s), level 1 (< 204.8s), level 2 (< 3.6h)
+            wheel.scheduleAfter(600_000, record("c"));
+            wheel.scheduleAfter(10_000, record("b"));
+            wheel.scheduleAfter(1_000, record("a"));
+
+            advanceBy(700_000);
+
+            assertEquals(List.of("a@1000", "b@10000", "c@600000"), fired);
+        }
+
+        @Test
+        @DisplayName("should never fire early or more than a tick late")
+        void shouldStayWithinOneTick() {
+            Random random = new Random(7);
+            List<long[]> results = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                long deadline = START + random.nextInt(900_000);
+                long[] result = {deadline, -1};
+                wheel.schedule(deadline, () -> result[1] = now);
+                results.add(result);
+            }
+
+            advanceBy(1_000_000);
+
+            for (long[] result : results) {
+                assertTrue(result[1] >= result[0], "fired early");
+                assertTrue(result[1] - result[0] < TICK + TICK, "fired late by " + (result[1] - result[0]));
+            }
+            assertEquals(0, wheel.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("should catch up after a clock jump")
+        void shouldCatchUpAfterClockJump() {
+            wheel.scheduleAfter(1_000, record("a"));
+            wheel.scheduleAfter(300_000, record("b"));
+            wheel.advance();
+
+            now += 400_000;
+            assertEquals(2, wheel.advance());
+        }
+
+        @Test
+        @DisplayName("should hold deadlines beyond the top level")
+        void shouldHoldFarDeadlines() {
+            long far = 30L * 24 * 3600 * 1000; // 30 days, past the ~9.7 day top level
+            wheel.scheduleAfter(far, record("far"));
+            wheel.advance();
+
+            now += far - 1000;
+            wheel.advance();
+            assertTrue(fired.isEmpty());
+
+            now += 1000;
+            wheel.advance();
+            assertEquals(1, fired.size());
+        }
+
+        @Test
+        @DisplayName("should place timeouts scheduled from a callback")
+        void shouldPlaceTimeoutsFromCallback() {
+            wheel.scheduleAfter(100, () -> wheel.scheduleAfter(100, record("second")));
+
+            advanceBy(300);
+
+            assertEquals(List.of("second@200"), fired);
+        }
+
+        @Test
+        @DisplayName("should keep firing when a callback throws")
+        void shouldSurviveFailingCallback() {
+            wheel.scheduleAfter(100, () -> {
+                throw new IllegalStateException("boom");
+            });
+            wheel.scheduleAfter(100, record("ok"));
+
+            advanceBy(100);
+
+            assertEquals(List.of("ok@100"), fired);
+        }
+    }
+
+    @Nested
+    @DisplayName("Cancellation")
+    class Cancellation {
+
+        @Test
+        @DisplayName("should not run cancelled timeout")
+        void shouldNotRunCancelledTimeout() {
+            TimingWheel.Timeout timeout = wheel.scheduleAfter(100, record("a"));
+            wheel.advance();
+            timeout.cancel();
+
+            advanceBy(200);
+
+            assertTrue(fired.isEmpty());
+            assertEquals(0, wheel.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("should drop cancelled timeout before it is placed")
+        void shouldDropCancelledBeforePlaced() {
+            wheel.scheduleAfter(100, record("a")).cancel();
+
+            advanceBy(200);
+
+            assertTrue(fired.isEmpty());
+        }
+
+        @Test
+        @DisplayName("should drop everything on clear")
+        void shouldDropEverythingOnClear() {
+            TimingWheel.Timeout placed = wheel.scheduleAfter(10_000, record("a"));
+            wheel.advance();
+            TimingWheel.Timeout queued = wheel.scheduleAfter(100, record("b"));
+
+            wheel.clear();
+            advanceBy(20_000);
+
+            assertTrue(fired.isEmpty());
+            assertTrue(placed.isCancelled());
+            assertTrue(queued.isCancelled());
+            assertEquals(0, wheel.getPendingCount());
+        }
+    }
+}